@@ -0,0 +1,167 @@
+package com.linkedin.common.urn;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Creates URNs of a specific class from their string representations.
+ *
+ * <p>The static {@code createFromString(String)} method of the class is resolved once into a {@link MethodHandle}, so
+ * that no reflective lookup or access check is made per URN. Factories are obtained from {@link Urns#getFactory(Class)}
+ * and are thread-safe.
+ *
+ * <p>A factory can have a bounded cache of parsed URNs in front of it, see {@link #withCache(int)}, which pays off for
+ * workloads where the same URNs are parsed over and over again. URNs are immutable, so the cached instances are shared.
+ *
+ * @param <URN> the type of the URNs
+ */
+public final class UrnFactory<URN extends Urn> {
+
+  private static final MethodType CREATE_FROM_STRING_TYPE = MethodType.methodType(Urn.class, String.class);
+
+  private final Class<URN> _urnClass;
+  private final MethodHandle _createFromString;
+  private final ParseCache<URN> _cache;
+
+  private UrnFactory(@Nonnull Class<URN> urnClass, @Nonnull MethodHandle createFromString,
+      @Nullable ParseCache<URN> cache) {
+    _urnClass = urnClass;
+    _createFromString = createFromString;
+    _cache = cache;
+  }
+
+  /**
+   * Resolves the factory of a URN class.
+   *
+   * @throws IllegalArgumentException if the class has no public static {@code createFromString(String)} method that
+   *     returns a {@link Urn}
+   */
+  @Nonnull
+  static <URN extends Urn> UrnFactory<URN> resolve(@Nonnull Class<URN> urnClass) {
+    final Method method;
+    try {
+      method = urnClass.getMethod("createFromString", String.class);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException("No createFromString(String) method in " + urnClass.getName(), e);
+    }
+    if (!Modifier.isStatic(method.getModifiers()) || !Urn.class.isAssignableFrom(method.getReturnType())) {
+      throw new IllegalArgumentException("createFromString(String) of " + urnClass.getName()
+          + " must be static and return a Urn");
+    }
+
+    try {
+      return new UrnFactory<>(urnClass, MethodHandles.publicLookup().unreflect(method).asType(CREATE_FROM_STRING_TYPE),
+          null);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Inaccessible createFromString(String) method in " + urnClass.getName(), e);
+    }
+  }
+
+  /**
+   * Gets the class of the URNs created by this factory.
+   */
+  @Nonnull
+  public Class<URN> getUrnClass() {
+    return _urnClass;
+  }
+
+  /**
+   * Returns a factory of the same class that caches up to the given number of parsed URNs, evicting them in LRU order.
+   *
+   * <p>The cache isn't shared with this factory or with other factories returned by this method.
+   *
+   * @param maxEntries max number of cached URNs, must be positive
+   */
+  @Nonnull
+  public UrnFactory<URN> withCache(int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+    }
+    return new UrnFactory<>(_urnClass, _createFromString, new ParseCache<>(maxEntries));
+  }
+
+  /**
+   * Creates a URN from its string representation.
+   *
+   * @param rawUrn the string representation of the URN
+   * @throws URISyntaxException if the string is not a valid URN of the class
+   */
+  @Nonnull
+  public URN createFromString(@Nonnull String rawUrn) throws URISyntaxException {
+    final ParseCache<URN> cache = _cache;
+    if (cache == null) {
+      return parse(rawUrn);
+    }
+
+    URN urn = cache.lookup(rawUrn);
+    if (urn == null) {
+      urn = parse(rawUrn);
+      cache.store(rawUrn, urn);
+    }
+    return urn;
+  }
+
+  /**
+   * Similar to {@link #createFromString(String)} but throws an {@link IllegalArgumentException} instead of the checked
+   * {@link URISyntaxException}.
+   */
+  @Nonnull
+  public URN create(@Nonnull String rawUrn) {
+    try {
+      return createFromString(rawUrn);
+    } catch (URISyntaxException e) {
+      throw new IllegalArgumentException("Failed to create " + _urnClass.getSimpleName() + " from " + rawUrn, e);
+    }
+  }
+
+  @Nonnull
+  private URN parse(@Nonnull String rawUrn) throws URISyntaxException {
+    final Urn urn;
+    try {
+      urn = (Urn) _createFromString.invokeExact(rawUrn);
+    } catch (URISyntaxException | RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException("Unexpected failure of createFromString(String) in " + _urnClass.getName(), t);
+    }
+    return _urnClass.cast(urn);
+  }
+
+  /**
+   * An access-ordered map, i.e. the least recently used entry is evicted first once the max size is exceeded.
+   */
+  private static final class ParseCache<URN extends Urn> extends LinkedHashMap<String, URN> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int _maxEntries;
+
+    ParseCache(int maxEntries) {
+      super(16, 0.75f, true);
+      _maxEntries = maxEntries;
+    }
+
+    @Nullable
+    synchronized URN lookup(@Nonnull String rawUrn) {
+      return get(rawUrn);
+    }
+
+    synchronized void store(@Nonnull String rawUrn, @Nonnull URN urn) {
+      put(rawUrn, urn);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, URN> eldest) {
+      return size() > _maxEntries;
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.linkedin.common.urn;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * A memory-compact {@link java.util.Set} of URNs, for working sets of millions of URNs such as the results of scans,
+ * backfills and graph traversals.
+ *
+ * <p>URNs aren't kept as objects. The namespace and entity type of each URN are interned into a small dictionary, and
+ * its entity key is packed as UTF-8 bytes into a shared byte array, which takes a small fraction of the heap of a
+ * {@link java.util.HashSet} of {@link Urn}s. URNs are created again with the {@link UrnFactory} of the URN class when
+ * they are iterated, so the iterated instances aren't the added ones but are equal to them.
+ *
+ * <p>URNs are iterated in insertion order like in a {@link java.util.LinkedHashSet}, i.e. a URN that is removed and added
+ * again moves to the end. Like {@link java.util.HashSet}, this set isn't thread-safe and its iterators are fail-fast.
+ *
+ * @param <URN> the type of the URNs
+ */
+public class UrnSet<URN extends Urn> extends AbstractSet<URN> {
+
+  private final UrnTable<URN> _table;
+
+  /**
+   * Constructs an empty set of URNs of the given class.
+   */
+  public UrnSet(@Nonnull Class<URN> urnClass) {
+    _table = new UrnTable<>(urnClass, false);
+  }
+
+  /**
+   * Constructs a set of URNs of the given class containing the given URNs.
+   */
+  public UrnSet(@Nonnull Class<URN> urnClass, @Nonnull Collection<? extends URN> urns) {
+    this(urnClass);
+    addAll(urns);
+  }
+
+  @Override
+  public int size() {
+    return _table.size();
+  }
+
+  @Override
+  public boolean contains(@Nullable Object obj) {
+    return _table.indexOf(obj) >= 0;
+  }
+
+  @Override
+  public boolean add(@Nonnull URN urn) {
+    return _table.add(urn) >= 0;
+  }
+
+  @Override
+  public boolean remove(@Nullable Object obj) {
+    final int index = _table.indexOf(obj);
+    if (index < 0) {
+      return false;
+    }
+    _table.remove(index);
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    _table.clear();
+  }
+
+  @Override
+  @Nonnull
+  public Iterator<URN> iterator() {
+    return new TableIterator<>(_table);
+  }
+
+  /**
+   * Iterates the entries of a {@link UrnTable} in insertion order.
+   */
+  static class TableIterator<URN extends Urn> implements Iterator<URN> {
+
+    private final UrnTable<URN> _table;
+    private int _expectedModCount;
+    private int _next;
+    private int _last = -1;
+
+    TableIterator(@Nonnull UrnTable<URN> table) {
+      _table = table;
+      _expectedModCount = table.modCount();
+      _next = table.nextIndex(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return _next >= 0;
+    }
+
+    @Override
+    public URN next() {
+      return _table.get(nextIndex());
+    }
+
+    /**
+     * Moves to the next entry and returns its index.
+     */
+    int nextIndex() {
+      if (_next < 0) {
+        throw new NoSuchElementException();
+      }
+      checkForComodification();
+      _last = _next;
+      _next = _table.nextIndex(_next + 1);
+      return _last;
+    }
+
+    @Override
+    public void remove() {
+      if (_last < 0) {
+        throw new IllegalStateException();
+      }
+      checkForComodification();
+      _table.remove(_last);
+      _last = -1;
+      _expectedModCount = _table.modCount();
+    }
+
+    private void checkForComodification() {
+      if (_table.modCount() != _expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+    }
+  }
+}
@@ -0,0 +1,317 @@
+package com.linkedin.common.urn;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Dictionary-encoded storage of URNs that backs {@link UrnSet} and {@link UrnToIntMap}.
+ *
+ * <p>Each entry is stored as the id of its namespace and entity type, which are interned into a small dictionary, and
+ * the UTF-8 bytes of its entity key, which are packed into one shared byte array. Entries are indexed by an open
+ * addressing hash table of ints, and are turned back into URNs on the way out. The entity key of an entry is the part
+ * of {@link Urn#toString()} that follows the entity type, so URNs must be equal iff their strings are, which holds for
+ * all URNs that are parsed from or written as strings.
+ *
+ * <p>Removed entries are flagged and keep their slots, so that probe sequences stay intact, until the table is
+ * compacted. Entry indexes are stable until then. A URN that is added again after being removed gets a new entry, so
+ * entries are iterated in insertion order like in a {@link java.util.LinkedHashSet}, whether or not the table was
+ * compacted in between.
+ *
+ * <p>Not thread-safe.
+ */
+final class UrnTable<URN extends Urn> {
+
+  private static final String URN_START = "urn:";
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final UrnFactory<URN> _factory;
+
+  // Dictionary of namespace -> entity type -> prefix id, and the "urn:<namespace>:<entityType>" string of each id
+  private final Map<String, Map<String, Integer>> _prefixIds = new HashMap<>();
+  private final List<String> _prefixes = new ArrayList<>();
+
+  // The key of entry i is stored in _keyBytes[_keyOffsets[i], _keyOffsets[i + 1])
+  private byte[] _keyBytes = new byte[INITIAL_CAPACITY * 16];
+  private int[] _keyOffsets = new int[INITIAL_CAPACITY + 1];
+  private int[] _entryPrefixIds = new int[INITIAL_CAPACITY];
+  private int[] _entryHashes = new int[INITIAL_CAPACITY];
+  @Nullable
+  private int[] _values;
+  private final BitSet _removed = new BitSet();
+
+  // Entry index + 1 of each slot, 0 means the slot is empty
+  private int[] _slots = new int[INITIAL_CAPACITY * 2];
+
+  private int _entryCount = 0;
+  private int _removedCount = 0;
+  private int _modCount = 0;
+
+  // Reused to encode the keys of looked up URNs
+  private byte[] _scratch = new byte[64];
+
+  UrnTable(@Nonnull Class<URN> urnClass, boolean withValues) {
+    _factory = Urns.getFactory(urnClass);
+    _values = withValues ? new int[INITIAL_CAPACITY] : null;
+  }
+
+  int size() {
+    return _entryCount - _removedCount;
+  }
+
+  int modCount() {
+    return _modCount;
+  }
+
+  /**
+   * Returns the index of the given entry, or of the next one that isn't removed, or -1 if there is none.
+   */
+  int nextIndex(int index) {
+    final int next = _removed.nextClearBit(index);
+    return next < _entryCount ? next : -1;
+  }
+
+  /**
+   * Returns the index of the entry of a URN, or -1 if the URN isn't in the table.
+   */
+  int indexOf(@Nullable Object obj) {
+    if (!(obj instanceof Urn)) {
+      return -1;
+    }
+    final Urn urn = (Urn) obj;
+    final int prefixId = prefixIdOf(urn.getNamespace(), urn.getEntityType());
+    if (prefixId < 0) {
+      return -1;
+    }
+
+    final int keyLength = encodeKey(urn);
+    final int slot = find(prefixId, keyLength, hash(prefixId, keyLength));
+    return slot < 0 ? -1 : _slots[slot] - 1;
+  }
+
+  /**
+   * Adds the entry of a URN if it isn't in the table yet.
+   *
+   * @return the index of the new entry, or -(index + 1) of the existing one
+   */
+  int add(@Nonnull Urn urn) {
+    final int prefixId = internPrefix(urn.getNamespace(), urn.getEntityType());
+    final int keyLength = encodeKey(urn);
+    final int hash = hash(prefixId, keyLength);
+
+    int slot = find(prefixId, keyLength, hash);
+    if (slot >= 0) {
+      // The slot holds the index + 1 of the entry
+      return -_slots[slot];
+    }
+
+    if ((_entryCount + 1) * 2 > _slots.length) {
+      // Either drops the removed entries or doubles the table, which both invalidate the slot
+      resize(_removedCount * 2 >= _entryCount ? _slots.length : _slots.length * 2);
+      slot = find(prefixId, keyLength, hash);
+    }
+
+    final int index = _entryCount++;
+    ensureEntryCapacity(index + 1);
+    ensureKeyCapacity(_keyOffsets[index] + keyLength);
+    System.arraycopy(_scratch, 0, _keyBytes, _keyOffsets[index], keyLength);
+    _keyOffsets[index + 1] = _keyOffsets[index] + keyLength;
+    _entryPrefixIds[index] = prefixId;
+    _entryHashes[index] = hash;
+    if (_values != null) {
+      // The value of a dropped entry may be left there by compaction or clear()
+      _values[index] = 0;
+    }
+    _slots[-(slot + 1)] = index + 1;
+    _modCount++;
+    return index;
+  }
+
+  void remove(int index) {
+    _removed.set(index);
+    _removedCount++;
+    _modCount++;
+  }
+
+  void clear() {
+    Arrays.fill(_slots, 0);
+    _removed.clear();
+    _entryCount = 0;
+    _removedCount = 0;
+    _modCount++;
+  }
+
+  @Nonnull
+  URN get(int index) {
+    final int prefixId = _entryPrefixIds[index];
+    final int keyStart = _keyOffsets[index];
+    final int keyLength = _keyOffsets[index + 1] - keyStart;
+    final String prefix = _prefixes.get(prefixId);
+    if (keyLength == 0) {
+      return _factory.create(prefix);
+    }
+    return _factory.create(prefix + ':' + new String(_keyBytes, keyStart, keyLength, StandardCharsets.UTF_8));
+  }
+
+  int getValue(int index) {
+    return _values[index];
+  }
+
+  void setValue(int index, int value) {
+    _values[index] = value;
+  }
+
+  private int prefixIdOf(@Nonnull String namespace, @Nonnull String entityType) {
+    final Map<String, Integer> entityTypes = _prefixIds.get(namespace);
+    final Integer prefixId = entityTypes == null ? null : entityTypes.get(entityType);
+    return prefixId == null ? -1 : prefixId;
+  }
+
+  private int internPrefix(@Nonnull String namespace, @Nonnull String entityType) {
+    final Map<String, Integer> entityTypes = _prefixIds.computeIfAbsent(namespace, ignored -> new HashMap<>());
+    return entityTypes.computeIfAbsent(entityType, ignored -> {
+      _prefixes.add(URN_START + namespace + ':' + entityType);
+      return _prefixes.size() - 1;
+    });
+  }
+
+  /**
+   * Encodes the entity key of a URN into the scratch buffer, and returns its length in bytes.
+   */
+  private int encodeKey(@Nonnull Urn urn) {
+    final String string = urn.toString();
+    final int keyStart = URN_START.length() + urn.getNamespace().length() + urn.getEntityType().length() + 2;
+    if (keyStart >= string.length()) {
+      return 0;
+    }
+
+    final int length = string.length() - keyStart;
+    if (_scratch.length < length) {
+      _scratch = new byte[Math.max(length, _scratch.length * 2)];
+    }
+    // URN keys are ASCII in the common case, which is encoded without creating a substring
+    for (int i = 0; i < length; i++) {
+      final char c = string.charAt(keyStart + i);
+      if (c >= 0x80) {
+        return encodeNonAscii(string.substring(keyStart));
+      }
+      _scratch[i] = (byte) c;
+    }
+    return length;
+  }
+
+  private int encodeNonAscii(@Nonnull String key) {
+    final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+    if (_scratch.length < bytes.length) {
+      _scratch = new byte[Math.max(bytes.length, _scratch.length * 2)];
+    }
+    System.arraycopy(bytes, 0, _scratch, 0, bytes.length);
+    return bytes.length;
+  }
+
+  private int hash(int prefixId, int keyLength) {
+    int hash = prefixId;
+    for (int i = 0; i < keyLength; i++) {
+      hash = 31 * hash + _scratch[i];
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Finds the slot of the entry whose key is in the scratch buffer, skipping the removed entries of the same key.
+   *
+   * @return the slot of the entry, or -(slot + 1) of the empty slot where it belongs
+   */
+  private int find(int prefixId, int keyLength, int hash) {
+    final int mask = _slots.length - 1;
+    int slot = hash & mask;
+    int entry;
+    while ((entry = _slots[slot]) != 0) {
+      final int index = entry - 1;
+      if (_entryHashes[index] == hash && _entryPrefixIds[index] == prefixId && keyEquals(index, keyLength)
+          && !_removed.get(index)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -(slot + 1);
+  }
+
+  private boolean keyEquals(int index, int keyLength) {
+    final int keyStart = _keyOffsets[index];
+    if (_keyOffsets[index + 1] - keyStart != keyLength) {
+      return false;
+    }
+    for (int i = 0; i < keyLength; i++) {
+      if (_keyBytes[keyStart + i] != _scratch[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Drops the removed entries, moving the others down in insertion order, and rebuilds the slots.
+   */
+  private void resize(int slotCount) {
+    int live = 0;
+    int keyEnd = 0;
+    for (int index = 0; index < _entryCount; index++) {
+      if (_removed.get(index)) {
+        continue;
+      }
+      final int keyStart = _keyOffsets[index];
+      final int keyLength = _keyOffsets[index + 1] - keyStart;
+      System.arraycopy(_keyBytes, keyStart, _keyBytes, keyEnd, keyLength);
+      _keyOffsets[live] = keyEnd;
+      keyEnd += keyLength;
+      _keyOffsets[live + 1] = keyEnd;
+      _entryPrefixIds[live] = _entryPrefixIds[index];
+      _entryHashes[live] = _entryHashes[index];
+      if (_values != null) {
+        _values[live] = _values[index];
+      }
+      live++;
+    }
+    _entryCount = live;
+    _removedCount = 0;
+    _removed.clear();
+
+    _slots = new int[slotCount];
+    final int mask = slotCount - 1;
+    for (int index = 0; index < _entryCount; index++) {
+      int slot = _entryHashes[index] & mask;
+      while (_slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      _slots[slot] = index + 1;
+    }
+    _modCount++;
+  }
+
+  private void ensureEntryCapacity(int entryCount) {
+    if (entryCount <= _entryHashes.length) {
+      return;
+    }
+    final int capacity = Math.max(entryCount, _entryHashes.length * 2);
+    _keyOffsets = Arrays.copyOf(_keyOffsets, capacity + 1);
+    _entryPrefixIds = Arrays.copyOf(_entryPrefixIds, capacity);
+    _entryHashes = Arrays.copyOf(_entryHashes, capacity);
+    if (_values != null) {
+      _values = Arrays.copyOf(_values, capacity);
+    }
+  }
+
+  private void ensureKeyCapacity(int byteCount) {
+    if (byteCount > _keyBytes.length) {
+      _keyBytes = Arrays.copyOf(_keyBytes, Math.max(byteCount, _keyBytes.length * 2));
+    }
+  }
+}
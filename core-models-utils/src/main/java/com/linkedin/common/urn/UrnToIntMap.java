@@ -0,0 +1,155 @@
+package com.linkedin.common.urn;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * A memory-compact {@link Map} of URNs to ints, for working sets of millions of URNs such as counters or ids of the
+ * results of scans, backfills and graph traversals.
+ *
+ * <p>URNs are stored like in {@link UrnSet}, and values are stored as primitive ints. The int methods, e.g.
+ * {@link #getInt(Object, int)} and {@link #putInt(Urn, int)}, don't box values. Null values aren't supported.
+ *
+ * <p>Entries are iterated in insertion order like in a {@link java.util.LinkedHashMap}, i.e. a URN that is removed and
+ * added again moves to the end with a value that starts from 0. Like {@link java.util.HashMap}, this map isn't
+ * thread-safe and its iterators are fail-fast. The entries of {@link #entrySet()} are snapshots that don't support
+ * {@link Map.Entry#setValue(Object)}.
+ *
+ * @param <URN> the type of the URNs
+ */
+public class UrnToIntMap<URN extends Urn> extends AbstractMap<URN, Integer> {
+
+  private final UrnTable<URN> _table;
+
+  /**
+   * Constructs an empty map of URNs of the given class.
+   */
+  public UrnToIntMap(@Nonnull Class<URN> urnClass) {
+    _table = new UrnTable<>(urnClass, true);
+  }
+
+  @Override
+  public int size() {
+    return _table.size();
+  }
+
+  @Override
+  public boolean containsKey(@Nullable Object key) {
+    return _table.indexOf(key) >= 0;
+  }
+
+  /**
+   * Gets the value of a URN, or the default value if the URN isn't in the map.
+   */
+  public int getInt(@Nullable Object key, int defaultValue) {
+    final int index = _table.indexOf(key);
+    return index < 0 ? defaultValue : _table.getValue(index);
+  }
+
+  /**
+   * Sets the value of a URN.
+   */
+  public void putInt(@Nonnull URN key, int value) {
+    _table.setValue(indexOfAdded(key), value);
+  }
+
+  /**
+   * Adds a delta to the value of a URN, which starts from 0 if the URN isn't in the map.
+   *
+   * @return the new value
+   */
+  public int addTo(@Nonnull URN key, int delta) {
+    final int index = indexOfAdded(key);
+    final int value = _table.getValue(index) + delta;
+    _table.setValue(index, value);
+    return value;
+  }
+
+  @Override
+  @Nullable
+  public Integer get(@Nullable Object key) {
+    final int index = _table.indexOf(key);
+    return index < 0 ? null : _table.getValue(index);
+  }
+
+  @Override
+  @Nullable
+  public Integer put(@Nonnull URN key, @Nonnull Integer value) {
+    final int added = _table.add(key);
+    if (added >= 0) {
+      _table.setValue(added, value);
+      return null;
+    }
+    final int index = -(added + 1);
+    final int previous = _table.getValue(index);
+    _table.setValue(index, value);
+    return previous;
+  }
+
+  @Override
+  @Nullable
+  public Integer remove(@Nullable Object key) {
+    final int index = _table.indexOf(key);
+    if (index < 0) {
+      return null;
+    }
+    final int previous = _table.getValue(index);
+    _table.remove(index);
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    _table.clear();
+  }
+
+  @Override
+  @Nonnull
+  public Set<Map.Entry<URN, Integer>> entrySet() {
+    return new AbstractSet<Map.Entry<URN, Integer>>() {
+      @Override
+      public int size() {
+        return _table.size();
+      }
+
+      @Override
+      public void clear() {
+        _table.clear();
+      }
+
+      @Override
+      @Nonnull
+      public Iterator<Map.Entry<URN, Integer>> iterator() {
+        final UrnSet.TableIterator<URN> iterator = new UrnSet.TableIterator<>(_table);
+        return new Iterator<Map.Entry<URN, Integer>>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public Map.Entry<URN, Integer> next() {
+            final int index = iterator.nextIndex();
+            return new AbstractMap.SimpleImmutableEntry<>(_table.get(index), _table.getValue(index));
+          }
+
+          @Override
+          public void remove() {
+            iterator.remove();
+          }
+        };
+      }
+    };
+  }
+
+  private int indexOfAdded(@Nonnull URN key) {
+    final int added = _table.add(key);
+    return added >= 0 ? added : -(added + 1);
+  }
+}
@@ -8,9 +8,31 @@ import javax.annotation.Nonnull;
  * Static utilities for {@link Urn}.
  */
 public final class Urns {
+
+  // Factories are resolved once per URN class, and dropped along with the class
+  private static final ClassValue<UrnFactory<?>> FACTORIES = new ClassValue<UrnFactory<?>>() {
+    @Override
+    protected UrnFactory<?> computeValue(Class<?> type) {
+      return UrnFactory.resolve(type.asSubclass(Urn.class));
+    }
+  };
+
   private Urns() {
   }
 
+  /**
+   * Gets the {@link UrnFactory} of a URN class, which creates URNs through the static {@code createFromString(String)}
+   * method of the class without reflection on each call.
+   *
+   * @param urnClass the class of the URNs
+   * @throws IllegalArgumentException if the class has no public static {@code createFromString(String)} method
+   */
+  @Nonnull
+  @SuppressWarnings("unchecked")
+  public static <URN extends Urn> UrnFactory<URN> getFactory(@Nonnull Class<URN> urnClass) {
+    return (UrnFactory<URN>) FACTORIES.get(urnClass);
+  }
+
   /**
    * Create a Urn from an entity type and an encoded String key. The key is converted to a Tuple by parsing using {@link
    * TupleKey#fromString(String)}.
@@ -0,0 +1,75 @@
+package com.linkedin.common.urn;
+
+import java.net.URISyntaxException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class TupleKeyTest {
+
+  @DataProvider
+  public Object[][] encodedKeys() {
+    return new Object[][]{
+        {"1", true},
+        {"a,b", true},
+        {"urn:li:bar:1", true},
+        {"a(b,c)", true},
+        {"café", true},
+        {"(a,b)", true},
+        {"(a,(b,c))", true},
+        {"(a)(b,c)", true},
+        {"(a,b)(c)", true},
+        {"(urn:li:bar:(a,b),c)", true},
+        {"(a)", false},
+        {"(urn:li:bar:1)", false},
+        {"((a,b))", false},
+        {"(a),(b)", false},
+        {"(a,b)c", false},
+    };
+  }
+
+  @Test(dataProvider = "encodedKeys")
+  public void testHashKeyParts(String encoded, boolean canonical) throws URISyntaxException {
+    TupleKey tupleKey = TupleKey.fromString(encoded);
+
+    assertEquals(TupleKey.hashKeyParts(encoded, 0), tupleKey.hashCode(), encoded);
+    assertEquals(TupleKey.hashKeyParts("urn:li:foo:" + encoded, 11), tupleKey.hashCode(), encoded);
+  }
+
+  @Test(dataProvider = "encodedKeys")
+  public void testIsCanonical(String encoded, boolean canonical) throws URISyntaxException {
+    assertEquals(TupleKey.isCanonical(encoded, 0), canonical, encoded);
+    assertEquals(TupleKey.isCanonical("urn:li:foo:" + encoded, 11), canonical, encoded);
+
+    // A canonical encoding is the one toString() writes
+    assertEquals(TupleKey.fromString(encoded).toString().equals(encoded), canonical, encoded);
+  }
+
+  @Test
+  public void testEmptyKey() throws URISyntaxException {
+    assertEquals(TupleKey.hashKeyParts("urn:li:foo", 10), new TupleKey().hashCode());
+    assertEquals(TupleKey.fromString("urn:li:foo", 10).size(), 0);
+    assertFalse(TupleKey.isCanonical("urn:li:foo", 10));
+  }
+
+  @Test
+  public void testInvalidKeys() {
+    // Rejected by hashKeyParts() like by fromString()
+    for (String encoded : new String[]{"(a,b", "(a,b))", "a)(b", "(,a)", "(a,)", "()", "(a,,b)"}) {
+      try {
+        TupleKey.fromString(encoded);
+        fail("Expected " + encoded + " to be invalid");
+      } catch (URISyntaxException e) {
+        // Expected
+      }
+      try {
+        TupleKey.hashKeyParts(encoded, 0);
+        fail("Expected " + encoded + " to be invalid");
+      } catch (URISyntaxException e) {
+        // Expected
+      }
+    }
+  }
+}
@@ -0,0 +1,263 @@
+package com.linkedin.common.urn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class UrnSetTest {
+
+  @Test
+  public void testAddContainsRemove() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class);
+
+    assertTrue(set.add(urn("urn:li:foo:1")));
+    assertTrue(set.add(urn("urn:li:bar:1")));
+    assertFalse(set.add(urn("urn:li:foo:1")));
+
+    assertEquals(set.size(), 2);
+    assertTrue(set.contains(urn("urn:li:foo:1")));
+    assertTrue(set.contains(urn("urn:li:bar:1")));
+    assertFalse(set.contains(urn("urn:li:foo:2")));
+    assertFalse(set.contains(urn("urn:li:baz:1")));
+    assertFalse(set.contains(urn("urn:other:foo:1")));
+    assertFalse(set.contains("urn:li:foo:1"));
+    assertFalse(set.contains(null));
+
+    assertTrue(set.remove(urn("urn:li:foo:1")));
+    assertFalse(set.remove(urn("urn:li:foo:1")));
+    assertFalse(set.contains(urn("urn:li:foo:1")));
+    assertEquals(set.size(), 1);
+  }
+
+  @Test
+  public void testTupleKeys() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class);
+
+    set.add(urn("urn:li:foo:(a,b)"));
+    set.add(urn("urn:li:foo:(a,(b,c))"));
+
+    assertTrue(set.contains(Urn.createFromTuple("foo", "a", "b")));
+    assertTrue(set.contains(urn("urn:li:foo:(a,(b,c))")));
+    assertFalse(set.contains(urn("urn:li:foo:(a,c)")));
+    assertEquals(new ArrayList<>(set), Arrays.asList(urn("urn:li:foo:(a,b)"), urn("urn:li:foo:(a,(b,c))")));
+  }
+
+  @Test
+  public void testKeylessUrns() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class);
+
+    assertTrue(set.add(urn("urn:li:foo")));
+    assertTrue(set.add(urn("urn:li:foo:1")));
+    assertFalse(set.add(urn("urn:li:foo")));
+
+    assertTrue(set.contains(urn("urn:li:foo")));
+    assertTrue(set.contains(new Urn("foo", new TupleKey())));
+    assertFalse(set.contains(urn("urn:li:bar")));
+    assertEquals(new ArrayList<>(set), Arrays.asList(urn("urn:li:foo"), urn("urn:li:foo:1")));
+  }
+
+  @Test
+  public void testNonAsciiKeys() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class);
+
+    set.add(urn("urn:li:foo:café"));
+    set.add(urn("urn:li:foo:東京"));
+    set.add(urn("urn:li:foo:(😀,a)"));
+    set.add(urn("urn:li:foo:cafe"));
+
+    assertEquals(set.size(), 4);
+    assertTrue(set.contains(urn("urn:li:foo:café")));
+    assertTrue(set.contains(urn("urn:li:foo:東京")));
+    assertTrue(set.contains(urn("urn:li:foo:(😀,a)")));
+    assertFalse(set.contains(urn("urn:li:foo:cafè")));
+    assertEquals(new ArrayList<>(set), Arrays.asList(urn("urn:li:foo:café"), urn("urn:li:foo:東京"),
+        urn("urn:li:foo:(😀,a)"), urn("urn:li:foo:cafe")));
+  }
+
+  @Test
+  public void testIterationOrderAfterRemoveAndAddAgain() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class);
+    set.add(urn("urn:li:foo:1"));
+    set.add(urn("urn:li:foo:2"));
+    set.add(urn("urn:li:foo:3"));
+
+    set.remove(urn("urn:li:foo:1"));
+    set.add(urn("urn:li:foo:1"));
+
+    // Like LinkedHashSet, the URN that is added again moves to the end
+    assertEquals(new ArrayList<>(set), Arrays.asList(urn("urn:li:foo:2"), urn("urn:li:foo:3"), urn("urn:li:foo:1")));
+
+    // Also when the table is compacted in between
+    for (int i = 4; i < 100; i++) {
+      set.add(urn("urn:li:foo:" + i));
+    }
+    for (int i = 4; i < 100; i++) {
+      set.remove(urn("urn:li:foo:" + i));
+    }
+    set.remove(urn("urn:li:foo:2"));
+    set.add(urn("urn:li:foo:2"));
+    assertEquals(new ArrayList<>(set), Arrays.asList(urn("urn:li:foo:3"), urn("urn:li:foo:1"), urn("urn:li:foo:2")));
+  }
+
+  @Test
+  public void testRemoveAndAddAgainRepeatedly() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class);
+    set.add(urn("urn:li:foo:1"));
+    set.add(urn("urn:li:foo:2"));
+
+    // Each re-add appends an entry, so the table is compacted along the way
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(set.remove(urn("urn:li:foo:1")));
+      assertTrue(set.add(urn("urn:li:foo:1")));
+      assertFalse(set.add(urn("urn:li:foo:1")));
+    }
+
+    assertEquals(set.size(), 2);
+    assertEquals(new ArrayList<>(set), Arrays.asList(urn("urn:li:foo:2"), urn("urn:li:foo:1")));
+  }
+
+  @Test
+  public void testCompactionDuringGrowth() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class);
+    Set<Urn> expected = new LinkedHashSet<>();
+
+    // Removes most of the URNs while adding, so that the table is compacted as well as grown
+    for (int i = 0; i < 10_000; i++) {
+      Urn urn = urn("urn:li:foo:" + i);
+      set.add(urn);
+      expected.add(urn);
+      if (i % 3 != 0) {
+        Urn removed = urn("urn:li:foo:" + (i - 1));
+        assertEquals(set.remove(removed), expected.remove(removed));
+      }
+    }
+
+    assertEquals(set.size(), expected.size());
+    assertEquals(new ArrayList<>(set), new ArrayList<>(expected));
+    for (int i = 0; i < 10_000; i++) {
+      Urn urn = urn("urn:li:foo:" + i);
+      assertEquals(set.contains(urn), expected.contains(urn), urn.toString());
+    }
+  }
+
+  @Test
+  public void testRandomOperationsMatchLinkedHashSet() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class);
+    Set<Urn> expected = new LinkedHashSet<>();
+    Random random = new Random(42);
+
+    for (int i = 0; i < 20_000; i++) {
+      Urn urn = urn("urn:li:" + (random.nextBoolean() ? "foo" : "bar") + ":" + random.nextInt(500));
+      if (random.nextInt(3) == 0) {
+        assertEquals(set.remove(urn), expected.remove(urn));
+      } else {
+        assertEquals(set.add(urn), expected.add(urn));
+      }
+      assertEquals(set.size(), expected.size());
+    }
+
+    assertEquals(new ArrayList<>(set), new ArrayList<>(expected));
+  }
+
+  @Test
+  public void testIteratorRemove() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class);
+    for (int i = 0; i < 10; i++) {
+      set.add(urn("urn:li:foo:" + i));
+    }
+
+    Iterator<Urn> iterator = set.iterator();
+    while (iterator.hasNext()) {
+      if (Integer.parseInt(iterator.next().getId()) % 2 == 0) {
+        iterator.remove();
+      }
+    }
+
+    assertEquals(new ArrayList<>(set), Arrays.asList(urn("urn:li:foo:1"), urn("urn:li:foo:3"), urn("urn:li:foo:5"),
+        urn("urn:li:foo:7"), urn("urn:li:foo:9")));
+    assertFalse(set.contains(urn("urn:li:foo:0")));
+
+    set.add(urn("urn:li:foo:0"));
+    assertEquals(set.size(), 6);
+    assertTrue(set.contains(urn("urn:li:foo:0")));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testIteratorRemoveTwice() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class, Arrays.asList(urn("urn:li:foo:1"), urn("urn:li:foo:2")));
+
+    Iterator<Urn> iterator = set.iterator();
+    iterator.next();
+    iterator.remove();
+    iterator.remove();
+  }
+
+  @Test(expectedExceptions = ConcurrentModificationException.class)
+  public void testIteratorFailsFast() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class, Arrays.asList(urn("urn:li:foo:1"), urn("urn:li:foo:2")));
+
+    Iterator<Urn> iterator = set.iterator();
+    iterator.next();
+    set.add(urn("urn:li:foo:3"));
+    iterator.next();
+  }
+
+  @Test
+  public void testClearAndAddAgain() {
+    UrnSet<Urn> set = new UrnSet<>(Urn.class);
+    for (int i = 0; i < 100; i++) {
+      set.add(urn("urn:li:foo:" + i));
+    }
+
+    set.clear();
+
+    assertTrue(set.isEmpty());
+    assertFalse(set.iterator().hasNext());
+    assertFalse(set.contains(urn("urn:li:foo:1")));
+
+    assertTrue(set.add(urn("urn:li:foo:2")));
+    assertTrue(set.add(urn("urn:li:foo:1")));
+    assertFalse(set.add(urn("urn:li:foo:2")));
+    assertEquals(new ArrayList<>(set), Arrays.asList(urn("urn:li:foo:2"), urn("urn:li:foo:1")));
+  }
+
+  @Test
+  public void testEqualsAndHashCode() {
+    List<Urn> urns = Arrays.asList(urn("urn:li:foo:1"), urn("urn:li:foo:(a,b)"), urn("urn:li:bar"),
+        urn("urn:li:foo:café"));
+    UrnSet<Urn> set = new UrnSet<>(Urn.class, urns);
+    Set<Urn> hashSet = new HashSet<>(urns);
+
+    assertTrue(set.equals(hashSet));
+    assertTrue(hashSet.equals(set));
+    assertEquals(set.hashCode(), hashSet.hashCode());
+
+    List<Urn> reversed = new ArrayList<>(urns);
+    Collections.reverse(reversed);
+    assertTrue(set.equals(new UrnSet<>(Urn.class, reversed)));
+
+    hashSet.remove(urn("urn:li:bar"));
+    assertFalse(set.equals(hashSet));
+    assertFalse(hashSet.equals(set));
+
+    set.remove(urn("urn:li:bar"));
+    assertTrue(set.equals(hashSet));
+    assertTrue(hashSet.equals(set));
+    assertEquals(set.hashCode(), hashSet.hashCode());
+  }
+
+  private static Urn urn(String rawUrn) {
+    return Urns.getFactory(Urn.class).create(rawUrn);
+  }
+}
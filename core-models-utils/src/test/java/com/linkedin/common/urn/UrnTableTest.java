@@ -0,0 +1,93 @@
+package com.linkedin.common.urn;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class UrnTableTest {
+
+  @Test
+  public void testAdd() {
+    UrnTable<Urn> table = new UrnTable<>(Urn.class, false);
+
+    assertEquals(table.add(urn("urn:li:foo:1")), 0);
+    assertEquals(table.add(urn("urn:li:foo:2")), 1);
+    assertEquals(table.add(urn("urn:li:foo:1")), -1);
+    assertEquals(table.add(urn("urn:li:foo:2")), -2);
+
+    assertEquals(table.size(), 2);
+    assertEquals(table.indexOf(urn("urn:li:foo:2")), 1);
+    assertEquals(table.indexOf(urn("urn:li:foo:3")), -1);
+    assertEquals(table.get(1), urn("urn:li:foo:2"));
+  }
+
+  @Test
+  public void testRemoveKeepsIndexes() {
+    UrnTable<Urn> table = new UrnTable<>(Urn.class, true);
+    for (int i = 0; i < 4; i++) {
+      table.setValue(table.add(urn("urn:li:foo:" + i)), i);
+    }
+
+    table.remove(table.indexOf(urn("urn:li:foo:1")));
+
+    assertEquals(table.size(), 3);
+    assertEquals(table.indexOf(urn("urn:li:foo:1")), -1);
+    assertEquals(table.indexOf(urn("urn:li:foo:2")), 2);
+    assertEquals(table.nextIndex(0), 0);
+    assertEquals(table.nextIndex(1), 2);
+    assertEquals(table.nextIndex(4), -1);
+
+    // A URN that is added again gets a new entry with a new value
+    assertEquals(table.add(urn("urn:li:foo:1")), 4);
+    assertEquals(table.getValue(4), 0);
+    assertEquals(table.indexOf(urn("urn:li:foo:1")), 4);
+    assertEquals(table.nextIndex(1), 2);
+  }
+
+  @Test
+  public void testCompactionDuringGrowth() {
+    UrnTable<Urn> table = new UrnTable<>(Urn.class, true);
+    for (int i = 0; i < 1000; i++) {
+      table.setValue(table.add(urn("urn:li:foo:" + i)), i);
+      if (i % 4 != 0) {
+        table.remove(table.indexOf(urn("urn:li:foo:" + i)));
+      }
+    }
+
+    // The table is compacted along the way, which moves the live entries down in insertion order
+    assertEquals(table.size(), 250);
+    int index = table.nextIndex(0);
+    for (int i = 0; i < 1000; i += 4) {
+      assertEquals(table.get(index), urn("urn:li:foo:" + i));
+      assertEquals(table.getValue(index), i);
+      assertEquals(table.indexOf(urn("urn:li:foo:" + i)), index);
+      index = table.nextIndex(index + 1);
+    }
+    assertEquals(index, -1);
+  }
+
+  @Test
+  public void testModCount() {
+    UrnTable<Urn> table = new UrnTable<>(Urn.class, false);
+
+    int modCount = table.modCount();
+    table.add(urn("urn:li:foo:1"));
+    assertNotEquals(table.modCount(), modCount);
+
+    modCount = table.modCount();
+    table.add(urn("urn:li:foo:1"));
+    assertEquals(table.modCount(), modCount);
+
+    table.remove(0);
+    assertNotEquals(table.modCount(), modCount);
+
+    modCount = table.modCount();
+    table.clear();
+    assertNotEquals(table.modCount(), modCount);
+  }
+
+  private static Urn urn(String rawUrn) {
+    return Urns.getFactory(Urn.class).create(rawUrn);
+  }
+}
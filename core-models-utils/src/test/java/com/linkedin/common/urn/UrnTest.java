@@ -0,0 +1,110 @@
+package com.linkedin.common.urn;
+
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class UrnTest {
+
+  @DataProvider
+  public Object[][] equalUrns() throws URISyntaxException {
+    return new Object[][]{
+        {"urn:li:foo:1", new Urn("foo", new TupleKey("1"))},
+        {"urn:li:foo:(a,b)", new Urn("foo", new TupleKey("a", "b"))},
+        {"urn:li:foo:(a,(b,c))", new Urn("foo", new TupleKey("a", "(b,c)"))},
+        {"urn:li:foo:(a)(b,c)", new Urn("foo", new TupleKey("a)(b", "c"))},
+        {"urn:li:foo:(a,b)(c)", new Urn("foo", new TupleKey("a", "b)(c"))},
+        {"urn:li:foo:a,b", new Urn("foo", new TupleKey("a,b"))},
+        {"urn:li:foo:urn:li:bar:1", new Urn("foo", new TupleKey("urn:li:bar:1"))},
+        {"urn:li:foo:(urn:li:bar:1)", new Urn("foo", new TupleKey("urn:li:bar:1"))},
+        {"urn:li:foo:(urn:li:bar:1)", new Urn("urn:li:foo:urn:li:bar:1")},
+        {"urn:li:foo:(urn:li:bar:(a,b),c)", new Urn("foo", new TupleKey("urn:li:bar:(a,b)", "c"))},
+        {"urn:li:foo:café", new Urn("foo", new TupleKey("café"))},
+        {"urn:li:foo", new Urn("foo", new TupleKey())},
+        {"urn:other:foo:(a,b)", new Urn("other", "foo", new TupleKey("a", "b"))},
+    };
+  }
+
+  @Test(dataProvider = "equalUrns")
+  public void testEqualsAndHashCode(String rawUrn, Urn expected) throws URISyntaxException {
+    Urn urn = new Urn(rawUrn);
+
+    assertTrue(urn.equals(expected), rawUrn);
+    assertTrue(expected.equals(urn), rawUrn);
+    assertEquals(urn.hashCode(), expected.hashCode(), rawUrn);
+
+    // Also once the entity key of the parsed urn is created
+    assertEquals(urn.getEntityKey(), expected.getEntityKey(), rawUrn);
+    assertTrue(urn.equals(expected), rawUrn);
+    assertEquals(urn.hashCode(), expected.hashCode(), rawUrn);
+
+    // And between urns parsed from the canonical string
+    Urn reparsed = new Urn(expected.toString());
+    assertTrue(urn.equals(reparsed), rawUrn);
+    assertTrue(reparsed.equals(urn), rawUrn);
+    assertEquals(urn.hashCode(), reparsed.hashCode(), rawUrn);
+  }
+
+  @Test
+  public void testNotEquals() throws URISyntaxException {
+    assertNotEquals(new Urn("urn:li:foo:(a,b)"), new Urn("urn:li:foo:(a,c)"));
+    assertNotEquals(new Urn("urn:li:foo:(a,b)"), new Urn("urn:li:bar:(a,b)"));
+    assertNotEquals(new Urn("urn:li:foo:(a,b)"), new Urn("urn:other:foo:(a,b)"));
+    assertNotEquals(new Urn("urn:li:foo:(a,b)"), new Urn("foo", new TupleKey("(a,b)")));
+    assertNotEquals(new Urn("urn:li:foo:(a,(b,c))"), new Urn("urn:li:foo:(a,b,c)"));
+    assertNotEquals(new Urn("urn:li:foo:a,b"), new Urn("urn:li:foo:(a,b)"));
+    assertNotEquals(new Urn("urn:li:foo"), new Urn("urn:li:foo:1"));
+    assertNotEquals(new Urn("urn:li:foo:1"), "urn:li:foo:1");
+  }
+
+  @Test
+  public void testToStringAndGetNSS() throws URISyntaxException {
+    assertEquals(new Urn("urn:li:foo:(a,b)").toString(), "urn:li:foo:(a,b)");
+    assertEquals(new Urn("urn:li:foo:(a,b)").getNSS(), "foo:(a,b)");
+    assertEquals(new Urn("urn:other:foo:(a,(b,c))").getNSS(), "foo:(a,(b,c))");
+    assertEquals(new Urn("urn:li:foo:(a)(b,c)").getNSS(), "foo:(a)(b,c)");
+    assertEquals(new Urn("urn:li:foo").getNSS(), "foo");
+    assertEquals(new Urn("urn:li:foo").toString(), "urn:li:foo");
+    assertEquals(new Urn("foo", new TupleKey()).toString(), "urn:li:foo");
+    assertEquals(new Urn("foo", new TupleKey("a", "b")).getNSS(), "foo:(a,b)");
+
+    // A single part in parens is written without them
+    assertEquals(new Urn("urn:li:y:(urn:li:z:1)").toString(), "urn:li:y:urn:li:z:1");
+    assertEquals(new Urn("urn:li:y:(urn:li:z:1)").getNSS(), "y:urn:li:z:1");
+  }
+
+  @Test
+  public void testGetEntityKey() throws URISyntaxException {
+    Urn urn = new Urn("urn:li:foo:(a,(b,c))");
+
+    TupleKey entityKey = urn.getEntityKey();
+
+    assertEquals(entityKey.getParts(), Arrays.asList("a", "(b,c)"));
+    assertSame(urn.getEntityKey(), entityKey);
+    assertEquals(urn.getId(), "a");
+    assertEquals(urn.toString(), "urn:li:foo:(a,(b,c))");
+
+    assertEquals(new Urn("urn:li:foo:1").getEntityKey().getParts(), Collections.singletonList("1"));
+    assertEquals(new Urn("urn:li:y:(urn:li:z:1)").getEntityKey().getParts(), Collections.singletonList("urn:li:z:1"));
+    assertEquals(new Urn("urn:li:foo:(a)(b,c)").getEntityKey().getParts(), Arrays.asList("a)(b", "c"));
+    assertEquals(new Urn("urn:li:foo").getEntityKey().size(), 0);
+  }
+
+  @Test
+  public void testInvalidUrns() {
+    for (String rawUrn : Arrays.asList("urn:li:foo:", "urn:li:foo:(a,b", "urn:li:foo:(a,b))", "urn:li:foo:a)(b",
+        "urn:li:foo:(,a)", "urn:li:foo:(a,)", "urn:li:foo:()", "foo:li:foo:1", "urn:li:Foo:1")) {
+      try {
+        new Urn(rawUrn);
+        fail("Expected " + rawUrn + " to be invalid");
+      } catch (URISyntaxException e) {
+        // Expected
+      }
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package com.linkedin.common.urn;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class UrnToIntMapTest {
+
+  @Test
+  public void testPutGetRemove() {
+    UrnToIntMap<Urn> map = new UrnToIntMap<>(Urn.class);
+
+    assertNull(map.put(urn("urn:li:foo:1"), 1));
+    assertNull(map.put(urn("urn:li:bar:1"), 2));
+    assertEquals(map.put(urn("urn:li:foo:1"), 3), Integer.valueOf(1));
+
+    assertEquals(map.size(), 2);
+    assertEquals(map.get(urn("urn:li:foo:1")), Integer.valueOf(3));
+    assertEquals(map.get(urn("urn:li:bar:1")), Integer.valueOf(2));
+    assertNull(map.get(urn("urn:li:foo:2")));
+    assertNull(map.get("urn:li:foo:1"));
+    assertTrue(map.containsKey(urn("urn:li:foo:1")));
+    assertFalse(map.containsKey(urn("urn:li:foo:2")));
+
+    assertEquals(map.remove(urn("urn:li:foo:1")), Integer.valueOf(3));
+    assertNull(map.remove(urn("urn:li:foo:1")));
+    assertFalse(map.containsKey(urn("urn:li:foo:1")));
+    assertEquals(map.size(), 1);
+  }
+
+  @Test
+  public void testIntMethods() {
+    UrnToIntMap<Urn> map = new UrnToIntMap<>(Urn.class);
+
+    assertEquals(map.getInt(urn("urn:li:foo:1"), -1), -1);
+    assertEquals(map.addTo(urn("urn:li:foo:1"), 5), 5);
+    assertEquals(map.addTo(urn("urn:li:foo:1"), 2), 7);
+    assertEquals(map.getInt(urn("urn:li:foo:1"), -1), 7);
+
+    map.putInt(urn("urn:li:foo:2"), 0);
+    assertTrue(map.containsKey(urn("urn:li:foo:2")));
+    assertEquals(map.getInt(urn("urn:li:foo:2"), -1), 0);
+    map.putInt(urn("urn:li:foo:2"), 9);
+    assertEquals(map.get(urn("urn:li:foo:2")), Integer.valueOf(9));
+  }
+
+  @Test
+  public void testValuesAfterRemoveAndAddAgain() {
+    UrnToIntMap<Urn> map = new UrnToIntMap<>(Urn.class);
+    map.putInt(urn("urn:li:foo:1"), 10);
+    map.putInt(urn("urn:li:foo:2"), 20);
+
+    // The value of a URN that is added again doesn't carry over from before it was removed
+    map.remove(urn("urn:li:foo:1"));
+    assertEquals(map.addTo(urn("urn:li:foo:1"), 1), 1);
+
+    map.remove(urn("urn:li:foo:2"));
+    map.putInt(urn("urn:li:foo:2"), 5);
+    assertEquals(map.addTo(urn("urn:li:foo:2"), 1), 6);
+
+    map.remove(urn("urn:li:foo:1"));
+    assertNull(map.put(urn("urn:li:foo:1"), 3));
+
+    LinkedHashMap<Urn, Integer> expected = new LinkedHashMap<>();
+    expected.put(urn("urn:li:foo:2"), 6);
+    expected.put(urn("urn:li:foo:1"), 3);
+    assertEquals(new ArrayList<>(map.entrySet()), new ArrayList<>(expected.entrySet()));
+  }
+
+  @Test
+  public void testValuesAfterClear() {
+    UrnToIntMap<Urn> map = new UrnToIntMap<>(Urn.class);
+    for (int i = 0; i < 100; i++) {
+      map.putInt(urn("urn:li:foo:" + i), i + 1);
+    }
+
+    map.clear();
+
+    assertTrue(map.isEmpty());
+    assertNull(map.get(urn("urn:li:foo:1")));
+    // The values left behind by the cleared entries don't leak into the new ones
+    assertEquals(map.addTo(urn("urn:li:foo:50"), 1), 1);
+    assertEquals(map.addTo(urn("urn:li:foo:1"), 1), 1);
+    assertEquals(map.size(), 2);
+  }
+
+  @Test
+  public void testValuesSurviveCompaction() {
+    UrnToIntMap<Urn> map = new UrnToIntMap<>(Urn.class);
+    Map<Urn, Integer> expected = new LinkedHashMap<>();
+
+    for (int i = 0; i < 10_000; i++) {
+      Urn urn = urn("urn:li:foo:" + i);
+      map.putInt(urn, i);
+      expected.put(urn, i);
+      if (i % 3 != 0) {
+        Urn removed = urn("urn:li:foo:" + (i - 1));
+        assertEquals(map.remove(removed), expected.remove(removed));
+      }
+      if (i % 7 == 0) {
+        Urn readded = urn("urn:li:foo:" + (i / 2));
+        assertEquals(map.remove(readded), expected.remove(readded));
+        expected.put(readded, 1);
+        assertEquals(map.addTo(readded, 1), 1);
+      }
+    }
+
+    assertEquals(map.size(), expected.size());
+    assertEquals(new ArrayList<>(map.entrySet()), new ArrayList<>(expected.entrySet()));
+  }
+
+  @Test
+  public void testRandomOperationsMatchLinkedHashMap() {
+    UrnToIntMap<Urn> map = new UrnToIntMap<>(Urn.class);
+    Map<Urn, Integer> expected = new LinkedHashMap<>();
+    Random random = new Random(42);
+
+    for (int i = 0; i < 20_000; i++) {
+      Urn urn = urn("urn:li:foo:(" + random.nextInt(20) + "," + random.nextInt(20) + ")");
+      int operation = random.nextInt(4);
+      if (operation == 0) {
+        assertEquals(map.remove(urn), expected.remove(urn));
+      } else if (operation == 1) {
+        assertEquals(map.put(urn, i), expected.put(urn, i));
+      } else {
+        assertEquals(map.addTo(urn, 1), (int) expected.merge(urn, 1, Integer::sum));
+      }
+      assertEquals(map.size(), expected.size());
+    }
+
+    assertEquals(new ArrayList<>(map.entrySet()), new ArrayList<>(expected.entrySet()));
+  }
+
+  @Test
+  public void testKeylessAndNonAsciiUrns() {
+    UrnToIntMap<Urn> map = new UrnToIntMap<>(Urn.class);
+
+    map.putInt(urn("urn:li:foo"), 1);
+    map.putInt(urn("urn:li:foo:café"), 2);
+    map.putInt(urn("urn:li:foo:cafe"), 3);
+
+    assertEquals(map.getInt(new Urn("foo", new TupleKey()), -1), 1);
+    assertEquals(map.getInt(urn("urn:li:foo:café"), -1), 2);
+    assertEquals(map.getInt(urn("urn:li:foo:cafe"), -1), 3);
+    assertEquals(new ArrayList<>(map.keySet()),
+        Arrays.asList(urn("urn:li:foo"), urn("urn:li:foo:café"), urn("urn:li:foo:cafe")));
+  }
+
+  @Test
+  public void testEntrySetIteratorRemove() {
+    UrnToIntMap<Urn> map = new UrnToIntMap<>(Urn.class);
+    for (int i = 0; i < 10; i++) {
+      map.putInt(urn("urn:li:foo:" + i), i);
+    }
+
+    Iterator<Map.Entry<Urn, Integer>> iterator = map.entrySet().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().getValue() % 2 == 0) {
+        iterator.remove();
+      }
+    }
+    map.keySet().removeIf(urn -> urn.getId().equals("9"));
+
+    assertEquals(map.size(), 4);
+    assertEquals(new ArrayList<>(map.values()), Arrays.asList(1, 3, 5, 7));
+    assertFalse(map.containsKey(urn("urn:li:foo:0")));
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void testEntrySetValue() {
+    UrnToIntMap<Urn> map = new UrnToIntMap<>(Urn.class);
+    map.putInt(urn("urn:li:foo:1"), 1);
+
+    map.entrySet().iterator().next().setValue(2);
+  }
+
+  @Test
+  public void testEqualsAndHashCode() {
+    UrnToIntMap<Urn> map = new UrnToIntMap<>(Urn.class);
+    Map<Urn, Integer> hashMap = new HashMap<>();
+    for (int i = 0; i < 10; i++) {
+      map.putInt(urn("urn:li:foo:" + i), i);
+      hashMap.put(urn("urn:li:foo:" + i), i);
+    }
+
+    assertTrue(map.equals(hashMap));
+    assertTrue(hashMap.equals(map));
+    assertEquals(map.hashCode(), hashMap.hashCode());
+    assertTrue(map.entrySet().equals(hashMap.entrySet()));
+    assertTrue(hashMap.entrySet().equals(map.entrySet()));
+    assertTrue(map.keySet().equals(hashMap.keySet()));
+    assertTrue(map.entrySet().contains(new AbstractMap.SimpleImmutableEntry<>(urn("urn:li:foo:1"), 1)));
+
+    hashMap.put(urn("urn:li:foo:1"), 0);
+    assertFalse(map.equals(hashMap));
+    assertFalse(hashMap.equals(map));
+
+    map.putInt(urn("urn:li:foo:1"), 0);
+    assertTrue(map.equals(hashMap));
+    assertTrue(hashMap.equals(map));
+    assertEquals(map.hashCode(), hashMap.hashCode());
+  }
+
+  private static Urn urn(String rawUrn) {
+    return Urns.getFactory(Urn.class).create(rawUrn);
+  }
+}
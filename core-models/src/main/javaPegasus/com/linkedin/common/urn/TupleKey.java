@@ -19,7 +19,7 @@ public class TupleKey {
   public static final char END_TUPLE = ')';
   public static final char DELIMITER = ',';
 
-  private List<String> _tuple;
+  private final List<String> _tuple;
 
   public TupleKey(String... tuple) {
     _tuple = Arrays.asList(checkStringsNotNull(tuple));
@@ -237,6 +237,62 @@ public class TupleKey {
     return new TupleKey(parseKeyParts(s, startIndex), false);
   }
 
+  /**
+   * Validates the tuple key encoded in a string starting at the given index like {@link #fromString(String, int)}
+   * does, and returns the hash code of the resulting tuple key without creating it.
+   * @param s raw urn string or urn type specific string.
+   * @param startIndex index where urn type specific string starts.
+   * @return hash code of the entity tuple key.
+   * @throws URISyntaxException if type specific string format is invalid.
+   */
+  static int hashKeyParts(String s, int startIndex) throws URISyntaxException {
+    if (startIndex >= s.length()) {
+      return Collections.emptyList().hashCode();
+    }
+
+    if (s.charAt(startIndex) != START_TUPLE) {
+      if (!hasBalancedParens(s, startIndex)) {
+        throw new URISyntaxException(s, "mismatched paren nesting");
+      }
+      // Hash of a singleton list
+      return 31 + hashRange(s, startIndex, s.length());
+    }
+
+    return scanTupleParts(s, startIndex, null);
+  }
+
+  /**
+   * Returns whether a valid tuple key encoded in a string starting at the given index is encoded the way
+   * {@link #toString()} encodes it, so that equal tuple keys have equal encodings.
+   * @param s raw urn string or urn type specific string.
+   * @param startIndex index where urn type specific string starts.
+   * @return whether the encoding is the canonical one.
+   */
+  static boolean isCanonical(String s, int startIndex) {
+    if (startIndex >= s.length()) {
+      return false;
+    }
+    if (s.charAt(startIndex) != START_TUPLE) {
+      return true;
+    }
+    // A single part is encoded without parens, and multiple parts are enclosed in parens
+    if (s.charAt(s.length() - 1) != END_TUPLE) {
+      return false;
+    }
+    int numStartedParenPairs = 0;
+    for (int i = startIndex; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == START_TUPLE) {
+        numStartedParenPairs++;
+      } else if (c == END_TUPLE) {
+        numStartedParenPairs--;
+      } else if (c == DELIMITER && numStartedParenPairs == 1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private static List<String> parseKeyParts(String input, int startIndex) throws URISyntaxException {
     if (startIndex >= input.length()) {
       return Collections.emptyList();
@@ -268,7 +324,16 @@ public class TupleKey {
      * of URN types which use three parts or fewer -- the rest will require some array expansion.
      */
     List<String> parts = new ArrayList<>(3);
+    scanTupleParts(input, startIndex, parts);
+    return Collections.unmodifiableList(parts);
+  }
 
+  /**
+   * Scans the parenthesized tuple starting at the given index, adding its parts to the given list if any, and returns
+   * the hash code of the list of parts. The parts are hashed in place, so no substrings are created without a list.
+   */
+  private static int scanTupleParts(String input, int startIndex, List<String> parts) throws URISyntaxException {
+    int hash = 1;
     int numStartedParenPairs = 1; // We know we have at least one starting paren
     int partStart = startIndex + 1;  // +1 to skip opening paren
     for (int i = startIndex + 1; i < input.length(); i++) {
@@ -293,7 +358,10 @@ public class TupleKey {
         if (i - partStart <= 0) {
           throw new URISyntaxException(input, "empty part disallowed");
         }
-        parts.add(input.substring(partStart, i));
+        hash = 31 * hash + hashRange(input, partStart, i);
+        if (parts != null) {
+          parts.add(input.substring(partStart, i));
+        }
         partStart = i + 1;
       }
     }
@@ -308,8 +376,20 @@ public class TupleKey {
       throw new URISyntaxException(input, "empty part disallowed");
     }
 
-    parts.add(input.substring(partStart, lastPartEnd));
-    return Collections.unmodifiableList(parts);
+    hash = 31 * hash + hashRange(input, partStart, lastPartEnd);
+    if (parts != null) {
+      parts.add(input.substring(partStart, lastPartEnd));
+    }
+    return hash;
+  }
+
+  // Same as input.substring(start, end).hashCode(), without creating the substring
+  private static int hashRange(String input, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + input.charAt(i);
+    }
+    return hash;
   }
 
   private static boolean hasBalancedParens(String input, int startIndex) {
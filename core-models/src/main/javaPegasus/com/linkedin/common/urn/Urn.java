@@ -41,9 +41,19 @@ public class Urn {
   private static final String DEFAULT_NAMESPACE = "li";
 
   private final String _entityType;
-  private final TupleKey _entityKey;
   private final String _namespace;
 
+  // Created on first use if the Urn was parsed from a string that encodes the entity key in canonical form, see
+  // getEntityKey(). This is safe to race on like _cachedStringUrn, as the only field of TupleKey is final.
+  @Nullable
+  private TupleKey _entityKey;
+
+  // The parsed string if the entity key is created lazily from it, which is also the canonical string of the Urn.
+  @Nullable
+  private final String _rawUrn;
+  private final int _entityKeyStart;
+  private final int _entityKeyHash;
+
   // Used to speed up toString() in the common case where the Urn is built up
   // from parsing an input string.
   @Nullable
@@ -105,6 +115,9 @@ public class Urn {
             "entityType must have only [a-zA-Z0-9] chars. Urn: " + rawUrn);
       }
       _entityKey = new TupleKey();
+      _rawUrn = null;
+      _entityKeyStart = -1;
+      _entityKeyHash = 0;
       return;
     }
 
@@ -123,13 +136,29 @@ public class Urn {
     }
 
     _entityType = internEntityType(entityType);
-    _entityKey = TupleKey.fromString(rawUrn, thirdColonIndex + 1);
+
+    // Validates the entity key in place. In the common case where it's encoded in canonical form, the parts of the
+    // TupleKey aren't needed for toString(), equals() and hashCode(), so they are only created if asked for.
+    final int entityKeyStart = thirdColonIndex + 1;
+    final int entityKeyHash = TupleKey.hashKeyParts(rawUrn, entityKeyStart);
+    if (TupleKey.isCanonical(rawUrn, entityKeyStart)) {
+      _entityKey = null;
+      _rawUrn = rawUrn;
+      _entityKeyStart = entityKeyStart;
+      _entityKeyHash = entityKeyHash;
+      return;
+    }
+
+    _entityKey = TupleKey.fromString(rawUrn, entityKeyStart);
+    _rawUrn = null;
+    _entityKeyStart = -1;
+    _entityKeyHash = 0;
 
     // For the sake of backwards compatibility, we must ensure that
     //   new Urn("urn:li:y:(urn:li:z:1)").toString() == "urn:li:y:urn:li:z:1"
     // Thus, if we detect a TupleKey with 1 part AND we had a paren in the
     // input, we abort our optimization of storing the original URN.
-    if (_entityKey.size() == 1 && rawUrn.charAt(thirdColonIndex + 1) == '(') {
+    if (_entityKey.size() == 1 && rawUrn.charAt(entityKeyStart) == '(') {
       _cachedStringUrn = null;
     }
   }
@@ -154,6 +183,9 @@ public class Urn {
     _namespace = namespace;
     _entityType = entityType;
     _entityKey = entityKey;
+    _rawUrn = null;
+    _entityKeyStart = -1;
+    _entityKeyHash = 0;
     _cachedStringUrn = null;
   }
 
@@ -263,7 +295,17 @@ public class Urn {
   }
 
   public TupleKey getEntityKey() {
-    return _entityKey;
+    TupleKey entityKey = _entityKey;
+    if (entityKey == null) {
+      try {
+        entityKey = TupleKey.fromString(_rawUrn, _entityKeyStart);
+      } catch (URISyntaxException e) {
+        // The entity key was validated when parsing the Urn
+        throw new IllegalStateException(e);
+      }
+      _entityKey = entityKey;
+    }
+    return entityKey;
   }
 
   /**
@@ -272,7 +314,7 @@ public class Urn {
    * @return key's first tuple element
    */
   public String getId() {
-    return _entityKey.getAs(0, String.class);
+    return getEntityKey().getAs(0, String.class);
   }
 
   /**
@@ -281,7 +323,7 @@ public class Urn {
    * @return key's first tuple element, coerced to Integer
    */
   public Integer getIdAsInt() {
-    return _entityKey.getAs(0, Integer.class);
+    return getEntityKey().getAs(0, Integer.class);
   }
 
   /**
@@ -290,11 +332,11 @@ public class Urn {
    * @return key's first tuple element, coerced to Long
    */
   public Long getIdAsLong() {
-    return _entityKey.getAs(0, Long.class);
+    return getEntityKey().getAs(0, Long.class);
   }
 
   public Urn getIdAsUrn() {
-    return _entityKey.getAs(0, Urn.class);
+    return getEntityKey().getAs(0, Urn.class);
   }
 
   /**
@@ -304,7 +346,11 @@ public class Urn {
    * @return The namespace-specific string portion of this URN
    */
   public String getNSS() {
-    return _entityType + (_entityKey.size() > 0 ? ':' + _entityKey.toString() : "");
+    if (_rawUrn != null) {
+      return _rawUrn.substring(URN_START.length() + _namespace.length() + 1);
+    }
+    final TupleKey entityKey = getEntityKey();
+    return _entityType + (entityKey.size() > 0 ? ':' + entityKey.toString() : "");
   }
 
   @Override
@@ -331,8 +377,12 @@ public class Urn {
       return false;
     }
     Urn other = (Urn) obj;
+    // Urns whose entity keys are encoded in canonical form are equal iff their strings are
+    if (_rawUrn != null && other._rawUrn != null) {
+      return _rawUrn.equals(other._rawUrn);
+    }
     return _entityType.equals(other._entityType)
-        && _entityKey.equals(other._entityKey)
+        && getEntityKey().equals(other.getEntityKey())
         && _namespace.equals(other._namespace);
   }
 
@@ -340,7 +390,7 @@ public class Urn {
   public int hashCode() {
     final int prime = 31;
     int result = _entityType.hashCode();
-    result = prime * result + _entityKey.hashCode();
+    result = prime * result + (_rawUrn != null ? _entityKeyHash : getEntityKey().hashCode());
     return result;
   }
 
@@ -11,12 +11,20 @@ import com.linkedin.data.schema.validation.ValidationResult;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.data.template.UnionTemplate;
 import com.linkedin.metadata.backfill.BackfillMode;
+import com.linkedin.metadata.dao.cache.LatestAspectCache;
+import com.linkedin.metadata.dao.cache.LatestAspectCacheConfig;
+import com.linkedin.metadata.dao.cache.LatestAspectCacheStats;
 import com.linkedin.metadata.dao.equality.DefaultEqualityTester;
 import com.linkedin.metadata.dao.equality.EqualityTester;
 import com.linkedin.metadata.dao.exception.ModelValidationException;
+import com.linkedin.metadata.dao.metrics.LocalDAOMetricListener;
+import com.linkedin.metadata.dao.metrics.LocalDAOOperation;
 import com.linkedin.metadata.dao.producer.BaseMetadataEventProducer;
 import com.linkedin.metadata.dao.retention.IndefiniteRetention;
 import com.linkedin.metadata.dao.retention.Retention;
+import com.linkedin.metadata.dao.retention.RetentionSweeper;
+import com.linkedin.metadata.dao.retention.RetentionSweeperConfig;
+import com.linkedin.metadata.dao.retention.RetentionSweeperStats;
 import com.linkedin.metadata.dao.retention.TimeBasedRetention;
 import com.linkedin.metadata.dao.retention.VersionBasedRetention;
 import com.linkedin.metadata.dao.storage.LocalDAOStorageConfig;
@@ -33,9 +41,17 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -66,6 +82,100 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
   static class AddResult<ASPECT extends RecordTemplate> {
     ASPECT oldValue;
     ASPECT newValue;
+    // Largest version of the aspect, only meaningful if a new value is saved
+    long largestVersion;
+  }
+
+  /**
+   * An update waiting to be applied by {@link #addCoalesced}. The outcome is set by the thread that applies it, while
+   * holding the lock of the stripe.
+   */
+  private static final class PendingWrite<URN extends Urn> {
+    final URN urn;
+    final Class<RecordTemplate> aspectClass;
+    final Function<Optional<RecordTemplate>, RecordTemplate> updateLambda;
+    final AuditStamp auditStamp;
+    final int maxTransactionRetry;
+
+    // Guarded by the lock of the stripe
+    boolean claimed = false;
+
+    // Only accessed by the thread that claimed the update
+    boolean applied = false;
+    RecordTemplate newValue = null;
+    RuntimeException lambdaError = null;
+
+    final CompletableFuture<RecordTemplate> result = new CompletableFuture<>();
+
+    <ASPECT extends RecordTemplate> PendingWrite(@Nonnull URN urn, @Nonnull Class<ASPECT> aspectClass,
+        @Nonnull Function<Optional<ASPECT>, ASPECT> updateLambda, @Nonnull AuditStamp auditStamp,
+        int maxTransactionRetry) {
+      this.urn = urn;
+      this.aspectClass = (Class<RecordTemplate>) aspectClass;
+      this.updateLambda = (Function<Optional<RecordTemplate>, RecordTemplate>) (Function) updateLambda;
+      this.auditStamp = auditStamp;
+      this.maxTransactionRetry = maxTransactionRetry;
+    }
+
+    /**
+     * Runs the update lambda on its first call, and returns the same value, or throws the same exception, on later
+     * calls.
+     */
+    @Nonnull
+    RecordTemplate apply(@Nonnull Optional<RecordTemplate> oldValue) {
+      if (!applied) {
+        applied = true;
+        try {
+          newValue = updateLambda.apply(oldValue);
+        } catch (RuntimeException e) {
+          lambdaError = e;
+        }
+      }
+      if (lambdaError != null) {
+        throw lambdaError;
+      }
+      return newValue;
+    }
+  }
+
+  /**
+   * A stripe of the write lock, with the updates of its keys that are waiting for the lock.
+   */
+  private static final class WriteStripe<URN extends Urn> {
+    final ReentrantLock lock = new ReentrantLock();
+    final Queue<PendingWrite<URN>> pendingWrites = new ConcurrentLinkedQueue<>();
+  }
+
+  /**
+   * Forwards the metrics of the DAO to all registered listeners.
+   */
+  private static final class DelegateMetricListener implements LocalDAOMetricListener {
+    private final List<LocalDAOMetricListener> _metricListeners = new CopyOnWriteArrayList<>();
+
+    void addMetricListener(@Nonnull LocalDAOMetricListener metricListener) {
+      _metricListeners.add(metricListener);
+    }
+
+    @Override
+    public void onOperation(@Nonnull LocalDAOOperation operation, long durationNanos, int batchSize, int rowCount) {
+      for (LocalDAOMetricListener m : _metricListeners) {
+        m.onOperation(operation, durationNanos, batchSize, rowCount);
+      }
+    }
+
+    @Override
+    public void onTransaction(long durationNanos, int retries, boolean committed) {
+      for (LocalDAOMetricListener m : _metricListeners) {
+        m.onTransaction(durationNanos, retries, committed);
+      }
+    }
+
+    @Override
+    public void onPayload(@Nonnull LocalDAOOperation operation, long length) {
+      for (LocalDAOMetricListener m : _metricListeners) {
+        m.onPayload(operation, length);
+      }
+    }
   }
 
   private static final String DEFAULT_ID_NAMESPACE = "global";
@@ -102,6 +212,17 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
 
   private Clock _clock = Clock.systemUTC();
 
+  // Read-through cache of the latest aspect values, null if disabled
+  private volatile LatestAspectCache _latestAspectCache = null;
+
+  // Applies retention in the background instead of in write transactions, null if disabled
+  private volatile RetentionSweeper<URN> _retentionSweeper = null;
+
+  // Serializes and combines concurrent updates of the same (urn, aspect), null if disabled
+  private volatile List<WriteStripe<URN>> _writeStripes = null;
+
+  private final DelegateMetricListener _metricListener = new DelegateMetricListener();
+
   /**
    * Constructor for BaseLocalDAO.
    *
@@ -134,6 +255,33 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
     _clock = clock;
   }
 
+  /**
+   * Adds a listener for the metrics of the DAO, e.g. the latency of each step of updates.
+   */
+  public void addMetricListener(@Nonnull LocalDAOMetricListener metricListener) {
+    _metricListener.addMetricListener(metricListener);
+  }
+
+  /**
+   * Returns the listener that metrics must be reported to, which forwards them to all registered listeners.
+   */
+  @Nonnull
+  protected LocalDAOMetricListener getMetricListener() {
+    return _metricListener;
+  }
+
+  /**
+   * Reports a completed operation to the metric listeners.
+   *
+   * @param operation the completed {@link LocalDAOOperation}
+   * @param startNanos value of {@link System#nanoTime()} when the operation started
+   * @param batchSize number of aspects the operation was applied to
+   * @param rowCount number of rows the operation read, wrote or deleted, or -1 if it's not known
+   */
+  protected void recordOperation(@Nonnull LocalDAOOperation operation, long startNanos, int batchSize, int rowCount) {
+    _metricListener.onOperation(operation, System.nanoTime() - startNanos, batchSize, rowCount);
+  }
+
   /**
    * Sets {@link Retention} for a specific aspect type.
    */
@@ -246,6 +394,110 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
     return _enableLocalSecondaryIndex;
   }
 
+  /**
+   * Enables the read-through cache of latest aspect values, replacing the existing cache if there's one.
+   *
+   * <p>The cache is local to this DAO instance. Entries are invalidated after every update made through this instance,
+   * but updates made by other instances are only picked up once the entries expire.
+   */
+  public void enableLatestAspectCache(@Nonnull LatestAspectCacheConfig config) {
+    _latestAspectCache = new LatestAspectCache(config, () -> _clock.millis());
+  }
+
+  /**
+   * Disables the read-through cache of latest aspect values and drops all cached values.
+   */
+  public void disableLatestAspectCache() {
+    _latestAspectCache = null;
+  }
+
+  /**
+   * Returns whether the read-through cache of latest aspect values is enabled.
+   */
+  protected boolean isLatestAspectCacheEnabled() {
+    return _latestAspectCache != null;
+  }
+
+  /**
+   * Gets the stats of the read-through cache of latest aspect values, or null if the cache is disabled.
+   */
+  @Nullable
+  public LatestAspectCacheStats getLatestAspectCacheStats() {
+    final LatestAspectCache cache = _latestAspectCache;
+    return cache == null ? null : cache.getStats();
+  }
+
+  /**
+   * Enables background retention, replacing the existing sweeper if there's one.
+   *
+   * <p>Writes no longer delete old versions in their transactions. Instead, the (urn, aspect) pairs they update are
+   * purged by a {@link RetentionSweeper} that runs periodically, so there can be more versions than the retention
+   * allows until the next sweep.
+   */
+  public void enableBackgroundRetention(@Nonnull RetentionSweeperConfig config) {
+    final RetentionSweeper<URN> previous = _retentionSweeper;
+    _retentionSweeper = new RetentionSweeper<>(config, this::applyRetentionInTransaction);
+    if (previous != null) {
+      previous.close();
+    }
+  }
+
+  /**
+   * Disables background retention, so that retention is applied in write transactions again, after applying it to
+   * all pairs that were updated while it was enabled.
+   */
+  public void disableBackgroundRetention() {
+    final RetentionSweeper<URN> previous = _retentionSweeper;
+    _retentionSweeper = null;
+    if (previous != null) {
+      previous.close();
+    }
+  }
+
+  /**
+   * Gets the stats of background retention, or null if background retention is disabled.
+   */
+  @Nullable
+  public RetentionSweeperStats getBackgroundRetentionStats() {
+    final RetentionSweeper<URN> sweeper = _retentionSweeper;
+    return sweeper == null ? null : sweeper.getStats();
+  }
+
+  /**
+   * Enables write coalescing with the given number of lock stripes, replacing the existing stripes if there are some.
+   *
+   * <p>Updates made through {@link #add(Urn, Class, Function, AuditStamp, int)} take the in-process lock of the stripe
+   * of their (urn, aspect), so concurrent updates of the same aspect no longer collide in the database and exhaust
+   * their transaction retries. The thread that holds the lock applies all updates that are waiting for it, in the order
+   * they're made, in one transaction. Each update still saves its own version and emits its own MAE.
+   *
+   * <p>The lock is released once the new values are computed and written, before the transaction is committed, if the
+   * latest versions of all updated aspects exist: the rows locked by the transaction keep the next holder from reading
+   * them before the commit. Otherwise, it's released right after the commit. MAEs and post-update hooks always run
+   * without the lock. Each update lambda runs exactly once. If the transaction fails, the updates are retried one
+   * transaction each with the values already computed for them, so that a failing update doesn't fail the others.
+   *
+   * <p>Updates made by other instances, and through {@link #addBatch(Map, AuditStamp, int)}, are not coordinated.
+   */
+  public void enableWriteCoalescing(int stripes) {
+    if (stripes < 1) {
+      throw new IllegalArgumentException("Number of stripes must be positive: " + stripes);
+    }
+
+    final List<WriteStripe<URN>> writeStripes = new ArrayList<>(stripes);
+    for (int i = 0; i < stripes; i++) {
+      writeStripes.add(new WriteStripe<>());
+    }
+    _writeStripes = writeStripes;
+  }
+
+  /**
+   * Disables write coalescing, so that every update runs its own transaction.
+   */
+  public void disableWriteCoalescing() {
+    _writeStripes = null;
+  }
+
   /**
    * Adds a new version of aspect for an entity.
    *
@@ -265,60 +517,126 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
 
     checkValidAspect(aspectClass);
 
-    final EqualityTester<ASPECT> equalityTester = getEqualityTester(aspectClass);
+    final long start = System.nanoTime();
+    final ASPECT newValue;
+    final List<WriteStripe<URN>> writeStripes = _writeStripes;
+    if (writeStripes != null) {
+      newValue = addCoalesced(writeStripes, new PendingWrite<>(urn, aspectClass, updateLambda, auditStamp,
+          maxTransactionRetry));
+    } else {
+      final AddResult<ASPECT> result = runInTransactionWithRetry(
+          () -> addInTransaction(urn, aspectClass, getLatestForUpdate(urn, aspectClass), updateLambda, auditStamp),
+          maxTransactionRetry);
+      newValue = postAdd(urn, aspectClass, result);
+    }
 
-    final AddResult<ASPECT> result = runInTransactionWithRetry(() -> {
-      // 1. Compute newValue based on oldValue
-      AspectEntry<ASPECT> latest = getLatest(urn, aspectClass);
-      final ASPECT oldValue = latest == null ? null : latest.getAspect();
-      final ASPECT newValue = updateLambda.apply(Optional.ofNullable(oldValue));
-      checkValidAspect(newValue.getClass());
-      if (_modelValidationOnWrite) {
-        validateAgainstSchema(newValue);
-      }
+    recordOperation(LocalDAOOperation.ADD, start, 1, -1);
+    return newValue;
+  }
 
-      // 2. Skip saving if there's no actual change
-      if (oldValue != null && equalityTester.equals(oldValue, newValue)) {
-        return new AddResult<>(oldValue, oldValue);
+  /**
+   * Applies an update while holding the lock of its stripe, along with all other updates waiting for the lock.
+   */
+  @Nonnull
+  private <ASPECT extends RecordTemplate> ASPECT addCoalesced(@Nonnull List<WriteStripe<URN>> writeStripes,
+      @Nonnull PendingWrite<URN> write) {
+
+    final int hash = Objects.hash(urnCacheKey(write.urn), write.aspectClass);
+    final WriteStripe<URN> stripe = writeStripes.get(Math.floorMod(hash, writeStripes.size()));
+    stripe.pendingWrites.add(write);
+
+    stripe.lock.lock();
+    final AtomicBoolean locked = new AtomicBoolean(true);
+    final Runnable unlock = () -> {
+      if (locked.getAndSet(false)) {
+        stripe.lock.unlock();
       }
-
-      // 3. Save the newValue as the latest version
-      long largestVersion =
-          saveLatest(urn, aspectClass, oldValue, latest == null ? null : latest.getExtraInfo().getAudit(), newValue,
-              auditStamp);
-
-      // 4. Apply retention policy
-      applyRetention(urn, aspectClass, getRetention(aspectClass), largestVersion);
-
-      // 5. Save to local secondary index
-      if (_enableLocalSecondaryIndex) {
-        updateLocalIndex(urn, newValue, largestVersion);
+    };
+    try {
+      // Otherwise the update has been claimed by a previous holder of the lock
+      if (!write.claimed) {
+        final List<PendingWrite<URN>> writes = new ArrayList<>();
+        for (PendingWrite<URN> pending = stripe.pendingWrites.poll(); pending != null;
+            pending = stripe.pendingWrites.poll()) {
+          pending.claimed = true;
+          writes.add(pending);
+        }
+        applyPendingWrites(writes, unlock);
       }
+    } finally {
+      unlock.run();
+    }
 
-      return new AddResult<>(oldValue, newValue);
-    }, maxTransactionRetry);
+    try {
+      return (ASPECT) write.result.join();
+    } catch (CompletionException e) {
+      throw (RuntimeException) e.getCause();
+    }
+  }
 
-    final ASPECT oldValue = result.getOldValue();
-    final ASPECT newValue = result.getNewValue();
+  /**
+   * Applies the given updates, and releases the lock of their stripe with the given callback as soon as it's safe.
+   */
+  private void applyPendingWrites(@Nonnull List<PendingWrite<URN>> writes, @Nonnull Runnable unlock) {
+    try {
+      List<AddResult<RecordTemplate>> results = null;
+      try {
+        // A single attempt, as a retry would have to run the update lambdas again
+        results = runInTransactionWithRetry(() -> addAllInTransaction(writes, unlock), 0);
+      } catch (RuntimeException e) {
+        // Falls back to one transaction per update below
+      } finally {
+        unlock.run();
+      }
 
-    // 6. Produce MAE after a successful update
-    if (_alwaysEmitAuditEvent || oldValue != newValue) {
-      _producer.produceMetadataAuditEvent(urn, oldValue, newValue);
+      for (int i = 0; i < writes.size(); i++) {
+        final PendingWrite<URN> write = writes.get(i);
+        try {
+          final AddResult<RecordTemplate> result = results != null ? results.get(i) : runInTransactionWithRetry(
+              () -> addInTransaction(write.urn, write.aspectClass, getLatestForUpdate(write.urn, write.aspectClass),
+                  write::apply, write.auditStamp), write.maxTransactionRetry);
+          write.result.complete(postAdd(write.urn, write.aspectClass, result));
+        } catch (RuntimeException e) {
+          write.result.completeExceptionally(e);
+        }
+      }
+    } finally {
+      writes.forEach(write -> write.result.completeExceptionally(new IllegalStateException("Update was not applied")));
     }
+  }
 
-    // TODO: Replace step 6 with step 6.1 after pipeline is fully migrated to aspect specific events.
-    // 6.1 Produce aspect specific MAE after a successful update
-    if (_emitAspectSpecificAuditEvent) {
-      if (_alwaysEmitAspectSpecificAuditEvent || oldValue != newValue) {
-        _producer.produceAspectSpecificMetadataAuditEvent(urn, oldValue, newValue);
+  /**
+   * Applies updates in order in one transaction, so that each update sees the values saved by the previous ones.
+   *
+   * <p>Runs the given callback after the updates are written if the latest versions of all updated aspects existed,
+   * i.e. are locked by the transaction until it's committed.
+   */
+  @Nonnull
+  private List<AddResult<RecordTemplate>> addAllInTransaction(@Nonnull List<PendingWrite<URN>> writes,
+      @Nonnull Runnable onLatestLocked) {
+    final Set<AspectKey<URN, ? extends RecordTemplate>> keys = new HashSet<>();
+    writes.forEach(write -> keys.add(new AspectKey<>(write.aspectClass, write.urn, LATEST_VERSION)));
+    final Map<AspectKey<URN, ? extends RecordTemplate>, AspectEntry<? extends RecordTemplate>> latest =
+        new HashMap<>(batchGetLatestForUpdate(keys));
+    final boolean latestLocked = latest.keySet().containsAll(keys);
+
+    final List<AddResult<RecordTemplate>> results = new ArrayList<>(writes.size());
+    for (PendingWrite<URN> write : writes) {
+      final AspectKey<URN, RecordTemplate> key = new AspectKey<>(write.aspectClass, write.urn, LATEST_VERSION);
+      final AddResult<RecordTemplate> result = addInTransaction(write.urn, write.aspectClass,
+          (AspectEntry<RecordTemplate>) latest.get(key), write::apply, write.auditStamp);
+      if (result.getNewValue() != result.getOldValue()) {
+        final ExtraInfo extraInfo =
+            new ExtraInfo().setUrn(write.urn).setVersion(LATEST_VERSION).setAudit(write.auditStamp);
+        latest.put(key, new AspectEntry<>(result.getNewValue(), extraInfo));
       }
-    }
-    // 7. Invoke post-update hooks if there's any
-    if (_aspectPostUpdateHooksMap.containsKey(aspectClass)) {
-      _aspectPostUpdateHooksMap.get(aspectClass).forEach(hook -> hook.accept(urn, newValue));
+      results.add(result);
     }
 
-    return newValue;
+    if (latestLocked) {
+      onLatestLocked.run();
+    }
+    return results;
   }
 
   /**
@@ -339,21 +657,344 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
     return add(urn, (Class<ASPECT>) newValue.getClass(), ignored -> newValue, auditStamp);
   }
 
-  private <ASPECT extends RecordTemplate> void applyRetention(@Nonnull URN urn, @Nonnull Class<ASPECT> aspectClass,
+  /**
+   * Serves the latest versions of aspects from the read-through cache if it's enabled, and loads the rest in one batch
+   * using the given loader.
+   *
+   * <p>Keys of other versions are always passed through to the loader. The loader must return the same mapping as
+   * {@link #get(Set)} does.
+   *
+   * @param keys set of keys for the metadata to retrieve
+   * @param loader loads the metadata for a set of keys from the underlying storage
+   * @return a mapping of given keys to the corresponding metadata aspect
+   */
+  @Nonnull
+  protected Map<AspectKey<URN, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> readThroughLatestAspectCache(
+      @Nonnull Set<AspectKey<URN, ? extends RecordTemplate>> keys,
+      @Nonnull Function<Set<AspectKey<URN, ? extends RecordTemplate>>, Map<AspectKey<URN, ? extends RecordTemplate>,
+          Optional<? extends RecordTemplate>>> loader) {
+
+    final LatestAspectCache cache = _latestAspectCache;
+    if (cache == null || keys.isEmpty()) {
+      return loader.apply(keys);
+    }
+
+    final Map<AspectKey<URN, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> result =
+        new HashMap<>(keys.size());
+    final Set<AspectKey<URN, ? extends RecordTemplate>> misses = new HashSet<>();
+    for (AspectKey<URN, ? extends RecordTemplate> key : keys) {
+      final Optional<? extends RecordTemplate> cached =
+          key.getVersion() == LATEST_VERSION ? cache.get(urnCacheKey(key.getUrn()), key.getAspectClass()) : null;
+      if (cached == null) {
+        misses.add(key);
+      } else {
+        result.put(key, cached);
+      }
+    }
+
+    if (misses.isEmpty()) {
+      return result;
+    }
+
+    // Must be taken before loading, so that values loaded concurrently with an update are not cached
+    final long invalidationStamp = cache.getInvalidationStamp();
+    final Map<AspectKey<URN, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> loaded =
+        loader.apply(misses);
+
+    for (AspectKey<URN, ? extends RecordTemplate> key : misses) {
+      final Optional<? extends RecordTemplate> value = loaded.getOrDefault(key, Optional.empty());
+      if (key.getVersion() == LATEST_VERSION) {
+        cache.put(urnCacheKey(key.getUrn()), key.getAspectClass(), value.orElse(null), invalidationStamp);
+      }
+      result.put(key, value);
+    }
+
+    return result;
+  }
+
+  /**
+   * Similar to {@link #readThroughLatestAspectCache(Set, Function)} but for a single key, which is loaded by the given
+   * loader on a cache miss.
+   *
+   * @param key key for the metadata to retrieve
+   * @param loader loads the metadata for a key from the underlying storage
+   * @return the corresponding metadata aspect
+   */
+  @Nonnull
+  protected <ASPECT extends RecordTemplate> Optional<ASPECT> readThroughLatestAspectCache(
+      @Nonnull AspectKey<URN, ASPECT> key, @Nonnull Function<AspectKey<URN, ASPECT>, Optional<ASPECT>> loader) {
+
+    final LatestAspectCache cache = _latestAspectCache;
+    if (cache == null || key.getVersion() != LATEST_VERSION) {
+      return loader.apply(key);
+    }
+
+    final Optional<ASPECT> cached = cache.get(urnCacheKey(key.getUrn()), key.getAspectClass());
+    if (cached != null) {
+      return cached;
+    }
+
+    // Must be taken before loading, so that values loaded concurrently with an update are not cached
+    final long invalidationStamp = cache.getInvalidationStamp();
+    final Optional<ASPECT> loaded = loader.apply(key);
+    cache.put(urnCacheKey(key.getUrn()), key.getAspectClass(), loaded.orElse(null), invalidationStamp);
+    return loaded;
+  }
+
+  /**
+   * Drops the cached latest value of an aspect, if the read-through cache is enabled.
+   */
+  protected void invalidateLatestAspectCache(@Nonnull URN urn, @Nonnull Class<? extends RecordTemplate> aspectClass) {
+    final LatestAspectCache cache = _latestAspectCache;
+    if (cache != null) {
+      cache.invalidate(urnCacheKey(urn), aspectClass);
+    }
+  }
+
+  /**
+   * Returns the string the latest aspect cache uses to identify an URN.
+   *
+   * <p>Subclasses whose storage compares URNs case-insensitively should override this to normalize the case, so that
+   * updates invalidate the entries cached for every spelling of the URN.
+   */
+  @Nonnull
+  protected String urnCacheKey(@Nonnull URN urn) {
+    return urn.toString();
+  }
+
+  /**
+   * Adds new versions of multiple aspects for an entity in a single transaction.
+   *
+   * <p>See {@link #addBatch(Map, AuditStamp, int)} for details.
+   *
+   * @param urn the URN for the entity the aspects are attached to
+   * @param newValues the new values of aspects, with at most one value per aspect type
+   * @param auditStamp the audit stamp for the operation
+   * @return list of the new values of aspects, in the same order as {@code newValues}
+   */
+  @Nonnull
+  public List<RecordTemplate> addMany(@Nonnull URN urn, @Nonnull List<? extends RecordTemplate> newValues,
+      @Nonnull AuditStamp auditStamp) {
+    return addBatch(Collections.singletonMap(urn, newValues), auditStamp).getOrDefault(urn, Collections.emptyList());
+  }
+
+  /**
+   * Similar to {@link #addBatch(Map, AuditStamp, int)} but uses the default maximum transaction retry.
+   */
+  @Nonnull
+  public Map<URN, List<RecordTemplate>> addBatch(@Nonnull Map<URN, ? extends List<? extends RecordTemplate>> newValues,
+      @Nonnull AuditStamp auditStamp) {
+    return addBatch(newValues, auditStamp, DEFAULT_MAX_TRANSACTION_RETRY);
+  }
+
+  /**
+   * Adds new versions of multiple aspects for multiple entities in a single transaction.
+   *
+   * <p>This is equivalent to calling {@link #add(Urn, RecordTemplate, AuditStamp)} for every value, except that the
+   * previous values of all aspects are retrieved in one batch and all writes happen in one transaction, which is run
+   * with {@link #runInBatchTransactionWithRetry(Supplier, int)}. MAEs are emitted and post-update hooks are invoked
+   * only after the transaction is committed.
+   *
+   * <p>The writes don't go through {@link #add(Urn, Class, Function, AuditStamp, int)}, so subclasses that override it
+   * to reject or alter writes must override this method as well. {@link #addMany(Urn, List, AuditStamp)} and the other
+   * overload of this method delegate to it.
+   *
+   * @param newValues map of entity URN to the new values of its aspects, with at most one value per aspect type
+   * @param auditStamp the audit stamp for the operation
+   * @param maxTransactionRetry maximum number of transaction retries before throwing an exception
+   * @return map of entity URN to the new values of its aspects, in the same order as {@code newValues}
+   */
+  @Nonnull
+  public Map<URN, List<RecordTemplate>> addBatch(@Nonnull Map<URN, ? extends List<? extends RecordTemplate>> newValues,
+      @Nonnull AuditStamp auditStamp, int maxTransactionRetry) {
+
+    final Set<AspectKey<URN, ? extends RecordTemplate>> keys = new HashSet<>();
+    newValues.forEach((urn, values) -> values.forEach(value -> {
+      checkValidAspect(value.getClass());
+      if (!keys.add(new AspectKey<>(value.getClass(), urn, LATEST_VERSION))) {
+        throw new IllegalArgumentException(
+            "Aspect " + value.getClass().getCanonicalName() + " is added more than once for " + urn);
+      }
+    }));
+
+    if (keys.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    final long start = System.nanoTime();
+    final Map<URN, List<AddResult<RecordTemplate>>> results = runInBatchTransactionWithRetry(() -> {
+      final Map<AspectKey<URN, ? extends RecordTemplate>, AspectEntry<? extends RecordTemplate>> latest =
+          batchGetLatestForUpdate(keys);
+
+      final Map<URN, List<AddResult<RecordTemplate>>> addResults = new LinkedHashMap<>();
+      newValues.forEach((urn, values) -> {
+        final List<AddResult<RecordTemplate>> urnResults = new ArrayList<>(values.size());
+        for (RecordTemplate value : values) {
+          final Class<RecordTemplate> aspectClass = (Class<RecordTemplate>) value.getClass();
+          final AspectEntry<RecordTemplate> latestEntry =
+              (AspectEntry<RecordTemplate>) latest.get(new AspectKey<>(aspectClass, urn, LATEST_VERSION));
+          urnResults.add(addInTransaction(urn, aspectClass, latestEntry, ignored -> value, auditStamp));
+        }
+        addResults.put(urn, urnResults);
+      });
+      return addResults;
+    }, maxTransactionRetry);
+
+    final Map<URN, List<RecordTemplate>> newValuesAdded = new LinkedHashMap<>();
+    results.forEach((urn, urnResults) -> newValuesAdded.put(urn, urnResults.stream()
+        .map(result -> postAdd(urn, (Class<RecordTemplate>) result.getNewValue().getClass(), result))
+        .collect(Collectors.toList())));
+
+    recordOperation(LocalDAOOperation.ADD, start, keys.size(), -1);
+    return newValuesAdded;
+  }
+
+  /**
+   * Reads the latest value of an aspect to update it, and reports the read to the metric listeners.
+   */
+  @Nullable
+  private <ASPECT extends RecordTemplate> AspectEntry<ASPECT> getLatestForUpdate(@Nonnull URN urn,
+      @Nonnull Class<ASPECT> aspectClass) {
+    final long start = System.nanoTime();
+    final AspectEntry<ASPECT> latest = getLatest(urn, aspectClass);
+    recordOperation(LocalDAOOperation.GET_LATEST, start, 1, latest == null ? 0 : 1);
+    return latest;
+  }
+
+  /**
+   * Reads the latest values of a batch of aspects to update them, and reports the read to the metric listeners.
+   */
+  @Nonnull
+  private Map<AspectKey<URN, ? extends RecordTemplate>, AspectEntry<? extends RecordTemplate>> batchGetLatestForUpdate(
+      @Nonnull Set<AspectKey<URN, ? extends RecordTemplate>> keys) {
+    final long start = System.nanoTime();
+    final Map<AspectKey<URN, ? extends RecordTemplate>, AspectEntry<? extends RecordTemplate>> latest =
+        batchGetLatest(keys);
+    recordOperation(LocalDAOOperation.BATCH_GET_LATEST, start, keys.size(), latest.size());
+    return latest;
+  }
+
+  /**
+   * Computes and saves the new value of an aspect, which must be run inside a transaction.
+   *
+   * @param latest the latest version of the aspect read in the same transaction, or null if there's none
+   */
+  @Nonnull
+  private <ASPECT extends RecordTemplate> AddResult<ASPECT> addInTransaction(@Nonnull URN urn,
+      @Nonnull Class<ASPECT> aspectClass, @Nullable AspectEntry<ASPECT> latest,
+      @Nonnull Function<Optional<ASPECT>, ASPECT> updateLambda, @Nonnull AuditStamp auditStamp) {
+
+    // 1. Compute newValue based on oldValue
+    final ASPECT oldValue = latest == null ? null : latest.getAspect();
+    final ASPECT newValue = updateLambda.apply(Optional.ofNullable(oldValue));
+    checkValidAspect(newValue.getClass());
+    if (_modelValidationOnWrite) {
+      validateAgainstSchema(newValue);
+    }
+
+    // 2. Skip saving if there's no actual change
+    if (oldValue != null && getEqualityTester(aspectClass).equals(oldValue, newValue)) {
+      return new AddResult<>(oldValue, oldValue, -1L);
+    }
+
+    // 3. Save the newValue as the latest version
+    long largestVersion =
+        saveLatest(urn, aspectClass, oldValue, latest == null ? null : latest.getExtraInfo().getAudit(), newValue,
+            auditStamp);
+
+    // 4. Apply retention policy, unless it's left to the background sweeper
+    if (_retentionSweeper == null) {
+      applyRetention(urn, aspectClass, getRetention(aspectClass), largestVersion);
+    }
+
+    // 5. Save to local secondary index
+    if (_enableLocalSecondaryIndex) {
+      final long start = System.nanoTime();
+      updateLocalIndex(urn, oldValue, newValue, largestVersion);
+      recordOperation(LocalDAOOperation.UPDATE_LOCAL_INDEX, start, 1, -1);
+    }
+
+    return new AddResult<>(oldValue, newValue, largestVersion);
+  }
+
+  /**
+   * Runs the side effects of an update after its transaction is committed, and returns the new value of the aspect.
+   */
+  @Nonnull
+  private <ASPECT extends RecordTemplate> ASPECT postAdd(@Nonnull URN urn, @Nonnull Class<ASPECT> aspectClass,
+      @Nonnull AddResult<ASPECT> result) {
+
+    final ASPECT oldValue = result.getOldValue();
+    final ASPECT newValue = result.getNewValue();
+
+    // 6. Invalidate the cached latest value after the update is committed
+    invalidateLatestAspectCache(urn, aspectClass);
+
+    // 6.1 Leave the retention of the committed version to the background sweeper
+    final RetentionSweeper<URN> sweeper = _retentionSweeper;
+    if (sweeper != null && oldValue != newValue && !(getRetention(aspectClass) instanceof IndefiniteRetention)) {
+      sweeper.markDirty(urn, aspectClass, result.getLargestVersion());
+    }
+
+    // 7. Produce MAE after a successful update
+    final long start = System.nanoTime();
+    int eventCount = 0;
+    if (_alwaysEmitAuditEvent || oldValue != newValue) {
+      _producer.produceMetadataAuditEvent(urn, oldValue, newValue);
+      eventCount++;
+    }
+
+    // TODO: Replace step 7 with step 7.1 after pipeline is fully migrated to aspect specific events.
+    // 7.1 Produce aspect specific MAE after a successful update
+    if (_emitAspectSpecificAuditEvent) {
+      if (_alwaysEmitAspectSpecificAuditEvent || oldValue != newValue) {
+        _producer.produceAspectSpecificMetadataAuditEvent(urn, oldValue, newValue);
+        eventCount++;
+      }
+    }
+    if (eventCount > 0) {
+      recordOperation(LocalDAOOperation.PRODUCE_EVENTS, start, 1, eventCount);
+    }
+    // 8. Invoke post-update hooks if there's any
+    if (_aspectPostUpdateHooksMap.containsKey(aspectClass)) {
+      _aspectPostUpdateHooksMap.get(aspectClass).forEach(hook -> hook.accept(urn, newValue));
+    }
+
+    return newValue;
+  }
+
+  private <ASPECT extends RecordTemplate> int applyRetention(@Nonnull URN urn, @Nonnull Class<ASPECT> aspectClass,
       @Nonnull Retention retention, long largestVersion) {
     if (retention instanceof IndefiniteRetention) {
-      return;
+      return 0;
     }
 
+    final long start = System.nanoTime();
+    int purged = 0;
     if (retention instanceof VersionBasedRetention) {
-      applyVersionBasedRetention(aspectClass, urn, (VersionBasedRetention) retention, largestVersion);
-      return;
+      purged = applyVersionBasedRetentionAndCount(aspectClass, urn, (VersionBasedRetention) retention, largestVersion);
+    } else if (retention instanceof TimeBasedRetention) {
+      purged = applyTimeBasedRetentionAndCount(aspectClass, urn, (TimeBasedRetention) retention, _clock.millis());
     }
 
-    if (retention instanceof TimeBasedRetention) {
-      applyTimeBasedRetention(aspectClass, urn, (TimeBasedRetention) retention, _clock.millis());
-      return;
-    }
+    recordOperation(LocalDAOOperation.APPLY_RETENTION, start, 1, purged);
+    return purged;
+  }
+
+  /**
+   * Applies retention to a batch of aspects in one transaction, and returns the number of deleted versions that the
+   * implementation counted.
+   */
+  private long applyRetentionInTransaction(@Nonnull Map<RetentionSweeper.DirtyAspect<URN>, Long> largestVersions) {
+    return runInTransactionWithRetry(() -> {
+      long purged = 0;
+      for (Map.Entry<RetentionSweeper.DirtyAspect<URN>, Long> entry : largestVersions.entrySet()) {
+        final Class<? extends RecordTemplate> aspectClass = entry.getKey().getAspectClass();
+        purged += Math.max(0,
+            applyRetention(entry.getKey().getUrn(), aspectClass, getRetention(aspectClass), entry.getValue()));
+      }
+      return purged;
+    }, DEFAULT_MAX_TRANSACTION_RETRY);
   }
 
   /**
@@ -381,6 +1022,22 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
   protected abstract <ASPECT extends RecordTemplate> void updateLocalIndex(@Nonnull URN urn,
       @Nullable ASPECT newValue, long version);
 
+  /**
+   * Saves the new value of an aspect to local secondary index, given the value it replaces.
+   *
+   * <p>Implementations can use the old value to only update the index entries that have changed. By default, the index
+   * is rebuilt from the new value with {@link #updateLocalIndex(Urn, RecordTemplate, long)}.
+   *
+   * @param urn the URN for the entity the aspect is attached to
+   * @param oldValue {@link RecordTemplate} of the old value of aspect, or null if the aspect didn't exist
+   * @param newValue {@link RecordTemplate} of the new value of aspect
+   * @param version version of the aspect
+   */
+  protected <ASPECT extends RecordTemplate> void updateLocalIndex(@Nonnull URN urn, @Nullable ASPECT oldValue,
+      @Nonnull ASPECT newValue, long version) {
+    updateLocalIndex(urn, newValue, version);
+  }
+
   /**
    * Returns list of urns from local secondary index that satisfy the given filter conditions.
    *
@@ -394,6 +1051,27 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
   @Nonnull
   public abstract List<URN> listUrns(@Nonnull IndexFilter indexFilter, @Nullable URN lastUrn, int pageSize);
 
+  /**
+   * Returns the number of urns from local secondary index that satisfy the given filter conditions.
+   *
+   * @param indexFilter {@link IndexFilter} containing filter conditions to be applied
+   * @return number of urns from local secondary index that satisfy the given filter conditions
+   */
+  public abstract long countUrns(@Nonnull IndexFilter indexFilter);
+
+  /**
+   * Returns the number of urns from local secondary index that satisfy the given filter conditions, grouped by their
+   * value of the given path of an aspect. Urns that have no value for the path aren't counted.
+   *
+   * @param indexFilter {@link IndexFilter} containing filter conditions to be applied
+   * @param aspect canonical class name of the aspect whose values are grouped by
+   * @param path path of the aspect whose values are grouped by, e.g. /removed
+   * @return map of the string representation of each value of the path to the number of urns with that value
+   */
+  @Nonnull
+  public abstract Map<String, Long> countByPath(@Nonnull IndexFilter indexFilter, @Nonnull String aspect,
+      @Nonnull String path);
+
   /**
    * Similar to {@link #listUrns(IndexFilter, Urn, int)}. This is to get all urns with type URN.
    */
@@ -455,6 +1133,17 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
   @Nonnull
   protected abstract <T> T runInTransactionWithRetry(@Nonnull Supplier<T> block, int maxTransactionRetry);
 
+  /**
+   * Similar to {@link #runInTransactionWithRetry(Supplier, int)} but for blocks that write many rows, which
+   * implementations may send to the database in batches.
+   *
+   * <p>Defaults to {@link #runInTransactionWithRetry(Supplier, int)}.
+   */
+  @Nonnull
+  protected <T> T runInBatchTransactionWithRetry(@Nonnull Supplier<T> block, int maxTransactionRetry) {
+    return runInTransactionWithRetry(block, maxTransactionRetry);
+  }
+
   /**
    * Gets the latest version of a specific aspect type for an entity.
    *
@@ -466,6 +1155,28 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
   protected abstract <ASPECT extends RecordTemplate> AspectEntry<ASPECT> getLatest(@Nonnull URN urn,
       @Nonnull Class<ASPECT> aspectClass);
 
+  /**
+   * Batch retrieves the latest versions of aspects, which must be run inside a transaction.
+   *
+   * <p>Defaults to calling {@link #getLatest(Urn, Class)} for every key. Implementations should override this to
+   * retrieve all keys with fewer queries.
+   *
+   * @param keys set of keys of {@link #LATEST_VERSION} for the aspects to get
+   * @return a mapping of given keys to the latest version of the corresponding aspect, without the keys that have none
+   */
+  @Nonnull
+  protected Map<AspectKey<URN, ? extends RecordTemplate>, AspectEntry<? extends RecordTemplate>> batchGetLatest(
+      @Nonnull Set<AspectKey<URN, ? extends RecordTemplate>> keys) {
+    final Map<AspectKey<URN, ? extends RecordTemplate>, AspectEntry<? extends RecordTemplate>> result = new HashMap<>();
+    for (AspectKey<URN, ? extends RecordTemplate> key : keys) {
+      final AspectEntry<? extends RecordTemplate> latest = getLatest(key.getUrn(), key.getAspectClass());
+      if (latest != null) {
+        result.put(key, latest);
+      }
+    }
+    return result;
+  }
+
   /**
    * Gets the next version to use for an entity's specific aspect type.
    *
@@ -499,6 +1210,19 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
   protected abstract <ASPECT extends RecordTemplate> void applyVersionBasedRetention(@Nonnull Class<ASPECT> aspectClass,
       @Nonnull URN urn, @Nonnull VersionBasedRetention retention, long largestVersion);
 
+  /**
+   * Similar to {@link #applyVersionBasedRetention(Class, Urn, VersionBasedRetention, long)} but also returns the number
+   * of deleted versions, which is reported to the metric listener and by {@link #getBackgroundRetentionStats()}.
+   *
+   * <p>The default implementation returns -1, i.e. the number is unknown. Implementations that can count the deleted
+   * versions should override this.
+   */
+  protected <ASPECT extends RecordTemplate> int applyVersionBasedRetentionAndCount(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, @Nonnull VersionBasedRetention retention, long largestVersion) {
+    applyVersionBasedRetention(aspectClass, urn, retention, largestVersion);
+    return -1;
+  }
+
   /**
    * Applies time-based retention against a specific aspect type for an entity.
    *
@@ -510,6 +1234,19 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
   protected abstract <ASPECT extends RecordTemplate> void applyTimeBasedRetention(@Nonnull Class<ASPECT> aspectClass,
       @Nonnull URN urn, @Nonnull TimeBasedRetention retention, long currentTime);
 
+  /**
+   * Similar to {@link #applyTimeBasedRetention(Class, Urn, TimeBasedRetention, long)} but also returns the number of
+   * deleted versions, which is reported to the metric listener and by {@link #getBackgroundRetentionStats()}.
+   *
+   * <p>The default implementation returns -1, i.e. the number is unknown. Implementations that can count the deleted
+   * versions should override this.
+   */
+  protected <ASPECT extends RecordTemplate> int applyTimeBasedRetentionAndCount(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, @Nonnull TimeBasedRetention retention, long currentTime) {
+    applyTimeBasedRetention(aspectClass, urn, retention, currentTime);
+    return -1;
+  }
+
   /**
    * Emits backfill MAE for the latest version of an aspect and also backfills SCSI (if it exists and is enabled).
    *
@@ -690,10 +1427,7 @@ public abstract class BaseLocalDAO<ASPECT_UNION extends UnionTemplate, URN exten
   @Nonnull
   public <ASPECT extends RecordTemplate> Optional<AspectWithExtraInfo<ASPECT>> getWithExtraInfo(
       @Nonnull AspectKey<URN, ASPECT> key) {
-    if (getWithExtraInfo(Collections.singleton(key)).containsKey(key)) {
-      return Optional.of((AspectWithExtraInfo<ASPECT>) getWithExtraInfo(Collections.singleton(key)).get(key));
-    }
-    return Optional.empty();
+    return Optional.ofNullable((AspectWithExtraInfo<ASPECT>) getWithExtraInfo(Collections.singleton(key)).get(key));
   }
 
   /**
@@ -2,7 +2,7 @@ package com.linkedin.metadata.dao;
 
 import com.linkedin.data.DataMap;
 import com.linkedin.data.template.RecordTemplate;
-import com.linkedin.metadata.dao.exception.ModelConversionException;
+import com.linkedin.metadata.dao.utils.RecordUtils;
 import com.linkedin.metadata.query.AutoCompleteResult;
 import com.linkedin.metadata.query.Filter;
 import com.linkedin.metadata.query.SortCriterion;
@@ -72,11 +72,7 @@ public abstract class BaseSearchDAO<DOCUMENT extends RecordTemplate> {
 
   @Nonnull
   protected DOCUMENT newDocument(@Nonnull DataMap dataMap) {
-    try {
-      return _documentClass.getConstructor(DataMap.class).newInstance(dataMap);
-    } catch (Exception ex) {
-      throw new ModelConversionException("Metadata Conversion error", ex);
-    }
+    return RecordUtils.toRecordTemplate(_documentClass, dataMap);
   }
 
 }
@@ -0,0 +1,187 @@
+package com.linkedin.metadata.dao.cache;
+
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.dao.exception.ModelConversionException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * An in-process cache of the latest values of aspects, bounded by size and weight, that evicts entries in LRU order.
+ *
+ * <p>Both present and absent values are cached. Values are copied on the way in and out of the cache so that callers
+ * can't mutate the cached values.
+ *
+ * <p>Loads racing with updates are handled with an invalidation stamp: callers must get {@link #getInvalidationStamp()}
+ * before reading from the underlying storage, and pass it to {@link #put(String, Class, RecordTemplate, long)}, which
+ * drops the value if any entry has been invalidated in the meantime.
+ */
+public class LatestAspectCache {
+
+  @Value
+  private static class CacheKey {
+    String urn;
+    Class<? extends RecordTemplate> aspectClass;
+  }
+
+  @Value
+  private static class CacheEntry {
+    RecordTemplate value;
+    long weight;
+    long expiresAt;
+  }
+
+  private final LatestAspectCacheConfig _config;
+  private final LongSupplier _clock;
+
+  // An access-ordered map, i.e. iteration starts from the least recently used entry
+  private final LinkedHashMap<CacheKey, CacheEntry> _entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long _weight = 0;
+  private long _invalidationStamp = 0;
+
+  private long _hitCount = 0;
+  private long _missCount = 0;
+  private long _evictionCount = 0;
+  private long _expirationCount = 0;
+  private long _invalidationCount = 0;
+
+  /**
+   * Constructor for LatestAspectCache.
+   *
+   * @param config {@link LatestAspectCacheConfig} containing the bounds and time to live of the cache
+   * @param clock supplier of the current time in milliseconds
+   */
+  public LatestAspectCache(@Nonnull LatestAspectCacheConfig config, @Nonnull LongSupplier clock) {
+    if (config.getMaxEntries() <= 0 || config.getMaxWeight() <= 0) {
+      throw new IllegalArgumentException("Cache bounds must be positive");
+    }
+    _config = config;
+    _clock = clock;
+  }
+
+  /**
+   * Gets the cached latest value of an aspect.
+   *
+   * @param urn string representation of the urn for the entity
+   * @param aspectClass the type of aspect to get
+   * @return null if there is no live entry in the cache, otherwise the cached value, which is empty if the aspect
+   *     doesn't exist
+   */
+  @Nullable
+  public <ASPECT extends RecordTemplate> Optional<ASPECT> get(@Nonnull String urn, @Nonnull Class<ASPECT> aspectClass) {
+    final CacheEntry entry;
+    synchronized (this) {
+      final CacheKey key = new CacheKey(urn, aspectClass);
+      final CacheEntry cached = _entries.get(key);
+      if (cached != null && cached.getExpiresAt() <= _clock.getAsLong()) {
+        remove(key);
+        _expirationCount++;
+        entry = null;
+      } else {
+        entry = cached;
+      }
+
+      if (entry == null) {
+        _missCount++;
+        return null;
+      }
+      _hitCount++;
+    }
+
+    return Optional.ofNullable(entry.getValue()).map(value -> aspectClass.cast(copy(value)));
+  }
+
+  /**
+   * Returns the current invalidation stamp, which must be obtained before reading a value to cache from storage.
+   */
+  public synchronized long getInvalidationStamp() {
+    return _invalidationStamp;
+  }
+
+  /**
+   * Caches the latest value of an aspect, unless any entry has been invalidated since the given stamp was obtained.
+   *
+   * @param urn string representation of the urn for the entity
+   * @param aspectClass the type of aspect to cache
+   * @param value the latest value of the aspect, or null if the aspect doesn't exist
+   * @param invalidationStamp the value of {@link #getInvalidationStamp()} before the value was read from storage
+   */
+  public void put(@Nonnull String urn, @Nonnull Class<? extends RecordTemplate> aspectClass,
+      @Nullable RecordTemplate value, long invalidationStamp) {
+    final RecordTemplate copied = value == null ? null : copy(value);
+    final long weight = copied == null ? 1L : _config.getWeigher().applyAsLong(copied);
+    final long ttl = _config.getAspectTtlMap().getOrDefault(aspectClass, _config.getDefaultTtl());
+
+    synchronized (this) {
+      if (invalidationStamp != _invalidationStamp || weight > _config.getMaxWeight()) {
+        return;
+      }
+
+      final CacheKey key = new CacheKey(urn, aspectClass);
+      remove(key);
+      _entries.put(key, new CacheEntry(copied, weight, _clock.getAsLong() + ttl));
+      _weight += weight;
+
+      final Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = _entries.entrySet().iterator();
+      while (_entries.size() > _config.getMaxEntries() || _weight > _config.getMaxWeight()) {
+        _weight -= iterator.next().getValue().getWeight();
+        iterator.remove();
+        _evictionCount++;
+      }
+    }
+  }
+
+  /**
+   * Drops the cached value of an aspect, which must be called after any update of the aspect is committed.
+   */
+  public synchronized void invalidate(@Nonnull String urn, @Nonnull Class<? extends RecordTemplate> aspectClass) {
+    _invalidationStamp++;
+    if (remove(new CacheKey(urn, aspectClass)) != null) {
+      _invalidationCount++;
+    }
+  }
+
+  /**
+   * Drops all cached values.
+   */
+  public synchronized void invalidateAll() {
+    _invalidationStamp++;
+    _invalidationCount += _entries.size();
+    _entries.clear();
+    _weight = 0;
+  }
+
+  /**
+   * Returns a snapshot of the counters of the cache.
+   */
+  @Nonnull
+  public synchronized LatestAspectCacheStats getStats() {
+    return new LatestAspectCacheStats(_hitCount, _missCount, _evictionCount, _expirationCount, _invalidationCount,
+        _entries.size(), _weight);
+  }
+
+  @Nullable
+  private CacheEntry remove(@Nonnull CacheKey key) {
+    final CacheEntry removed = _entries.remove(key);
+    if (removed != null) {
+      _weight -= removed.getWeight();
+    }
+    return removed;
+  }
+
+  @Nonnull
+  private static RecordTemplate copy(@Nonnull RecordTemplate value) {
+    try {
+      return value.copy();
+    } catch (CloneNotSupportedException e) {
+      throw new ModelConversionException("Failed to copy " + value.getClass().getCanonicalName(), e);
+    }
+  }
+}
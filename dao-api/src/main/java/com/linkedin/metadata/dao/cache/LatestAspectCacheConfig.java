@@ -0,0 +1,50 @@
+package com.linkedin.metadata.dao.cache;
+
+import com.linkedin.data.template.RecordTemplate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+
+/**
+ * Immutable class that holds the config of a {@link LatestAspectCache}.
+ */
+@Value
+@Builder
+public final class LatestAspectCacheConfig {
+
+  /**
+   * Maximal number of (urn, aspect) entries to keep in the cache.
+   */
+  @Builder.Default
+  private final long maxEntries = 10_000;
+
+  /**
+   * Maximal total weight, as computed by {@link #weigher}, of the entries in the cache.
+   */
+  @Builder.Default
+  private final long maxWeight = Long.MAX_VALUE;
+
+  /**
+   * Computes the weight of a cached aspect value. Every entry weighs 1 by default.
+   */
+  @NonNull
+  @Builder.Default
+  private final ToLongFunction<RecordTemplate> weigher = value -> 1L;
+
+  /**
+   * Time to live (in milliseconds) of the entries of aspects that don't have one in {@link #aspectTtlMap}.
+   */
+  @Builder.Default
+  private final long defaultTtl = 60_000L;
+
+  /**
+   * Map of aspect {@link Class} to the time to live (in milliseconds) of its entries.
+   */
+  @NonNull
+  @Builder.Default
+  private final Map<Class<? extends RecordTemplate>, Long> aspectTtlMap = new HashMap<>();
+}
@@ -0,0 +1,32 @@
+package com.linkedin.metadata.dao.cache;
+
+import lombok.Value;
+
+
+/**
+ * A snapshot of the counters of a {@link LatestAspectCache}.
+ */
+@Value
+public class LatestAspectCacheStats {
+
+  // Number of lookups served from the cache
+  long hitCount;
+
+  // Number of lookups that had to go to the underlying storage
+  long missCount;
+
+  // Number of entries evicted to stay within the size and weight bounds
+  long evictionCount;
+
+  // Number of entries dropped because their time to live had passed
+  long expirationCount;
+
+  // Number of entries dropped because the aspect was updated
+  long invalidationCount;
+
+  // Current number of entries
+  long size;
+
+  // Current total weight of the entries
+  long weight;
+}
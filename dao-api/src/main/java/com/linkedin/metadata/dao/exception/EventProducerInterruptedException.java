@@ -0,0 +1,13 @@
+package com.linkedin.metadata.dao.exception;
+
+/**
+ * Thrown when a thread is interrupted while waiting to queue a metadata event for asynchronous emission.
+ *
+ * <p>The interrupt status of the thread is restored before this is thrown.
+ */
+public class EventProducerInterruptedException extends RuntimeException {
+
+  public EventProducerInterruptedException(String message, Throwable throwable) {
+    super(message, throwable);
+  }
+}
@@ -0,0 +1,11 @@
+package com.linkedin.metadata.dao.exception;
+
+/**
+ * Thrown when a metadata event can't be queued for asynchronous emission because the queue is full.
+ */
+public class EventQueueFullException extends RuntimeException {
+
+  public EventQueueFullException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,43 @@
+package com.linkedin.metadata.dao.metrics;
+
+import javax.annotation.Nonnull;
+
+
+/**
+ * Listener for the metrics of a local DAO, e.g. to find out which step of an update its latency comes from.
+ *
+ * <p>Listeners are called synchronously on the thread that runs the operation, and must therefore be cheap and must
+ * not throw. All methods do nothing by default.
+ */
+public interface LocalDAOMetricListener {
+
+  /**
+   * Event when an operation is completed successfully.
+   *
+   * @param operation the completed {@link LocalDAOOperation}
+   * @param durationNanos how long the operation took
+   * @param batchSize number of aspects the operation was applied to
+   * @param rowCount number of rows the operation read, wrote or deleted, or -1 if it's not known
+   */
+  default void onOperation(@Nonnull LocalDAOOperation operation, long durationNanos, int batchSize, int rowCount) {
+  }
+
+  /**
+   * Event when a transaction is committed, or given up after its last retry.
+   *
+   * @param durationNanos how long the transaction took in total (across all retries)
+   * @param retries how many retries were needed (0 means the first attempt was committed)
+   * @param committed whether the transaction was committed
+   */
+  default void onTransaction(long durationNanos, int retries, boolean committed) {
+  }
+
+  /**
+   * Event when serialized metadata is read from or written to the storage.
+   *
+   * @param operation the {@link LocalDAOOperation} that read or wrote the metadata
+   * @param length total length of the serialized metadata, in characters
+   */
+  default void onPayload(@Nonnull LocalDAOOperation operation, long length) {
+  }
+}
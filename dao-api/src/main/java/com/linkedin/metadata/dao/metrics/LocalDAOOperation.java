@@ -0,0 +1,27 @@
+package com.linkedin.metadata.dao.metrics;
+
+/**
+ * Operations of a local DAO that are reported to {@link LocalDAOMetricListener}s.
+ */
+public enum LocalDAOOperation {
+  // A whole update of one or more aspects, from reading the latest values to invoking the post-update hooks
+  ADD,
+  // Reads the latest value of an aspect to update it
+  GET_LATEST,
+  // Reads the latest values of a batch of aspects to update them
+  BATCH_GET_LATEST,
+  // Reads a single aspect
+  GET,
+  // Reads a batch of aspects
+  BATCH_GET,
+  // Allocates the version that the previous latest value of an aspect is saved as
+  GET_NEXT_VERSION,
+  // Saves a value of an aspect
+  SAVE,
+  // Deletes the old versions of an aspect
+  APPLY_RETENTION,
+  // Updates the local secondary index with a new value of an aspect
+  UPDATE_LOCAL_INDEX,
+  // Produces the metadata audit events of an update
+  PRODUCE_EVENTS
+}
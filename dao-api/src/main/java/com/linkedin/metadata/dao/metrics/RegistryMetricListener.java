@@ -0,0 +1,84 @@
+package com.linkedin.metadata.dao.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Adapts the events of a local DAO to timers, counters and distributions of a dimensional metrics registry, e.g.
+ * Micrometer's {@code MeterRegistry}, so that no metrics library is needed by the DAO itself.
+ *
+ * <p>All metrics are named "gma.local.dao.*", and tagged with the name of the operation or, for transactions, with
+ * their outcome:
+ * <ul>
+ *   <li>gma.local.dao.operation: timer of every operation</li>
+ *   <li>gma.local.dao.rows: counter of the rows read, written or deleted by operations that report them</li>
+ *   <li>gma.local.dao.batch.size: distribution of the number of aspects per operation</li>
+ *   <li>gma.local.dao.payload: counter of the length of the serialized metadata read or written</li>
+ *   <li>gma.local.dao.transaction: timer of every transaction, including its retries</li>
+ *   <li>gma.local.dao.transaction.retries: counter of the retries of transactions</li>
+ * </ul>
+ */
+public class RegistryMetricListener implements LocalDAOMetricListener {
+
+  /**
+   * The metrics registry that events are recorded to.
+   */
+  public interface Registry {
+
+    void recordTime(@Nonnull String name, @Nonnull Map<String, String> tags, long durationNanos);
+
+    void increment(@Nonnull String name, @Nonnull Map<String, String> tags, long amount);
+
+    void recordValue(@Nonnull String name, @Nonnull Map<String, String> tags, long value);
+  }
+
+  private static final String PREFIX = "gma.local.dao.";
+  private static final String OPERATION_TAG = "operation";
+  private static final String OUTCOME_TAG = "outcome";
+
+  // Created once, as the registry is called for every operation
+  private static final Map<LocalDAOOperation, Map<String, String>> OPERATION_TAGS =
+      new EnumMap<>(LocalDAOOperation.class);
+  private static final Map<String, String> COMMITTED_TAGS = Collections.singletonMap(OUTCOME_TAG, "committed");
+  private static final Map<String, String> FAILED_TAGS = Collections.singletonMap(OUTCOME_TAG, "failed");
+
+  static {
+    for (LocalDAOOperation operation : LocalDAOOperation.values()) {
+      OPERATION_TAGS.put(operation, Collections.singletonMap(OPERATION_TAG, operation.name().toLowerCase(Locale.ROOT)));
+    }
+  }
+
+  private final Registry _registry;
+
+  public RegistryMetricListener(@Nonnull Registry registry) {
+    _registry = registry;
+  }
+
+  @Override
+  public void onOperation(@Nonnull LocalDAOOperation operation, long durationNanos, int batchSize, int rowCount) {
+    final Map<String, String> tags = OPERATION_TAGS.get(operation);
+    _registry.recordTime(PREFIX + "operation", tags, durationNanos);
+    _registry.recordValue(PREFIX + "batch.size", tags, batchSize);
+    if (rowCount >= 0) {
+      _registry.increment(PREFIX + "rows", tags, rowCount);
+    }
+  }
+
+  @Override
+  public void onTransaction(long durationNanos, int retries, boolean committed) {
+    final Map<String, String> tags = committed ? COMMITTED_TAGS : FAILED_TAGS;
+    _registry.recordTime(PREFIX + "transaction", tags, durationNanos);
+    if (retries > 0) {
+      _registry.increment(PREFIX + "transaction.retries", tags, retries);
+    }
+  }
+
+  @Override
+  public void onPayload(@Nonnull LocalDAOOperation operation, long length) {
+    _registry.increment(PREFIX + "payload", OPERATION_TAGS.get(operation), length);
+  }
+}
@@ -0,0 +1,25 @@
+package com.linkedin.metadata.dao.producer;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.RecordTemplate;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * An update of an aspect of an entity, which a batch of metadata events is produced for.
+ */
+@Value
+public class AspectUpdate<URN extends Urn> {
+
+  @Nonnull
+  URN urn;
+
+  // The value prior to the update, or null if there's none
+  @Nullable
+  RecordTemplate oldValue;
+
+  @Nonnull
+  RecordTemplate newValue;
+}
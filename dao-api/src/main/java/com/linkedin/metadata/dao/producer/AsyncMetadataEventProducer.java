@@ -0,0 +1,296 @@
+package com.linkedin.metadata.dao.producer;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.template.UnionTemplate;
+import com.linkedin.metadata.dao.exception.EventProducerInterruptedException;
+import com.linkedin.metadata.dao.exception.EventQueueFullException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * A metadata event producer that emits events asynchronously through another producer, so that slow event brokers
+ * don't add to the latency of writes.
+ *
+ * <p>Events are put in bounded queues, one per worker thread, and {@link AsyncMetadataEventProducerConfig.Backpressure}
+ * decides what happens when a queue is full. Each worker takes events from its queue in batches, groups every batch by
+ * topic, i.e. the type of event and, for aspect specific MAEs, the aspect, and passes each group to the batch method of
+ * the underlying producer, e.g. {@link BaseMetadataEventProducer#produceMetadataAuditEvents(List)}. Events of the same
+ * entity always go through the same worker, so they're emitted to each topic in the order they're produced.
+ *
+ * <p>Failures of the underlying producer are counted in {@link #getStats()} and don't stop the workers. The producer
+ * must be closed on shutdown, which emits all queued events before returning. Events are produced after the update
+ * they're about is committed, so the ones produced after the producer is closed are dropped and counted in
+ * {@link #getStats()} rather than failing the caller.
+ */
+public class AsyncMetadataEventProducer<SNAPSHOT extends RecordTemplate, ASPECT_UNION extends UnionTemplate, URN extends Urn>
+    extends BaseMetadataEventProducer<SNAPSHOT, ASPECT_UNION, URN> implements AutoCloseable {
+
+  private static final long POLL_INTERVAL_MS = 100;
+
+  private enum EventType {
+    METADATA_CHANGE_EVENT,
+    METADATA_AUDIT_EVENT,
+    ASPECT_SPECIFIC_METADATA_AUDIT_EVENT
+  }
+
+  @Value
+  private static class Topic {
+    EventType type;
+    // Only set for aspect specific events
+    Class<? extends RecordTemplate> aspectClass;
+  }
+
+  @Value
+  private static class Event<URN extends Urn> {
+    Topic topic;
+    AspectUpdate<URN> update;
+    long producedAt;
+  }
+
+  private final BaseMetadataEventProducer<SNAPSHOT, ASPECT_UNION, URN> _producer;
+  private final AsyncMetadataEventProducerConfig _config;
+  private final List<BlockingQueue<Event<URN>>> _queues;
+  private final ExecutorService _executor;
+
+  // Guards _closed so that no event can be queued once close() starts flushing
+  private final ReadWriteLock _closeLock = new ReentrantReadWriteLock();
+  private volatile boolean _closed = false;
+
+  // Number of events that are queued or being emitted
+  private final AtomicLong _pendingCount = new AtomicLong();
+
+  private final AtomicLong _emittedCount = new AtomicLong();
+  private final AtomicLong _droppedCount = new AtomicLong();
+  private final AtomicLong _failedCount = new AtomicLong();
+  private final AtomicLong _lastEmitLagMs = new AtomicLong();
+  private final AtomicLong _maxEmitLagMs = new AtomicLong();
+
+  /**
+   * Constructor for AsyncMetadataEventProducer, which starts the worker threads.
+   *
+   * @param producer {@link BaseMetadataEventProducer} that actually emits the events
+   * @param config {@link AsyncMetadataEventProducerConfig} containing the sizes of the queues and batches
+   */
+  public AsyncMetadataEventProducer(@Nonnull BaseMetadataEventProducer<SNAPSHOT, ASPECT_UNION, URN> producer,
+      @Nonnull AsyncMetadataEventProducerConfig config) {
+    super(producer._snapshotClass, producer._aspectUnionClass);
+
+    if (config.getQueueCapacity() < 1 || config.getBatchSize() < 1 || config.getParallelism() < 1) {
+      throw new IllegalArgumentException("Queue capacity, batch size and parallelism must be positive");
+    }
+
+    _producer = producer;
+    _config = config;
+    _queues = new ArrayList<>(config.getParallelism());
+
+    final AtomicInteger threadCount = new AtomicInteger();
+    _executor = Executors.newFixedThreadPool(config.getParallelism(), runnable -> {
+      final Thread thread = new Thread(runnable, "async-metadata-event-producer-" + threadCount.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    for (int i = 0; i < config.getParallelism(); i++) {
+      final BlockingQueue<Event<URN>> queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+      _queues.add(queue);
+      _executor.execute(() -> runWorker(queue));
+    }
+  }
+
+  @Override
+  public <ASPECT extends RecordTemplate> void produceSnapshotBasedMetadataChangeEvent(@Nonnull URN urn,
+      @Nonnull ASPECT newValue) {
+    enqueue(new Topic(EventType.METADATA_CHANGE_EVENT, null), urn, null, newValue);
+  }
+
+  @Override
+  public <ASPECT extends RecordTemplate> void produceMetadataAuditEvent(@Nonnull URN urn, @Nullable ASPECT oldValue,
+      @Nonnull ASPECT newValue) {
+    enqueue(new Topic(EventType.METADATA_AUDIT_EVENT, null), urn, oldValue, newValue);
+  }
+
+  @Override
+  public <ASPECT extends RecordTemplate> void produceAspectSpecificMetadataAuditEvent(@Nonnull URN urn,
+      @Nullable ASPECT oldValue, @Nonnull ASPECT newValue) {
+    enqueue(new Topic(EventType.ASPECT_SPECIFIC_METADATA_AUDIT_EVENT, newValue.getClass()), urn, oldValue, newValue);
+  }
+
+  /**
+   * Returns whether the producer is closed. Events produced after it's closed are dropped.
+   */
+  public boolean isClosed() {
+    return _closed;
+  }
+
+  /**
+   * Blocks until all events produced so far have been emitted.
+   */
+  public void flush() throws InterruptedException {
+    synchronized (_pendingCount) {
+      while (_pendingCount.get() > 0) {
+        _pendingCount.wait(POLL_INTERVAL_MS);
+      }
+    }
+  }
+
+  /**
+   * Stops accepting new events, and blocks until all queued events have been emitted.
+   */
+  @Override
+  public void close() {
+    _closeLock.writeLock().lock();
+    try {
+      if (_closed) {
+        return;
+      }
+      _closed = true;
+    } finally {
+      _closeLock.writeLock().unlock();
+    }
+
+    try {
+      flush();
+      _executor.shutdown();
+    } catch (InterruptedException e) {
+      _executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns a snapshot of the counters of the producer.
+   */
+  @Nonnull
+  public AsyncMetadataEventProducerStats getStats() {
+    final long queueDepth = _queues.stream().mapToLong(BlockingQueue::size).sum();
+    return new AsyncMetadataEventProducerStats(queueDepth, _emittedCount.get(), _droppedCount.get(),
+        _failedCount.get(), _lastEmitLagMs.get(), _maxEmitLagMs.get());
+  }
+
+  private void enqueue(@Nonnull Topic topic, @Nonnull URN urn, @Nullable RecordTemplate oldValue,
+      @Nonnull RecordTemplate newValue) {
+    final Event<URN> event =
+        new Event<>(topic, new AspectUpdate<>(urn, oldValue, newValue), System.currentTimeMillis());
+    final BlockingQueue<Event<URN>> queue = _queues.get(Math.floorMod(urn.toString().hashCode(), _queues.size()));
+
+    _closeLock.readLock().lock();
+    try {
+      if (_closed) {
+        _droppedCount.incrementAndGet();
+        return;
+      }
+
+      _pendingCount.incrementAndGet();
+      switch (_config.getBackpressure()) {
+        case BLOCK:
+          try {
+            queue.put(event);
+          } catch (InterruptedException e) {
+            completed(1);
+            Thread.currentThread().interrupt();
+            throw new EventProducerInterruptedException("Interrupted while waiting for room in the event queue", e);
+          }
+          break;
+        case DROP:
+          if (!queue.offer(event)) {
+            completed(1);
+            _droppedCount.incrementAndGet();
+          }
+          break;
+        default:
+          if (!queue.offer(event)) {
+            completed(1);
+            throw new EventQueueFullException("Event queue is full, capacity: " + _config.getQueueCapacity());
+          }
+      }
+    } finally {
+      _closeLock.readLock().unlock();
+    }
+  }
+
+  private void runWorker(@Nonnull BlockingQueue<Event<URN>> queue) {
+    final List<Event<URN>> batch = new ArrayList<>(_config.getBatchSize());
+    while (true) {
+      final Event<URN> first;
+      try {
+        first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        return;
+      }
+
+      if (first == null) {
+        if (_closed) {
+          return;
+        }
+        continue;
+      }
+
+      batch.add(first);
+      queue.drainTo(batch, _config.getBatchSize() - 1);
+      try {
+        emitBatch(batch);
+      } finally {
+        completed(batch.size());
+        batch.clear();
+      }
+    }
+  }
+
+  private void emitBatch(@Nonnull List<Event<URN>> batch) {
+    final Map<Topic, List<Event<URN>>> eventsByTopic =
+        batch.stream().collect(Collectors.groupingBy(Event::getTopic, LinkedHashMap::new, Collectors.toList()));
+
+    eventsByTopic.forEach((topic, events) -> {
+      final List<AspectUpdate<URN>> updates = events.stream().map(Event::getUpdate).collect(Collectors.toList());
+      try {
+        emit(topic, updates);
+        _emittedCount.addAndGet(updates.size());
+      } catch (RuntimeException e) {
+        // The underlying producer doesn't tell which events of the batch were emitted
+        _failedCount.addAndGet(updates.size());
+      }
+
+      final long now = System.currentTimeMillis();
+      _lastEmitLagMs.set(now - events.get(events.size() - 1).getProducedAt());
+      _maxEmitLagMs.accumulateAndGet(now - events.get(0).getProducedAt(), Math::max);
+    });
+  }
+
+  private void emit(@Nonnull Topic topic, @Nonnull List<AspectUpdate<URN>> updates) {
+    switch (topic.getType()) {
+      case METADATA_CHANGE_EVENT:
+        _producer.produceSnapshotBasedMetadataChangeEvents(updates);
+        break;
+      case METADATA_AUDIT_EVENT:
+        _producer.produceMetadataAuditEvents(updates);
+        break;
+      default:
+        _producer.produceAspectSpecificMetadataAuditEvents(updates);
+    }
+  }
+
+  private void completed(int count) {
+    if (_pendingCount.addAndGet(-count) == 0) {
+      synchronized (_pendingCount) {
+        _pendingCount.notifyAll();
+      }
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.linkedin.metadata.dao.producer;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+
+/**
+ * Immutable class that holds the config of an {@link AsyncMetadataEventProducer}.
+ */
+@Value
+@Builder
+public final class AsyncMetadataEventProducerConfig {
+
+  /**
+   * What to do when an event is produced while the queue is full.
+   */
+  public enum Backpressure {
+    // Block the caller until there's room in the queue, or throw EventProducerInterruptedException if it's interrupted
+    BLOCK,
+    // Drop the event
+    DROP,
+    // Throw EventQueueFullException to the caller
+    FAIL
+  }
+
+  /**
+   * Maximal number of events waiting to be emitted by each worker.
+   */
+  @Builder.Default
+  private final int queueCapacity = 10_000;
+
+  /**
+   * Maximal number of events a worker takes from its queue at a time, which are then emitted grouped by topic.
+   */
+  @Builder.Default
+  private final int batchSize = 100;
+
+  /**
+   * Number of worker threads. Events of the same entity are always emitted by the same worker, in the order they're
+   * produced.
+   */
+  @Builder.Default
+  private final int parallelism = 1;
+
+  @NonNull
+  @Builder.Default
+  private final Backpressure backpressure = Backpressure.BLOCK;
+}
@@ -0,0 +1,29 @@
+package com.linkedin.metadata.dao.producer;
+
+import lombok.Value;
+
+
+/**
+ * A snapshot of the counters of an {@link AsyncMetadataEventProducer}.
+ */
+@Value
+public class AsyncMetadataEventProducerStats {
+
+  // Number of events waiting in the queues
+  long queueDepth;
+
+  // Number of events passed to the underlying producer
+  long emittedCount;
+
+  // Number of events dropped because the queue was full or the producer was closed
+  long droppedCount;
+
+  // Number of events the underlying producer failed to emit
+  long failedCount;
+
+  // Time (in milliseconds) between producing and emitting the most recently emitted event
+  long lastEmitLagMs;
+
+  // Maximal time (in milliseconds) between producing and emitting an event
+  long maxEmitLagMs;
+}
@@ -4,6 +4,7 @@ import com.linkedin.common.urn.Urn;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.data.template.UnionTemplate;
 import com.linkedin.metadata.dao.utils.ModelUtils;
+import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -55,4 +56,41 @@ public abstract class BaseMetadataEventProducer<SNAPSHOT extends RecordTemplate,
    */
   public abstract <ASPECT extends RecordTemplate> void produceAspectSpecificMetadataAuditEvent(@Nonnull URN urn,
       @Nullable ASPECT oldValue, @Nonnull ASPECT newValue);
+
+  /**
+   * Produces MCEs for a batch of updates, in order.
+   *
+   * <p>The default implementation produces one event at a time. Producers that can send a batch to the broker in one
+   * request should override this.
+   *
+   * @param updates the updates to produce the events for, which all have a new value and no old value
+   */
+  public void produceSnapshotBasedMetadataChangeEvents(@Nonnull List<AspectUpdate<URN>> updates) {
+    updates.forEach(update -> produceSnapshotBasedMetadataChangeEvent(update.getUrn(), update.getNewValue()));
+  }
+
+  /**
+   * Produces MAEs for a batch of updates, in order.
+   *
+   * <p>The default implementation produces one event at a time. Producers that can send a batch to the broker in one
+   * request should override this.
+   *
+   * @param updates the updates to produce the events for
+   */
+  public void produceMetadataAuditEvents(@Nonnull List<AspectUpdate<URN>> updates) {
+    updates.forEach(update -> produceMetadataAuditEvent(update.getUrn(), update.getOldValue(), update.getNewValue()));
+  }
+
+  /**
+   * Produces aspect specific MAEs for a batch of updates of the same aspect, in order.
+   *
+   * <p>The default implementation produces one event at a time. Producers that can send a batch to the broker in one
+   * request should override this.
+   *
+   * @param updates the updates to produce the events for
+   */
+  public void produceAspectSpecificMetadataAuditEvents(@Nonnull List<AspectUpdate<URN>> updates) {
+    updates.forEach(update -> produceAspectSpecificMetadataAuditEvent(update.getUrn(), update.getOldValue(),
+        update.getNewValue()));
+  }
 }
@@ -0,0 +1,161 @@
+package com.linkedin.metadata.dao.retention;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.RecordTemplate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nonnull;
+import lombok.Value;
+
+
+/**
+ * Applies retention in the background, so that writes don't have to delete old versions in their transactions.
+ *
+ * <p>Writes mark the (urn, aspect) pairs they update as dirty, along with the largest version of the aspect, and a
+ * scheduled sweep purges the old versions of dirty pairs in batches. The number of batches per sweep is bounded to limit
+ * the load on the database. A batch that fails is put back in the backlog and retried by the next sweep.
+ *
+ * <p>The sweeper must be closed on shutdown, which sweeps all remaining dirty pairs before returning.
+ *
+ * @param <URN> must be a valid {@link Urn} type
+ */
+public class RetentionSweeper<URN extends Urn> implements AutoCloseable {
+
+  /**
+   * An (urn, aspect) pair whose retention needs to be applied.
+   */
+  @Value
+  public static class DirtyAspect<URN extends Urn> {
+    URN urn;
+    Class<? extends RecordTemplate> aspectClass;
+  }
+
+  private final RetentionSweeperConfig _config;
+  private final ToLongFunction<Map<DirtyAspect<URN>, Long>> _purger;
+  private final ScheduledExecutorService _scheduler;
+
+  // Maps a dirty pair to the largest version of the aspect
+  private final Map<DirtyAspect<URN>, Long> _dirtyAspects = new ConcurrentHashMap<>();
+
+  private final AtomicLong _sweptCount = new AtomicLong();
+  private final AtomicLong _purgedCount = new AtomicLong();
+  private final AtomicLong _failedCount = new AtomicLong();
+
+  /**
+   * Constructor for RetentionSweeper, which schedules the sweeps.
+   *
+   * @param config {@link RetentionSweeperConfig} containing the sweep interval and batch sizes
+   * @param purger applies retention to a batch of dirty pairs, given the largest version of each, in one transaction and
+   *     returns the number of deleted versions
+   */
+  public RetentionSweeper(@Nonnull RetentionSweeperConfig config,
+      @Nonnull ToLongFunction<Map<DirtyAspect<URN>, Long>> purger) {
+    if (config.getSweepIntervalMs() < 1 || config.getBatchSize() < 1 || config.getMaxBatchesPerSweep() < 1) {
+      throw new IllegalArgumentException("Sweep interval, batch size and max batches per sweep must be positive");
+    }
+
+    _config = config;
+    _purger = purger;
+    _scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "retention-sweeper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    _scheduler.scheduleWithFixedDelay(this::sweepQuietly, config.getSweepIntervalMs(), config.getSweepIntervalMs(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Marks an aspect of an entity as dirty, which must be called after an update of the aspect is committed.
+   *
+   * @param urn {@link Urn} for the entity
+   * @param aspectClass the type of the updated aspect
+   * @param largestVersion the largest version of the aspect after the update
+   */
+  public void markDirty(@Nonnull URN urn, @Nonnull Class<? extends RecordTemplate> aspectClass, long largestVersion) {
+    _dirtyAspects.merge(new DirtyAspect<>(urn, aspectClass), largestVersion, Math::max);
+  }
+
+  /**
+   * Applies retention to at most {@link RetentionSweeperConfig#getMaxBatchesPerSweep()} batches of dirty pairs.
+   *
+   * @return the number of pairs retention has been applied to
+   */
+  public synchronized int sweep() {
+    int swept = 0;
+    for (int i = 0; i < _config.getMaxBatchesPerSweep(); i++) {
+      final Map<DirtyAspect<URN>, Long> batch = takeBatch();
+      if (batch.isEmpty()) {
+        break;
+      }
+
+      try {
+        _purgedCount.addAndGet(_purger.applyAsLong(batch));
+      } catch (RuntimeException e) {
+        _failedCount.incrementAndGet();
+        batch.forEach((dirtyAspect, largestVersion) -> _dirtyAspects.merge(dirtyAspect, largestVersion, Math::max));
+        throw e;
+      }
+
+      _sweptCount.addAndGet(batch.size());
+      swept += batch.size();
+    }
+    return swept;
+  }
+
+  /**
+   * Stops the scheduled sweeps, and sweeps all remaining dirty pairs.
+   */
+  @Override
+  public void close() {
+    _scheduler.shutdown();
+    try {
+      _scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+
+    while (!_dirtyAspects.isEmpty()) {
+      sweep();
+    }
+  }
+
+  /**
+   * Returns a snapshot of the counters of the sweeper.
+   */
+  @Nonnull
+  public RetentionSweeperStats getStats() {
+    return new RetentionSweeperStats(_dirtyAspects.size(), _sweptCount.get(), _purgedCount.get(), _failedCount.get());
+  }
+
+  @Nonnull
+  private Map<DirtyAspect<URN>, Long> takeBatch() {
+    final Map<DirtyAspect<URN>, Long> batch = new HashMap<>();
+    final Iterator<DirtyAspect<URN>> iterator = _dirtyAspects.keySet().iterator();
+    while (batch.size() < _config.getBatchSize() && iterator.hasNext()) {
+      final DirtyAspect<URN> dirtyAspect = iterator.next();
+      // Removed atomically, so that a version marked concurrently is either in this batch or stays in the backlog
+      final Long largestVersion = _dirtyAspects.remove(dirtyAspect);
+      if (largestVersion != null) {
+        batch.put(dirtyAspect, largestVersion);
+      }
+    }
+    return batch;
+  }
+
+  private void sweepQuietly() {
+    try {
+      sweep();
+    } catch (RuntimeException e) {
+      // Counted in the stats, and the failed batch is retried by the next sweep
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.linkedin.metadata.dao.retention;
+
+import lombok.Builder;
+import lombok.Value;
+
+
+/**
+ * Immutable class that holds the config of a {@link RetentionSweeper}.
+ */
+@Value
+@Builder
+public final class RetentionSweeperConfig {
+
+  /**
+   * Time (in milliseconds) between the end of a sweep and the start of the next one.
+   */
+  @Builder.Default
+  private final long sweepIntervalMs = 60_000L;
+
+  /**
+   * Maximal number of (urn, aspect) pairs whose retention is applied in one transaction.
+   */
+  @Builder.Default
+  private final int batchSize = 100;
+
+  /**
+   * Maximal number of batches per sweep, which together with {@link #sweepIntervalMs} limits the rate of deletes.
+   */
+  @Builder.Default
+  private final int maxBatchesPerSweep = 10;
+}
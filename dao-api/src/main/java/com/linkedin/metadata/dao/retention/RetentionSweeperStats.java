@@ -0,0 +1,23 @@
+package com.linkedin.metadata.dao.retention;
+
+import lombok.Value;
+
+
+/**
+ * A snapshot of the counters of a {@link RetentionSweeper}.
+ */
+@Value
+public class RetentionSweeperStats {
+
+  // Number of (urn, aspect) pairs waiting for retention to be applied
+  long backlog;
+
+  // Number of (urn, aspect) pairs retention has been applied to
+  long sweptCount;
+
+  // Number of old versions deleted by retention, as far as the DAO counts them
+  long purgedCount;
+
+  // Number of batches that failed, whose pairs are put back in the backlog
+  long failedCount;
+}
@@ -0,0 +1,156 @@
+package com.linkedin.metadata.dao.utils;
+
+import com.linkedin.data.template.AbstractArrayTemplate;
+import com.linkedin.data.template.RecordTemplate;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang.StringUtils;
+
+
+/**
+ * A string representation of a Pegasus PathSpec, e.g. "/foo/bar" or "/recordArray/&#42;/value", that is parsed once into
+ * a chain of field accessors. Obtained from {@link RecordUtils#compilePath(String)}.
+ *
+ * <p>Evaluating a compiled path gives the same results as {@link RecordUtils#getFieldValue(RecordTemplate, String)},
+ * without parsing the path again. Each step of the chain remembers the getter of the record class it was last evaluated
+ * against, so that the getter map of the class isn't looked up per record. Compiled paths are thread-safe.
+ */
+public final class CompiledPath {
+
+  private static final String ARRAY_WILDCARD = "*";
+
+  private final String _path;
+  private final Step[] _steps;
+
+  private CompiledPath(@Nonnull String path, @Nonnull Step[] steps) {
+    _path = path;
+    _steps = steps;
+  }
+
+  /**
+   * Parses a string representation of a Pegasus PathSpec. Leading and trailing slashes and spaces are ignored.
+   */
+  @Nonnull
+  static CompiledPath compile(@Nonnull String pathSpecAsString) {
+    int start = 0;
+    int end = pathSpecAsString.length();
+    while (start < end && isSlashOrSpace(pathSpecAsString.charAt(start))) {
+      start++;
+    }
+    while (end > start && isSlashOrSpace(pathSpecAsString.charAt(end - 1))) {
+      end--;
+    }
+
+    final List<Step> steps = new ArrayList<>();
+    while (start < end) {
+      int slash = pathSpecAsString.indexOf('/', start);
+      if (slash < 0 || slash > end) {
+        slash = end;
+      }
+      steps.add(new Step(pathSpecAsString.substring(start, slash)));
+      start = slash + 1;
+    }
+    return new CompiledPath(pathSpecAsString, steps.toArray(new Step[0]));
+  }
+
+  private static boolean isSlashOrSpace(char c) {
+    return c == '/' || c == ' ';
+  }
+
+  /**
+   * Returns the value of this path in the given record, see {@link RecordUtils#getFieldValue(RecordTemplate, String)}.
+   */
+  @Nonnull
+  public Optional<Object> getValue(@Nonnull RecordTemplate recordTemplate) {
+    if (_steps.length == 0) {
+      return Optional.empty();
+    }
+    return getValue(recordTemplate, 0);
+  }
+
+  @Nonnull
+  private Optional<Object> getValue(@Nonnull RecordTemplate recordTemplate, int from) {
+    Object reference = recordTemplate;
+    for (int i = from; i < _steps.length; i++) {
+      final Step step = _steps[i];
+      if (step._wildcard) {
+        continue;
+      }
+      if (step._numeric) {
+        throw new UnsupportedOperationException(
+            String.format("Array indexing is not supported for %s (%s from %s)", step._part, _path, reference));
+      }
+      if (reference instanceof RecordTemplate) {
+        reference = step.get((RecordTemplate) reference);
+        if (reference == null) {
+          return Optional.empty();
+        }
+      } else if (reference instanceof AbstractArrayTemplate) {
+        return Optional.of(getArrayValues((AbstractArrayTemplate<?>) reference, i));
+      } else {
+        throw new UnsupportedOperationException(
+            String.format("Failed at extracting %s (%s from %s)", step._part, _path, recordTemplate));
+      }
+    }
+    return Optional.of(reference);
+  }
+
+  /**
+   * Evaluates the rest of the path, starting at the given step, against each record of an array.
+   */
+  @Nonnull
+  private List<Object> getArrayValues(@Nonnull AbstractArrayTemplate<?> array, int from) {
+    if (array.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final List<Object> values = new ArrayList<>(array.size());
+    for (Object element : array) {
+      getValue((RecordTemplate) element, from).ifPresent(values::add);
+    }
+    return values;
+  }
+
+  /**
+   * A component of the path, with the getter it was last resolved to.
+   */
+  private static final class Step {
+
+    private final String _part;
+    private final boolean _wildcard;
+    private final boolean _numeric;
+    @Nullable
+    private volatile Getter _getter;
+
+    Step(@Nonnull String part) {
+      _part = part;
+      _wildcard = part.equals(ARRAY_WILDCARD);
+      _numeric = StringUtils.isNumeric(part);
+    }
+
+    @Nullable
+    Object get(@Nonnull RecordTemplate record) {
+      Getter getter = _getter;
+      if (getter == null || getter._recordClass != record.getClass()) {
+        getter = new Getter(record.getClass(), RecordUtils.getFieldGetter(record, _part));
+        _getter = getter;
+      }
+      return RecordUtils.invokeFieldGetter(getter._handle, record, _part);
+    }
+  }
+
+  private static final class Getter {
+
+    private final Class<?> _recordClass;
+    private final MethodHandle _handle;
+
+    Getter(@Nonnull Class<?> recordClass, @Nonnull MethodHandle handle) {
+      _recordClass = recordClass;
+      _handle = handle;
+    }
+  }
+}
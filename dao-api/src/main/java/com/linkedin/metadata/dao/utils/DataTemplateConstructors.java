@@ -0,0 +1,106 @@
+package com.linkedin.metadata.dao.utils;
+
+import com.linkedin.data.DataMap;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Creates Pegasus data templates through their public constructors, which are looked up once per class and cached as
+ * {@link MethodHandle}s, instead of being looked up and access checked for every instance. The handles are kept in
+ * {@link ClassValue}s, so that they don't keep the classes, and their class loaders, from being unloaded.
+ */
+final class DataTemplateConstructors {
+
+  private static final MethodType NO_ARG_TYPE = MethodType.methodType(Object.class);
+  private static final MethodType DATA_MAP_TYPE = MethodType.methodType(Object.class, DataMap.class);
+
+  private static final ClassValue<MethodHandle> NO_ARG_CONSTRUCTORS = constructors(NO_ARG_TYPE);
+  private static final ClassValue<MethodHandle> DATA_MAP_CONSTRUCTORS = constructors(DATA_MAP_TYPE);
+
+  private DataTemplateConstructors() {
+    // Util class
+  }
+
+  /**
+   * Creates an instance of a class through its public no-arg constructor.
+   *
+   * @throws NoSuchMethodException if the class has no such constructor
+   * @throws IllegalAccessException if the class or its constructor isn't accessible
+   * @throws InvocationTargetException if the constructor throws, which is the cause of the exception
+   */
+  @Nonnull
+  static <T> T newInstance(@Nonnull Class<T> type)
+      throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+    final MethodHandle constructor = getConstructor(NO_ARG_CONSTRUCTORS, type, NO_ARG_TYPE);
+    final Object instance;
+    try {
+      instance = constructor.invokeExact();
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+    return type.cast(instance);
+  }
+
+  /**
+   * Creates an instance of a class through its public {@link DataMap} constructor.
+   *
+   * @throws NoSuchMethodException if the class has no such constructor
+   * @throws IllegalAccessException if the class or its constructor isn't accessible
+   * @throws InvocationTargetException if the constructor throws, which is the cause of the exception
+   */
+  @Nonnull
+  static <T> T newInstance(@Nonnull Class<T> type, @Nonnull DataMap dataMap)
+      throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+    final MethodHandle constructor = getConstructor(DATA_MAP_CONSTRUCTORS, type, DATA_MAP_TYPE);
+    final Object instance;
+    try {
+      instance = constructor.invokeExact(dataMap);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+    return type.cast(instance);
+  }
+
+  /**
+   * Caches the constructors of classes whose parameters are those of the given type, or null for the classes that have
+   * no such public constructor.
+   */
+  @Nonnull
+  private static ClassValue<MethodHandle> constructors(@Nonnull MethodType constructorType) {
+    return new ClassValue<MethodHandle>() {
+      @Override
+      @Nullable
+      protected MethodHandle computeValue(Class<?> type) {
+        try {
+          return findConstructor(type, constructorType);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+          return null;
+        }
+      }
+    };
+  }
+
+  /**
+   * Gets the constructor of a class whose parameters are those of the given type, adapted to that type.
+   */
+  @Nonnull
+  private static MethodHandle getConstructor(@Nonnull ClassValue<MethodHandle> cache, @Nonnull Class<?> type,
+      @Nonnull MethodType constructorType) throws NoSuchMethodException, IllegalAccessException {
+    final MethodHandle cached = cache.get(type);
+    // A failed lookup is made again, so that each caller gets its own exception
+    return cached != null ? cached : findConstructor(type, constructorType);
+  }
+
+  @Nonnull
+  private static MethodHandle findConstructor(@Nonnull Class<?> type, @Nonnull MethodType constructorType)
+      throws NoSuchMethodException, IllegalAccessException {
+    return MethodHandles.publicLookup()
+        .findConstructor(type, constructorType.changeReturnType(void.class))
+        .asType(constructorType);
+  }
+}
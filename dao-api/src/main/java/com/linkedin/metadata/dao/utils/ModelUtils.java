@@ -36,6 +36,21 @@ public class ModelUtils {
   private static final ClassLoader CLASS_LOADER = DummySnapshot.class.getClassLoader();
   private static final String METADATA_AUDIT_EVENT_PREFIX = "METADATA_AUDIT_EVENT";
 
+  /**
+   * The type of the aspects field of each snapshot class, i.e. the return type of its getAspects method.
+   */
+  private static final ClassValue<Class<? extends WrappingArrayTemplate>> ASPECTS_ARRAY_CLASSES =
+      new ClassValue<Class<? extends WrappingArrayTemplate>>() {
+        @Override
+        protected Class<? extends WrappingArrayTemplate> computeValue(Class<?> snapshotClass) {
+          try {
+            return snapshotClass.getMethod("getAspects").getReturnType().asSubclass(WrappingArrayTemplate.class);
+          } catch (NoSuchMethodException | ClassCastException e) {
+            throw new RuntimeException((e));
+          }
+        }
+      };
+
   private ModelUtils() {
     // Util class
   }
@@ -288,26 +303,26 @@ public class ModelUtils {
 
     final Class<? extends WrappingArrayTemplate> aspectArrayClass = getAspectsArrayClass(snapshotClass);
 
-    try {
-      final SNAPSHOT snapshot = snapshotClass.newInstance();
-      RecordUtils.setRecordTemplatePrimitiveField(snapshot, "urn", urn.toString());
-      WrappingArrayTemplate aspectArray = aspectArrayClass.newInstance();
-      aspectArray.addAll(aspects);
-      RecordUtils.setRecordTemplateComplexField(snapshot, "aspects", aspectArray);
-      return snapshot;
-    } catch (InstantiationException | IllegalAccessException e) {
-      throw new RuntimeException(e);
-    }
+    final SNAPSHOT snapshot = newInstance(snapshotClass);
+    RecordUtils.setRecordTemplatePrimitiveField(snapshot, "urn", urn.toString());
+    WrappingArrayTemplate aspectArray = newInstance(aspectArrayClass);
+    aspectArray.addAll(aspects);
+    RecordUtils.setRecordTemplateComplexField(snapshot, "aspects", aspectArray);
+    return snapshot;
   }
 
   @Nonnull
   private static <SNAPSHOT extends RecordTemplate> Class<? extends WrappingArrayTemplate> getAspectsArrayClass(
       @Nonnull Class<SNAPSHOT> snapshotClass) {
+    return ASPECTS_ARRAY_CLASSES.get(snapshotClass);
+  }
 
+  @Nonnull
+  private static <T> T newInstance(@Nonnull Class<T> clazz) {
     try {
-      return snapshotClass.getMethod("getAspects").getReturnType().asSubclass(WrappingArrayTemplate.class);
-    } catch (NoSuchMethodException | ClassCastException e) {
-      throw new RuntimeException((e));
+      return DataTemplateConstructors.newInstance(clazz);
+    } catch (ReflectiveOperationException e) {
+      throw new RuntimeException(e);
     }
   }
 
@@ -326,13 +341,9 @@ public class ModelUtils {
 
     AspectValidator.validateAspectUnionSchema(aspectUnionClass);
 
-    try {
-      ASPECT_UNION aspectUnion = aspectUnionClass.newInstance();
-      RecordUtils.setSelectedRecordTemplateInUnion(aspectUnion, aspect);
-      return aspectUnion;
-    } catch (InstantiationException | IllegalAccessException e) {
-      throw new RuntimeException(e);
-    }
+    ASPECT_UNION aspectUnion = newInstance(aspectUnionClass);
+    RecordUtils.setSelectedRecordTemplateInUnion(aspectUnion, aspect);
+    return aspectUnion;
   }
 
   /**
@@ -482,13 +493,9 @@ public class ModelUtils {
 
     RelationshipValidator.validateRelationshipUnionSchema(relationshipUnionClass);
 
-    try {
-      RELATIONSHIP_UNION relationshipUnion = relationshipUnionClass.newInstance();
-      RecordUtils.setSelectedRecordTemplateInUnion(relationshipUnion, relationship);
-      return relationshipUnion;
-    } catch (InstantiationException | IllegalAccessException e) {
-      throw new RuntimeException(e);
-    }
+    RELATIONSHIP_UNION relationshipUnion = newInstance(relationshipUnionClass);
+    RecordUtils.setSelectedRecordTemplateInUnion(relationshipUnion, relationship);
+    return relationshipUnion;
   }
 
   /**
@@ -546,12 +553,8 @@ public class ModelUtils {
 
     EntityValidator.validateEntityUnionSchema(entityUnionClass);
 
-    try {
-      ENTITY_UNION entityUnion = entityUnionClass.newInstance();
-      RecordUtils.setSelectedRecordTemplateInUnion(entityUnion, entity);
-      return entityUnion;
-    } catch (InstantiationException | IllegalAccessException e) {
-      throw new RuntimeException(e);
-    }
+    ENTITY_UNION entityUnion = newInstance(entityUnionClass);
+    RecordUtils.setSelectedRecordTemplateInUnion(entityUnion, entity);
+    return entityUnion;
   }
 }
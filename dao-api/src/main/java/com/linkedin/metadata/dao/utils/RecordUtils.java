@@ -14,7 +14,9 @@ import com.linkedin.data.template.UnionTemplate;
 import com.linkedin.metadata.dao.exception.ModelConversionException;
 import com.linkedin.metadata.validator.InvalidSchemaException;
 import java.io.IOException;
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
@@ -25,7 +27,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -37,15 +38,41 @@ public class RecordUtils {
 
   private static final JacksonDataTemplateCodec DATA_TEMPLATE_CODEC = new JacksonDataTemplateCodec();
   private static final String ARRAY_WILDCARD = "*";
-  private static final Pattern LEADING_SPACESLASH_PATTERN = Pattern.compile("^[/ ]+");
-  private static final Pattern TRAILING_SPACESLASH_PATTERN = Pattern.compile("[/ ]+$");
-  private static final Pattern SLASH_PATERN = Pattern.compile("/");
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, RecordTemplate.class);
+  private static final MethodType PROTECTED_METHOD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+  // Protected methods of RecordTemplate and UnionTemplate, which are looked up and made accessible on first use
+  private static final ProtectedMethod PUT_DIRECT =
+      new ProtectedMethod(RecordTemplate.class, "putDirect", RecordDataSchema.Field.class, Class.class, Object.class,
+          SetMode.class);
+  private static final ProtectedMethod PUT_WRAPPED =
+      new ProtectedMethod(RecordTemplate.class, "putWrapped", RecordDataSchema.Field.class, Class.class,
+          DataTemplate.class, SetMode.class);
+  private static final ProtectedMethod OBTAIN_CUSTOM_TYPE =
+      new ProtectedMethod(RecordTemplate.class, "obtainCustomType", RecordDataSchema.Field.class, Class.class,
+          GetMode.class);
+  private static final ProtectedMethod RECORD_OBTAIN_WRAPPED =
+      new ProtectedMethod(RecordTemplate.class, "obtainWrapped", RecordDataSchema.Field.class, Class.class,
+          GetMode.class);
+  private static final ProtectedMethod UNION_OBTAIN_WRAPPED =
+      new ProtectedMethod(UnionTemplate.class, "obtainWrapped", DataSchema.class, Class.class, String.class);
+  private static final ProtectedMethod UNION_SELECT_WRAPPED =
+      new ProtectedMethod(UnionTemplate.class, "selectWrapped", DataSchema.class, Class.class, String.class,
+          DataTemplate.class);
 
   /**
    * Using in-memory hash map to store the get/is methods of the schema fields of RecordTemplate.
-   * Here map has RecordTemplate class as key, value being another map of field name with the associated get/is method
+   * Here map has RecordTemplate class as key, value being another map of field name with the associated get/is method,
+   * as a {@link MethodHandle} of type (RecordTemplate)Object
    */
-  private static final ConcurrentHashMap<Class<? extends RecordTemplate>, Map<String, Method>> METHOD_CACHE = new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<Class<? extends RecordTemplate>, Map<String, MethodHandle>> METHOD_CACHE = new ConcurrentHashMap<>();
+
+  /**
+   * Compiled string representations of PathSpecs. Paths come from storage configs and queries, so this stops caching new
+   * paths once it holds {@link #MAX_COMPILED_PATHS} of them rather than growing without bounds.
+   */
+  private static final int MAX_COMPILED_PATHS = 10_000;
+  private static final ConcurrentHashMap<String, CompiledPath> COMPILED_PATHS = new ConcurrentHashMap<>();
 
   private RecordUtils() {
     // Util class
@@ -104,15 +131,10 @@ public class RecordUtils {
    */
   @Nonnull
   public static <T extends RecordTemplate> T toRecordTemplate(@Nonnull Class<T> type, @Nonnull DataMap dataMap) {
-    Constructor<T> constructor;
     try {
-      constructor = type.getConstructor(DataMap.class);
+      return DataTemplateConstructors.newInstance(type, dataMap);
     } catch (NoSuchMethodException e) {
       throw new ModelConversionException("Unable to find constructor for " + type.getCanonicalName(), e);
-    }
-
-    try {
-      return constructor.newInstance(dataMap);
     } catch (Exception e) {
       throw new ModelConversionException("Failed to invoke constructor for " + type.getCanonicalName(), e);
     }
@@ -149,19 +171,12 @@ public class RecordUtils {
   extractAspectFromSingleAspectEntity(@Nonnull ENTITY entity, @Nonnull Class<ASPECT> aspectClass) {
 
     // Create an empty aspect to extract it's field names
-    final Constructor<ASPECT> constructor;
+    final ASPECT aspect;
     try {
-      @SuppressWarnings("rawtypes")
-      final Class[] constructorParamArray = new Class[] {};
-      constructor = aspectClass.getConstructor(constructorParamArray);
+      aspect = DataTemplateConstructors.newInstance(aspectClass);
     } catch (NoSuchMethodException e) {
       throw new RuntimeException("Exception occurred while trying to get the default constructor for the aspect. ", e);
-    }
-
-    final ASPECT aspect;
-    try {
-      aspect = constructor.newInstance();
-    } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+    } catch (IllegalAccessException | InvocationTargetException e) {
       throw new RuntimeException("Exception occurred while creating an instance of the aspect. ", e);
     }
 
@@ -218,10 +233,7 @@ public class RecordUtils {
       @Nonnull String fieldName, @Nonnull V value) {
 
     final RecordDataSchema.Field field = getRecordDataSchemaField(recordTemplate, fieldName);
-    final Method putDirect =
-        getProtectedMethod(RecordTemplate.class, "putDirect", RecordDataSchema.Field.class, Class.class, Object.class,
-            SetMode.class);
-    invokeProtectedMethod(recordTemplate, putDirect, field, value.getClass(), value, SetMode.DISALLOW_NULL);
+    invokeProtectedMethod(recordTemplate, PUT_DIRECT, field, value.getClass(), value, SetMode.DISALLOW_NULL);
   }
 
   /**
@@ -235,10 +247,7 @@ public class RecordUtils {
       @Nonnull T recordTemplate, @Nonnull String fieldName, @Nonnull V value) {
 
     final RecordDataSchema.Field field = getRecordDataSchemaField(recordTemplate, fieldName);
-    final Method putWrapped =
-        getProtectedMethod(RecordTemplate.class, "putWrapped", RecordDataSchema.Field.class, Class.class,
-            DataTemplate.class, SetMode.class);
-    invokeProtectedMethod(recordTemplate, putWrapped, field, value.getClass(), value, SetMode.DISALLOW_NULL);
+    invokeProtectedMethod(recordTemplate, PUT_WRAPPED, field, value.getClass(), value, SetMode.DISALLOW_NULL);
   }
 
   /**
@@ -254,10 +263,7 @@ public class RecordUtils {
       @Nonnull String fieldName, @Nonnull Class<V> valueClass) {
 
     final RecordDataSchema.Field field = getRecordDataSchemaField(recordTemplate, fieldName);
-    final Method obtainCustomType =
-        getProtectedMethod(RecordTemplate.class, "obtainCustomType", RecordDataSchema.Field.class, Class.class,
-            GetMode.class);
-    return (V) invokeProtectedMethod(recordTemplate, obtainCustomType, field, valueClass, GetMode.STRICT);
+    return (V) invokeProtectedMethod(recordTemplate, OBTAIN_CUSTOM_TYPE, field, valueClass, GetMode.STRICT);
   }
 
   /**
@@ -273,10 +279,7 @@ public class RecordUtils {
       @Nonnull T recordTemplate, @Nonnull String fieldName, @Nonnull Class<V> valueClass) {
 
     final RecordDataSchema.Field field = getRecordDataSchemaField(recordTemplate, fieldName);
-    final Method obtainWrapped =
-        getProtectedMethod(RecordTemplate.class, "obtainWrapped", RecordDataSchema.Field.class, Class.class,
-            GetMode.class);
-    return (V) invokeProtectedMethod(recordTemplate, obtainWrapped, field, valueClass, GetMode.STRICT);
+    return (V) invokeProtectedMethod(recordTemplate, RECORD_OBTAIN_WRAPPED, field, valueClass, GetMode.STRICT);
   }
 
   /**
@@ -298,9 +301,7 @@ public class RecordUtils {
     final Class<? extends RecordTemplate> clazz =
         ModelUtils.getClassFromName(((RecordDataSchema) dataSchema).getBindingName(), RecordTemplate.class);
 
-    final Method obtainWrapped =
-        getProtectedMethod(UnionTemplate.class, "obtainWrapped", DataSchema.class, Class.class, String.class);
-    return (V) invokeProtectedMethod(unionTemplate, obtainWrapped, dataSchema, clazz,
+    return (V) invokeProtectedMethod(unionTemplate, UNION_OBTAIN_WRAPPED, dataSchema, clazz,
         ((RecordDataSchema) dataSchema).getFullName());
   }
 
@@ -315,45 +316,34 @@ public class RecordUtils {
   public static <V extends RecordTemplate> RecordTemplate setSelectedRecordTemplateInUnion(
       @Nonnull UnionTemplate unionTemplate, @Nonnull RecordTemplate selectedMember) {
 
-    final Method selectWrapped =
-        getProtectedMethod(UnionTemplate.class, "selectWrapped", DataSchema.class, Class.class, String.class,
-            DataTemplate.class);
-    return (V) invokeProtectedMethod(unionTemplate, selectWrapped, selectedMember.schema(), selectedMember.getClass(),
+    return (V) invokeProtectedMethod(unionTemplate, UNION_SELECT_WRAPPED, selectedMember.schema(), selectedMember.getClass(),
         selectedMember.schema().getUnionMemberKey(), selectedMember);
   }
 
   @Nonnull
-  private static Method getProtectedMethod(@Nonnull Class clazz, @Nonnull String methodName,
-      @Nonnull Class<?>... parameterTypes) {
-    try {
-      return clazz.getDeclaredMethod(methodName, parameterTypes);
-    } catch (NoSuchMethodException e) {
-      throw new RuntimeException(e);
-    }
-  }
-
-  @Nonnull
-  private static <T> T invokeProtectedMethod(Object object, Method method, Object... args) {
+  private static <T> T invokeProtectedMethod(Object object, ProtectedMethod method, Object... args) {
+    final MethodHandle handle = method.get();
+    final Object[] arguments = new Object[args.length + 1];
+    arguments[0] = object;
+    System.arraycopy(args, 0, arguments, 1, args.length);
     try {
-      method.setAccessible(true);
-      return (T) method.invoke(object, args);
-    } catch (IllegalAccessException | InvocationTargetException e) {
-      throw new RuntimeException(e);
-    } finally {
-      method.setAccessible(false);
+      return (T) (Object) handle.invokeExact(arguments);
+    } catch (Throwable t) {
+      throw new RuntimeException(t);
     }
   }
 
   @Nonnull
-  private static Map<String, Method> getMethodsFromRecordTemplate(@Nonnull RecordTemplate recordTemplate) {
-    final HashMap<String, Method> methodMap = new HashMap<>();
+  private static Map<String, MethodHandle> getMethodsFromRecordTemplate(@Nonnull RecordTemplate recordTemplate) {
+    final HashMap<String, MethodHandle> methodMap = new HashMap<>();
     for (RecordDataSchema.Field field : recordTemplate.schema().getFields()) {
       final String capitalizedName = capitalizeFirst(field.getName());
       final String getMethodName =
           (field.getType().getType().equals(RecordDataSchema.Type.BOOLEAN) ? "is" : "get") + capitalizedName;
       try {
-        methodMap.put(field.getName(), recordTemplate.getClass().getMethod(getMethodName));
-      } catch (NoSuchMethodException e) {
+        final Method method = recordTemplate.getClass().getMethod(getMethodName);
+        methodMap.put(field.getName(), MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE));
+      } catch (NoSuchMethodException | IllegalAccessException e) {
         throw new RuntimeException(String.format("Failed to get method [%s], for class [%s], field [%s]",
             getMethodName, recordTemplate.getClass().getCanonicalName(), field.getName()), e);
       }
@@ -361,6 +351,39 @@ public class RecordUtils {
     return Collections.unmodifiableMap(methodMap);
   }
 
+  /**
+   * Gets the get/is method of a schema field of a {@link RecordTemplate}, finding and caching the methods of all schema
+   * fields of the record if none has been used yet.
+   *
+   * @param record {@link RecordTemplate} whose field has to be referenced
+   * @param fieldName field name of the record that has to be referenced
+   * @return {@link MethodHandle} of type (RecordTemplate)Object of the method
+   */
+  @Nonnull
+  static MethodHandle getFieldGetter(@Nonnull RecordTemplate record, @Nonnull String fieldName) {
+    final MethodHandle getter =
+        METHOD_CACHE.computeIfAbsent(record.getClass(), ignored -> getMethodsFromRecordTemplate(record)).get(fieldName);
+    if (getter == null) {
+      throw new IllegalArgumentException(String.format("No field [%s] in class [%s]", fieldName,
+          record.getClass().getCanonicalName()));
+    }
+    return getter;
+  }
+
+  /**
+   * Executes a method returned by {@link #getFieldGetter(RecordTemplate, String)}.
+   */
+  @Nullable
+  static Object invokeFieldGetter(@Nonnull MethodHandle getter, @Nonnull RecordTemplate record,
+      @Nonnull String fieldName) {
+    try {
+      return (Object) getter.invokeExact(record);
+    } catch (Throwable t) {
+      throw new RuntimeException(String.format("Failed to execute method for class [%s], field [%s]",
+          record.getClass().getCanonicalName(), fieldName), t);
+    }
+  }
+
   /**
    * Given a {@link RecordTemplate} and field name, this will find and execute getFieldName/isFieldName and return the result
    * If neither getFieldName/isFieldName has been called for any of the fields of the RecordTemplate, then the get/is method
@@ -372,13 +395,7 @@ public class RecordUtils {
    */
   @Nullable
   private static Object invokeMethod(@Nonnull RecordTemplate record, @Nonnull String fieldName) {
-    METHOD_CACHE.putIfAbsent(record.getClass(), getMethodsFromRecordTemplate(record));
-    try {
-      return METHOD_CACHE.get(record.getClass()).get(fieldName).invoke(record);
-    } catch (IllegalAccessException | InvocationTargetException e) {
-      throw new RuntimeException(String.format("Failed to execute method for class [%s], field [%s]",
-          record.getClass().getCanonicalName(), fieldName), e);
-    }
+    return invokeFieldGetter(getFieldGetter(record, fieldName), record, fieldName);
   }
 
   /**
@@ -402,17 +419,28 @@ public class RecordUtils {
 
   /**
    * Similar to {@link #getFieldValue(RecordTemplate, PathSpec)} but takes string representation of Pegasus PathSpec as
-   * input.
+   * input. The path is compiled once, see {@link #compilePath(String)}.
    */
   @Nonnull
   public static Optional<Object> getFieldValue(@Nonnull RecordTemplate recordTemplate, @Nonnull String pathSpecAsString) {
-    pathSpecAsString = LEADING_SPACESLASH_PATTERN.matcher(pathSpecAsString).replaceAll("");
-    pathSpecAsString = TRAILING_SPACESLASH_PATTERN.matcher(pathSpecAsString).replaceAll("");
+    return compilePath(pathSpecAsString).getValue(recordTemplate);
+  }
 
-    if (!pathSpecAsString.isEmpty()) {
-      return getFieldValue(recordTemplate, new PathSpec(SLASH_PATERN.split(pathSpecAsString)));
+  /**
+   * Compiles a string representation of Pegasus PathSpec into a {@link CompiledPath}, which evaluates it like
+   * {@link #getFieldValue(RecordTemplate, String)} without parsing it or looking up getters by name again.
+   * Compiled paths are cached and shared.
+   */
+  @Nonnull
+  public static CompiledPath compilePath(@Nonnull String pathSpecAsString) {
+    final CompiledPath compiledPath = COMPILED_PATHS.get(pathSpecAsString);
+    if (compiledPath != null) {
+      return compiledPath;
     }
-    return Optional.empty();
+    if (COMPILED_PATHS.size() >= MAX_COMPILED_PATHS) {
+      return CompiledPath.compile(pathSpecAsString);
+    }
+    return COMPILED_PATHS.computeIfAbsent(pathSpecAsString, CompiledPath::compile);
   }
 
   /**
@@ -453,4 +481,52 @@ public class RecordUtils {
     }
     return Optional.of(reference);
   }
+
+  /**
+   * A protected method that is looked up and made accessible on first use, rather than when this class is initialized,
+   * so that a method missing from the Pegasus version on the classpath only fails the calls that need it.
+   */
+  private static final class ProtectedMethod {
+
+    private final Class<?> _clazz;
+    private final String _methodName;
+    private final Class<?>[] _parameterTypes;
+    // Racing threads resolve equivalent handles, so whichever is published last is as good as the others
+    @Nullable
+    private volatile MethodHandle _handle;
+
+    ProtectedMethod(@Nonnull Class<?> clazz, @Nonnull String methodName, @Nonnull Class<?>... parameterTypes) {
+      _clazz = clazz;
+      _methodName = methodName;
+      _parameterTypes = parameterTypes;
+    }
+
+    /**
+     * Returns the method as a {@link MethodHandle} of type (Object[])Object that takes the object the method is invoked
+     * on followed by the arguments.
+     */
+    @Nonnull
+    MethodHandle get() {
+      MethodHandle handle = _handle;
+      if (handle == null) {
+        handle = resolve();
+        _handle = handle;
+      }
+      return handle;
+    }
+
+    @Nonnull
+    private MethodHandle resolve() {
+      try {
+        final Method method = _clazz.getDeclaredMethod(_methodName, _parameterTypes);
+        method.setAccessible(true);
+        return MethodHandles.lookup()
+            .unreflect(method)
+            .asSpreader(Object[].class, _parameterTypes.length + 1)
+            .asType(PROTECTED_METHOD_TYPE);
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
 }
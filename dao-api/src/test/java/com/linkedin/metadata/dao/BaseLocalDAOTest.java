@@ -2,17 +2,21 @@ package com.linkedin.metadata.dao;
 
 import com.linkedin.common.AuditStamp;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.dao.metrics.LocalDAOMetricListener;
+import com.linkedin.metadata.dao.metrics.LocalDAOOperation;
 import com.linkedin.metadata.dao.producer.BaseMetadataEventProducer;
 import com.linkedin.metadata.dao.retention.TimeBasedRetention;
 import com.linkedin.metadata.dao.retention.VersionBasedRetention;
 import com.linkedin.metadata.query.ExtraInfo;
 import com.linkedin.metadata.query.IndexFilter;
+import com.linkedin.testing.AspectBar;
 import com.linkedin.testing.AspectFoo;
 import com.linkedin.testing.EntityAspectUnion;
 import com.linkedin.testing.urn.FooUrn;
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -104,6 +108,17 @@ public class BaseLocalDAOTest {
       return null;
     }
 
+    @Override
+    public long countUrns(@Nonnull IndexFilter indexFilter) {
+      return 0;
+    }
+
+    @Override
+    public Map<String, Long> countByPath(@Nonnull IndexFilter indexFilter, @Nonnull String aspect,
+        @Nonnull String path) {
+      return null;
+    }
+
     @Override
     public <ASPECT extends RecordTemplate> ListResult<ASPECT> list(Class<ASPECT> aspectClass, FooUrn urn, int start,
         int pageSize) {
@@ -244,4 +259,48 @@ public class BaseLocalDAOTest {
     verify(hook, times(1)).accept(urn, foo);
     verifyNoMoreInteractions(hook);
   }
+
+  @Test
+  public void testAddBatch() throws URISyntaxException {
+    FooUrn urn1 = new FooUrn(1);
+    FooUrn urn2 = new FooUrn(2);
+    AspectFoo foo1 = new AspectFoo().setValue("foo1");
+    AspectFoo foo2 = new AspectFoo().setValue("foo2");
+    AspectBar bar = new AspectBar().setValue("bar");
+    expectGetLatest(urn1, AspectFoo.class, Collections.singletonList(makeAspectEntry(foo1, _dummyAuditStamp)));
+    Map<FooUrn, List<RecordTemplate>> newValues = new LinkedHashMap<>();
+    newValues.put(urn1, Arrays.asList(foo1, bar));
+    newValues.put(urn2, Collections.singletonList(foo2));
+
+    Map<FooUrn, List<RecordTemplate>> results = _dummyLocalDAO.addBatch(newValues, _dummyAuditStamp);
+
+    assertEquals(results, newValues);
+    verify(_mockEventProducer, times(1)).produceMetadataAuditEvent(urn1, null, bar);
+    verify(_mockEventProducer, times(1)).produceMetadataAuditEvent(urn2, null, foo2);
+    verifyNoMoreInteractions(_mockEventProducer);
+  }
+
+  @Test
+  public void testMetricListener() throws URISyntaxException {
+    FooUrn urn = new FooUrn(1);
+    AspectFoo foo = new AspectFoo().setValue("foo");
+    LocalDAOMetricListener listener = mock(LocalDAOMetricListener.class);
+    _dummyLocalDAO.addMetricListener(listener);
+    expectGetLatest(urn, AspectFoo.class, Collections.singletonList(null));
+
+    _dummyLocalDAO.add(urn, foo, _dummyAuditStamp);
+
+    verify(listener, times(1)).onOperation(eq(LocalDAOOperation.GET_LATEST), anyLong(), eq(1), eq(0));
+    verify(listener, times(1)).onOperation(eq(LocalDAOOperation.PRODUCE_EVENTS), anyLong(), eq(1), eq(1));
+    verify(listener, times(1)).onOperation(eq(LocalDAOOperation.ADD), anyLong(), eq(1), eq(-1));
+    verifyNoMoreInteractions(listener);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testAddManyWithDuplicateAspect() throws URISyntaxException {
+    FooUrn urn = new FooUrn(1);
+
+    _dummyLocalDAO.addMany(urn, Arrays.asList(new AspectFoo().setValue("foo1"), new AspectFoo().setValue("foo2")),
+        _dummyAuditStamp);
+  }
 }
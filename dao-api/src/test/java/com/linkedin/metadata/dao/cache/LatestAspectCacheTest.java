@@ -0,0 +1,144 @@
+package com.linkedin.metadata.dao.cache;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.testing.AspectBar;
+import com.linkedin.testing.AspectFoo;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class LatestAspectCacheTest {
+
+  private AtomicLong _now;
+
+  @BeforeMethod
+  public void setupTest() {
+    _now = new AtomicLong(1000L);
+  }
+
+  private LatestAspectCache newCache(LatestAspectCacheConfig config) {
+    return new LatestAspectCache(config, _now::get);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNonPositiveMaxEntries() {
+    newCache(LatestAspectCacheConfig.builder().maxEntries(0).build());
+  }
+
+  @Test
+  public void testPresentAndAbsentValues() {
+    LatestAspectCache cache = newCache(LatestAspectCacheConfig.builder().build());
+    AspectFoo foo = new AspectFoo().setValue("foo");
+
+    assertNull(cache.get("urn:li:foo:1", AspectFoo.class));
+
+    cache.put("urn:li:foo:1", AspectFoo.class, foo, cache.getInvalidationStamp());
+    cache.put("urn:li:foo:1", AspectBar.class, null, cache.getInvalidationStamp());
+
+    assertEquals(cache.get("urn:li:foo:1", AspectFoo.class), Optional.of(foo));
+    assertEquals(cache.get("urn:li:foo:1", AspectBar.class), Optional.empty());
+    assertEquals(cache.getStats(), new LatestAspectCacheStats(2, 1, 0, 0, 0, 2, 2));
+  }
+
+  @Test
+  public void testValuesAreCopied() {
+    LatestAspectCache cache = newCache(LatestAspectCacheConfig.builder().build());
+    AspectFoo foo = new AspectFoo().setValue("foo");
+
+    cache.put("urn:li:foo:1", AspectFoo.class, foo, cache.getInvalidationStamp());
+    foo.setValue("bar");
+    cache.get("urn:li:foo:1", AspectFoo.class).get().setValue("baz");
+
+    assertEquals(cache.get("urn:li:foo:1", AspectFoo.class).get().getValue(), "foo");
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() {
+    LatestAspectCache cache = newCache(LatestAspectCacheConfig.builder().maxEntries(2).build());
+    AspectFoo foo = new AspectFoo().setValue("foo");
+
+    cache.put("urn:li:foo:1", AspectFoo.class, foo, cache.getInvalidationStamp());
+    cache.put("urn:li:foo:2", AspectFoo.class, foo, cache.getInvalidationStamp());
+    cache.get("urn:li:foo:1", AspectFoo.class);
+    cache.put("urn:li:foo:3", AspectFoo.class, foo, cache.getInvalidationStamp());
+
+    assertNotNull(cache.get("urn:li:foo:1", AspectFoo.class));
+    assertNull(cache.get("urn:li:foo:2", AspectFoo.class));
+    assertNotNull(cache.get("urn:li:foo:3", AspectFoo.class));
+    assertEquals(cache.getStats().getEvictionCount(), 1);
+  }
+
+  @Test
+  public void testEvictsByWeight() {
+    LatestAspectCache cache = newCache(LatestAspectCacheConfig.builder()
+        .maxWeight(10)
+        .weigher(value -> ((AspectFoo) value).getValue().length())
+        .build());
+
+    cache.put("urn:li:foo:1", AspectFoo.class, new AspectFoo().setValue("12345"), cache.getInvalidationStamp());
+    cache.put("urn:li:foo:2", AspectFoo.class, new AspectFoo().setValue("1234"), cache.getInvalidationStamp());
+    cache.put("urn:li:foo:3", AspectFoo.class, new AspectFoo().setValue("123"), cache.getInvalidationStamp());
+    // heavier than the cache itself, so it's not cached at all
+    cache.put("urn:li:foo:4", AspectFoo.class, new AspectFoo().setValue("12345678901"), cache.getInvalidationStamp());
+
+    assertNull(cache.get("urn:li:foo:1", AspectFoo.class));
+    assertNotNull(cache.get("urn:li:foo:2", AspectFoo.class));
+    assertNotNull(cache.get("urn:li:foo:3", AspectFoo.class));
+    assertNull(cache.get("urn:li:foo:4", AspectFoo.class));
+    assertEquals(cache.getStats().getWeight(), 7);
+  }
+
+  @Test
+  public void testPerAspectTtl() {
+    LatestAspectCache cache = newCache(LatestAspectCacheConfig.builder()
+        .defaultTtl(100)
+        .aspectTtlMap(ImmutableMap.of(AspectBar.class, 10L))
+        .build());
+
+    cache.put("urn:li:foo:1", AspectFoo.class, null, cache.getInvalidationStamp());
+    cache.put("urn:li:foo:1", AspectBar.class, null, cache.getInvalidationStamp());
+    _now.addAndGet(10);
+
+    assertNotNull(cache.get("urn:li:foo:1", AspectFoo.class));
+    assertNull(cache.get("urn:li:foo:1", AspectBar.class));
+
+    _now.addAndGet(90);
+
+    assertNull(cache.get("urn:li:foo:1", AspectFoo.class));
+    assertEquals(cache.getStats().getExpirationCount(), 2);
+    assertEquals(cache.getStats().getSize(), 0);
+  }
+
+  @Test
+  public void testInvalidate() {
+    LatestAspectCache cache = newCache(LatestAspectCacheConfig.builder().build());
+
+    cache.put("urn:li:foo:1", AspectFoo.class, null, cache.getInvalidationStamp());
+    cache.put("urn:li:foo:2", AspectFoo.class, null, cache.getInvalidationStamp());
+    cache.invalidate("urn:li:foo:1", AspectFoo.class);
+
+    assertNull(cache.get("urn:li:foo:1", AspectFoo.class));
+    assertNotNull(cache.get("urn:li:foo:2", AspectFoo.class));
+
+    cache.invalidateAll();
+
+    assertNull(cache.get("urn:li:foo:2", AspectFoo.class));
+    assertEquals(cache.getStats().getInvalidationCount(), 2);
+  }
+
+  @Test
+  public void testStaleLoadIsNotCached() {
+    LatestAspectCache cache = newCache(LatestAspectCacheConfig.builder().build());
+
+    long stamp = cache.getInvalidationStamp();
+    // an update is committed while the value is being loaded
+    cache.invalidate("urn:li:foo:1", AspectFoo.class);
+    cache.put("urn:li:foo:1", AspectFoo.class, new AspectFoo().setValue("stale"), stamp);
+
+    assertNull(cache.get("urn:li:foo:1", AspectFoo.class));
+  }
+}
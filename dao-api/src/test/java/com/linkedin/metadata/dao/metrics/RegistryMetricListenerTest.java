@@ -0,0 +1,59 @@
+package com.linkedin.metadata.dao.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+
+
+public class RegistryMetricListenerTest {
+
+  private RegistryMetricListener.Registry _mockRegistry;
+  private RegistryMetricListener _listener;
+
+  @BeforeMethod
+  public void setup() {
+    _mockRegistry = mock(RegistryMetricListener.Registry.class);
+    _listener = new RegistryMetricListener(_mockRegistry);
+  }
+
+  @Test
+  public void testOnOperation() {
+    Map<String, String> tags = Collections.singletonMap("operation", "batch_get");
+
+    _listener.onOperation(LocalDAOOperation.BATCH_GET, 100L, 10, 8);
+    _listener.onOperation(LocalDAOOperation.BATCH_GET, 50L, 5, -1);
+
+    verify(_mockRegistry, times(1)).recordTime("gma.local.dao.operation", tags, 100L);
+    verify(_mockRegistry, times(1)).recordTime("gma.local.dao.operation", tags, 50L);
+    verify(_mockRegistry, times(1)).recordValue("gma.local.dao.batch.size", tags, 10L);
+    verify(_mockRegistry, times(1)).recordValue("gma.local.dao.batch.size", tags, 5L);
+    verify(_mockRegistry, times(1)).increment("gma.local.dao.rows", tags, 8L);
+    verifyNoMoreInteractions(_mockRegistry);
+  }
+
+  @Test
+  public void testOnTransaction() {
+    _listener.onTransaction(100L, 0, true);
+    _listener.onTransaction(200L, 3, false);
+
+    verify(_mockRegistry, times(1)).recordTime("gma.local.dao.transaction",
+        Collections.singletonMap("outcome", "committed"), 100L);
+    verify(_mockRegistry, times(1)).recordTime("gma.local.dao.transaction",
+        Collections.singletonMap("outcome", "failed"), 200L);
+    verify(_mockRegistry, times(1)).increment("gma.local.dao.transaction.retries",
+        Collections.singletonMap("outcome", "failed"), 3L);
+    verifyNoMoreInteractions(_mockRegistry);
+  }
+
+  @Test
+  public void testOnPayload() {
+    _listener.onPayload(LocalDAOOperation.SAVE, 42L);
+
+    verify(_mockRegistry, times(1)).increment("gma.local.dao.payload", Collections.singletonMap("operation", "save"),
+        42L);
+    verifyNoMoreInteractions(_mockRegistry);
+  }
+}
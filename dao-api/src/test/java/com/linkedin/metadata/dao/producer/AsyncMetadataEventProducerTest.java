@@ -0,0 +1,202 @@
+package com.linkedin.metadata.dao.producer;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.dao.exception.EventProducerInterruptedException;
+import com.linkedin.metadata.dao.exception.EventQueueFullException;
+import com.linkedin.testing.AspectFoo;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import org.mockito.InOrder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.linkedin.testing.TestUtils.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class AsyncMetadataEventProducerTest {
+
+  private DummyMetadataEventProducer<Urn> _producer;
+  private CountDownLatch _emitting;
+  private CountDownLatch _unblock;
+
+  @BeforeMethod
+  public void setup() {
+    _producer = spy(new DummyMetadataEventProducer<>());
+    _emitting = new CountDownLatch(1);
+    _unblock = new CountDownLatch(1);
+  }
+
+  private void blockProducer() {
+    doAnswer(invocation -> {
+      _emitting.countDown();
+      _unblock.await();
+      return null;
+    }).when(_producer).produceMetadataAuditEvent(any(), any(), any());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNonPositiveParallelism() {
+    new AsyncMetadataEventProducer<>(_producer, AsyncMetadataEventProducerConfig.builder().parallelism(0).build());
+  }
+
+  @Test
+  public void testEmitsInOrderPerUrn() {
+    AsyncMetadataEventProducer<?, ?, Urn> asyncProducer = new AsyncMetadataEventProducer<>(_producer,
+        AsyncMetadataEventProducerConfig.builder().parallelism(4).batchSize(7).build());
+    AspectFoo[] values = new AspectFoo[50];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = new AspectFoo().setValue("foo" + i);
+    }
+
+    for (int i = 0; i < values.length; i++) {
+      asyncProducer.produceMetadataAuditEvent(makeUrn(1), i == 0 ? null : values[i - 1], values[i]);
+      asyncProducer.produceAspectSpecificMetadataAuditEvent(makeUrn(2), null, values[i]);
+    }
+    asyncProducer.close();
+
+    InOrder inOrder = inOrder(_producer);
+    for (int i = 0; i < values.length; i++) {
+      inOrder.verify(_producer).produceMetadataAuditEvent(makeUrn(1), i == 0 ? null : values[i - 1], values[i]);
+    }
+    inOrder = inOrder(_producer);
+    for (AspectFoo value : values) {
+      inOrder.verify(_producer).produceAspectSpecificMetadataAuditEvent(makeUrn(2), null, value);
+    }
+    assertEquals(asyncProducer.getStats().getEmittedCount(), 100);
+    assertEquals(asyncProducer.getStats().getQueueDepth(), 0);
+  }
+
+  @Test
+  public void testEmitsEachTopicAsOneBatch() throws InterruptedException {
+    blockProducer();
+    AsyncMetadataEventProducer<?, ?, Urn> asyncProducer = new AsyncMetadataEventProducer<>(_producer,
+        AsyncMetadataEventProducerConfig.builder().parallelism(1).build());
+    AspectFoo foo1 = new AspectFoo().setValue("foo1");
+    AspectFoo foo2 = new AspectFoo().setValue("foo2");
+
+    asyncProducer.produceMetadataAuditEvent(makeUrn(1), null, foo1);
+    _emitting.await();
+    // Queued while the worker is blocked, so they're taken in one batch
+    asyncProducer.produceMetadataAuditEvent(makeUrn(2), null, foo1);
+    asyncProducer.produceAspectSpecificMetadataAuditEvent(makeUrn(2), null, foo1);
+    asyncProducer.produceMetadataAuditEvent(makeUrn(2), foo1, foo2);
+    asyncProducer.produceAspectSpecificMetadataAuditEvent(makeUrn(2), foo1, foo2);
+    _unblock.countDown();
+    asyncProducer.close();
+
+    verify(_producer).produceMetadataAuditEvents(Arrays.asList(new AspectUpdate<>(makeUrn(2), null, foo1),
+        new AspectUpdate<>(makeUrn(2), foo1, foo2)));
+    verify(_producer).produceAspectSpecificMetadataAuditEvents(Arrays.asList(new AspectUpdate<>(makeUrn(2), null, foo1),
+        new AspectUpdate<>(makeUrn(2), foo1, foo2)));
+    assertEquals(asyncProducer.getStats().getEmittedCount(), 5);
+  }
+
+  @Test
+  public void testDropWhenQueueIsFull() throws InterruptedException {
+    blockProducer();
+    AsyncMetadataEventProducer<?, ?, Urn> asyncProducer = new AsyncMetadataEventProducer<>(_producer,
+        AsyncMetadataEventProducerConfig.builder()
+            .queueCapacity(1)
+            .batchSize(1)
+            .backpressure(AsyncMetadataEventProducerConfig.Backpressure.DROP)
+            .build());
+    AspectFoo foo = new AspectFoo().setValue("foo");
+
+    asyncProducer.produceMetadataAuditEvent(makeUrn(1), null, foo);
+    _emitting.await();
+    asyncProducer.produceMetadataAuditEvent(makeUrn(2), null, foo);
+    asyncProducer.produceMetadataAuditEvent(makeUrn(3), null, foo);
+
+    assertEquals(asyncProducer.getStats().getQueueDepth(), 1);
+    assertEquals(asyncProducer.getStats().getDroppedCount(), 1);
+
+    _unblock.countDown();
+    asyncProducer.close();
+
+    verify(_producer, times(1)).produceMetadataAuditEvent(makeUrn(1), null, foo);
+    verify(_producer, times(1)).produceMetadataAuditEvent(makeUrn(2), null, foo);
+    verify(_producer, never()).produceMetadataAuditEvent(makeUrn(3), null, foo);
+  }
+
+  @Test
+  public void testFailWhenQueueIsFull() throws InterruptedException {
+    blockProducer();
+    AsyncMetadataEventProducer<?, ?, Urn> asyncProducer = new AsyncMetadataEventProducer<>(_producer,
+        AsyncMetadataEventProducerConfig.builder()
+            .queueCapacity(1)
+            .batchSize(1)
+            .backpressure(AsyncMetadataEventProducerConfig.Backpressure.FAIL)
+            .build());
+    AspectFoo foo = new AspectFoo().setValue("foo");
+
+    asyncProducer.produceMetadataAuditEvent(makeUrn(1), null, foo);
+    _emitting.await();
+    asyncProducer.produceMetadataAuditEvent(makeUrn(2), null, foo);
+
+    assertThrows(EventQueueFullException.class, () -> asyncProducer.produceMetadataAuditEvent(makeUrn(3), null, foo));
+
+    _unblock.countDown();
+    asyncProducer.close();
+  }
+
+  @Test
+  public void testInterruptWhileBlocked() throws InterruptedException {
+    blockProducer();
+    AsyncMetadataEventProducer<?, ?, Urn> asyncProducer = new AsyncMetadataEventProducer<>(_producer,
+        AsyncMetadataEventProducerConfig.builder()
+            .queueCapacity(1)
+            .batchSize(1)
+            .backpressure(AsyncMetadataEventProducerConfig.Backpressure.BLOCK)
+            .build());
+    AspectFoo foo = new AspectFoo().setValue("foo");
+
+    asyncProducer.produceMetadataAuditEvent(makeUrn(1), null, foo);
+    _emitting.await();
+    asyncProducer.produceMetadataAuditEvent(makeUrn(2), null, foo);
+
+    Thread.currentThread().interrupt();
+    try {
+      asyncProducer.produceMetadataAuditEvent(makeUrn(3), null, foo);
+      fail("Expected EventProducerInterruptedException");
+    } catch (EventProducerInterruptedException e) {
+      // Expected
+    }
+    assertTrue(Thread.interrupted());
+
+    _unblock.countDown();
+    asyncProducer.close();
+
+    verify(_producer, never()).produceMetadataAuditEvent(makeUrn(3), null, foo);
+    assertEquals(asyncProducer.getStats().getEmittedCount(), 2);
+  }
+
+  @Test
+  public void testFailuresAreCounted() {
+    doThrow(new RuntimeException("broker is down")).when(_producer).produceMetadataAuditEvent(any(), any(), any());
+    AsyncMetadataEventProducer<?, ?, Urn> asyncProducer =
+        new AsyncMetadataEventProducer<>(_producer, AsyncMetadataEventProducerConfig.builder().build());
+    AspectFoo foo = new AspectFoo().setValue("foo");
+
+    asyncProducer.produceMetadataAuditEvent(makeUrn(1), null, foo);
+    asyncProducer.produceAspectSpecificMetadataAuditEvent(makeUrn(1), null, foo);
+    asyncProducer.close();
+
+    assertEquals(asyncProducer.getStats().getFailedCount(), 1);
+    assertEquals(asyncProducer.getStats().getEmittedCount(), 1);
+  }
+
+  @Test
+  public void testProduceAfterClose() {
+    AsyncMetadataEventProducer<?, ?, Urn> asyncProducer =
+        new AsyncMetadataEventProducer<>(_producer, AsyncMetadataEventProducerConfig.builder().build());
+
+    asyncProducer.close();
+    asyncProducer.produceMetadataAuditEvent(makeUrn(1), null, new AspectFoo().setValue("foo"));
+
+    assertTrue(asyncProducer.isClosed());
+    assertEquals(asyncProducer.getStats().getDroppedCount(), 1);
+    verify(_producer, never()).produceMetadataAuditEvent(any(), any(), any());
+  }
+}
@@ -0,0 +1,82 @@
+package com.linkedin.metadata.dao.retention;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.testing.AspectBar;
+import com.linkedin.testing.AspectFoo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.testng.annotations.Test;
+
+import static com.linkedin.testing.TestUtils.*;
+import static org.testng.Assert.*;
+
+
+public class RetentionSweeperTest {
+
+  // Long enough that no scheduled sweep runs during a test
+  private static final long SWEEP_INTERVAL_MS = 3_600_000L;
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNonPositiveBatchSize() {
+    new RetentionSweeper<Urn>(RetentionSweeperConfig.builder().batchSize(0).build(), batch -> 0L);
+  }
+
+  @Test
+  public void testSweepInBatches() {
+    List<Map<RetentionSweeper.DirtyAspect<Urn>, Long>> batches = new ArrayList<>();
+    RetentionSweeper<Urn> sweeper = new RetentionSweeper<>(
+        RetentionSweeperConfig.builder().sweepIntervalMs(SWEEP_INTERVAL_MS).batchSize(2).maxBatchesPerSweep(2).build(),
+        batch -> {
+          batches.add(batch);
+          return batch.size() * 10L;
+        });
+
+    for (int i = 0; i < 5; i++) {
+      sweeper.markDirty(makeUrn(i), AspectFoo.class, 1);
+    }
+    // marking a pair again keeps the largest version
+    sweeper.markDirty(makeUrn(0), AspectFoo.class, 3);
+    sweeper.markDirty(makeUrn(0), AspectFoo.class, 2);
+
+    assertEquals(sweeper.getStats().getBacklog(), 5);
+    assertEquals(sweeper.sweep(), 4);
+    assertEquals(batches.size(), 2);
+    assertEquals(sweeper.getStats(), new RetentionSweeperStats(1, 4, 40, 0));
+
+    sweeper.close();
+
+    assertEquals(batches.size(), 3);
+    assertEquals(sweeper.getStats(), new RetentionSweeperStats(0, 5, 50, 0));
+    assertEquals(batches.stream()
+        .filter(batch -> batch.containsKey(new RetentionSweeper.DirtyAspect<>(makeUrn(0), AspectFoo.class)))
+        .findFirst()
+        .get()
+        .get(new RetentionSweeper.DirtyAspect<>(makeUrn(0), AspectFoo.class))
+        .longValue(), 3L);
+  }
+
+  @Test
+  public void testFailedBatchIsRetried() {
+    List<Map<RetentionSweeper.DirtyAspect<Urn>, Long>> batches = new ArrayList<>();
+    RetentionSweeper<Urn> sweeper = new RetentionSweeper<>(
+        RetentionSweeperConfig.builder().sweepIntervalMs(SWEEP_INTERVAL_MS).build(), batch -> {
+          batches.add(batch);
+          if (batches.size() == 1) {
+            throw new RuntimeException("database is down");
+          }
+          return 1L;
+        });
+
+    sweeper.markDirty(makeUrn(1), AspectFoo.class, 1);
+    sweeper.markDirty(makeUrn(1), AspectBar.class, 1);
+
+    assertThrows(RuntimeException.class, sweeper::sweep);
+    assertEquals(sweeper.getStats(), new RetentionSweeperStats(2, 0, 0, 1));
+
+    assertEquals(sweeper.sweep(), 2);
+    assertEquals(batches.get(1), batches.get(0));
+    assertEquals(sweeper.getStats(), new RetentionSweeperStats(0, 2, 1, 1));
+    sweeper.close();
+  }
+}
@@ -332,6 +332,39 @@ public class RecordUtilsTest {
     assertFalse(o7.isPresent());
   }
 
+  @Test(description = "Test compilePath() evaluates paths like getFieldValue()")
+  public void testCompilePath() {
+    final AspectFooArray aspectFooArray =
+        new AspectFooArray(Arrays.asList(new AspectFoo().setValue("fooVal1"), new AspectFoo().setValue("fooVal2")));
+    final MixedRecord mixedRecord = new MixedRecord().setValue("val")
+        .setRecordField(new AspectFoo().setValue("fooVal"))
+        .setRecordArray(aspectFooArray);
+
+    // leading and trailing slashes and spaces are ignored, and compiled paths are shared
+    CompiledPath path = RecordUtils.compilePath("/value");
+    assertSame(RecordUtils.compilePath("/value"), path);
+    assertEquals(path.getValue(mixedRecord).get(), "val");
+    assertEquals(RecordUtils.compilePath(" /value/ ").getValue(mixedRecord).get(), "val");
+    assertFalse(RecordUtils.compilePath("/").getValue(mixedRecord).isPresent());
+
+    // nested field, evaluated against records with and without the field set
+    path = RecordUtils.compilePath("/recordField/value");
+    assertEquals(path.getValue(mixedRecord).get(), "fooVal");
+    assertFalse(path.getValue(new MixedRecord()).isPresent());
+    assertEquals(path.getValue(new MixedRecord().setRecordField(new AspectFoo().setValue("other"))).get(), "other");
+
+    // wildcard on array of records
+    path = RecordUtils.compilePath("/recordArray/*/value");
+    assertEquals(path.getValue(mixedRecord).get(), new StringArray("fooVal1", "fooVal2"));
+    assertEquals(path.getValue(new MixedRecord().setRecordArray(new AspectFooArray())).get(), new StringArray());
+
+    // array indexing is only rejected when it is reached
+    path = RecordUtils.compilePath("/recordArray/0/value");
+    assertFalse(path.getValue(new MixedRecord()).isPresent());
+    final CompiledPath indexPath = path;
+    assertThrows(UnsupportedOperationException.class, () -> indexPath.getValue(mixedRecord));
+  }
+
   @Test
   public void testCapitalizeFirst() {
     String s = "field1";
@@ -2,6 +2,8 @@ drop table if exists metadata_id;
 
 drop table if exists metadata_aspect;
 
+drop table if exists metadata_aspect_version;
+
 drop table if exists metadata_index;
 
 drop index if exists idx_long_val;
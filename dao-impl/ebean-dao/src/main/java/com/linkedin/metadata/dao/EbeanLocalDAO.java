@@ -1,12 +1,19 @@
 package com.linkedin.metadata.dao;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.linkedin.common.AuditStamp;
 import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnFactory;
+import com.linkedin.common.urn.Urns;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.data.template.UnionTemplate;
+import com.linkedin.metadata.dao.codec.AspectCodec;
+import com.linkedin.metadata.dao.codec.AspectCodecs;
 import com.linkedin.metadata.dao.exception.ModelConversionException;
 import com.linkedin.metadata.dao.exception.RetryLimitReached;
+import com.linkedin.metadata.dao.metrics.LocalDAOOperation;
 import com.linkedin.metadata.dao.producer.BaseMetadataEventProducer;
 import com.linkedin.metadata.dao.retention.TimeBasedRetention;
 import com.linkedin.metadata.dao.retention.VersionBasedRetention;
@@ -30,24 +37,46 @@ import io.ebean.EbeanServerFactory;
 import io.ebean.ExpressionList;
 import io.ebean.PagedList;
 import io.ebean.Query;
+import io.ebean.SqlQuery;
+import io.ebean.SqlRow;
 import io.ebean.Transaction;
 import io.ebean.config.ServerConfig;
 import io.ebean.datasource.DataSourceConfig;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.net.URISyntaxException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.persistence.RollbackException;
@@ -64,6 +93,13 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
     extends BaseLocalDAO<ASPECT_UNION, URN> {
 
   private static final int INDEX_QUERY_TIMEOUT_IN_SEC = 5;
+  // Sizes of the IN lists of bucketed batch gets are powers of two in this range
+  private static final int MIN_IN_BUCKET_SIZE = 8;
+  private static final int MAX_IN_BUCKET_SIZE = 512;
+  // Default min number of keys of a batch get query for it to use bucketed IN lists
+  private static final int DEFAULT_BUCKETED_IN_THRESHOLD = 16;
+  // Max number of filter shapes whose SQL is cached, beyond which the SQL of new shapes is built for every query
+  private static final int MAX_INDEX_SQL_TEMPLATES = 1024;
   private static final String EBEAN_MODEL_PACKAGE = EbeanMetadataAspect.class.getPackage().getName();
   private static final String EBEAN_INDEX_PACKAGE = EbeanMetadataIndex.class.getPackage().getName();
 
@@ -71,16 +107,129 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   protected final Class<URN> _urnClass;
   private UrnPathExtractor<URN> _urnPathExtractor;
   private int _queryKeysCount = 0; // 0 means no pagination on keys
+  private int _maxConnections = 0; // 0 means the size of the connection pool is unknown
+  private ExecutorService _batchGetExecutor = null; // null means batch get pages are run serially
+  private volatile UrnFactory<URN> _urnFactory = null; // resolved on first use
+  private volatile UrnFactory<Urn> _extraInfoUrnFactory = Urns.getFactory(Urn.class);
+  private volatile Executor _scanExecutor = null; // null means pages of streaming scans are fetched on demand
+  // Loads the statistics of the index query planner in the background
+  private final ExecutorService _indexStatisticsExecutor = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ebean-index-statistics-%d").build());
 
   // TODO feature flag, remove when vetted.
   private boolean _useUnionForBatch = false;
 
+  // Min number of keys of a batch get query for it to use bucketed IN lists, 0 means they're never used
+  private int _bucketedInThreshold = DEFAULT_BUCKETED_IN_THRESHOLD;
+
+  // Encodes aspects written to the metadata column, which can still be read in any built-in format
+  private AspectCodec _aspectCodec = AspectCodecs.JSON;
+
+  // Allocates versions from the metadata_aspect_version table instead of querying the largest version
+  private boolean _useVersionCounter = false;
+
+  // Set while a transaction is retried after a duplicate key, so that the retry checks the version counters it uses
+  private final ThreadLocal<Boolean> _reseedVersionCounters = ThreadLocal.withInitial(() -> false);
+
+  // Read-only replicas that reads are routed to in round-robin order, empty means all reads go to _server
+  private volatile List<EbeanServer> _readReplicas = Collections.emptyList();
+  private final AtomicInteger _nextReadReplica = new AtomicInteger();
+  // Set while the reads of the current thread must go to _server, see readFromPrimary
+  private final ThreadLocal<Boolean> _readFromPrimary = ThreadLocal.withInitial(() -> false);
+
+  // Number of numeric IDs reserved from the database at a time, 1 means no IDs are held in memory
+  private int _idBlockSize = 1;
+  private final Map<String, IdBlock> _idBlocks = new ConcurrentHashMap<>();
+  private final Map<String, Object> _idBlockLocks = new ConcurrentHashMap<>();
+
+  // Orders the criteria of index queries by selectivity, null means they're queried in the order they're given in
+  private volatile IndexQueryPlanner _indexQueryPlanner = null;
+
   @Value
   static class GMAIndexPair {
     public String valueType;
     public Object value;
   }
 
+  /**
+   * A range of numeric IDs reserved for a namespace, which are handed out in order.
+   */
+  @Value
+  private static class IdBlock {
+    AtomicLong next;
+    long last;
+  }
+
+  /**
+   * Normalized (urn, aspect, version) triple used to match batch get results back to the requested keys. The urn is
+   * lower-cased as urn comparison in the database is case insensitive.
+   */
+  @Value
+  private static class NormalizedKey {
+    String urn;
+    String aspect;
+    long version;
+  }
+
+  /**
+   * (aspect, version) pair that batch get keys are grouped by for bucketed IN queries.
+   */
+  @Value
+  private static class AspectVersion {
+    String aspect;
+    long version;
+  }
+
+  private enum IndexQueryType {
+    LIST_URNS,
+    COUNT_URNS,
+    COUNT_BY_PATH
+  }
+
+  /**
+   * Shape of an index query, i.e. its type and the value column and operator of each criterion, which is empty for
+   * criteria that only filter on the aspect. Queries of the same shape have the same SQL.
+   */
+  @Value
+  private static class IndexQueryShape {
+    IndexQueryType type;
+    List<String> criteria;
+  }
+
+  /**
+   * Progress of a rebuild of the local index, whose pages can be completed out of order. The checkpoint only moves to
+   * the end of a page once all the pages before it are completed.
+   */
+  private static final class RebuildProgress {
+    private final Consumer<String> _checkpointListener;
+    // Last urns of the pages that are completed after a page that isn't
+    private final Map<Long, String> _completedPages = new HashMap<>();
+    private long _nextPage = 0;
+    private String _checkpoint;
+    private long _aspectCount = 0;
+    private long _rowCount = 0;
+
+    RebuildProgress(@Nullable String checkpoint, @Nonnull Consumer<String> checkpointListener) {
+      _checkpoint = checkpoint;
+      _checkpointListener = checkpointListener;
+    }
+
+    synchronized void completed(long page, @Nonnull List<String> urns, long rowCount) {
+      _aspectCount += urns.size();
+      _rowCount += rowCount;
+      _completedPages.put(page, urns.get(urns.size() - 1));
+      while (_completedPages.containsKey(_nextPage)) {
+        _checkpoint = _completedPages.remove(_nextPage++);
+        _checkpointListener.accept(_checkpoint);
+      }
+    }
+
+    @Nonnull
+    synchronized LocalIndexRebuildResult getResult() {
+      return new LocalIndexRebuildResult(_aspectCount, _rowCount, _checkpoint);
+    }
+  }
+
   private static final Map<Condition, String> CONDITION_STRING_MAP =
       Collections.unmodifiableMap(new HashMap<Condition, String>() {
         {
@@ -93,6 +242,9 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
         }
       });
 
+  // SQL of index queries by shape
+  private static final Map<IndexQueryShape, String> INDEX_SQL_TEMPLATES = new ConcurrentHashMap<>();
+
   @VisibleForTesting
   EbeanLocalDAO(@Nonnull Class<ASPECT_UNION> aspectUnionClass, @Nonnull BaseMetadataEventProducer producer,
       @Nonnull EbeanServer server, @Nonnull Class<URN> urnClass) {
@@ -113,6 +265,7 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   public EbeanLocalDAO(@Nonnull Class<ASPECT_UNION> aspectUnionClass, @Nonnull BaseMetadataEventProducer producer,
       @Nonnull ServerConfig serverConfig, @Nonnull Class<URN> urnClass) {
     this(aspectUnionClass, producer, createServer(serverConfig), urnClass);
+    _maxConnections = getMaxConnections(serverConfig);
   }
 
   @VisibleForTesting
@@ -144,6 +297,7 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
       @Nonnull LocalDAOStorageConfig storageConfig, @Nonnull Class<URN> urnClass,
       @Nonnull UrnPathExtractor<URN> urnPathExtractor) {
     this(producer, createServer(serverConfig), storageConfig, urnClass, urnPathExtractor);
+    _maxConnections = getMaxConnections(serverConfig);
   }
 
   /**
@@ -157,6 +311,7 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   public EbeanLocalDAO(@Nonnull BaseMetadataEventProducer producer, @Nonnull ServerConfig serverConfig,
       @Nonnull LocalDAOStorageConfig storageConfig, @Nonnull Class<URN> urnClass) {
     this(producer, createServer(serverConfig), storageConfig, urnClass, new EmptyPathExtractor<>());
+    _maxConnections = getMaxConnections(serverConfig);
   }
 
   /**
@@ -174,6 +329,115 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
     _useUnionForBatch = useUnionForBatch;
   }
 
+  /**
+   * Sets the min number of keys of a batch get query, i.e. a page of at most {@link #setQueryKeysCount(int)} keys, for
+   * it to group the keys by aspect and version and select the urns of each group with {@code urn IN (...)}.
+   *
+   * <p>Unlike the OR and UNION ALL queries, whose SQL changes with every number of keys, IN lists are padded to a
+   * power of two between 8 and 512, so that the same few prepared statements are reused. Larger groups are split into
+   * lists of 512 urns. As each group takes its own query, IN lists are only used if the groups have 8 keys on average,
+   * e.g. when the same aspects of many urns are read. Other queries keep using the query chosen by
+   * {@link #setUseUnionForBatch(boolean)}.
+   *
+   * @param minKeys min number of keys to use IN lists, 0 to never use them, 16 by default
+   */
+  public void setBucketedInThreshold(int minKeys) {
+    if (minKeys < 0) {
+      throw new IllegalArgumentException("Bucketed IN threshold must not be negative: " + minKeys);
+    }
+    _bucketedInThreshold = minKeys;
+  }
+
+  /**
+   * Sets the {@link AspectCodec} to encode aspects with, e.g. {@link AspectCodecs#DEFLATED_PSON} for large aspects.
+   *
+   * <p>Rows are read in whichever format they were written in, so the codec can be changed without migrating existing
+   * rows. However, all readers of the table must be upgraded to a version that can decode the new format first.
+   */
+  public void setAspectCodec(@Nonnull AspectCodec aspectCodec) {
+    _aspectCodec = aspectCodec;
+  }
+
+  /**
+   * Sets if the next version of each aspect is kept in the metadata_aspect_version table, which saves the query for the
+   * largest existing version on every update.
+   *
+   * <p>The table must exist before this is turned on. Existing data doesn't need to be migrated: the counter of an
+   * aspect is created from the largest existing version on its first update. All DAOs writing to the same database
+   * should turn this on, as other writers don't advance the counters. A counter that falls behind anyway, e.g. while
+   * this was turned off, fails the insert of its next version, and the retried transaction moves it past the largest
+   * existing version.
+   */
+  public void setUseVersionCounter(boolean useVersionCounter) {
+    _useVersionCounter = useVersionCounter;
+  }
+
+  /**
+   * Sets the number of numeric IDs reserved from the database at a time for each namespace.
+   *
+   * <p>With a block size larger than 1, {@link #newNumericId(String, int)} hands out reserved IDs from memory and only
+   * goes to the database once a block is used up. This trades part of its guarantee for fewer round trips: IDs are
+   * still unique and increase monotonically for each namespace within this DAO, but no longer across DAOs sharing the
+   * database, since another DAO can hand out larger IDs before this DAO uses up its block. Only turn this on when callers
+   * don't rely on the order of IDs generated by different DAOs. Unused IDs of reserved blocks are skipped when the
+   * process exits. The default block size of 1 keeps the full guarantee.
+   */
+  public void setIdBlockSize(int idBlockSize) {
+    if (idBlockSize < 1) {
+      throw new IllegalArgumentException("ID block size must be positive");
+    }
+    _idBlockSize = idBlockSize;
+  }
+
+  /**
+   * Sets read-only replicas of the database, which reads that don't need to see the latest writes are routed to.
+   *
+   * <p>Reads are spread over the replicas in round-robin order, unless they're made in a transaction, e.g. by
+   * {@link #add(Urn, RecordTemplate, AuditStamp)}, or in a {@link #readFromPrimary(Supplier)} block, which always read
+   * from the primary server the DAO is created with. Writes always go to the primary server. Note that replica reads
+   * can miss the most recent writes.
+   *
+   * <p>If the read-through cache of latest aspects is enabled, its misses are loaded from the primary server, so that a
+   * value read from a lagging replica is never cached after a write through this DAO invalidated it. Reads in a
+   * {@link #readFromPrimary(Supplier)} block bypass the cache.
+   *
+   * @param readReplicas {@link EbeanServer}s of the replicas, or an empty list to read everything from the primary
+   */
+  public void setReadReplicas(@Nonnull List<EbeanServer> readReplicas) {
+    _readReplicas = Collections.unmodifiableList(new ArrayList<>(readReplicas));
+  }
+
+  /**
+   * Runs a block in which all reads of the current thread go to the primary server, for callers that need to read their
+   * own writes. The reads bypass the read-through cache of latest aspects, which can hold values that are outdated by
+   * writes made through other DAOs.
+   *
+   * @param block the reads to run
+   * @return the result of the block
+   */
+  public <T> T readFromPrimary(@Nonnull Supplier<T> block) {
+    final boolean previous = _readFromPrimary.get();
+    _readFromPrimary.set(true);
+    try {
+      return block.get();
+    } finally {
+      _readFromPrimary.set(previous);
+    }
+  }
+
+  /**
+   * Returns the server to read from, which is a read replica unless the reads must see the latest writes.
+   */
+  @Nonnull
+  private EbeanServer readServer() {
+    final List<EbeanServer> readReplicas = _readReplicas;
+    // Reads in a transaction must see its uncommitted writes
+    if (readReplicas.isEmpty() || _readFromPrimary.get() || _server.currentTransaction() != null) {
+      return _server;
+    }
+    return readReplicas.get(Math.floorMod(_nextReadReplica.getAndIncrement(), readReplicas.size()));
+  }
+
   @Nonnull
   private static EbeanServer createServer(@Nonnull ServerConfig serverConfig) {
     // Make sure that the serverConfig includes the package that contains DAO's Ebean model.
@@ -186,6 +450,11 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
     return EbeanServerFactory.create(serverConfig);
   }
 
+  private static int getMaxConnections(@Nonnull ServerConfig serverConfig) {
+    final DataSourceConfig dataSourceConfig = serverConfig.getDataSourceConfig();
+    return dataSourceConfig == null ? 0 : dataSourceConfig.getMaxConnections();
+  }
+
   /**
    * Return the {@link EbeanServer} server instance used for customized queries.
    */
@@ -197,6 +466,35 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
     _urnPathExtractor = urnPathExtractor;
   }
 
+  /**
+   * Enables planning of {@link #listUrns(IndexFilter, Urn, int)} queries, which joins the criteria of a filter in the
+   * order of their estimated number of matching rows, so that the most selective criterion drives the query.
+   *
+   * <p>Estimates are based on the number of rows and distinct values of each (aspect, path) pair of the index, which
+   * are counted in the background on first use and recounted in the background once they're older than the given TTL.
+   * Until the first counts of a criterion are done, or if they fail, e.g. time out, until the TTL expires, the criteria
+   * of its queries are joined in the order they're given in, rather than delaying or failing the queries.
+   *
+   * @param statisticsTtlMs how long the counts of an (aspect, path) pair are cached for, in milliseconds
+   */
+  public void enableIndexQueryPlanner(long statisticsTtlMs) {
+    enableIndexQueryPlanner(this::loadIndexStatistics, statisticsTtlMs, _indexStatisticsExecutor);
+  }
+
+  @VisibleForTesting
+  void enableIndexQueryPlanner(
+      @Nonnull Function<IndexQueryPlanner.StatisticsKey, IndexQueryPlanner.Statistics> statisticsLoader,
+      long statisticsTtlMs, @Nonnull Executor statisticsExecutor) {
+    _indexQueryPlanner = new IndexQueryPlanner(statisticsLoader, statisticsTtlMs, statisticsExecutor);
+  }
+
+  /**
+   * Disables planning of index queries, so that criteria are joined in the order they're given in.
+   */
+  public void disableIndexQueryPlanner() {
+    _indexQueryPlanner = null;
+  }
+
   /**
    * Creates a private in-memory {@link EbeanServer} based on H2 for production.
    */
@@ -242,25 +540,55 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   @Nonnull
   @Override
   protected <T> T runInTransactionWithRetry(@Nonnull Supplier<T> block, int maxTransactionRetry) {
+    return runInTransactionWithRetry(block, maxTransactionRetry, false);
+  }
+
+  @Nonnull
+  @Override
+  protected <T> T runInBatchTransactionWithRetry(@Nonnull Supplier<T> block, int maxTransactionRetry) {
+    return runInTransactionWithRetry(block, maxTransactionRetry, true);
+  }
+
+  /**
+   * Runs the given lambda expression in a transaction with a limited number of retries.
+   *
+   * <p>In batch mode, inserts and updates are sent to the database using JDBC batches, which are flushed before each
+   * query and on commit. Otherwise the transaction keeps the batch mode configured for the server.
+   */
+  @Nonnull
+  private <T> T runInTransactionWithRetry(@Nonnull Supplier<T> block, int maxTransactionRetry, boolean batchMode) {
+    final long start = System.nanoTime();
     int retryCount = 0;
     Exception lastException;
 
     T result = null;
-    do {
-      try (Transaction transaction = _server.beginTransaction()) {
-        result = block.get();
-        transaction.commit();
-        lastException = null;
-        break;
-      } catch (RollbackException | DuplicateKeyException exception) {
-        lastException = exception;
-      }
-    } while (++retryCount <= maxTransactionRetry);
+    try {
+      do {
+        try (Transaction transaction = _server.beginTransaction()) {
+          if (batchMode) {
+            transaction.setBatchMode(true);
+          }
+          result = block.get();
+          transaction.commit();
+          lastException = null;
+          break;
+        } catch (RollbackException exception) {
+          lastException = exception;
+        } catch (DuplicateKeyException exception) {
+          lastException = exception;
+          _reseedVersionCounters.set(true);
+        }
+      } while (++retryCount <= maxTransactionRetry);
+    } finally {
+      _reseedVersionCounters.remove();
+    }
 
     if (lastException != null) {
+      getMetricListener().onTransaction(System.nanoTime() - start, maxTransactionRetry, false);
       throw new RetryLimitReached("Failed to add after " + maxTransactionRetry + " retries", lastException);
     }
 
+    getMetricListener().onTransaction(System.nanoTime() - start, retryCount, true);
     return result;
   }
 
@@ -271,12 +599,19 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
     // Save oldValue as the largest version + 1
     long largestVersion = 0;
     if (oldValue != null && oldAuditStamp != null) {
+      final long versionStart = System.nanoTime();
       largestVersion = getNextVersion(urn, aspectClass);
+      recordOperation(LocalDAOOperation.GET_NEXT_VERSION, versionStart, 1, -1);
+
+      final long saveStart = System.nanoTime();
       save(urn, oldValue, oldAuditStamp, largestVersion, true);
+      recordOperation(LocalDAOOperation.SAVE, saveStart, 1, 1);
     }
 
     // Save newValue as the latest version (v0)
+    final long saveStart = System.nanoTime();
     save(urn, newValue, newAuditStamp, LATEST_VERSION, oldValue == null);
+    recordOperation(LocalDAOOperation.SAVE, saveStart, 1, 1);
     return largestVersion;
   }
 
@@ -295,6 +630,24 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
     updateAspectInLocalIndex(urn, newValue);
   }
 
+  @Override
+  protected <ASPECT extends RecordTemplate> void updateLocalIndex(@Nonnull URN urn, @Nullable ASPECT oldValue,
+      @Nonnull ASPECT newValue, long version) {
+    if (oldValue == null) {
+      updateLocalIndex(urn, newValue, version);
+      return;
+    }
+
+    if (!isLocalSecondaryIndexEnabled()) {
+      throw new UnsupportedOperationException("Local secondary index isn't supported");
+    }
+
+    if (version == FIRST_VERSION) {
+      updateUrnInLocalIndex(urn);
+    }
+    updateAspectInLocalIndex(urn, oldValue, newValue);
+  }
+
   @Override
   @Nullable
   protected <ASPECT extends RecordTemplate> AspectEntry<ASPECT> getLatest(@Nonnull URN urn,
@@ -305,7 +658,25 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
       return null;
     }
 
-    return new AspectEntry<>(RecordUtils.toRecordTemplate(aspectClass, latest.getMetadata()), toExtraInfo(latest));
+    getMetricListener().onPayload(LocalDAOOperation.GET_LATEST, latest.getMetadata().length());
+    return new AspectEntry<>(toRecordTemplate(aspectClass, latest), toExtraInfo(latest));
+  }
+
+  @Override
+  @Nonnull
+  protected Map<AspectKey<URN, ? extends RecordTemplate>, AspectEntry<? extends RecordTemplate>> batchGetLatest(
+      @Nonnull Set<AspectKey<URN, ? extends RecordTemplate>> keys) {
+    final Map<NormalizedKey, EbeanMetadataAspect> records = indexByKey(batchGet(keys));
+
+    final Map<AspectKey<URN, ? extends RecordTemplate>, AspectEntry<? extends RecordTemplate>> result =
+        new HashMap<>(keys.size());
+    keys.forEach(key -> {
+      final EbeanMetadataAspect record = records.get(normalize(key));
+      if (record != null) {
+        result.put(key, new AspectEntry<>(toRecordTemplate(key.getAspectClass(), record), toExtraInfo(record)));
+      }
+    });
+    return result;
   }
 
   @Override
@@ -316,7 +687,8 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
 
     final EbeanMetadataAspect aspect = new EbeanMetadataAspect();
     aspect.setKey(new PrimaryKey(urn.toString(), aspectName, version));
-    aspect.setMetadata(RecordUtils.toJsonString(value));
+    aspect.setMetadata(_aspectCodec.encode(value));
+    getMetricListener().onPayload(LocalDAOOperation.SAVE, aspect.getMetadata().length());
     aspect.setCreatedOn(new Timestamp(auditStamp.getTime()));
     aspect.setCreatedBy(auditStamp.getActor().toString());
 
@@ -335,6 +707,15 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   protected long saveSingleRecordToLocalIndex(@Nonnull URN urn, @Nonnull String aspect, @Nonnull String path,
       @Nonnull Object value) {
 
+    final EbeanMetadataIndex record = toLocalIndexRecord(urn, aspect, path, value);
+    _server.insert(record);
+    return record.getId();
+  }
+
+  @Nonnull
+  private EbeanMetadataIndex toLocalIndexRecord(@Nonnull URN urn, @Nonnull String aspect, @Nonnull String path,
+      @Nonnull Object value) {
+
     final EbeanMetadataIndex record = new EbeanMetadataIndex().setUrn(urn.toString()).setAspect(aspect).setPath(path);
     if (value instanceof Integer || value instanceof Long) {
       record.setLongVal(Long.valueOf(value.toString()));
@@ -343,9 +724,7 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
     } else {
       record.setStringVal(value.toString());
     }
-
-    _server.insert(record);
-    return record.getId();
+    return record;
   }
 
   @Nonnull
@@ -388,9 +767,252 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
             value -> saveSingleRecordToLocalIndex(urn, newValue.getClass().getCanonicalName(), k, value)));
   }
 
+  /**
+   * Updates the index rows of the paths whose values differ between the old and the new value of an aspect, and leaves
+   * the rows of all other paths untouched.
+   */
+  private <ASPECT extends RecordTemplate> void updateAspectInLocalIndex(@Nonnull URN urn, @Nonnull ASPECT oldValue,
+      @Nonnull ASPECT newValue) {
+
+    final LocalDAOStorageConfig.AspectStorageConfig aspectStorageConfig =
+        _storageConfig.getAspectStorageConfigMap().get(newValue.getClass());
+    if (aspectStorageConfig == null) {
+      return;
+    }
+
+    final Map<String, Object> oldIndexValues = getLocalIndexValues(aspectStorageConfig, oldValue);
+    final Map<String, Object> newIndexValues = getLocalIndexValues(aspectStorageConfig, newValue);
+
+    final Set<String> changedPaths = new HashSet<>(oldIndexValues.keySet());
+    changedPaths.addAll(newIndexValues.keySet());
+    changedPaths.removeIf(path -> Objects.equals(oldIndexValues.get(path), newIndexValues.get(path)));
+    if (changedPaths.isEmpty()) {
+      return;
+    }
+
+    // step1: remove the rows of changed paths from the index table in a single statement
+    _server.find(EbeanMetadataIndex.class)
+        .where()
+        .eq(URN_COLUMN, urn.toString())
+        .eq(ASPECT_COLUMN, ModelUtils.getAspectName(newValue.getClass()))
+        .in(EbeanMetadataIndex.PATH_COLUMN, changedPaths)
+        .delete();
+
+    // step2: insert the new values of changed paths as one batch
+    final List<EbeanMetadataIndex> records = changedPaths.stream()
+        .filter(newIndexValues::containsKey)
+        .map(path -> toLocalIndexRecord(urn, newValue.getClass().getCanonicalName(), path, newIndexValues.get(path)))
+        .collect(Collectors.toList());
+    if (!records.isEmpty()) {
+      _server.insertAll(records);
+    }
+  }
+
+  @Nonnull
+  private static Map<String, Object> getLocalIndexValues(
+      @Nonnull LocalDAOStorageConfig.AspectStorageConfig aspectStorageConfig, @Nonnull RecordTemplate value) {
+    final Map<String, Object> indexValues = new HashMap<>();
+    aspectStorageConfig.getPathStorageConfigMap().forEach((path, pathStorageConfig) -> {
+      if (pathStorageConfig.isStrongConsistentSecondaryIndex()) {
+        RecordUtils.getFieldValue(value, path).ifPresent(fieldValue -> indexValues.put(path, fieldValue));
+      }
+    });
+    return indexValues;
+  }
+
+  /**
+   * Rebuilds the local secondary index of an aspect from its latest values, e.g. after a path of the aspect is added to
+   * the {@link LocalDAOStorageConfig}.
+   *
+   * <p>The urns that have the aspect are scanned in pages of consecutive urns, with keyset pagination, and the pages are
+   * re-indexed by a pool of worker threads. Each page is re-indexed in one transaction, which locks the latest values
+   * of the page, deletes the index rows of the aspect for the urns of the page, and inserts the new rows with JDBC
+   * batches. Concurrent writes of the aspect are therefore not lost.
+   *
+   * <p>The checkpoint listener is called, in order, with the last urn up to which all pages have been re-indexed. A
+   * rebuild that fails can be resumed from its last checkpoint. If a page fails, no more pages are scanned and the
+   * exception is rethrown once the pages in flight are done.
+   *
+   * @param aspectClass the type of the aspect to re-index
+   * @param config {@link LocalIndexRebuildConfig} containing the page size, parallelism and throttle of the rebuild
+   * @param lastUrn last checkpoint of a previous rebuild to resume from, or null to start from the first urn
+   * @param checkpointListener called with the last urn up to which the index has been rebuilt, after every page
+   * @return {@link LocalIndexRebuildResult} containing the number of re-indexed aspects and the last checkpoint
+   */
+  @Nonnull
+  public <ASPECT extends RecordTemplate> LocalIndexRebuildResult rebuildLocalIndex(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull LocalIndexRebuildConfig config, @Nullable String lastUrn, @Nonnull Consumer<String> checkpointListener) {
+    if (!isLocalSecondaryIndexEnabled()) {
+      throw new UnsupportedOperationException("Local secondary index isn't supported");
+    }
+    checkValidAspect(aspectClass);
+    final LocalDAOStorageConfig.AspectStorageConfig aspectStorageConfig =
+        _storageConfig.getAspectStorageConfigMap().get(aspectClass);
+    if (aspectStorageConfig == null) {
+      throw new IllegalArgumentException("No index path is configured for aspect " + aspectClass.getCanonicalName());
+    }
+    if (config.getPageSize() < 1 || config.getParallelism() < 1 || config.getMaxAspectsPerSecond() < 0) {
+      throw new IllegalArgumentException("Page size and parallelism must be positive, max aspects per second must not "
+          + "be negative");
+    }
+
+    final ExecutorService workers = Executors.newFixedThreadPool(config.getParallelism(),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ebean-index-rebuild-%d").build());
+    // Bounds the number of scanned pages waiting for a worker
+    final Semaphore pagesInFlight = new Semaphore(config.getParallelism() * 2);
+    final RateLimiter rateLimiter =
+        config.getMaxAspectsPerSecond() > 0 ? RateLimiter.create(config.getMaxAspectsPerSecond()) : null;
+    final RebuildProgress progress = new RebuildProgress(lastUrn, checkpointListener);
+    final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    try {
+      String last = lastUrn;
+      for (long pageNumber = 0; failure.get() == null; pageNumber++) {
+        final List<String> urns = scanLatestUrns(aspectClass, last, config.getPageSize());
+        if (urns.isEmpty()) {
+          break;
+        }
+        last = urns.get(urns.size() - 1);
+
+        if (rateLimiter != null) {
+          rateLimiter.acquire(urns.size());
+        }
+        pagesInFlight.acquire();
+        final long page = pageNumber;
+        workers.execute(() -> {
+          try {
+            final long rowCount = reindexLatest(aspectClass, aspectStorageConfig, urns, config.getMaxTransactionRetry());
+            progress.completed(page, urns, rowCount);
+          } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+          } finally {
+            pagesInFlight.release();
+          }
+        });
+
+        if (urns.size() < config.getPageSize()) {
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failure.compareAndSet(null, new IllegalStateException("Interrupted while rebuilding the local index", e));
+    } finally {
+      workers.shutdown();
+      try {
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        workers.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    return progress.getResult();
+  }
+
+  /**
+   * Returns a page of the urns that have the latest version of an aspect, in ascending order.
+   */
+  @Nonnull
+  private <ASPECT extends RecordTemplate> List<String> scanLatestUrns(@Nonnull Class<ASPECT> aspectClass,
+      @Nullable String lastUrn, int pageSize) {
+    final ExpressionList<EbeanMetadataAspect> query = _server.find(EbeanMetadataAspect.class)
+        .select(KEY_ID)
+        .where()
+        .eq(ASPECT_COLUMN, ModelUtils.getAspectName(aspectClass))
+        .eq(VERSION_COLUMN, LATEST_VERSION);
+    if (lastUrn != null) {
+      query.gt(URN_COLUMN, lastUrn);
+    }
+    return query.setMaxRows(pageSize)
+        .orderBy()
+        .asc(URN_COLUMN)
+        .findList()
+        .stream()
+        .map(record -> record.getKey().getUrn())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Replaces the index rows of an aspect for the given urns with the ones of the latest values of the aspect, in one
+   * transaction.
+   *
+   * @return the number of inserted index rows
+   */
+  private <ASPECT extends RecordTemplate> long reindexLatest(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull LocalDAOStorageConfig.AspectStorageConfig aspectStorageConfig, @Nonnull List<String> urns,
+      int maxTransactionRetry) {
+    final String aspectName = ModelUtils.getAspectName(aspectClass);
+    return runInBatchTransactionWithRetry(() -> {
+      // Locked so that a concurrent write of the aspect either commits first, or waits for its index to be rebuilt
+      final List<EbeanMetadataAspect> latest = _server.find(EbeanMetadataAspect.class)
+          .forUpdate()
+          .where()
+          .in(URN_COLUMN, urns)
+          .eq(ASPECT_COLUMN, aspectName)
+          .eq(VERSION_COLUMN, LATEST_VERSION)
+          .findList();
+
+      _server.find(EbeanMetadataIndex.class)
+          .where()
+          .in(URN_COLUMN, urns)
+          .eq(ASPECT_COLUMN, aspectName)
+          .delete();
+
+      final List<EbeanMetadataIndex> records = new ArrayList<>();
+      for (EbeanMetadataAspect record : latest) {
+        final URN urn = getUrn(record.getKey().getUrn());
+        getLocalIndexValues(aspectStorageConfig, toRecordTemplate(aspectClass, record)).forEach(
+            (path, value) -> records.add(toLocalIndexRecord(urn, aspectClass.getCanonicalName(), path, value)));
+      }
+      if (!records.isEmpty()) {
+        _server.insertAll(records);
+      }
+      return (long) records.size();
+    }, maxTransactionRetry);
+  }
+
   @Override
   protected <ASPECT extends RecordTemplate> long getNextVersion(@Nonnull URN urn, @Nonnull Class<ASPECT> aspectClass) {
+    if (_useVersionCounter) {
+      return allocateVersion(urn, aspectClass);
+    }
+    return queryNextVersion(urn, aspectClass);
+  }
+
+  /**
+   * Allocates the next version of an aspect from its counter, which is advanced in the current transaction.
+   *
+   * <p>Concurrent updates of the same aspect allocate the same version, so all but one fail with
+   * {@link DuplicateKeyException} on inserting the version and are retried. So does an update whose counter is behind
+   * the versions in the table, e.g. because they were saved by a writer that doesn't use the counters. As the counter
+   * would fail every retry the same way, retries after a {@link DuplicateKeyException} allocate the larger of the
+   * counter and the version after the largest existing one.
+   */
+  private <ASPECT extends RecordTemplate> long allocateVersion(@Nonnull URN urn, @Nonnull Class<ASPECT> aspectClass) {
+    final EbeanMetadataAspectVersion.PrimaryKey key =
+        new EbeanMetadataAspectVersion.PrimaryKey(urn.toString(), ModelUtils.getAspectName(aspectClass));
+    final EbeanMetadataAspectVersion counter = _server.find(EbeanMetadataAspectVersion.class, key);
+
+    if (counter == null) {
+      // First update since the counter table was introduced
+      final long version = queryNextVersion(urn, aspectClass);
+      _server.insert(new EbeanMetadataAspectVersion(key, version + 1));
+      return version;
+    }
+
+    final long version = _reseedVersionCounters.get()
+        ? Math.max(counter.getNextVersion(), queryNextVersion(urn, aspectClass))
+        : counter.getNextVersion();
+    counter.setNextVersion(version + 1);
+    _server.update(counter);
+    return version;
+  }
 
+  private <ASPECT extends RecordTemplate> long queryNextVersion(@Nonnull URN urn, @Nonnull Class<ASPECT> aspectClass) {
     final List<PrimaryKey> result = _server.find(EbeanMetadataAspect.class)
         .where()
         .eq(URN_COLUMN, urn.toString())
@@ -406,7 +1028,13 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   @Override
   protected <ASPECT extends RecordTemplate> void applyVersionBasedRetention(@Nonnull Class<ASPECT> aspectClass,
       @Nonnull URN urn, @Nonnull VersionBasedRetention retention, long largestVersion) {
-    _server.find(EbeanMetadataAspect.class)
+    applyVersionBasedRetentionAndCount(aspectClass, urn, retention, largestVersion);
+  }
+
+  @Override
+  protected <ASPECT extends RecordTemplate> int applyVersionBasedRetentionAndCount(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, @Nonnull VersionBasedRetention retention, long largestVersion) {
+    return _server.find(EbeanMetadataAspect.class)
         .where()
         .eq(URN_COLUMN, urn.toString())
         .eq(ASPECT_COLUMN, ModelUtils.getAspectName(aspectClass))
@@ -418,8 +1046,14 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   @Override
   protected <ASPECT extends RecordTemplate> void applyTimeBasedRetention(@Nonnull Class<ASPECT> aspectClass,
       @Nonnull URN urn, @Nonnull TimeBasedRetention retention, long currentTime) {
+    applyTimeBasedRetentionAndCount(aspectClass, urn, retention, currentTime);
+  }
+
+  @Override
+  protected <ASPECT extends RecordTemplate> int applyTimeBasedRetentionAndCount(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, @Nonnull TimeBasedRetention retention, long currentTime) {
 
-    _server.find(EbeanMetadataAspect.class)
+    return _server.find(EbeanMetadataAspect.class)
         .where()
         .eq(URN_COLUMN, urn.toString())
         .eq(ASPECT_COLUMN, ModelUtils.getAspectName(aspectClass))
@@ -435,20 +1069,32 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
       return Collections.emptyMap();
     }
 
-    final List<EbeanMetadataAspect> records;
-
-    if (_queryKeysCount == 0) {
-      records = batchGet(keys, keys.size());
-    } else {
-      records = batchGet(keys, _queryKeysCount);
+    // Uncommitted values read inside a transaction must not leak into the cache, and reads from the primary must see
+    // the latest writes
+    if (!isLatestAspectCacheEnabled() || _server.currentTransaction() != null || _readFromPrimary.get()) {
+      return batchGetAspects(keys);
     }
 
-    // TODO: Improve this O(n^2) search
-    return keys.stream()
-        .collect(Collectors.toMap(Function.identity(), key -> records.stream()
-            .filter(record -> matchKeys(key, record.getKey()))
-            .findFirst()
-            .map(record -> toRecordTemplate(key.getAspectClass(), record))));
+    // A lagging replica could return a value that a write has invalidated in the cache since, so misses are loaded from
+    // the primary
+    return readThroughLatestAspectCache(keys, misses -> readFromPrimary(() -> batchGetAspects(misses)));
+  }
+
+  @Nonnull
+  private Map<AspectKey<URN, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> batchGetAspects(
+      @Nonnull Set<AspectKey<URN, ? extends RecordTemplate>> keys) {
+    final long start = System.nanoTime();
+    final List<EbeanMetadataAspect> batch = batchGet(keys);
+    recordOperation(LocalDAOOperation.BATCH_GET, start, keys.size(), batch.size());
+    getMetricListener().onPayload(LocalDAOOperation.BATCH_GET,
+        batch.stream().mapToLong(record -> record.getMetadata().length()).sum());
+    final Map<NormalizedKey, EbeanMetadataAspect> records = indexByKey(batch);
+
+    final Map<AspectKey<URN, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> result =
+        new HashMap<>(keys.size());
+    keys.forEach(key -> result.put(key,
+        Optional.ofNullable(records.get(normalize(key))).map(record -> toRecordTemplate(key.getAspectClass(), record))));
+    return result;
   }
 
   @Override
@@ -459,19 +1105,74 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
       return Collections.emptyMap();
     }
 
-    final List<EbeanMetadataAspect> records = batchGet(keys, keys.size());
+    final Map<NormalizedKey, EbeanMetadataAspect> records = indexByKey(batchGet(keys));
 
     final Map<AspectKey<URN, ? extends RecordTemplate>, AspectWithExtraInfo<? extends RecordTemplate>> result =
-        new HashMap<>();
-    keys.forEach(key -> records.stream()
-        .filter(record -> matchKeys(key, record.getKey()))
-        .findFirst()
-        .map(record -> result.put(key, toRecordTemplateWithExtraInfo(key.getAspectClass(), record))));
+        new HashMap<>(keys.size());
+    keys.forEach(key -> {
+      final EbeanMetadataAspect record = records.get(normalize(key));
+      if (record != null) {
+        result.put(key, toRecordTemplateWithExtraInfo(key.getAspectClass(), record));
+      }
+    });
     return result;
   }
 
+  /**
+   * Similar to {@link #get(Set)} but reads the single row of the key by its primary key, without building a batch query.
+   */
+  @Override
+  @Nonnull
+  public <ASPECT extends RecordTemplate> Optional<ASPECT> get(@Nonnull AspectKey<URN, ASPECT> key) {
+    // Same as get(Set), so that single and batch reads are equally consistent
+    if (!isLatestAspectCacheEnabled() || _server.currentTransaction() != null || _readFromPrimary.get()) {
+      return getAspect(key);
+    }
+
+    return readThroughLatestAspectCache(key, miss -> readFromPrimary(() -> getAspect(miss)));
+  }
+
+  @Nonnull
+  private <ASPECT extends RecordTemplate> Optional<ASPECT> getAspect(@Nonnull AspectKey<URN, ASPECT> key) {
+    final long start = System.nanoTime();
+    final EbeanMetadataAspect record = findByKey(key);
+    recordOperation(LocalDAOOperation.GET, start, 1, record == null ? 0 : 1);
+    if (record == null) {
+      return Optional.empty();
+    }
+
+    getMetricListener().onPayload(LocalDAOOperation.GET, record.getMetadata().length());
+    return Optional.of(toRecordTemplate(key.getAspectClass(), record));
+  }
+
+  /**
+   * Similar to {@link #getWithExtraInfo(Set)} but reads the single row of the key by its primary key, without building
+   * a batch query.
+   */
+  @Override
+  @Nonnull
+  public <ASPECT extends RecordTemplate> Optional<AspectWithExtraInfo<ASPECT>> getWithExtraInfo(
+      @Nonnull AspectKey<URN, ASPECT> key) {
+    final EbeanMetadataAspect record = findByKey(key);
+    return record == null ? Optional.empty()
+        : Optional.of(toRecordTemplateWithExtraInfo(key.getAspectClass(), record));
+  }
+
+  @Nullable
+  private EbeanMetadataAspect findByKey(@Nonnull AspectKey<URN, ? extends RecordTemplate> key) {
+    return readServer().find(EbeanMetadataAspect.class,
+        new PrimaryKey(key.getUrn().toString(), ModelUtils.getAspectName(key.getAspectClass()), key.getVersion()));
+  }
+
+  @Override
+  @Nonnull
+  protected String urnCacheKey(@Nonnull URN urn) {
+    // Matches the case-insensitive comparison of urns in the database
+    return urn.toString().toLowerCase(Locale.ROOT);
+  }
+
   public boolean existsInLocalIndex(@Nonnull URN urn) {
-    return _server.find(EbeanMetadataIndex.class).where().eq(URN_COLUMN, urn.toString()).exists();
+    return readServer().find(EbeanMetadataIndex.class).where().eq(URN_COLUMN, urn.toString()).exists();
   }
 
   /**
@@ -485,8 +1186,70 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   }
 
   /**
-   * BatchGet that allows pagination on keys to avoid large queries.
-   * TODO: can further improve by running the sub queries in parallel
+   * Sets the max number of batch get pages, i.e. sub queries of at most {@link #setQueryKeysCount(int)} keys, that can
+   * be run in parallel.
+   *
+   * <p>The parallelism is bounded by the size of the connection pool, minus one connection that is left for other
+   * requests, if the DAO was created from a {@link ServerConfig}. Sub queries are always run serially on the calling
+   * thread if there is an active transaction, so that they can see the uncommitted changes made by it.
+   *
+   * @param parallelism max number of sub queries to run in parallel, 1 means the sub queries are run serially
+   */
+  public void setBatchGetParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Batch get parallelism must be positive: " + parallelism);
+    }
+
+    final int boundedParallelism = _maxConnections > 0 ? Math.min(parallelism, Math.max(1, _maxConnections - 1)) : parallelism;
+    if (_batchGetExecutor != null) {
+      _batchGetExecutor.shutdown();
+    }
+    _batchGetExecutor = boundedParallelism == 1 ? null : Executors.newFixedThreadPool(boundedParallelism,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ebean-batch-get-%d").build());
+  }
+
+  /**
+   * Sets the {@link Executor} that streaming scans, e.g. {@link #stream(Class, int)}, fetch their next page with while
+   * the current page is being consumed.
+   *
+   * <p>Each open scan has at most one fetch pending, so the executor should be bounded to the number of scans expected
+   * to run at the same time, and is not shut down by this DAO. Pages are always fetched on the calling thread if there is
+   * an active transaction, so that they can see the uncommitted changes made by it.
+   *
+   * @param executor the executor to fetch pages with, or null to fetch each page when it's needed
+   */
+  public void setScanExecutor(@Nullable Executor executor) {
+    _scanExecutor = executor;
+  }
+
+  /**
+   * Sets the max number of parsed URNs that are cached, so that the URNs of rows read over and over again, e.g. by
+   * {@link #listUrns(Class, int, int)} or in {@link ExtraInfo}s, are not parsed every time.
+   *
+   * @param maxEntries max number of cached URNs of each kind, 0 means URNs are not cached
+   */
+  public void setUrnCacheSize(int maxEntries) {
+    if (maxEntries < 0) {
+      throw new IllegalArgumentException("URN cache size must be non-negative: " + maxEntries);
+    }
+
+    final UrnFactory<URN> urnFactory = Urns.getFactory(_urnClass);
+    final UrnFactory<Urn> extraInfoUrnFactory = Urns.getFactory(Urn.class);
+    _urnFactory = maxEntries == 0 ? urnFactory : urnFactory.withCache(maxEntries);
+    _extraInfoUrnFactory = maxEntries == 0 ? extraInfoUrnFactory : extraInfoUrnFactory.withCache(maxEntries);
+  }
+
+  /**
+   * BatchGet that paginates on keys based on {@link #setQueryKeysCount(int)}.
+   */
+  @Nonnull
+  private List<EbeanMetadataAspect> batchGet(@Nonnull Set<AspectKey<URN, ? extends RecordTemplate>> keys) {
+    return batchGet(keys, _queryKeysCount == 0 ? keys.size() : _queryKeysCount);
+  }
+
+  /**
+   * BatchGet that allows pagination on keys to avoid large queries. The sub queries are run in parallel if
+   * {@link #setBatchGetParallelism(int)} is set.
    *
    * @param keys a set of keys with urn, aspect and version
    * @param keysCount the max number of keys for each sub query
@@ -495,18 +1258,66 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   private List<EbeanMetadataAspect> batchGet(@Nonnull Set<AspectKey<URN, ? extends RecordTemplate>> keys,
       int keysCount) {
 
-    int position = 0;
-    final int totalPageCount = QueryUtils.getTotalPageCount(keys.size(), keysCount);
+    final List<AspectKey<URN, ? extends RecordTemplate>> keyList = new ArrayList<>(keys);
+    final int totalPageCount = QueryUtils.getTotalPageCount(keyList.size(), keysCount);
+
+    // Resolved on the calling thread, as sub queries may run on other threads
+    final EbeanServer server = readServer();
+    final ExecutorService executor = _batchGetExecutor;
+    if (executor == null || totalPageCount <= 1 || _server.currentTransaction() != null) {
+      int position = 0;
+      final List<EbeanMetadataAspect> finalResult = batchGetHelper(server, keyList, keysCount, position);
+      while (QueryUtils.hasMore(position, keysCount, totalPageCount)) {
+        position += keysCount;
+        finalResult.addAll(batchGetHelper(server, keyList, keysCount, position));
+      }
+      return finalResult;
+    }
+
+    final List<Future<List<EbeanMetadataAspect>>> futures = new ArrayList<>(totalPageCount);
+    for (int page = 0; page < totalPageCount; page++) {
+      final int position = page * keysCount;
+      futures.add(executor.submit(() -> batchGetHelper(server, keyList, keysCount, position)));
+    }
 
-    List<EbeanMetadataAspect> finalResult = batchGetHelper(new ArrayList<>(keys), keysCount, position);
-    while (QueryUtils.hasMore(position, keysCount, totalPageCount)) {
-      position += keysCount;
-      final List<EbeanMetadataAspect> oneStatementResult = batchGetHelper(new ArrayList<>(keys), keysCount, position);
-      finalResult.addAll(oneStatementResult);
+    final List<EbeanMetadataAspect> finalResult = new ArrayList<>(keyList.size());
+    try {
+      for (Future<List<EbeanMetadataAspect>> future : futures) {
+        finalResult.addAll(future.get());
+      }
+    } catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for batch get", e);
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Batch get failed", e.getCause());
     }
     return finalResult;
   }
 
+  /**
+   * Builds a hash index of the batch get results, so that they can be matched to the requested keys in linear time.
+   */
+  @Nonnull
+  private static Map<NormalizedKey, EbeanMetadataAspect> indexByKey(@Nonnull List<EbeanMetadataAspect> records) {
+    final Map<NormalizedKey, EbeanMetadataAspect> index = new HashMap<>(records.size() * 2);
+    for (EbeanMetadataAspect record : records) {
+      final PrimaryKey pk = record.getKey();
+      index.putIfAbsent(new NormalizedKey(pk.getUrn().toLowerCase(Locale.ROOT), pk.getAspect(), pk.getVersion()), record);
+    }
+    return index;
+  }
+
+  @Nonnull
+  private NormalizedKey normalize(@Nonnull AspectKey<URN, ? extends RecordTemplate> key) {
+    return new NormalizedKey(key.getUrn().toString().toLowerCase(Locale.ROOT),
+        ModelUtils.getAspectName(key.getAspectClass()), key.getVersion());
+  }
+
   /**
    * Builds a single SELECT statement for batch get, which selects one entity, and then can be UNION'd with other SELECT
    * statements.
@@ -523,8 +1334,8 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   }
 
   @Nonnull
-  private List<EbeanMetadataAspect> batchGetUnion(@Nonnull List<AspectKey<URN, ? extends RecordTemplate>> keys,
-      int keysCount, int position) {
+  private List<EbeanMetadataAspect> batchGetUnion(@Nonnull EbeanServer server,
+      @Nonnull List<AspectKey<URN, ? extends RecordTemplate>> keys, int keysCount, int position) {
 
     // Build one SELECT per key and then UNION ALL the results. This can be much more performant than OR'ing the
     // conditions together. Our query will look like:
@@ -547,7 +1358,7 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
       }
     }
 
-    final Query<EbeanMetadataAspect> query = _server.findNative(EbeanMetadataAspect.class, sb.toString());
+    final Query<EbeanMetadataAspect> query = server.findNative(EbeanMetadataAspect.class, sb.toString());
 
     for (int i = 1; i <= params.size(); i++) {
       query.setParameter(i, params.get(i - 1));
@@ -557,9 +1368,9 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   }
 
   @Nonnull
-  private List<EbeanMetadataAspect> batchGetOr(@Nonnull List<AspectKey<URN, ? extends RecordTemplate>> keys,
-      int keysCount, int position) {
-    ExpressionList<EbeanMetadataAspect> query = _server.find(EbeanMetadataAspect.class).select(ALL_COLUMNS).where();
+  private List<EbeanMetadataAspect> batchGetOr(@Nonnull EbeanServer server,
+      @Nonnull List<AspectKey<URN, ? extends RecordTemplate>> keys, int keysCount, int position) {
+    ExpressionList<EbeanMetadataAspect> query = server.find(EbeanMetadataAspect.class).select(ALL_COLUMNS).where();
 
     // add or if it is not the last element
     if (position != keys.size() - 1) {
@@ -577,25 +1388,79 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
     return query.findList();
   }
 
+  /**
+   * Groups the urns of a page of keys by aspect and version, in the order of the keys.
+   */
   @Nonnull
-  private List<EbeanMetadataAspect> batchGetHelper(@Nonnull List<AspectKey<URN, ? extends RecordTemplate>> keys,
-      int keysCount, int position) {
-    // TODO remove batchGetOr, make batchGetUnion the only implementation.
-    if (_useUnionForBatch) {
-      return batchGetUnion(keys, keysCount, position);
-    } else {
-      return batchGetOr(keys, keysCount, position);
+  private Map<AspectVersion, List<String>> groupByAspectVersion(
+      @Nonnull List<AspectKey<URN, ? extends RecordTemplate>> keys, int keysCount, int position) {
+    final Map<AspectVersion, List<String>> urnsByAspectVersion = new LinkedHashMap<>();
+    for (int index = position; index < keys.size() && index < position + keysCount; index++) {
+      final AspectKey<URN, ? extends RecordTemplate> key = keys.get(index);
+      urnsByAspectVersion.computeIfAbsent(
+          new AspectVersion(ModelUtils.getAspectName(key.getAspectClass()), key.getVersion()),
+          ignored -> new ArrayList<>()).add(key.getUrn().toString());
     }
+    return urnsByAspectVersion;
+  }
+
+  @Nonnull
+  private List<EbeanMetadataAspect> batchGetIn(@Nonnull EbeanServer server,
+      @Nonnull Map<AspectVersion, List<String>> urnsByAspectVersion) {
+
+    // Our queries will look like:
+    //   SELECT * FROM metadata_aspect WHERE aspect = 'aspect0' AND version = 0 AND urn IN ('urn0', 'urn1', ...)
+    final List<EbeanMetadataAspect> result = new ArrayList<>();
+    urnsByAspectVersion.forEach((aspectVersion, urns) -> {
+      for (int start = 0; start < urns.size(); start += MAX_IN_BUCKET_SIZE) {
+        result.addAll(server.find(EbeanMetadataAspect.class)
+            .select(ALL_COLUMNS)
+            .where()
+            .eq(ASPECT_COLUMN, aspectVersion.getAspect())
+            .eq(VERSION_COLUMN, aspectVersion.getVersion())
+            .in(URN_COLUMN, padToBucketSize(urns.subList(start, Math.min(urns.size(), start + MAX_IN_BUCKET_SIZE))))
+            .findList());
+      }
+    });
+    return result;
   }
 
   /**
-   * Checks if an {@link AspectKey} and a {@link PrimaryKey} for Ebean are equivalent.
-   *
-   * @param aspectKey Urn needs to do a ignore case match
+   * Pads values to the next bucket size by repeating the last value, which doesn't change the result of an IN query.
    */
-  private boolean matchKeys(@Nonnull AspectKey<URN, ? extends RecordTemplate> aspectKey, @Nonnull PrimaryKey pk) {
-    return aspectKey.getUrn().toString().equalsIgnoreCase(pk.getUrn()) && aspectKey.getVersion() == pk.getVersion()
-        && ModelUtils.getAspectName(aspectKey.getAspectClass()).equals(pk.getAspect());
+  @Nonnull
+  static List<String> padToBucketSize(@Nonnull List<String> values) {
+    int bucketSize = MIN_IN_BUCKET_SIZE;
+    while (bucketSize < values.size()) {
+      bucketSize <<= 1;
+    }
+
+    final List<String> padded = new ArrayList<>(bucketSize);
+    padded.addAll(values);
+    while (padded.size() < bucketSize) {
+      padded.add(values.get(values.size() - 1));
+    }
+    return padded;
+  }
+
+  @Nonnull
+  private List<EbeanMetadataAspect> batchGetHelper(@Nonnull EbeanServer server,
+      @Nonnull List<AspectKey<URN, ? extends RecordTemplate>> keys, int keysCount, int position) {
+    final int pageKeysCount = Math.min(keys.size(), position + keysCount) - position;
+    if (_bucketedInThreshold > 0 && pageKeysCount >= _bucketedInThreshold) {
+      final Map<AspectVersion, List<String>> urnsByAspectVersion = groupByAspectVersion(keys, keysCount, position);
+      // Otherwise most IN lists would be mostly padding, and there would be many more queries than pages
+      if (urnsByAspectVersion.size() * MIN_IN_BUCKET_SIZE <= pageKeysCount) {
+        return batchGetIn(server, urnsByAspectVersion);
+      }
+    }
+
+    // TODO remove batchGetOr, make batchGetUnion the only implementation.
+    if (_useUnionForBatch) {
+      return batchGetUnion(server, keys, keysCount, position);
+    } else {
+      return batchGetOr(server, keys, keysCount, position);
+    }
   }
 
   @Override
@@ -605,7 +1470,7 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
 
     checkValidAspect(aspectClass);
 
-    final PagedList<EbeanMetadataAspect> pagedList = _server.find(EbeanMetadataAspect.class)
+    final PagedList<EbeanMetadataAspect> pagedList = readServer().find(EbeanMetadataAspect.class)
         .select(KEY_ID)
         .where()
         .eq(URN_COLUMN, urn.toString())
@@ -628,7 +1493,7 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
 
     checkValidAspect(aspectClass);
 
-    final PagedList<EbeanMetadataAspect> pagedList = _server.find(EbeanMetadataAspect.class)
+    final PagedList<EbeanMetadataAspect> pagedList = readServer().find(EbeanMetadataAspect.class)
         .select(KEY_ID)
         .where()
         .eq(ASPECT_COLUMN, ModelUtils.getAspectName(aspectClass))
@@ -651,7 +1516,7 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
 
     checkValidAspect(aspectClass);
 
-    final PagedList<EbeanMetadataAspect> pagedList = _server.find(EbeanMetadataAspect.class)
+    final PagedList<EbeanMetadataAspect> pagedList = readServer().find(EbeanMetadataAspect.class)
         .select(ALL_COLUMNS)
         .where()
         .eq(URN_COLUMN, urn.toString())
@@ -676,7 +1541,7 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
 
     checkValidAspect(aspectClass);
 
-    final PagedList<EbeanMetadataAspect> pagedList = _server.find(EbeanMetadataAspect.class)
+    final PagedList<EbeanMetadataAspect> pagedList = readServer().find(EbeanMetadataAspect.class)
         .select(ALL_COLUMNS)
         .where()
         .eq(ASPECT_COLUMN, ModelUtils.getAspectName(aspectClass))
@@ -701,27 +1566,165 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
     return list(aspectClass, LATEST_VERSION, start, pageSize);
   }
 
+  /**
+   * Streams all versions of an aspect for an entity in ascending order.
+   *
+   * <p>Unlike {@link #listVersions(Class, Urn, int, int)}, the versions are fetched in pages that start after the last
+   * version of the previous page instead of at an offset, and the total count isn't queried, so the whole stream is
+   * read in linear time. The first page is fetched when the stream is first consumed, and each following page is
+   * fetched in the background with the executor set by {@link #setScanExecutor(Executor)}, if any, unless there is an
+   * active transaction. The stream must be closed if it's not fully consumed.
+   *
+   * @param aspectClass the type of the aspect to query
+   * @param urn {@link Urn} for the entity
+   * @param pageSize the number of versions fetched per query
+   * @return a {@link Stream} of version numbers
+   */
+  @Nonnull
+  public <ASPECT extends RecordTemplate> Stream<Long> streamVersions(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, int pageSize) {
+    return streamByVersion(aspectClass, urn, KEY_ID, pageSize).map(record -> record.getKey().getVersion());
+  }
+
+  /**
+   * Streams all URNs for entities that have a specific aspect in ascending order.
+   *
+   * <p>This is the keyset paginated counterpart of {@link #listUrns(Class, int, int)}, see
+   * {@link #streamVersions(Class, Urn, int)}.
+   *
+   * @param aspectClass the type of the aspect to query
+   * @param pageSize the number of URNs fetched per query
+   * @return a {@link Stream} of URNs
+   */
+  @Nonnull
+  public <ASPECT extends RecordTemplate> Stream<URN> streamUrns(@Nonnull Class<ASPECT> aspectClass, int pageSize) {
+    return streamByUrn(aspectClass, LATEST_VERSION, KEY_ID, pageSize).map(record -> getUrn(record.getKey().getUrn()));
+  }
+
+  /**
+   * Streams all versions of an aspect for a specific Urn in ascending order of version.
+   *
+   * <p>This is the keyset paginated counterpart of {@link #list(Class, Urn, int, int)}, see
+   * {@link #streamVersions(Class, Urn, int)}.
+   *
+   * @param aspectClass the type of the aspect to query
+   * @param urn {@link Urn} for the entity
+   * @param pageSize the number of aspects fetched per query
+   * @return a {@link Stream} of aspects along with their {@link ExtraInfo}
+   */
+  @Nonnull
+  public <ASPECT extends RecordTemplate> Stream<AspectWithExtraInfo<ASPECT>> stream(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, int pageSize) {
+    return streamByVersion(aspectClass, urn, ALL_COLUMNS, pageSize)
+        .map(record -> toRecordTemplateWithExtraInfo(aspectClass, record));
+  }
+
+  /**
+   * Streams a specific version of a specific aspect for all Urns in ascending order of urn.
+   *
+   * <p>This is the keyset paginated counterpart of {@link #list(Class, long, int, int)}, see
+   * {@link #streamVersions(Class, Urn, int)}.
+   *
+   * @param aspectClass the type of the aspect to query
+   * @param version the version of the aspect
+   * @param pageSize the number of aspects fetched per query
+   * @return a {@link Stream} of aspects along with their {@link ExtraInfo}
+   */
+  @Nonnull
+  public <ASPECT extends RecordTemplate> Stream<AspectWithExtraInfo<ASPECT>> stream(@Nonnull Class<ASPECT> aspectClass,
+      long version, int pageSize) {
+    return streamByUrn(aspectClass, version, ALL_COLUMNS, pageSize)
+        .map(record -> toRecordTemplateWithExtraInfo(aspectClass, record));
+  }
+
+  /**
+   * Streams the latest version of a specific aspect for all Urns in ascending order of urn.
+   *
+   * <p>This is the keyset paginated counterpart of {@link #list(Class, int, int)}, see
+   * {@link #streamVersions(Class, Urn, int)}.
+   *
+   * @param aspectClass the type of the aspect to query
+   * @param pageSize the number of aspects fetched per query
+   * @return a {@link Stream} of aspects along with their {@link ExtraInfo}
+   */
+  @Nonnull
+  public <ASPECT extends RecordTemplate> Stream<AspectWithExtraInfo<ASPECT>> stream(@Nonnull Class<ASPECT> aspectClass,
+      int pageSize) {
+    return stream(aspectClass, LATEST_VERSION, pageSize);
+  }
+
+  @Nonnull
+  private <ASPECT extends RecordTemplate> Stream<EbeanMetadataAspect> streamByVersion(
+      @Nonnull Class<ASPECT> aspectClass, @Nonnull URN urn, @Nonnull String columns, int pageSize) {
+
+    checkValidAspect(aspectClass);
+
+    final EbeanServer server = readServer();
+    return toStream(last -> {
+      final ExpressionList<EbeanMetadataAspect> query = server.find(EbeanMetadataAspect.class)
+          .select(columns)
+          .where()
+          .eq(URN_COLUMN, urn.toString())
+          .eq(ASPECT_COLUMN, ModelUtils.getAspectName(aspectClass));
+      if (last != null) {
+        query.gt(VERSION_COLUMN, last.getKey().getVersion());
+      }
+      return query.setMaxRows(pageSize).orderBy().asc(VERSION_COLUMN).findList();
+    }, pageSize);
+  }
+
+  @Nonnull
+  private <ASPECT extends RecordTemplate> Stream<EbeanMetadataAspect> streamByUrn(@Nonnull Class<ASPECT> aspectClass,
+      long version, @Nonnull String columns, int pageSize) {
+
+    checkValidAspect(aspectClass);
+
+    final EbeanServer server = readServer();
+    return toStream(last -> {
+      final ExpressionList<EbeanMetadataAspect> query = server.find(EbeanMetadataAspect.class)
+          .select(columns)
+          .where()
+          .eq(ASPECT_COLUMN, ModelUtils.getAspectName(aspectClass))
+          .eq(VERSION_COLUMN, version);
+      if (last != null) {
+        query.gt(URN_COLUMN, last.getKey().getUrn());
+      }
+      return query.setMaxRows(pageSize).orderBy().asc(URN_COLUMN).findList();
+    }, pageSize);
+  }
+
+  @Nonnull
+  private Stream<EbeanMetadataAspect> toStream(@Nonnull Function<EbeanMetadataAspect, List<EbeanMetadataAspect>> pageLoader,
+      int pageSize) {
+    // Pages must be fetched on the calling thread to see the uncommitted changes of an active transaction
+    final Executor executor = _server.currentTransaction() == null ? _scanExecutor : null;
+    final KeysetIterator<EbeanMetadataAspect> iterator = new KeysetIterator<>(pageLoader, pageSize, executor);
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(iterator::close);
+  }
+
   @Nonnull
   URN getUrn(@Nonnull String urn) {
-    try {
-      final Method getUrn = _urnClass.getMethod("createFromString", String.class);
-      return _urnClass.cast(getUrn.invoke(null, urn));
-    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-      throw new IllegalArgumentException("URN conversion error for " + urn, e);
+    UrnFactory<URN> factory = _urnFactory;
+    if (factory == null) {
+      // Racing threads resolve the same factory
+      factory = Urns.getFactory(_urnClass);
+      _urnFactory = factory;
     }
+    return factory.create(urn);
   }
 
   @Nonnull
-  private static <ASPECT extends RecordTemplate> ASPECT toRecordTemplate(@Nonnull Class<ASPECT> aspectClass,
+  private <ASPECT extends RecordTemplate> ASPECT toRecordTemplate(@Nonnull Class<ASPECT> aspectClass,
       @Nonnull EbeanMetadataAspect aspect) {
-    return RecordUtils.toRecordTemplate(aspectClass, aspect.getMetadata());
+    return AspectCodecs.decode(_aspectCodec, aspectClass, aspect.getMetadata());
   }
 
   @Nonnull
-  private static <ASPECT extends RecordTemplate> AspectWithExtraInfo<ASPECT> toRecordTemplateWithExtraInfo(
+  private <ASPECT extends RecordTemplate> AspectWithExtraInfo<ASPECT> toRecordTemplateWithExtraInfo(
       @Nonnull Class<ASPECT> aspectClass, @Nonnull EbeanMetadataAspect aspect) {
-    return new AspectWithExtraInfo<>(RecordUtils.toRecordTemplate(aspectClass, aspect.getMetadata()),
-        toExtraInfo(aspect));
+    return new AspectWithExtraInfo<>(toRecordTemplate(aspectClass, aspect), toExtraInfo(aspect));
   }
 
   @Nonnull
@@ -742,12 +1745,12 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   }
 
   @Nonnull
-  private static ExtraInfo toExtraInfo(@Nonnull EbeanMetadataAspect aspect) {
+  private ExtraInfo toExtraInfo(@Nonnull EbeanMetadataAspect aspect) {
     final ExtraInfo extraInfo = new ExtraInfo();
     extraInfo.setVersion(aspect.getKey().getVersion());
     extraInfo.setAudit(makeAuditStamp(aspect));
     try {
-      extraInfo.setUrn(Urn.createFromString(aspect.getKey().getUrn()));
+      extraInfo.setUrn(_extraInfoUrnFactory.createFromString(aspect.getKey().getUrn()));
     } catch (URISyntaxException e) {
       throw new ModelConversionException(e.getMessage());
     }
@@ -780,6 +1783,36 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
 
   @Override
   public long newNumericId(@Nonnull String namespace, int maxTransactionRetry) {
+    final int blockSize = _idBlockSize;
+    if (blockSize == 1) {
+      return reserveIds(namespace, 1, maxTransactionRetry);
+    }
+
+    while (true) {
+      final IdBlock block = _idBlocks.get(namespace);
+      if (block != null) {
+        final long id = block.getNext().getAndIncrement();
+        if (id <= block.getLast()) {
+          return id;
+        }
+      }
+
+      // The block is used up, so one caller reserves the next block while the others wait for it
+      synchronized (_idBlockLocks.computeIfAbsent(namespace, key -> new Object())) {
+        if (_idBlocks.get(namespace) == block) {
+          final long last = reserveIds(namespace, blockSize, maxTransactionRetry);
+          _idBlocks.put(namespace, new IdBlock(new AtomicLong(last - blockSize + 1), last));
+        }
+      }
+    }
+  }
+
+  /**
+   * Reserves a number of consecutive numeric IDs in a namespace, by saving the largest one.
+   *
+   * @return the largest reserved ID
+   */
+  private long reserveIds(@Nonnull String namespace, int count, int maxTransactionRetry) {
     return runInTransactionWithRetry(() -> {
       final Optional<EbeanMetadataId> result = _server.find(EbeanMetadataId.class)
           .where()
@@ -790,7 +1823,7 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
           .findOneOrEmpty();
 
       EbeanMetadataId id = result.orElse(new EbeanMetadataId(namespace, 0));
-      id.setId(id.getId() + 1);
+      id.setId(id.getId() + count);
       _server.insert(id);
       return id;
     }, maxTransactionRetry).getId();
@@ -833,26 +1866,37 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
 
   /**
    * Sets the values of parameters in metadata index query based on its position, values obtained from
-   * {@link IndexCriterionArray} and last urn. Also sets the LIMIT of SQL query using the page size input.
+   * the list of {@link IndexCriterion} and last urn. Also sets the LIMIT of SQL query using the page size input.
    *
-   * @param indexCriterionArray {@link IndexCriterionArray} whose values will be used to set parameters in metadata
-   *                                                       index query based on its position
+   * @param criteria list of {@link IndexCriterion} whose values will be used to set parameters in metadata index query
+   *                 based on its position
    * @param indexQuery {@link Query} whose ordered parameters need to be set, based on it's position
    * @param lastUrn string representation of the urn whose value is used to set the last urn parameter in index query
    * @param pageSize maximum number of distinct urns to return which is essentially the LIMIT clause of SQL query
    */
-  private static void setParameters(@Nonnull IndexCriterionArray indexCriterionArray,
+  private static void setParameters(@Nonnull List<IndexCriterion> criteria,
       @Nonnull Query<EbeanMetadataIndex> indexQuery, @Nonnull String lastUrn, int pageSize) {
     indexQuery.setParameter(1, lastUrn);
-    int pos = 2;
-    for (IndexCriterion criterion : indexCriterionArray) {
-      indexQuery.setParameter(pos++, criterion.getAspect());
+    final int pos = setCriteriaParameters(criteria, indexQuery::setParameter, 2);
+    indexQuery.setParameter(pos, pageSize);
+  }
+
+  /**
+   * Sets the aspect, path and value parameters of the given criteria, starting at the given position.
+   *
+   * @return the position of the next parameter
+   */
+  private static int setCriteriaParameters(@Nonnull List<IndexCriterion> criteria,
+      @Nonnull BiConsumer<Integer, Object> parameterSetter, int startPos) {
+    int pos = startPos;
+    for (IndexCriterion criterion : criteria) {
+      parameterSetter.accept(pos++, criterion.getAspect());
       if (criterion.getPathParams() != null) {
-        indexQuery.setParameter(pos++, criterion.getPathParams().getPath());
-        indexQuery.setParameter(pos++, getGMAIndexPair(criterion).value);
+        parameterSetter.accept(pos++, criterion.getPathParams().getPath());
+        parameterSetter.accept(pos++, getGMAIndexPair(criterion).value);
       }
     }
-    indexQuery.setParameter(pos, pageSize);
+    return pos;
   }
 
   @Nonnull
@@ -865,38 +1909,107 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   }
 
   /**
-   * Constructs SQL query that contains positioned parameters (with `?`), based on whether {@link IndexCriterion} of
-   * a given condition has field `pathParams`.
+   * Returns the SQL query of the given type for the given criteria, which is only built once for each shape.
    *
-   * @param indexCriterionArray {@link IndexCriterionArray} used to construct the SQL query
+   * @param type type of the query
+   * @param criteria list of {@link IndexCriterion} used to construct the SQL query
    * @return String representation of SQL query
    */
   @Nonnull
-  private static String constructSQLQuery(@Nonnull IndexCriterionArray indexCriterionArray) {
-    String selectClause = "SELECT DISTINCT(t0.urn) FROM metadata_index t0";
-    selectClause += IntStream.range(1, indexCriterionArray.size())
+  private static String getSQLQuery(@Nonnull IndexQueryType type, @Nonnull List<IndexCriterion> criteria) {
+    final IndexQueryShape shape = new IndexQueryShape(type, criteria.stream().map(criterion -> {
+      if (criterion.getPathParams() == null) {
+        return "";
+      }
+      return getGMAIndexPair(criterion).valueType + " " + getStringForOperator(
+          criterion.getPathParams().getCondition());
+    }).collect(Collectors.toList()));
+
+    final String cached = INDEX_SQL_TEMPLATES.get(shape);
+    if (cached != null) {
+      return cached;
+    }
+    final String sql = constructSQLQuery(shape);
+    if (INDEX_SQL_TEMPLATES.size() < MAX_INDEX_SQL_TEMPLATES) {
+      INDEX_SQL_TEMPLATES.put(shape, sql);
+    }
+    return sql;
+  }
+
+  /**
+   * Constructs SQL query that contains positioned parameters (with `?`), based on the shape of each criterion, i.e.
+   * whether it has field `pathParams`, and if so the value column and operator it filters with.
+   *
+   * <p>All queries join one row of metadata_index per criterion. Count by path queries join one more row, for the
+   * aspect and path whose values are grouped by, whose parameters come after the ones of the criteria.
+   *
+   * @param shape {@link IndexQueryShape} of the query
+   * @return String representation of SQL query
+   */
+  @Nonnull
+  private static String constructSQLQuery(@Nonnull IndexQueryShape shape) {
+    final List<String> criteria = shape.getCriteria();
+    final int tables = shape.getType() == IndexQueryType.COUNT_BY_PATH ? criteria.size() + 1 : criteria.size();
+    final String fromClause = "FROM metadata_index t0" + IntStream.range(1, tables)
         .mapToObj(i -> " INNER JOIN metadata_index " + "t" + i + " ON t0.urn = " + "t" + i + ".urn")
         .collect(Collectors.joining(""));
-    final StringBuilder whereClause = new StringBuilder("WHERE t0.urn > ?");
-    IntStream.range(0, indexCriterionArray.size()).forEach(i -> {
-      final IndexCriterion criterion = indexCriterionArray.get(i);
-
-      whereClause.append(" AND t").append(i).append(".aspect = ?");
-      if (criterion.getPathParams() != null) {
-        whereClause.append(" AND t")
-            .append(i)
-            .append(".path = ? AND t")
-            .append(i)
-            .append(".")
-            .append(getGMAIndexPair(criterion).valueType)
-            .append(" ")
-            .append(getStringForOperator(criterion.getPathParams().getCondition()))
-            .append("?");
+    final String criteriaClause = IntStream.range(0, criteria.size()).mapToObj(i -> {
+      final String aspectCondition = "t" + i + ".aspect = ?";
+      if (criteria.get(i).isEmpty()) {
+        return aspectCondition;
       }
-    });
-    final String orderByClause = "ORDER BY urn ASC";
-    final String limitClause = "LIMIT ?";
-    return String.join(" ", selectClause, whereClause, orderByClause, limitClause);
+      return aspectCondition + " AND t" + i + ".path = ? AND t" + i + "." + criteria.get(i) + "?";
+    }).collect(Collectors.joining(" AND "));
+
+    switch (shape.getType()) {
+      case LIST_URNS:
+        return String.join(" ", "SELECT DISTINCT(t0.urn)", fromClause, "WHERE t0.urn > ? AND", criteriaClause,
+            "ORDER BY urn ASC LIMIT ?");
+      case COUNT_URNS:
+        return String.join(" ", "SELECT COUNT(DISTINCT t0.urn) AS cnt", fromClause, "WHERE", criteriaClause);
+      default:
+        final String groupBy = "t" + criteria.size();
+        return String.join(" ",
+            "SELECT " + groupBy + ".stringVal AS sval, " + groupBy + ".longVal AS lval, " + groupBy
+                + ".doubleVal AS dval, COUNT(DISTINCT t0.urn) AS cnt", fromClause, "WHERE", criteriaClause,
+            "AND " + groupBy + ".aspect = ? AND " + groupBy + ".path = ?",
+            "GROUP BY " + groupBy + ".stringVal, " + groupBy + ".longVal, " + groupBy + ".doubleVal");
+    }
+  }
+
+  /**
+   * Counts the rows and distinct values of an (aspect, path) pair of the index for the query planner. Criteria that
+   * only filter on the aspect match every row of the aspect, so only those are counted.
+   */
+  @Nonnull
+  private IndexQueryPlanner.Statistics loadIndexStatistics(@Nonnull IndexQueryPlanner.StatisticsKey key) {
+    final EbeanServer server = readServer();
+    if (key.getPath() == null) {
+      final long rowCount = server.find(EbeanMetadataIndex.class)
+          .setTimeout(INDEX_QUERY_TIMEOUT_IN_SEC)
+          .where()
+          .eq(EbeanMetadataIndex.ASPECT_COLUMN, key.getAspect())
+          .findCount();
+      return new IndexQueryPlanner.Statistics(rowCount, rowCount);
+    }
+
+    final long rowCount = server.find(EbeanMetadataIndex.class)
+        .setTimeout(INDEX_QUERY_TIMEOUT_IN_SEC)
+        .where()
+        .eq(EbeanMetadataIndex.ASPECT_COLUMN, key.getAspect())
+        .eq(EbeanMetadataIndex.PATH_COLUMN, key.getPath())
+        .isNotNull(key.getValueColumn())
+        .findCount();
+    final long distinctCount = server.find(EbeanMetadataIndex.class)
+        .setTimeout(INDEX_QUERY_TIMEOUT_IN_SEC)
+        .setDistinct(true)
+        .select(key.getValueColumn())
+        .where()
+        .eq(EbeanMetadataIndex.ASPECT_COLUMN, key.getAspect())
+        .eq(EbeanMetadataIndex.PATH_COLUMN, key.getPath())
+        .isNotNull(key.getValueColumn())
+        .findCount();
+    return new IndexQueryPlanner.Statistics(rowCount, distinctCount);
   }
 
   void addEntityTypeFilter(@Nonnull IndexFilter indexFilter) {
@@ -906,21 +2019,11 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
   }
 
   /**
-   * Returns list of urns from strongly consistent secondary index that satisfy the given filter conditions.
-   *
-   * <p>Results are ordered lexicographically by the string representation of the URN.
-   *
-   * <p>NOTE: Currently this works for upto 10 filter conditions.
-   *
-   * @param indexFilter {@link IndexFilter} containing filter conditions to be applied
-   * @param lastUrn last urn of the previous fetched page. This eliminates the need to use offset which
-   *                 is known to slow down performance of MySQL queries. For the first page, this should be set as NULL
-   * @param pageSize maximum number of distinct urns to return
-   * @return list of urns from strongly consistent secondary index that satisfy the given filter conditions
+   * Validates the given filter and returns its criteria, along with the entity type filter, in the order they should be
+   * joined in.
    */
-  @Override
   @Nonnull
-  public List<URN> listUrns(@Nonnull IndexFilter indexFilter, @Nullable URN lastUrn, int pageSize) {
+  private List<IndexCriterion> getIndexCriteria(@Nonnull IndexFilter indexFilter) {
     if (!isLocalSecondaryIndexEnabled()) {
       throw new UnsupportedOperationException("Local secondary index isn't supported");
     }
@@ -935,13 +2038,99 @@ public class EbeanLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
 
     addEntityTypeFilter(indexFilter);
 
+    // Identical criteria would only add redundant joins
+    final List<IndexCriterion> criteria = new ArrayList<>(new LinkedHashSet<>(indexCriterionArray));
+    final IndexQueryPlanner planner = _indexQueryPlanner;
+    return planner == null ? criteria : planner.plan(criteria);
+  }
+
+  /**
+   * Returns list of urns from strongly consistent secondary index that satisfy the given filter conditions.
+   *
+   * <p>Results are ordered lexicographically by the string representation of the URN.
+   *
+   * <p>NOTE: Currently this works for upto 10 filter conditions.
+   *
+   * @param indexFilter {@link IndexFilter} containing filter conditions to be applied
+   * @param lastUrn last urn of the previous fetched page. This eliminates the need to use offset which
+   *                 is known to slow down performance of MySQL queries. For the first page, this should be set as NULL
+   * @param pageSize maximum number of distinct urns to return
+   * @return list of urns from strongly consistent secondary index that satisfy the given filter conditions
+   */
+  @Override
+  @Nonnull
+  public List<URN> listUrns(@Nonnull IndexFilter indexFilter, @Nullable URN lastUrn, int pageSize) {
+    final List<IndexCriterion> criteria = getIndexCriteria(indexFilter);
+
     final Query<EbeanMetadataIndex> query =
-        _server.findNative(EbeanMetadataIndex.class, constructSQLQuery(indexCriterionArray))
+        readServer().findNative(EbeanMetadataIndex.class, getSQLQuery(IndexQueryType.LIST_URNS, criteria))
             .setTimeout(INDEX_QUERY_TIMEOUT_IN_SEC);
-    setParameters(indexCriterionArray, query, lastUrn == null ? "" : lastUrn.toString(), pageSize);
+    setParameters(criteria, query, lastUrn == null ? "" : lastUrn.toString(), pageSize);
 
     final List<EbeanMetadataIndex> pagedList = query.findList();
 
     return pagedList.stream().map(entry -> getUrn(entry.getUrn())).collect(Collectors.toList());
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns the number of urns from strongly consistent secondary index that satisfy the given filter conditions, with
+   * a single COUNT query.
+   *
+   * <p>NOTE: Currently this works for upto 10 filter conditions.
+   *
+   * @param indexFilter {@link IndexFilter} containing filter conditions to be applied
+   * @return number of urns that satisfy the given filter conditions
+   */
+  @Override
+  public long countUrns(@Nonnull IndexFilter indexFilter) {
+    final List<IndexCriterion> criteria = getIndexCriteria(indexFilter);
+
+    final SqlQuery query =
+        readServer().createSqlQuery(getSQLQuery(IndexQueryType.COUNT_URNS, criteria)).setTimeout(INDEX_QUERY_TIMEOUT_IN_SEC);
+    setCriteriaParameters(criteria, query::setParameter, 1);
+
+    final SqlRow row = query.findOne();
+    return row == null ? 0 : row.getLong("cnt");
+  }
+
+  /**
+   * Returns the number of urns from strongly consistent secondary index that satisfy the given filter conditions,
+   * grouped by their value of the given path of an aspect, with a single COUNT ... GROUP BY query. Urns that have no
+   * value for the path aren't counted.
+   *
+   * <p>NOTE: Currently this works for upto 10 filter conditions.
+   *
+   * @param indexFilter {@link IndexFilter} containing filter conditions to be applied
+   * @param aspect canonical class name of the aspect whose values are grouped by
+   * @param path path of the aspect whose values are grouped by
+   * @return map of the string representation of each value of the path to the number of urns with that value
+   */
+  @Override
+  @Nonnull
+  public Map<String, Long> countByPath(@Nonnull IndexFilter indexFilter, @Nonnull String aspect,
+      @Nonnull String path) {
+    final List<IndexCriterion> criteria = getIndexCriteria(indexFilter);
+
+    final SqlQuery query = readServer().createSqlQuery(getSQLQuery(IndexQueryType.COUNT_BY_PATH, criteria))
+        .setTimeout(INDEX_QUERY_TIMEOUT_IN_SEC);
+    final int pos = setCriteriaParameters(criteria, query::setParameter, 1);
+    query.setParameter(pos, aspect);
+    query.setParameter(pos + 1, path);
+
+    final Map<String, Long> counts = new HashMap<>();
+    for (SqlRow row : query.findList()) {
+      final String value;
+      if (row.getString("sval") != null) {
+        value = row.getString("sval");
+      } else if (row.getLong("lval") != null) {
+        value = row.getLong("lval").toString();
+      } else if (row.getDouble("dval") != null) {
+        value = row.getDouble("dval").toString();
+      } else {
+        continue;
+      }
+      counts.merge(value, row.getLong("cnt"), Long::sum);
+    }
+    return counts;
+  }
+}
@@ -0,0 +1,61 @@
+package com.linkedin.metadata.dao;
+
+import io.ebean.Model;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.Setter;
+
+
+/**
+ * Schema definition for the table that keeps the next version to allocate for each aspect of an entity.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "metadata_aspect_version")
+public class EbeanMetadataAspectVersion extends Model {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final String URN_COLUMN = "urn";
+  public static final String ASPECT_COLUMN = "aspect";
+  public static final String NEXT_VERSION_COLUMN = "nextversion";
+
+  /**
+   * Key for an aspect of an entity in the table.
+   */
+  @Embeddable
+  @Getter
+  @AllArgsConstructor
+  @NoArgsConstructor
+  @EqualsAndHashCode
+  public static class PrimaryKey {
+
+    private static final long serialVersionUID = 1L;
+
+    @NonNull
+    @Column(name = URN_COLUMN, length = 500, nullable = false)
+    private String urn;
+
+    @NonNull
+    @Column(name = ASPECT_COLUMN, length = 200, nullable = false)
+    private String aspect;
+  }
+
+  @NonNull
+  @EmbeddedId
+  protected PrimaryKey key;
+
+  @Column(name = NEXT_VERSION_COLUMN, nullable = false)
+  protected long nextVersion;
+}
@@ -1,5 +1,6 @@
 package com.linkedin.metadata.dao;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.io.Resources;
 import com.linkedin.common.AuditStamp;
 import com.linkedin.common.urn.Urn;
@@ -7,22 +8,20 @@ import com.linkedin.common.urn.Urns;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.data.template.UnionTemplate;
 import com.linkedin.metadata.dao.producer.DummyMetadataEventProducer;
-import com.linkedin.metadata.dao.utils.RecordUtils;
 import io.ebean.Ebean;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.URISyntaxException;
-import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 
@@ -31,13 +30,13 @@ import org.json.simple.parser.ParseException;
  */
 public class ImmutableLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn> extends EbeanLocalDAO<ASPECT_UNION, URN> {
 
-  private static final JSONParser JSON_PARSER = new JSONParser();
-
   private static final AuditStamp DUMMY_AUDIT_STAMP =
       new AuditStamp().setActor(Urns.createFromTypeSpecificString("dummy", "unknown")).setTime(0L);
 
   private static final String GMA_CREATE_ALL_SQL = "gma-create-all.sql";
 
+  private static final int LOAD_BATCH_SIZE = 1000;
+
   /**
    * Constructs an {@link ImmutableLocalDAO} from a hard-coded URN-Aspect map.
    */
@@ -47,7 +46,7 @@ public class ImmutableLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends U
     super(aspectUnionClass, new DummyMetadataEventProducer<>(),
         createProductionH2ServerConfig(aspectUnionClass.getCanonicalName()), urnClass);
     _server.execute(Ebean.createSqlUpdate(readSQLfromFile(GMA_CREATE_ALL_SQL)));
-    urnAspectMap.forEach((key, value) -> super.save(key, value, DUMMY_AUDIT_STAMP, LATEST_VERSION, true));
+    saveAll(urnAspectMap);
   }
 
   // For testing purpose
@@ -55,7 +54,37 @@ public class ImmutableLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends U
       @Nonnull Map<URN, ? extends RecordTemplate> urnAspectMap, boolean ddlGenerate, @Nonnull Class<URN> urnClass) {
 
     super(aspectUnionClass, new DummyMetadataEventProducer<>(), createTestingH2ServerConfig(), urnClass);
-    urnAspectMap.forEach((key, value) -> super.save(key, value, DUMMY_AUDIT_STAMP, LATEST_VERSION, true));
+    saveAll(urnAspectMap);
+  }
+
+  /**
+   * Constructs an {@link ImmutableLocalDAO} from an {@link InputStream} of a JSON map of URN to aspect values, like
+   * {@link #loadAspects(Class, InputStream)}.
+   *
+   * <p>The input is streamed by a {@link StreamingAspectLoader} and inserted in batches, so that the whole map is never
+   * held in memory. Like in {@link #loadAspects(Class, InputStream)}, the last value of an URN that appears more than
+   * once in the input wins.
+   */
+  public <ASPECT extends RecordTemplate> ImmutableLocalDAO(@Nonnull Class<ASPECT_UNION> aspectUnionClass,
+      @Nonnull Class<ASPECT> aspectClass, @Nonnull InputStream inputStream, @Nonnull Class<URN> urnClass)
+      throws IOException {
+    this(aspectUnionClass, Collections.emptyMap(), urnClass);
+    loadAll(aspectClass, inputStream, LOAD_BATCH_SIZE);
+  }
+
+  // For testing purpose
+  public <ASPECT extends RecordTemplate> ImmutableLocalDAO(@Nonnull Class<ASPECT_UNION> aspectUnionClass,
+      @Nonnull Class<ASPECT> aspectClass, @Nonnull InputStream inputStream, boolean ddlGenerate,
+      @Nonnull Class<URN> urnClass) throws IOException {
+    this(aspectUnionClass, aspectClass, inputStream, ddlGenerate, urnClass, LOAD_BATCH_SIZE);
+  }
+
+  @VisibleForTesting
+  <ASPECT extends RecordTemplate> ImmutableLocalDAO(@Nonnull Class<ASPECT_UNION> aspectUnionClass,
+      @Nonnull Class<ASPECT> aspectClass, @Nonnull InputStream inputStream, boolean ddlGenerate,
+      @Nonnull Class<URN> urnClass, int loadBatchSize) throws IOException {
+    this(aspectUnionClass, Collections.emptyMap(), ddlGenerate, urnClass);
+    loadAll(aspectClass, inputStream, loadBatchSize);
   }
 
   /**
@@ -63,6 +92,9 @@ public class ImmutableLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends U
    *
    * <p>The InputStream is expected to contain a JSON map where the keys are a specific type of URN and values are a
    * specific type of metadata aspect.
+   *
+   * <p>The whole map is returned, so large inputs should rather be loaded with
+   * {@link #ImmutableLocalDAO(Class, Class, InputStream, Class)}.
    */
   @Nonnull
   public static <URN extends Urn, ASPECT extends RecordTemplate> Map<URN, ASPECT> loadAspects(
@@ -70,18 +102,63 @@ public class ImmutableLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends U
       throws IOException, ParseException, URISyntaxException {
 
     final Map<URN, ASPECT> aspects = new HashMap<>();
-    try (InputStreamReader reader = new InputStreamReader(inputStream, Charset.defaultCharset())) {
-      JSONObject root = (JSONObject) JSON_PARSER.parse(reader);
-      for (Map.Entry entry : (Set<Map.Entry>) root.entrySet()) {
-        URN urn = (URN) Urn.createFromString((String) entry.getKey());
-        ASPECT aspect = RecordUtils.toRecordTemplate(aspectClass, entry.getValue().toString());
-        aspects.put(urn, aspect);
+    try (InputStream is = inputStream) {
+      new StreamingAspectLoader<URN, ASPECT>(aspectClass, LOAD_BATCH_SIZE, Runtime.getRuntime().availableProcessors())
+          .load(is, aspects::putAll);
+    } catch (IllegalArgumentException e) {
+      if (e.getCause() instanceof URISyntaxException) {
+        throw (URISyntaxException) e.getCause();
       }
+      throw e;
     }
 
     return aspects;
   }
 
+  /**
+   * Inserts the latest values of aspects in one transaction, whose inserts are sent in JDBC batches.
+   *
+   * <p>If the inserts fail, e.g. on the primary key of an aspect saved by a previous batch of the same input, the
+   * values are saved again in a transaction that updates the aspects that already exist in the database and inserts
+   * the others.
+   */
+  private void saveAll(@Nonnull Map<URN, ? extends RecordTemplate> urnAspectMap) {
+    if (urnAspectMap.isEmpty()) {
+      return;
+    }
+    try {
+      runInBatchTransactionWithRetry(() -> {
+        urnAspectMap.forEach((urn, value) -> save(urn, value, DUMMY_AUDIT_STAMP, LATEST_VERSION, true));
+        return urnAspectMap.size();
+      }, 0);
+    } catch (RuntimeException e) {
+      // Fails again if the inserts didn't fail on existing aspects
+      upsertAll(urnAspectMap);
+    }
+  }
+
+  private void upsertAll(@Nonnull Map<URN, ? extends RecordTemplate> urnAspectMap) {
+    final Set<AspectKey<URN, ? extends RecordTemplate>> keys = new HashSet<>();
+    urnAspectMap.forEach((urn, value) -> keys.add(new AspectKey<>(value.getClass(), urn, LATEST_VERSION)));
+
+    runInBatchTransactionWithRetry(() -> {
+      final Set<AspectKey<URN, ? extends RecordTemplate>> existing = batchGetLatest(keys).keySet();
+      urnAspectMap.forEach((urn, value) -> save(urn, value, DUMMY_AUDIT_STAMP, LATEST_VERSION,
+          !existing.contains(new AspectKey<>(value.getClass(), urn, LATEST_VERSION))));
+      return urnAspectMap.size();
+    }, 0);
+  }
+
+  /**
+   * Streams the aspects of an input into the database in batches. An URN that appears in more than one batch is
+   * updated to its last value by {@link #saveAll(Map)}, so that nothing but the current batch is held in memory.
+   */
+  private <ASPECT extends RecordTemplate> void loadAll(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull InputStream inputStream, int batchSize) throws IOException {
+    new StreamingAspectLoader<URN, ASPECT>(aspectClass, batchSize, Runtime.getRuntime().availableProcessors())
+        .load(inputStream, this::saveAll);
+  }
+
   @Override
   @Nonnull
   public <ASPECT extends RecordTemplate> ASPECT add(@Nonnull URN urn, @Nonnull Class<ASPECT> aspectClass,
@@ -90,6 +167,13 @@ public class ImmutableLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends U
     throw new UnsupportedOperationException("Not supported by immutable DAO");
   }
 
+  @Override
+  @Nonnull
+  public Map<URN, List<RecordTemplate>> addBatch(@Nonnull Map<URN, ? extends List<? extends RecordTemplate>> newValues,
+      @Nonnull AuditStamp auditStamp, int maxTransactionRetry) {
+    throw new UnsupportedOperationException("Not supported by immutable DAO");
+  }
+
   @Override
   public long newNumericId() {
     throw new UnsupportedOperationException("Not supported by immutable DAO");
@@ -0,0 +1,719 @@
+package com.linkedin.metadata.dao;
+
+import com.linkedin.common.AuditStamp;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.Urns;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.template.UnionTemplate;
+import com.linkedin.metadata.dao.exception.ModelConversionException;
+import com.linkedin.metadata.dao.producer.BaseMetadataEventProducer;
+import com.linkedin.metadata.dao.retention.TimeBasedRetention;
+import com.linkedin.metadata.dao.retention.VersionBasedRetention;
+import com.linkedin.metadata.dao.scsi.EmptyPathExtractor;
+import com.linkedin.metadata.dao.scsi.UrnPathExtractor;
+import com.linkedin.metadata.dao.storage.LocalDAOStorageConfig;
+import com.linkedin.metadata.dao.utils.ModelUtils;
+import com.linkedin.metadata.dao.utils.RecordUtils;
+import com.linkedin.metadata.query.ExtraInfo;
+import com.linkedin.metadata.query.ExtraInfoArray;
+import com.linkedin.metadata.query.IndexCriterion;
+import com.linkedin.metadata.query.IndexCriterionArray;
+import com.linkedin.metadata.query.IndexFilter;
+import com.linkedin.metadata.query.IndexPathParams;
+import com.linkedin.metadata.query.IndexValue;
+import com.linkedin.metadata.query.ListResultMetadata;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * An in-memory implementation of {@link BaseLocalDAO}, which keeps all versions of aspects and the local secondary
+ * index in concurrent maps. Suitable for embedded lookups and tests, as there's no database or SQL layer.
+ *
+ * <p>Writes are serialized by a single lock, and the writes of a transaction that fails are undone before the lock is
+ * released. Reads don't take the lock, so they may see the writes of a transaction in progress.
+ *
+ * <p>Unlike {@link EbeanLocalDAO}, urns and string values of the index are compared case-sensitively.
+ */
+public class InMemoryLocalDAO<ASPECT_UNION extends UnionTemplate, URN extends Urn>
+    extends BaseLocalDAO<ASPECT_UNION, URN> {
+
+  @Value
+  private static class StoredAspect {
+    Urn urn;
+    RecordTemplate value;
+    AuditStamp auditStamp;
+  }
+
+  /**
+   * (aspect, path) pair of the index, along with the type of its values, i.e. the value column it's stored in by
+   * {@link EbeanLocalDAO}.
+   */
+  @Value
+  private static class IndexKey {
+    String aspect;
+    String path;
+    // Long, Double or String
+    Class<?> valueClass;
+  }
+
+  private final Class<URN> _urnClass;
+  private UrnPathExtractor<URN> _urnPathExtractor;
+
+  // Maps an aspect name to the versions of the aspect of each urn, ordered by urn
+  private final Map<String, ConcurrentNavigableMap<String, ConcurrentNavigableMap<Long, StoredAspect>>> _aspects =
+      new ConcurrentHashMap<>();
+
+  // Maps an urn to its indexed values
+  private final Map<String, Map<IndexKey, Object>> _indexValues = new ConcurrentHashMap<>();
+  // Maps an indexed path to the urns with each value, ordered by value
+  private final Map<IndexKey, ConcurrentNavigableMap<Object, Set<String>>> _indexUrns = new ConcurrentHashMap<>();
+  // Maps an aspect name to the number of indexed values of the aspect of each urn
+  private final Map<String, Map<String, Integer>> _indexAspectUrns = new ConcurrentHashMap<>();
+
+  private final Map<String, AtomicLong> _ids = new ConcurrentHashMap<>();
+
+  private final ReentrantLock _writeLock = new ReentrantLock();
+  // Undoes the writes of the current transaction when run in order, only set while the write lock is held
+  private final ThreadLocal<Deque<Runnable>> _undoLog = new ThreadLocal<>();
+
+  /**
+   * Constructor for InMemoryLocalDAO.
+   *
+   * @param aspectUnionClass containing union of all supported aspects. Must be a valid aspect union defined in
+   *     com.linkedin.metadata.aspect
+   * @param producer {@link BaseMetadataEventProducer} for the metadata event producer
+   * @param urnClass class of the entity URN
+   */
+  public InMemoryLocalDAO(@Nonnull Class<ASPECT_UNION> aspectUnionClass, @Nonnull BaseMetadataEventProducer producer,
+      @Nonnull Class<URN> urnClass) {
+    super(aspectUnionClass, producer);
+    _urnClass = urnClass;
+    _urnPathExtractor = new EmptyPathExtractor<>();
+  }
+
+  /**
+   * Constructor for InMemoryLocalDAO.
+   *
+   * @param producer {@link BaseMetadataEventProducer} for the metadata event producer
+   * @param storageConfig {@link LocalDAOStorageConfig} containing storage config of full list of supported aspects
+   * @param urnClass class of the entity URN
+   * @param urnPathExtractor path extractor to index parts of URNs to the secondary index
+   */
+  public InMemoryLocalDAO(@Nonnull BaseMetadataEventProducer producer, @Nonnull LocalDAOStorageConfig storageConfig,
+      @Nonnull Class<URN> urnClass, @Nonnull UrnPathExtractor<URN> urnPathExtractor) {
+    super(producer, storageConfig);
+    _urnClass = urnClass;
+    _urnPathExtractor = urnPathExtractor;
+  }
+
+  public void setUrnPathExtractor(@Nonnull UrnPathExtractor<URN> urnPathExtractor) {
+    _urnPathExtractor = urnPathExtractor;
+  }
+
+  /**
+   * Runs the given lambda expression while holding the write lock. As writes never conflict, the block is never
+   * retried.
+   */
+  @Override
+  @Nonnull
+  protected <T> T runInTransactionWithRetry(@Nonnull Supplier<T> block, int maxTransactionRetry) {
+    final long start = System.nanoTime();
+    boolean committed = false;
+    try {
+      final T result = inTransaction(block);
+      committed = true;
+      return result;
+    } finally {
+      getMetricListener().onTransaction(System.nanoTime() - start, 0, committed);
+    }
+  }
+
+  /**
+   * Runs the given lambda expression while holding the write lock, and undoes its writes if it throws. Nested
+   * transactions are part of the outermost one.
+   */
+  private <T> T inTransaction(@Nonnull Supplier<T> block) {
+    _writeLock.lock();
+    try {
+      if (_undoLog.get() != null) {
+        return block.get();
+      }
+
+      final Deque<Runnable> undoLog = new ArrayDeque<>();
+      _undoLog.set(undoLog);
+      try {
+        return block.get();
+      } catch (RuntimeException | Error e) {
+        // Writes are pushed to the head of the log, so they are undone from the last one
+        undoLog.forEach(Runnable::run);
+        throw e;
+      } finally {
+        _undoLog.remove();
+      }
+    } finally {
+      _writeLock.unlock();
+    }
+  }
+
+  private void logUndo(@Nonnull Runnable undo) {
+    final Deque<Runnable> undoLog = _undoLog.get();
+    if (undoLog != null) {
+      undoLog.push(undo);
+    }
+  }
+
+  @Override
+  protected <ASPECT extends RecordTemplate> long saveLatest(@Nonnull URN urn, @Nonnull Class<ASPECT> aspectClass,
+      @Nullable ASPECT oldValue, @Nullable AuditStamp oldAuditStamp, @Nonnull ASPECT newValue,
+      @Nonnull AuditStamp newAuditStamp) {
+    // Save oldValue as the largest version + 1
+    long largestVersion = 0;
+    if (oldValue != null && oldAuditStamp != null) {
+      largestVersion = getNextVersion(urn, aspectClass);
+      save(urn, oldValue, oldAuditStamp, largestVersion, true);
+    }
+
+    // Save newValue as the latest version (v0)
+    save(urn, newValue, newAuditStamp, LATEST_VERSION, oldValue == null);
+    return largestVersion;
+  }
+
+  @Override
+  protected <ASPECT extends RecordTemplate> void updateLocalIndex(@Nonnull URN urn, @Nonnull ASPECT newValue,
+      long version) {
+    if (!isLocalSecondaryIndexEnabled()) {
+      throw new UnsupportedOperationException("Local secondary index isn't supported");
+    }
+
+    inTransaction(() -> {
+      // Process and save URN
+      // Only do this with the first version of each aspect
+      if (version == FIRST_VERSION && !existsInLocalIndex(urn)) {
+        final String urnClassName = urn.getClass().getCanonicalName();
+        _urnPathExtractor.extractPaths(urn)
+            .forEach((path, value) -> setIndexValue(urn.toString(), toIndexKey(urnClassName, path, value),
+                toIndexValue(value)));
+      }
+      updateAspectInLocalIndex(urn, newValue);
+      return null;
+    });
+  }
+
+  private <ASPECT extends RecordTemplate> void updateAspectInLocalIndex(@Nonnull URN urn, @Nonnull ASPECT newValue) {
+    final LocalDAOStorageConfig.AspectStorageConfig aspectStorageConfig =
+        _storageConfig.getAspectStorageConfigMap().get(newValue.getClass());
+    if (aspectStorageConfig == null) {
+      return;
+    }
+
+    // step1: remove all indexed values of the aspect
+    final String aspectName = ModelUtils.getAspectName(newValue.getClass());
+    _indexValues.getOrDefault(urn.toString(), Collections.emptyMap())
+        .keySet()
+        .stream()
+        .filter(key -> key.getAspect().equals(aspectName))
+        .collect(Collectors.toList())
+        .forEach(key -> setIndexValue(urn.toString(), key, null));
+
+    // step2: add fields of the aspect that need to be indexed
+    aspectStorageConfig.getPathStorageConfigMap().forEach((path, pathStorageConfig) -> {
+      if (pathStorageConfig.isStrongConsistentSecondaryIndex()) {
+        RecordUtils.getFieldValue(newValue, path)
+            .ifPresent(value -> setIndexValue(urn.toString(), toIndexKey(aspectName, path, value), toIndexValue(value)));
+      }
+    });
+  }
+
+  public boolean existsInLocalIndex(@Nonnull URN urn) {
+    return _indexValues.containsKey(urn.toString());
+  }
+
+  @Override
+  @Nullable
+  protected <ASPECT extends RecordTemplate> AspectEntry<ASPECT> getLatest(@Nonnull URN urn,
+      @Nonnull Class<ASPECT> aspectClass) {
+    final StoredAspect latest = getVersion(ModelUtils.getAspectName(aspectClass), urn.toString(), LATEST_VERSION);
+    if (latest == null) {
+      return null;
+    }
+    return new AspectEntry<>(aspectClass.cast(copy(latest.getValue())), toExtraInfo(latest, LATEST_VERSION));
+  }
+
+  @Override
+  protected <ASPECT extends RecordTemplate> long getNextVersion(@Nonnull URN urn, @Nonnull Class<ASPECT> aspectClass) {
+    final NavigableMap<Long, StoredAspect> versions = getVersions(ModelUtils.getAspectName(aspectClass), urn.toString());
+    return versions.isEmpty() ? 0 : versions.lastKey() + 1L;
+  }
+
+  @Override
+  protected void save(@Nonnull URN urn, @Nonnull RecordTemplate value, @Nonnull AuditStamp auditStamp, long version,
+      boolean insert) {
+    // Writes are serialized, so inserts never conflict
+    final StoredAspect aspect = new StoredAspect(urn, copy(value), copy(auditStamp));
+    inTransaction(() -> {
+      setVersion(ModelUtils.getAspectName(value.getClass()), urn.toString(), version, aspect);
+      return null;
+    });
+  }
+
+  @Override
+  protected <ASPECT extends RecordTemplate> void applyVersionBasedRetention(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, @Nonnull VersionBasedRetention retention, long largestVersion) {
+    applyVersionBasedRetentionAndCount(aspectClass, urn, retention, largestVersion);
+  }
+
+  @Override
+  protected <ASPECT extends RecordTemplate> int applyVersionBasedRetentionAndCount(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, @Nonnull VersionBasedRetention retention, long largestVersion) {
+    final String aspectName = ModelUtils.getAspectName(aspectClass);
+    final long maxVersionToDelete = largestVersion - retention.getMaxVersionsToRetain() + 1;
+    return inTransaction(() -> deleteVersions(aspectName, urn.toString(),
+        getVersions(aspectName, urn.toString()).headMap(maxVersionToDelete, true)
+            .keySet()
+            .stream()
+            .filter(version -> version != LATEST_VERSION)
+            .collect(Collectors.toList())));
+  }
+
+  @Override
+  protected <ASPECT extends RecordTemplate> void applyTimeBasedRetention(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, @Nonnull TimeBasedRetention retention, long currentTime) {
+    applyTimeBasedRetentionAndCount(aspectClass, urn, retention, currentTime);
+  }
+
+  @Override
+  protected <ASPECT extends RecordTemplate> int applyTimeBasedRetentionAndCount(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, @Nonnull TimeBasedRetention retention, long currentTime) {
+    final String aspectName = ModelUtils.getAspectName(aspectClass);
+    final long minTimeToRetain = currentTime - retention.getMaxAgeToRetain();
+    return inTransaction(() -> deleteVersions(aspectName, urn.toString(),
+        getVersions(aspectName, urn.toString()).entrySet()
+            .stream()
+            .filter(entry -> entry.getValue().getAuditStamp().getTime() < minTimeToRetain)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList())));
+  }
+
+  private int deleteVersions(@Nonnull String aspectName, @Nonnull String urn, @Nonnull List<Long> versions) {
+    versions.forEach(version -> setVersion(aspectName, urn, version, null));
+    return versions.size();
+  }
+
+  @Override
+  @Nonnull
+  public Map<AspectKey<URN, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> get(
+      @Nonnull Set<AspectKey<URN, ? extends RecordTemplate>> keys) {
+    final Map<AspectKey<URN, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> result =
+        new HashMap<>(keys.size());
+    keys.forEach(key -> result.put(key, Optional.ofNullable(getVersion(key)).map(stored -> copy(stored.getValue()))));
+    return result;
+  }
+
+  @Override
+  @Nonnull
+  public Map<AspectKey<URN, ? extends RecordTemplate>, AspectWithExtraInfo<? extends RecordTemplate>> getWithExtraInfo(
+      @Nonnull Set<AspectKey<URN, ? extends RecordTemplate>> keys) {
+    final Map<AspectKey<URN, ? extends RecordTemplate>, AspectWithExtraInfo<? extends RecordTemplate>> result =
+        new HashMap<>(keys.size());
+    keys.forEach(key -> {
+      final StoredAspect stored = getVersion(key);
+      if (stored != null) {
+        result.put(key, new AspectWithExtraInfo<>(copy(stored.getValue()), toExtraInfo(stored, key.getVersion())));
+      }
+    });
+    return result;
+  }
+
+  @Override
+  @Nonnull
+  public <ASPECT extends RecordTemplate> ListResult<Long> listVersions(@Nonnull Class<ASPECT> aspectClass,
+      @Nonnull URN urn, int start, int pageSize) {
+
+    checkValidAspect(aspectClass);
+
+    final NavigableMap<Long, StoredAspect> versions = getVersions(ModelUtils.getAspectName(aspectClass), urn.toString());
+    final List<Long> page = versions.keySet().stream().skip(start).limit(pageSize).collect(Collectors.toList());
+    return toListResult(page, null, start, pageSize, versions.size());
+  }
+
+  @Override
+  @Nonnull
+  public <ASPECT extends RecordTemplate> ListResult<URN> listUrns(@Nonnull Class<ASPECT> aspectClass, int start,
+      int pageSize) {
+
+    checkValidAspect(aspectClass);
+
+    final List<StoredAspect> aspects = getAllOfVersion(aspectClass, LATEST_VERSION);
+    final List<URN> page = aspects.stream()
+        .skip(start)
+        .limit(pageSize)
+        .map(aspect -> _urnClass.cast(aspect.getUrn()))
+        .collect(Collectors.toList());
+    return toListResult(page, null, start, pageSize, aspects.size());
+  }
+
+  @Override
+  @Nonnull
+  public <ASPECT extends RecordTemplate> ListResult<ASPECT> list(@Nonnull Class<ASPECT> aspectClass, @Nonnull URN urn,
+      int start, int pageSize) {
+
+    checkValidAspect(aspectClass);
+
+    final NavigableMap<Long, StoredAspect> versions = getVersions(ModelUtils.getAspectName(aspectClass), urn.toString());
+    final List<Map.Entry<Long, StoredAspect>> page =
+        versions.entrySet().stream().skip(start).limit(pageSize).collect(Collectors.toList());
+    return toListResult(
+        page.stream().map(entry -> aspectClass.cast(copy(entry.getValue().getValue()))).collect(Collectors.toList()),
+        makeListResultMetadata(
+            page.stream().map(entry -> toExtraInfo(entry.getValue(), entry.getKey())).collect(Collectors.toList())),
+        start, pageSize, versions.size());
+  }
+
+  @Override
+  @Nonnull
+  public <ASPECT extends RecordTemplate> ListResult<ASPECT> list(@Nonnull Class<ASPECT> aspectClass, long version,
+      int start, int pageSize) {
+
+    checkValidAspect(aspectClass);
+
+    final List<StoredAspect> aspects = getAllOfVersion(aspectClass, version);
+    final List<StoredAspect> page = aspects.stream().skip(start).limit(pageSize).collect(Collectors.toList());
+    return toListResult(
+        page.stream().map(aspect -> aspectClass.cast(copy(aspect.getValue()))).collect(Collectors.toList()),
+        makeListResultMetadata(page.stream().map(aspect -> toExtraInfo(aspect, version)).collect(Collectors.toList())),
+        start, pageSize, aspects.size());
+  }
+
+  @Override
+  @Nonnull
+  public <ASPECT extends RecordTemplate> ListResult<ASPECT> list(@Nonnull Class<ASPECT> aspectClass, int start,
+      int pageSize) {
+    return list(aspectClass, LATEST_VERSION, start, pageSize);
+  }
+
+  @Override
+  public long newNumericId(@Nonnull String namespace, int maxTransactionRetry) {
+    return _ids.computeIfAbsent(namespace, key -> new AtomicLong()).incrementAndGet();
+  }
+
+  void addEntityTypeFilter(@Nonnull IndexFilter indexFilter) {
+    if (indexFilter.getCriteria().stream().noneMatch(x -> x.getAspect().equals(_urnClass.getCanonicalName()))) {
+      indexFilter.getCriteria().add(new IndexCriterion().setAspect(_urnClass.getCanonicalName()));
+    }
+  }
+
+  /**
+   * Returns list of urns from the local secondary index that satisfy the given filter conditions.
+   *
+   * <p>Results are ordered lexicographically by the string representation of the URN.
+   *
+   * @param indexFilter {@link IndexFilter} containing filter conditions to be applied
+   * @param lastUrn last urn of the previous fetched page. For the first page, this should be set as NULL
+   * @param pageSize maximum number of distinct urns to return
+   * @return list of urns from the local secondary index that satisfy the given filter conditions
+   */
+  @Override
+  @Nonnull
+  public List<URN> listUrns(@Nonnull IndexFilter indexFilter, @Nullable URN lastUrn, int pageSize) {
+    final String after = lastUrn == null ? "" : lastUrn.toString();
+    return findUrns(indexFilter).filter(urn -> urn.compareTo(after) > 0)
+        .sorted()
+        .limit(pageSize)
+        .map(this::getUrn)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public long countUrns(@Nonnull IndexFilter indexFilter) {
+    return findUrns(indexFilter).count();
+  }
+
+  @Override
+  @Nonnull
+  public Map<String, Long> countByPath(@Nonnull IndexFilter indexFilter, @Nonnull String aspect,
+      @Nonnull String path) {
+    final Map<String, Long> counts = new HashMap<>();
+    findUrns(indexFilter).forEach(urn -> _indexValues.getOrDefault(urn, Collections.emptyMap()).forEach((key, value) -> {
+      if (key.getAspect().equals(aspect) && key.getPath().equals(path)) {
+        counts.merge(value.toString(), 1L, Long::sum);
+      }
+    }));
+    return counts;
+  }
+
+  /**
+   * Returns the urns that satisfy the given filter conditions, in no particular order. The urns that match the fewest
+   * criterion are checked against the other criteria.
+   */
+  @Nonnull
+  private Stream<String> findUrns(@Nonnull IndexFilter indexFilter) {
+    if (!isLocalSecondaryIndexEnabled()) {
+      throw new UnsupportedOperationException("Local secondary index isn't supported");
+    }
+    final IndexCriterionArray indexCriterionArray = indexFilter.getCriteria();
+    if (indexCriterionArray.isEmpty()) {
+      throw new UnsupportedOperationException("Empty Index Filter is not supported by InMemoryLocalDAO");
+    }
+
+    addEntityTypeFilter(indexFilter);
+
+    final List<Set<String>> matches = new LinkedHashSet<>(indexCriterionArray).stream()
+        .map(this::getMatchingUrns)
+        .sorted(Comparator.comparingInt(Set::size))
+        .collect(Collectors.toList());
+    final List<Set<String>> others = matches.subList(1, matches.size());
+    return matches.get(0).stream().filter(urn -> others.stream().allMatch(urns -> urns.contains(urn)));
+  }
+
+  @Nonnull
+  private Set<String> getMatchingUrns(@Nonnull IndexCriterion criterion) {
+    final IndexPathParams pathParams = criterion.getPathParams();
+    if (pathParams == null) {
+      return _indexAspectUrns.getOrDefault(criterion.getAspect(), Collections.emptyMap()).keySet();
+    }
+
+    final Object value = toIndexValue(pathParams.getValue());
+    final NavigableMap<Object, Set<String>> valueUrns =
+        _indexUrns.get(new IndexKey(criterion.getAspect(), pathParams.getPath(), value.getClass()));
+    if (valueUrns == null) {
+      return Collections.emptySet();
+    }
+
+    final Collection<Set<String>> matches;
+    switch (pathParams.getCondition()) {
+      case EQUAL:
+        return valueUrns.getOrDefault(value, Collections.emptySet());
+      case GREATER_THAN:
+        matches = valueUrns.tailMap(value, false).values();
+        break;
+      case GREATER_THAN_OR_EQUAL_TO:
+        matches = valueUrns.tailMap(value, true).values();
+        break;
+      case LESS_THAN:
+        matches = valueUrns.headMap(value, false).values();
+        break;
+      case LESS_THAN_OR_EQUAL_TO:
+        matches = valueUrns.headMap(value, true).values();
+        break;
+      case START_WITH:
+        if (!(value instanceof String)) {
+          throw new UnsupportedOperationException("START_WITH condition is only supported for string values");
+        }
+        matches = valueUrns.subMap(value, true, value + String.valueOf(Character.MAX_VALUE), false).values();
+        break;
+      default:
+        throw new UnsupportedOperationException(
+            pathParams.getCondition().toString() + " condition is not supported in local secondary index");
+    }
+
+    final Set<String> urns = new HashSet<>();
+    matches.forEach(urns::addAll);
+    return urns;
+  }
+
+  @Nullable
+  private StoredAspect getVersion(@Nonnull AspectKey<URN, ? extends RecordTemplate> key) {
+    return getVersion(ModelUtils.getAspectName(key.getAspectClass()), key.getUrn().toString(), key.getVersion());
+  }
+
+  @Nullable
+  private StoredAspect getVersion(@Nonnull String aspectName, @Nonnull String urn, long version) {
+    return getVersions(aspectName, urn).get(version);
+  }
+
+  @Nonnull
+  private NavigableMap<Long, StoredAspect> getVersions(@Nonnull String aspectName, @Nonnull String urn) {
+    final NavigableMap<String, ConcurrentNavigableMap<Long, StoredAspect>> urns = _aspects.get(aspectName);
+    final NavigableMap<Long, StoredAspect> versions = urns == null ? null : urns.get(urn);
+    return versions == null ? Collections.emptyNavigableMap() : versions;
+  }
+
+  /**
+   * Returns the given version of an aspect for all urns, ordered by urn.
+   */
+  @Nonnull
+  private List<StoredAspect> getAllOfVersion(@Nonnull Class<? extends RecordTemplate> aspectClass, long version) {
+    final NavigableMap<String, ConcurrentNavigableMap<Long, StoredAspect>> urns =
+        _aspects.get(ModelUtils.getAspectName(aspectClass));
+    if (urns == null) {
+      return Collections.emptyList();
+    }
+    final List<StoredAspect> aspects = new ArrayList<>();
+    urns.values().forEach(versions -> {
+      final StoredAspect aspect = versions.get(version);
+      if (aspect != null) {
+        aspects.add(aspect);
+      }
+    });
+    return aspects;
+  }
+
+  /**
+   * Sets a version of an aspect, or deletes it if the given aspect is null, and logs the write to be undone.
+   */
+  private void setVersion(@Nonnull String aspectName, @Nonnull String urn, long version,
+      @Nullable StoredAspect aspect) {
+    final StoredAspect previous = putVersion(aspectName, urn, version, aspect);
+    logUndo(() -> putVersion(aspectName, urn, version, previous));
+  }
+
+  @Nullable
+  private StoredAspect putVersion(@Nonnull String aspectName, @Nonnull String urn, long version,
+      @Nullable StoredAspect aspect) {
+    final ConcurrentNavigableMap<String, ConcurrentNavigableMap<Long, StoredAspect>> urns =
+        _aspects.computeIfAbsent(aspectName, key -> new ConcurrentSkipListMap<>());
+    if (aspect != null) {
+      return urns.computeIfAbsent(urn, key -> new ConcurrentSkipListMap<>()).put(version, aspect);
+    }
+
+    final ConcurrentNavigableMap<Long, StoredAspect> versions = urns.get(urn);
+    if (versions == null) {
+      return null;
+    }
+    final StoredAspect previous = versions.remove(version);
+    if (versions.isEmpty()) {
+      urns.remove(urn);
+    }
+    return previous;
+  }
+
+  /**
+   * Sets an indexed value of an urn, or deletes it if the given value is null, and logs the write to be undone.
+   */
+  private void setIndexValue(@Nonnull String urn, @Nonnull IndexKey key, @Nullable Object value) {
+    final Object previous = putIndexValue(urn, key, value);
+    logUndo(() -> putIndexValue(urn, key, previous));
+  }
+
+  @Nullable
+  private Object putIndexValue(@Nonnull String urn, @Nonnull IndexKey key, @Nullable Object value) {
+    final Map<IndexKey, Object> values = _indexValues.computeIfAbsent(urn, k -> new ConcurrentHashMap<>());
+    final Object previous = value == null ? values.remove(key) : values.put(key, value);
+    if (values.isEmpty()) {
+      _indexValues.remove(urn);
+    }
+
+    if (previous != null) {
+      final Map<Object, Set<String>> valueUrns = _indexUrns.get(key);
+      final Set<String> urns = valueUrns.get(previous);
+      urns.remove(urn);
+      if (urns.isEmpty()) {
+        valueUrns.remove(previous);
+      }
+    }
+    if (value != null) {
+      _indexUrns.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>())
+          .computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet())
+          .add(urn);
+    }
+
+    final int delta = (value == null ? 0 : 1) - (previous == null ? 0 : 1);
+    if (delta != 0) {
+      _indexAspectUrns.computeIfAbsent(key.getAspect(), k -> new ConcurrentHashMap<>())
+          .merge(urn, delta, (count, d) -> count + d == 0 ? null : count + d);
+    }
+    return previous;
+  }
+
+  @Nonnull
+  private static IndexKey toIndexKey(@Nonnull String aspect, @Nonnull String path, @Nonnull Object value) {
+    return new IndexKey(aspect, path, toIndexValue(value).getClass());
+  }
+
+  /**
+   * Converts a value to the type it's compared as in the index, like the value column of {@link EbeanLocalDAO}.
+   */
+  @Nonnull
+  private static Object toIndexValue(@Nonnull Object value) {
+    if (value instanceof Integer || value instanceof Long) {
+      return Long.valueOf(value.toString());
+    } else if (value instanceof Float || value instanceof Double) {
+      return Double.valueOf(value.toString());
+    }
+    return value.toString();
+  }
+
+  @Nonnull
+  private static Object toIndexValue(@Nonnull IndexValue indexValue) {
+    if (indexValue.isBoolean()) {
+      return indexValue.getBoolean().toString();
+    } else if (indexValue.isDouble()) {
+      return indexValue.getDouble();
+    } else if (indexValue.isFloat()) {
+      return indexValue.getFloat().doubleValue();
+    } else if (indexValue.isInt()) {
+      return Long.valueOf(indexValue.getInt());
+    } else if (indexValue.isLong()) {
+      return indexValue.getLong();
+    } else if (indexValue.isString()) {
+      return indexValue.getString();
+    }
+    throw new IllegalArgumentException("Invalid index value " + indexValue);
+  }
+
+  @Nonnull
+  private URN getUrn(@Nonnull String urn) {
+    return Urns.getFactory(_urnClass).create(urn);
+  }
+
+  @Nonnull
+  private static ExtraInfo toExtraInfo(@Nonnull StoredAspect aspect, long version) {
+    return new ExtraInfo().setVersion(version).setAudit(copy(aspect.getAuditStamp())).setUrn(aspect.getUrn());
+  }
+
+  @Nonnull
+  private static ListResultMetadata makeListResultMetadata(@Nonnull List<ExtraInfo> extraInfos) {
+    return new ListResultMetadata().setExtraInfos(new ExtraInfoArray(extraInfos));
+  }
+
+  @Nonnull
+  private static <T> ListResult<T> toListResult(@Nonnull List<T> values, @Nullable ListResultMetadata metadata,
+      int start, int pageSize, int totalCount) {
+    final boolean havingMore = start + values.size() < totalCount;
+    return ListResult.<T>builder()
+        .values(values)
+        .metadata(metadata)
+        .nextStart(havingMore ? start + values.size() : ListResult.INVALID_NEXT_START)
+        .havingMore(havingMore)
+        .totalCount(totalCount)
+        .totalPageCount(pageSize < 1 ? 0 : (totalCount + pageSize - 1) / pageSize)
+        .pageSize(pageSize)
+        .build();
+  }
+
+  /**
+   * Copies a stored value, so that callers can't modify the values of the DAO.
+   */
+  @Nonnull
+  private static <T extends RecordTemplate> T copy(@Nonnull T value) {
+    try {
+      return (T) value.copy();
+    } catch (CloneNotSupportedException e) {
+      throw new ModelConversionException("Failed to copy " + value.getClass().getCanonicalName(), e);
+    }
+  }
+}
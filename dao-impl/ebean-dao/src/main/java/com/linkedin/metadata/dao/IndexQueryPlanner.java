@@ -0,0 +1,191 @@
+package com.linkedin.metadata.dao;
+
+import com.linkedin.metadata.query.IndexCriterion;
+import com.linkedin.metadata.query.IndexPathParams;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Orders the criteria of local secondary index queries by their estimated selectivity, so that the most selective
+ * criterion is the driving table of the query whatever order the criteria are given in.
+ *
+ * <p>The number of rows matching a criterion is estimated from the number of rows and distinct values of its (aspect,
+ * path) pair in the index. These statistics are loaded in the background on first use, and reloaded in the background
+ * once they're older than the TTL, while the old ones keep being used. Each key is loaded once at a time. Criteria are
+ * kept in the given order if the statistics of any of them are unknown, i.e. still being loaded for the first time, or
+ * failed to load and the TTL hasn't expired, so that loading statistics never delays or fails the query it's planned
+ * for.
+ */
+@Slf4j
+final class IndexQueryPlanner {
+
+  // Fractions of the rows of a path that are assumed to match a range or a prefix condition
+  private static final double RANGE_SELECTIVITY = 1.0 / 3;
+  private static final double PREFIX_SELECTIVITY = 0.1;
+
+  /**
+   * (aspect, path, value column) triple that statistics are kept for.
+   */
+  @Value
+  static class StatisticsKey {
+    String aspect;
+    // Null for criteria that only filter on the aspect
+    String path;
+    String valueColumn;
+  }
+
+  /**
+   * Cardinality statistics of an (aspect, path) pair of the index.
+   */
+  @Value
+  static class Statistics {
+    long rowCount;
+    long distinctCount;
+  }
+
+  @Value
+  private static class CachedStatistics {
+    // Null if the statistics failed to load
+    Statistics statistics;
+    long loadedAt;
+  }
+
+  private final Function<StatisticsKey, Statistics> _statisticsLoader;
+  private final long _statisticsTtlMs;
+  private final Executor _loadExecutor;
+  private final Map<StatisticsKey, CachedStatistics> _statistics = new ConcurrentHashMap<>();
+  private final Set<StatisticsKey> _loading = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Constructor for IndexQueryPlanner.
+   *
+   * @param statisticsLoader loads the statistics of the given key from the index
+   * @param statisticsTtlMs how long loaded statistics are used for before they're reloaded, in milliseconds
+   * @param loadExecutor runs the loads of statistics
+   */
+  IndexQueryPlanner(@Nonnull Function<StatisticsKey, Statistics> statisticsLoader, long statisticsTtlMs,
+      @Nonnull Executor loadExecutor) {
+    if (statisticsTtlMs < 1) {
+      throw new IllegalArgumentException("Statistics TTL must be positive: " + statisticsTtlMs);
+    }
+    _statisticsLoader = statisticsLoader;
+    _statisticsTtlMs = statisticsTtlMs;
+    _loadExecutor = loadExecutor;
+  }
+
+  /**
+   * Returns the given criteria ordered by their estimated number of matching rows, from the fewest to the most.
+   * Criteria with the same estimate keep their relative order. The criteria are returned in the given order if the
+   * statistics of any of them are unknown.
+   */
+  @Nonnull
+  List<IndexCriterion> plan(@Nonnull List<IndexCriterion> criteria) {
+    // Estimates all criteria, so that the statistics of all unknown ones start loading
+    final Map<IndexCriterion, Double> estimates = new IdentityHashMap<>();
+    boolean unknown = false;
+    for (IndexCriterion criterion : criteria) {
+      final Double estimate = estimateRowCount(criterion);
+      unknown |= estimate == null;
+      estimates.put(criterion, estimate);
+    }
+    if (unknown) {
+      return new ArrayList<>(criteria);
+    }
+
+    final List<IndexCriterion> planned = new ArrayList<>(criteria);
+    planned.sort(Comparator.comparingDouble(estimates::get));
+    return planned;
+  }
+
+  @Nullable
+  private Double estimateRowCount(@Nonnull IndexCriterion criterion) {
+    final IndexPathParams pathParams = criterion.getPathParams();
+    if (pathParams == null) {
+      final Statistics statistics = getStatistics(new StatisticsKey(criterion.getAspect(), null, null));
+      return statistics == null ? null : (double) statistics.getRowCount();
+    }
+
+    final Statistics statistics = getStatistics(new StatisticsKey(criterion.getAspect(), pathParams.getPath(),
+        EbeanLocalDAO.getGMAIndexPair(criterion).valueType));
+    if (statistics == null) {
+      return null;
+    }
+    switch (pathParams.getCondition()) {
+      case EQUAL:
+        return (double) statistics.getRowCount() / Math.max(statistics.getDistinctCount(), 1);
+      case START_WITH:
+        return statistics.getRowCount() * PREFIX_SELECTIVITY;
+      default:
+        return statistics.getRowCount() * RANGE_SELECTIVITY;
+    }
+  }
+
+  /**
+   * Gets the statistics of a key, or null if they're unknown. Statistics are loaded in the background on first use, and
+   * once they're expired.
+   */
+  @Nullable
+  private Statistics getStatistics(@Nonnull StatisticsKey key) {
+    final CachedStatistics cached = _statistics.get(key);
+    if (cached == null) {
+      // The statistics are known already if the executor ran the load on the calling thread
+      load(key, null);
+      final CachedStatistics loaded = _statistics.get(key);
+      return loaded == null ? null : loaded.getStatistics();
+    }
+
+    if (System.currentTimeMillis() - cached.getLoadedAt() >= _statisticsTtlMs) {
+      load(key, cached);
+    }
+    return cached.getStatistics();
+  }
+
+  /**
+   * Loads the statistics of a key in the background, unless they're being loaded already.
+   *
+   * @param previous the statistics to keep using if the load fails
+   */
+  private void load(@Nonnull StatisticsKey key, @Nullable CachedStatistics previous) {
+    if (!_loading.add(key)) {
+      return;
+    }
+
+    final Runnable task = () -> {
+      try {
+        _statistics.put(key, new CachedStatistics(loadOrNull(key, previous), System.currentTimeMillis()));
+      } finally {
+        _loading.remove(key);
+      }
+    };
+
+    try {
+      _loadExecutor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // The expired or unknown statistics are used until the next attempt
+      _loading.remove(key);
+    }
+  }
+
+  @Nullable
+  private Statistics loadOrNull(@Nonnull StatisticsKey key, @Nullable CachedStatistics previous) {
+    try {
+      return _statisticsLoader.apply(key);
+    } catch (RuntimeException e) {
+      log.warn("Failed to load index statistics of {}, which are retried after the TTL", key, e);
+      return previous == null ? null : previous.getStatistics();
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.linkedin.metadata.dao;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * An iterator over the results of a query that is paginated on a unique sort key, i.e. each page is fetched with a
+ * "key &gt; last key of the previous page" condition rather than an offset, and without counting the total results.
+ *
+ * <p>Nothing is fetched until {@link #hasNext()} is first called, which fetches the first page on the calling thread. If
+ * an executor is given, each following page is fetched in the background while the current page is being consumed. The
+ * iterator must be closed if it's not fully consumed, so that a pending fetch is cancelled.
+ *
+ * @param <T> the type of the query results
+ */
+final class KeysetIterator<T> implements Iterator<T>, AutoCloseable {
+
+  private final Function<T, List<T>> _pageLoader;
+  private final int _pageSize;
+  private final Executor _executor;
+
+  private Iterator<T> _page = Collections.emptyIterator();
+  private T _last = null;
+  private boolean _lastPage = false;
+  // Only set if the next page is fetched in the background
+  private CompletableFuture<List<T>> _nextPage = null;
+
+  /**
+   * Constructor for KeysetIterator.
+   *
+   * @param pageLoader loads the page after the given last result of the previous page, which is null for the first page
+   * @param pageSize the max number of results returned by the page loader
+   * @param executor {@link Executor} to fetch the next page in the background, or null to fetch pages on demand
+   */
+  KeysetIterator(@Nonnull Function<T, List<T>> pageLoader, int pageSize, @Nullable Executor executor) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+    }
+    _pageLoader = pageLoader;
+    _pageSize = pageSize;
+    _executor = executor;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!_page.hasNext()) {
+      if (_lastPage) {
+        return false;
+      }
+
+      final List<T> page = _nextPage == null ? _pageLoader.apply(_last) : join(_nextPage);
+      _lastPage = page.size() < _pageSize;
+      if (!page.isEmpty()) {
+        _last = page.get(page.size() - 1);
+      }
+      _nextPage = _executor == null || _lastPage ? null : prefetch(_last);
+      _page = page.iterator();
+    }
+    return true;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return _page.next();
+  }
+
+  @Override
+  public void close() {
+    if (_nextPage != null) {
+      _nextPage.cancel(true);
+      _nextPage = null;
+    }
+    _lastPage = true;
+    _page = Collections.emptyIterator();
+  }
+
+  @Nonnull
+  private CompletableFuture<List<T>> prefetch(@Nonnull T last) {
+    return CompletableFuture.supplyAsync(() -> _pageLoader.apply(last), _executor);
+  }
+
+  @Nonnull
+  private List<T> join(@Nonnull CompletableFuture<List<T>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      _lastPage = true;
+      _nextPage = null;
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.linkedin.metadata.dao;
+
+import lombok.Builder;
+import lombok.Value;
+
+
+/**
+ * Immutable class that holds the config of a rebuild of the local secondary index, see
+ * {@link EbeanLocalDAO#rebuildLocalIndex(Class, LocalIndexRebuildConfig, String, java.util.function.Consumer)}.
+ */
+@Value
+@Builder
+public final class LocalIndexRebuildConfig {
+
+  /**
+   * Number of consecutive urns whose aspect is re-indexed in one transaction.
+   */
+  @Builder.Default
+  private final int pageSize = 1000;
+
+  /**
+   * Number of worker threads that re-index pages concurrently.
+   */
+  @Builder.Default
+  private final int parallelism = 4;
+
+  /**
+   * Maximal number of aspects re-indexed per second, 0 means the rebuild isn't throttled.
+   */
+  @Builder.Default
+  private final double maxAspectsPerSecond = 0;
+
+  /**
+   * Maximal number of retries of the transaction of a page.
+   */
+  @Builder.Default
+  private final int maxTransactionRetry = 3;
+}
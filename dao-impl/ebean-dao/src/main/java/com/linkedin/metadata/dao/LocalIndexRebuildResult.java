@@ -0,0 +1,23 @@
+package com.linkedin.metadata.dao;
+
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * The result of a rebuild of the local secondary index.
+ */
+@Value
+public class LocalIndexRebuildResult {
+
+  // Number of aspects that have been re-indexed
+  long aspectCount;
+
+  // Number of index rows that have been inserted
+  long rowCount;
+
+  // Last urn up to which the index has been rebuilt, which a new rebuild can resume from. Null if nothing has been
+  // re-indexed from the first urn
+  @Nullable
+  String lastUrn;
+}
@@ -0,0 +1,215 @@
+package com.linkedin.metadata.dao;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.dao.utils.RecordUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Loads a JSON map of URN to aspect values, like {@code {"urn:li:foo:1": {"value": "1"}, ...}}, in batches whose size
+ * is bounded, so that the whole map is never held in memory.
+ *
+ * <p>The input is tokenized incrementally by the calling thread, which builds the {@link DataMap} of each aspect
+ * directly from the tokens. Batches of entries are converted to URNs and aspects by a pool of worker threads, and handed
+ * to the batch consumer on the calling thread, in the order of the input. At most twice as many batches as workers
+ * are in memory at any time.
+ *
+ * @param <URN> the type of the URNs
+ * @param <ASPECT> the type of the aspects
+ */
+public final class StreamingAspectLoader<URN extends Urn, ASPECT extends RecordTemplate> {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final Class<ASPECT> _aspectClass;
+  private final int _batchSize;
+  private final int _parallelism;
+
+  /**
+   * Constructor for StreamingAspectLoader.
+   *
+   * @param aspectClass the type of the aspects
+   * @param batchSize the max number of entries per batch
+   * @param parallelism the number of threads converting batches
+   */
+  public StreamingAspectLoader(@Nonnull Class<ASPECT> aspectClass, int batchSize, int parallelism) {
+    if (batchSize < 1 || parallelism < 1) {
+      throw new IllegalArgumentException("Batch size and parallelism must be positive");
+    }
+    _aspectClass = aspectClass;
+    _batchSize = batchSize;
+    _parallelism = parallelism;
+  }
+
+  /**
+   * Loads all entries of the given input.
+   *
+   * @param inputStream {@link InputStream} containing the JSON map, which isn't closed
+   * @param batchConsumer called on the calling thread with each batch of URNs and aspects, in the order of the input
+   * @return the number of loaded entries
+   * @throws IOException if the input can't be read or isn't a JSON map of objects
+   * @throws IllegalArgumentException if a key isn't a valid URN, whose cause is the {@link URISyntaxException}
+   */
+  public long load(@Nonnull InputStream inputStream, @Nonnull Consumer<Map<URN, ASPECT>> batchConsumer)
+      throws IOException {
+    final ExecutorService workers = Executors.newFixedThreadPool(_parallelism,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("aspect-loader-%d").build());
+    final Deque<Future<Map<URN, ASPECT>>> pendingBatches = new ArrayDeque<>();
+    long count = 0;
+
+    try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+      parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Expected a JSON map of URN to aspect values");
+      }
+
+      List<Map.Entry<String, DataMap>> batch = new ArrayList<>(_batchSize);
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String urn = parser.getCurrentName();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+          throw new IOException("Expected a JSON object for the aspect of " + urn);
+        }
+        batch.add(new AbstractMap.SimpleImmutableEntry<>(urn, readMap(parser)));
+
+        if (batch.size() == _batchSize) {
+          final List<Map.Entry<String, DataMap>> entries = batch;
+          pendingBatches.add(workers.submit(() -> convert(entries)));
+          batch = new ArrayList<>(_batchSize);
+          // Bounds the number of batches in memory
+          if (pendingBatches.size() >= _parallelism * 2) {
+            count += consume(pendingBatches.poll(), batchConsumer);
+          }
+        }
+      }
+      if (parser.getCurrentToken() != JsonToken.END_OBJECT) {
+        throw new IOException("Unexpected token " + parser.getCurrentToken() + " in the JSON map");
+      }
+
+      if (!batch.isEmpty()) {
+        final List<Map.Entry<String, DataMap>> entries = batch;
+        pendingBatches.add(workers.submit(() -> convert(entries)));
+      }
+      while (!pendingBatches.isEmpty()) {
+        count += consume(pendingBatches.poll(), batchConsumer);
+      }
+      return count;
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  @Nonnull
+  private Map<URN, ASPECT> convert(@Nonnull List<Map.Entry<String, DataMap>> entries) {
+    final Map<URN, ASPECT> aspects = new LinkedHashMap<>();
+    for (Map.Entry<String, DataMap> entry : entries) {
+      try {
+        aspects.put((URN) Urn.createFromString(entry.getKey()),
+            RecordUtils.toRecordTemplate(_aspectClass, entry.getValue()));
+      } catch (URISyntaxException e) {
+        throw new IllegalArgumentException("Invalid URN " + entry.getKey(), e);
+      }
+    }
+    return aspects;
+  }
+
+  private int consume(@Nonnull Future<Map<URN, ASPECT>> pendingBatch, @Nonnull Consumer<Map<URN, ASPECT>> batchConsumer)
+      throws IOException {
+    final Map<URN, ASPECT> batch;
+    try {
+      batch = pendingBatch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while loading aspects", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+    batchConsumer.accept(batch);
+    return batch.size();
+  }
+
+  /**
+   * Reads the object that starts at the current token into a {@link DataMap}, with the same value types as Pegasus'
+   * JSON codec.
+   */
+  @Nonnull
+  private static DataMap readMap(@Nonnull JsonParser parser) throws IOException {
+    final DataMap map = new DataMap();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String key = parser.getCurrentName();
+      parser.nextToken();
+      map.put(key, readValue(parser));
+    }
+    if (parser.getCurrentToken() != JsonToken.END_OBJECT) {
+      throw new IOException("Unexpected token " + parser.getCurrentToken() + " in a JSON object");
+    }
+    return map;
+  }
+
+  @Nonnull
+  private static DataList readList(@Nonnull JsonParser parser) throws IOException {
+    final DataList list = new DataList();
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+      if (token == null) {
+        throw new IOException("Unexpected end of input in a JSON array");
+      }
+      list.add(readValue(parser));
+    }
+    return list;
+  }
+
+  @Nonnull
+  private static Object readValue(@Nonnull JsonParser parser) throws IOException {
+    final JsonToken token = parser.getCurrentToken();
+    if (token == null) {
+      throw new IOException("Unexpected end of input");
+    }
+    switch (token) {
+      case START_OBJECT:
+        return readMap(parser);
+      case START_ARRAY:
+        return readList(parser);
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+        return parser.getNumberType() == JsonParser.NumberType.INT ? (Object) parser.getIntValue()
+            : (Object) parser.getLongValue();
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      case VALUE_NULL:
+        return Data.NULL;
+      default:
+        throw new IOException("Unexpected token " + token);
+    }
+  }
+}
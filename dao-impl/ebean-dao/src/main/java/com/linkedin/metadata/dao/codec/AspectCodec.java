@@ -0,0 +1,31 @@
+package com.linkedin.metadata.dao.codec;
+
+import com.linkedin.data.template.RecordTemplate;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Encodes aspects into, and decodes them from, the payload stored in the metadata column.
+ *
+ * <p>A payload must identify the codec that encoded it, so that rows written with different codecs can be read from
+ * the same table.
+ */
+public interface AspectCodec {
+
+  /**
+   * Returns true if the payload was encoded by this codec.
+   */
+  boolean canDecode(@Nonnull String payload);
+
+  /**
+   * Encodes an aspect into a payload.
+   */
+  @Nonnull
+  String encode(@Nonnull RecordTemplate aspect);
+
+  /**
+   * Decodes an aspect from a payload, for which {@link #canDecode(String)} returns true.
+   */
+  @Nonnull
+  <ASPECT extends RecordTemplate> ASPECT decode(@Nonnull Class<ASPECT> aspectClass, @Nonnull String payload);
+}
@@ -0,0 +1,46 @@
+package com.linkedin.metadata.dao.codec;
+
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.dao.exception.ModelConversionException;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Built-in {@link AspectCodec}s, and decoding of payloads in any of their formats.
+ */
+public final class AspectCodecs {
+
+  public static final AspectCodec JSON = new JsonAspectCodec();
+  public static final AspectCodec DEFLATED_PSON = new PsonAspectCodec();
+
+  private static final List<AspectCodec> BUILT_IN_CODECS = Arrays.asList(JSON, DEFLATED_PSON);
+
+  private AspectCodecs() {
+  }
+
+  /**
+   * Decodes an aspect from a payload, detecting its format. The given codec is tried before the built-in ones.
+   *
+   * @param codec the codec the payload is most likely encoded with, usually the one used for writing
+   * @param aspectClass the type of aspect to decode
+   * @param payload the payload to decode
+   * @return the decoded aspect
+   */
+  @Nonnull
+  public static <ASPECT extends RecordTemplate> ASPECT decode(@Nonnull AspectCodec codec,
+      @Nonnull Class<ASPECT> aspectClass, @Nonnull String payload) {
+    if (codec.canDecode(payload)) {
+      return codec.decode(aspectClass, payload);
+    }
+
+    for (AspectCodec builtInCodec : BUILT_IN_CODECS) {
+      if (builtInCodec.canDecode(payload)) {
+        return builtInCodec.decode(aspectClass, payload);
+      }
+    }
+
+    throw new ModelConversionException("Unknown format of " + aspectClass.getCanonicalName() + " payload");
+  }
+}
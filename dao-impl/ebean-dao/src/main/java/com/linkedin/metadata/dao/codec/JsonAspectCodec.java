@@ -0,0 +1,34 @@
+package com.linkedin.metadata.dao.codec;
+
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.dao.utils.RecordUtils;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Encodes aspects as JSON, which has been the only format of the metadata column so far.
+ */
+public class JsonAspectCodec implements AspectCodec {
+
+  @Override
+  public boolean canDecode(@Nonnull String payload) {
+    for (int i = 0; i < payload.length(); i++) {
+      if (!Character.isWhitespace(payload.charAt(i))) {
+        return payload.charAt(i) == '{';
+      }
+    }
+    return false;
+  }
+
+  @Override
+  @Nonnull
+  public String encode(@Nonnull RecordTemplate aspect) {
+    return RecordUtils.toJsonString(aspect);
+  }
+
+  @Override
+  @Nonnull
+  public <ASPECT extends RecordTemplate> ASPECT decode(@Nonnull Class<ASPECT> aspectClass, @Nonnull String payload) {
+    return RecordUtils.toRecordTemplate(aspectClass, payload);
+  }
+}
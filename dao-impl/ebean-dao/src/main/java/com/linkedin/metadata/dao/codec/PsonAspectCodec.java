@@ -0,0 +1,79 @@
+package com.linkedin.metadata.dao.codec;
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.dao.exception.ModelConversionException;
+import com.linkedin.metadata.dao.utils.RecordUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Encodes aspects in the binary PSON format of Pegasus, compressed with deflate.
+ *
+ * <p>As the metadata column is a character LOB, the compressed encoding is stored as Base64 after a prefix that
+ * identifies the format. Base64 adds a third to the size, which uncompressed PSON doesn't make up for, so only the
+ * compressed encoding is offered. It pays off for large aspects, e.g. schemas or lineage, that take the most space,
+ * while small aspects are best left in JSON.
+ */
+public class PsonAspectCodec implements AspectCodec {
+
+  private static final String DEFLATED_PSON_PREFIX = "#pson+deflate:";
+
+  private static final PsonDataCodec PSON_CODEC = new PsonDataCodec();
+
+  @Override
+  public boolean canDecode(@Nonnull String payload) {
+    return payload.startsWith(DEFLATED_PSON_PREFIX);
+  }
+
+  @Override
+  @Nonnull
+  public String encode(@Nonnull RecordTemplate aspect) {
+    try {
+      final byte[] bytes = PSON_CODEC.mapToBytes(aspect.data());
+      final ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2);
+      try (DeflaterOutputStream out = new DeflaterOutputStream(compressed)) {
+        out.write(bytes);
+      }
+      return DEFLATED_PSON_PREFIX + Base64.getEncoder().encodeToString(compressed.toByteArray());
+    } catch (IOException e) {
+      throw new ModelConversionException("Failed to serialize RecordTemplate: " + aspect.toString(), e);
+    }
+  }
+
+  @Override
+  @Nonnull
+  public <ASPECT extends RecordTemplate> ASPECT decode(@Nonnull Class<ASPECT> aspectClass, @Nonnull String payload) {
+    final String encoded = payload.substring(DEFLATED_PSON_PREFIX.length());
+
+    final DataMap dataMap;
+    try {
+      dataMap = PSON_CODEC.bytesToMap(inflate(Base64.getDecoder().decode(encoded)));
+    } catch (IOException | IllegalArgumentException e) {
+      throw new ModelConversionException("Failed to deserialize DataMap of " + aspectClass.getCanonicalName(), e);
+    }
+
+    return RecordUtils.toRecordTemplate(aspectClass, dataMap);
+  }
+
+  @Nonnull
+  private static byte[] inflate(@Nonnull byte[] bytes) throws IOException {
+    final ByteArrayOutputStream inflated = new ByteArrayOutputStream(bytes.length * 4);
+    try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(bytes))) {
+      final byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        inflated.write(buffer, 0, read);
+      }
+    }
+    return inflated.toByteArray();
+  }
+}
@@ -9,6 +9,13 @@ create table metadata_aspect (
   constraint pk_metadata_aspect primary key (urn,aspect,version)
 );
 
+create table metadata_aspect_version (
+  urn                           varchar(500) not null,
+  aspect                        varchar(200) not null,
+  nextversion                   bigint not null,
+  constraint pk_metadata_aspect_version primary key (urn,aspect)
+);
+
 create table metadata_id (
   namespace                     varchar(255) not null,
   id                            bigint not null,
@@ -8,11 +8,16 @@ import com.linkedin.common.urn.Urn;
 import com.linkedin.common.urn.Urns;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.metadata.backfill.BackfillMode;
+import com.linkedin.metadata.dao.cache.LatestAspectCacheConfig;
+import com.linkedin.metadata.dao.codec.AspectCodecs;
 import com.linkedin.metadata.dao.equality.AlwaysFalseEqualityTester;
 import com.linkedin.metadata.dao.equality.DefaultEqualityTester;
 import com.linkedin.metadata.dao.exception.InvalidMetadataType;
 import com.linkedin.metadata.dao.exception.RetryLimitReached;
+import com.linkedin.metadata.dao.metrics.LocalDAOMetricListener;
+import com.linkedin.metadata.dao.metrics.LocalDAOOperation;
 import com.linkedin.metadata.dao.producer.BaseMetadataEventProducer;
+import com.linkedin.metadata.dao.retention.RetentionSweeperConfig;
 import com.linkedin.metadata.dao.retention.TimeBasedRetention;
 import com.linkedin.metadata.dao.retention.VersionBasedRetention;
 import com.linkedin.metadata.dao.storage.LocalDAOStorageConfig;
@@ -41,6 +46,7 @@ import com.linkedin.testing.urn.FooUrn;
 import io.ebean.EbeanServer;
 import io.ebean.EbeanServerFactory;
 import io.ebean.Transaction;
+import io.ebean.config.ServerConfig;
 import java.sql.Timestamp;
 import java.time.Clock;
 import java.util.ArrayList;
@@ -53,8 +59,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.persistence.RollbackException;
 import org.mockito.InOrder;
@@ -148,6 +163,42 @@ public class EbeanLocalDAOTest {
     verifyNoMoreInteractions(_mockProducer);
   }
 
+  @Test
+  public void testMetricListener() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    LocalDAOMetricListener listener = mock(LocalDAOMetricListener.class);
+    dao.addMetricListener(listener);
+    FooUrn urn = makeFooUrn(1);
+
+    dao.add(urn, new AspectFoo().setValue("foo"), _dummyAuditStamp);
+    dao.add(urn, new AspectFoo().setValue("bar"), _dummyAuditStamp);
+
+    // The second add saves the first value as version 1 before saving the new latest version
+    verify(listener, times(1)).onOperation(eq(LocalDAOOperation.GET_NEXT_VERSION), anyLong(), eq(1), eq(-1));
+    verify(listener, times(3)).onOperation(eq(LocalDAOOperation.SAVE), anyLong(), eq(1), eq(1));
+    verify(listener, times(3)).onPayload(eq(LocalDAOOperation.SAVE), anyLong());
+    verify(listener, times(2)).onOperation(eq(LocalDAOOperation.ADD), anyLong(), eq(1), eq(-1));
+    verify(listener, times(2)).onTransaction(anyLong(), eq(0), eq(true));
+  }
+
+  @Test
+  public void testGetSingleKeyReadsByPrimaryKey() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    LocalDAOMetricListener listener = mock(LocalDAOMetricListener.class);
+    dao.addMetricListener(listener);
+    FooUrn urn = makeFooUrn(1);
+    AspectFoo v0 = new AspectFoo().setValue("foo");
+    addMetadata(urn, AspectFoo.class.getCanonicalName(), 0, v0);
+
+    assertEquals(dao.get(AspectFoo.class, urn).get(), v0);
+    assertFalse(dao.get(AspectFoo.class, urn, 1).isPresent());
+
+    verify(listener, times(1)).onOperation(eq(LocalDAOOperation.GET), anyLong(), eq(1), eq(1));
+    verify(listener, times(1)).onOperation(eq(LocalDAOOperation.GET), anyLong(), eq(1), eq(0));
+    verify(listener, times(1)).onPayload(eq(LocalDAOOperation.GET), anyLong());
+    verify(listener, never()).onOperation(eq(LocalDAOOperation.BATCH_GET), anyLong(), anyInt(), anyInt());
+  }
+
   @Test
   public void testAddTwo() {
     EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
@@ -173,6 +224,254 @@ public class EbeanLocalDAOTest {
     verifyNoMoreInteractions(_mockProducer);
   }
 
+  @Test
+  public void testAddBatch() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    FooUrn urn1 = makeFooUrn(1);
+    FooUrn urn2 = makeFooUrn(2);
+    String fooName = ModelUtils.getAspectName(AspectFoo.class);
+    String barName = ModelUtils.getAspectName(AspectBar.class);
+    AspectFoo foo1 = new AspectFoo().setValue("foo1");
+    AspectFoo foo2 = new AspectFoo().setValue("foo2");
+    AspectBar bar = new AspectBar().setValue("bar");
+    dao.add(urn1, foo1, _dummyAuditStamp);
+
+    Map<FooUrn, List<RecordTemplate>> newValues = new HashMap<>();
+    newValues.put(urn1, Arrays.asList(foo2, bar));
+    newValues.put(urn2, Collections.singletonList(foo1));
+    dao.addBatch(newValues, _dummyAuditStamp);
+
+    assertEquals(RecordUtils.toRecordTemplate(AspectFoo.class, getMetadata(urn1, fooName, 0).getMetadata()), foo2);
+    assertEquals(RecordUtils.toRecordTemplate(AspectFoo.class, getMetadata(urn1, fooName, 1).getMetadata()), foo1);
+    assertEquals(RecordUtils.toRecordTemplate(AspectBar.class, getMetadata(urn1, barName, 0).getMetadata()), bar);
+    assertEquals(RecordUtils.toRecordTemplate(AspectFoo.class, getMetadata(urn2, fooName, 0).getMetadata()), foo1);
+
+    verify(_mockProducer, times(1)).produceMetadataAuditEvent(urn1, null, foo1);
+    verify(_mockProducer, times(1)).produceMetadataAuditEvent(urn1, foo1, foo2);
+    verify(_mockProducer, times(1)).produceMetadataAuditEvent(urn1, null, bar);
+    verify(_mockProducer, times(1)).produceMetadataAuditEvent(urn2, null, foo1);
+    verifyNoMoreInteractions(_mockProducer);
+  }
+
+  @Test
+  public void testAddWithWriteCoalescing() throws Exception {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.enableWriteCoalescing(4);
+    FooUrn urn = makeFooUrn(1);
+    String aspectName = ModelUtils.getAspectName(AspectFoo.class);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    AtomicInteger lambdaCalls = new AtomicInteger();
+
+    List<Future<AspectFoo>> futures = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      futures.add(executor.submit(() -> dao.add(urn, AspectFoo.class, old -> {
+        lambdaCalls.incrementAndGet();
+        return new AspectFoo().setValue(String.valueOf(old.map(foo -> Integer.parseInt(foo.getValue())).orElse(0) + 1));
+      }, _dummyAuditStamp)));
+    }
+    // a failing update doesn't fail the updates it's combined with
+    Future<AspectFoo> failed = executor.submit(() -> dao.add(urn, AspectFoo.class, old -> {
+      lambdaCalls.incrementAndGet();
+      throw new IllegalStateException("bad update");
+    }, _dummyAuditStamp));
+    for (Future<AspectFoo> future : futures) {
+      future.get();
+    }
+    ExecutionException exception = expectThrows(ExecutionException.class, failed::get);
+    executor.shutdown();
+
+    assertTrue(exception.getCause() instanceof IllegalStateException);
+    // every update is applied to the value saved by the previous one, and saves its own version
+    assertEquals(RecordUtils.toRecordTemplate(AspectFoo.class, getMetadata(urn, aspectName, 0).getMetadata()),
+        new AspectFoo().setValue("20"));
+    assertNotNull(getMetadata(urn, aspectName, 19));
+    assertNull(getMetadata(urn, aspectName, 20));
+    verify(_mockProducer, times(20)).produceMetadataAuditEvent(eq(urn), any(), any());
+    // each update lambda runs once, also when its combined transaction falls back to one transaction per update
+    assertEquals(lambdaCalls.get(), 21);
+  }
+
+  @Nonnull
+  private static EbeanServer createReplicaServer() {
+    ServerConfig replicaConfig = EbeanLocalDAO.createTestingH2ServerConfig();
+    replicaConfig.setName("gma-replica");
+    replicaConfig.setDefaultServer(false);
+    return EbeanServerFactory.create(replicaConfig);
+  }
+
+  @Test
+  public void testReadReplicas() {
+    EbeanServer replica = createReplicaServer();
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.setReadReplicas(Collections.singletonList(replica));
+    FooUrn urn = makeFooUrn(1);
+    AspectFoo foo1 = new AspectFoo().setValue("foo1");
+    AspectFoo foo2 = new AspectFoo().setValue("foo2");
+
+    dao.add(urn, foo1, _dummyAuditStamp);
+    // reads in add() go to the primary, so the old value is moved to version 1
+    dao.add(urn, foo2, _dummyAuditStamp);
+
+    // the replica doesn't have the writes, as it's a separate database in this test
+    assertFalse(dao.get(AspectFoo.class, urn).isPresent());
+    assertEquals(dao.listUrns(AspectFoo.class, 0, 10).getTotalCount(), 0);
+
+    assertEquals(dao.readFromPrimary(() -> dao.get(AspectFoo.class, urn)).get(), foo2);
+    assertEquals(dao.readFromPrimary(() -> dao.get(AspectFoo.class, urn, 1)).get(), foo1);
+    assertEquals(dao.readFromPrimary(() -> dao.listUrns(AspectFoo.class, 0, 10)).getValues(),
+        Collections.singletonList(urn));
+
+    dao.setReadReplicas(Collections.emptyList());
+    assertEquals(dao.get(AspectFoo.class, urn).get(), foo2);
+  }
+
+  @Test
+  public void testLatestAspectCacheIsNotFilledFromLaggingReplica() {
+    // the replica only has the first value, as it's a separate database in this test
+    EbeanServer replica = createReplicaServer();
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.setReadReplicas(Collections.singletonList(replica));
+    dao.enableLatestAspectCache(LatestAspectCacheConfig.builder().build());
+    FooUrn urn = makeFooUrn(1);
+    AspectFoo foo1 = new AspectFoo().setValue("foo1");
+    AspectFoo foo2 = new AspectFoo().setValue("foo2");
+    AspectFoo foo3 = new AspectFoo().setValue("foo3");
+    createDao(replica, FooUrn.class).add(urn, foo1, _dummyAuditStamp);
+    dao.add(urn, foo1, _dummyAuditStamp);
+    AspectKey<FooUrn, AspectFoo> key = new AspectKey<>(AspectFoo.class, urn, BaseLocalDAO.LATEST_VERSION);
+    Set<AspectKey<FooUrn, ? extends RecordTemplate>> keys = Collections.singleton(key);
+
+    // when
+    assertEquals(dao.get(keys).get(key).get(), foo1);
+    dao.add(urn, foo2, _dummyAuditStamp);
+
+    // then the invalidated entry is loaded from the primary, not from the lagging replica, and cached
+    assertEquals(dao.get(keys).get(key).get(), foo2);
+    assertEquals(dao.get(keys).get(key).get(), foo2);
+    assertEquals(dao.getLatestAspectCacheStats().getHitCount(), 1);
+
+    // when another DAO, which doesn't invalidate this cache, updates the aspect
+    createDao(FooUrn.class).add(urn, foo3, _dummyAuditStamp);
+
+    // then reads from the primary bypass the cache
+    assertEquals(dao.get(keys).get(key).get(), foo2);
+    assertEquals(dao.readFromPrimary(() -> dao.get(keys)).get(key).get(), foo3);
+  }
+
+  @Test
+  public void testLatestAspectCacheIsNotFilledFromLaggingReplicaForSingleKey() {
+    // the replica only has the first value, as it's a separate database in this test
+    EbeanServer replica = createReplicaServer();
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.setReadReplicas(Collections.singletonList(replica));
+    dao.enableLatestAspectCache(LatestAspectCacheConfig.builder().build());
+    FooUrn urn = makeFooUrn(1);
+    AspectFoo foo1 = new AspectFoo().setValue("foo1");
+    AspectFoo foo2 = new AspectFoo().setValue("foo2");
+    AspectFoo foo3 = new AspectFoo().setValue("foo3");
+    createDao(replica, FooUrn.class).add(urn, foo1, _dummyAuditStamp);
+    dao.add(urn, foo1, _dummyAuditStamp);
+
+    // when
+    assertEquals(dao.get(AspectFoo.class, urn).get(), foo1);
+    dao.add(urn, foo2, _dummyAuditStamp);
+
+    // then the invalidated entry is loaded from the primary, not from the lagging replica, and cached
+    assertEquals(dao.get(AspectFoo.class, urn).get(), foo2);
+    assertEquals(dao.get(AspectFoo.class, urn).get(), foo2);
+    assertEquals(dao.getLatestAspectCacheStats().getHitCount(), 1);
+
+    // when another DAO, which doesn't invalidate this cache, updates the aspect
+    createDao(FooUrn.class).add(urn, foo3, _dummyAuditStamp);
+
+    // then reads from the primary bypass the cache
+    assertEquals(dao.get(AspectFoo.class, urn).get(), foo2);
+    assertEquals(dao.readFromPrimary(() -> dao.get(AspectFoo.class, urn)).get(), foo3);
+  }
+
+  @Test
+  public void testAddManyNoValueChange() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    FooUrn urn = makeFooUrn(1);
+    AspectFoo foo = new AspectFoo().setValue("foo");
+    AspectBar bar = new AspectBar().setValue("bar");
+
+    dao.addMany(urn, Arrays.asList(foo, bar), _dummyAuditStamp);
+    dao.addMany(urn, Arrays.asList(foo, bar), _dummyAuditStamp);
+
+    assertNull(getMetadata(urn, ModelUtils.getAspectName(AspectFoo.class), 1));
+    verify(_mockProducer, times(1)).produceMetadataAuditEvent(urn, null, foo);
+    verify(_mockProducer, times(1)).produceMetadataAuditEvent(urn, null, bar);
+    verifyNoMoreInteractions(_mockProducer);
+  }
+
+  @Test
+  public void testAddWithVersionCounter() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.setUseVersionCounter(true);
+    FooUrn urn = makeFooUrn(1);
+    String aspectName = ModelUtils.getAspectName(AspectFoo.class);
+    // versions written before the counter was turned on
+    addMetadata(urn, aspectName, 0, new AspectFoo().setValue("foo0"));
+    addMetadata(urn, aspectName, 1, new AspectFoo().setValue("foo1"));
+
+    dao.add(urn, new AspectFoo().setValue("foo2"), _dummyAuditStamp);
+    dao.add(urn, new AspectFoo().setValue("foo3"), _dummyAuditStamp);
+
+    assertEquals(RecordUtils.toRecordTemplate(AspectFoo.class, getMetadata(urn, aspectName, 2).getMetadata()),
+        new AspectFoo().setValue("foo0"));
+    assertEquals(RecordUtils.toRecordTemplate(AspectFoo.class, getMetadata(urn, aspectName, 3).getMetadata()),
+        new AspectFoo().setValue("foo2"));
+    assertEquals(RecordUtils.toRecordTemplate(AspectFoo.class, getMetadata(urn, aspectName, 0).getMetadata()),
+        new AspectFoo().setValue("foo3"));
+    EbeanMetadataAspectVersion counter = _server.find(EbeanMetadataAspectVersion.class,
+        new EbeanMetadataAspectVersion.PrimaryKey(urn.toString(), aspectName));
+    assertEquals(counter.getNextVersion(), 4);
+  }
+
+  @Test
+  public void testAddWithStaleVersionCounter() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.setUseVersionCounter(true);
+    FooUrn urn = makeFooUrn(1);
+    String aspectName = ModelUtils.getAspectName(AspectFoo.class);
+    dao.add(urn, new AspectFoo().setValue("foo1"), _dummyAuditStamp);
+    dao.add(urn, new AspectFoo().setValue("foo2"), _dummyAuditStamp);
+    // a version saved by a writer that doesn't advance the counter
+    addMetadata(urn, aspectName, 2, new AspectFoo().setValue("other"));
+
+    dao.add(urn, new AspectFoo().setValue("foo3"), _dummyAuditStamp);
+    dao.add(urn, new AspectFoo().setValue("foo4"), _dummyAuditStamp);
+
+    assertEquals(RecordUtils.toRecordTemplate(AspectFoo.class, getMetadata(urn, aspectName, 2).getMetadata()),
+        new AspectFoo().setValue("other"));
+    assertEquals(RecordUtils.toRecordTemplate(AspectFoo.class, getMetadata(urn, aspectName, 3).getMetadata()),
+        new AspectFoo().setValue("foo2"));
+    assertEquals(RecordUtils.toRecordTemplate(AspectFoo.class, getMetadata(urn, aspectName, 4).getMetadata()),
+        new AspectFoo().setValue("foo3"));
+    EbeanMetadataAspectVersion counter = _server.find(EbeanMetadataAspectVersion.class,
+        new EbeanMetadataAspectVersion.PrimaryKey(urn.toString(), aspectName));
+    assertEquals(counter.getNextVersion(), 5);
+  }
+
+  @Test
+  public void testAddWithBinaryAspectCodec() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    FooUrn urn = makeFooUrn(1);
+    String aspectName = ModelUtils.getAspectName(AspectFoo.class);
+    AspectFoo v1 = new AspectFoo().setValue("foo");
+    AspectFoo v0 = new AspectFoo().setValue("bar");
+
+    dao.add(urn, v1, _dummyAuditStamp);
+    dao.setAspectCodec(AspectCodecs.DEFLATED_PSON);
+    dao.add(urn, v0, _dummyAuditStamp);
+
+    assertTrue(getMetadata(urn, aspectName, 0).getMetadata().startsWith("#pson+deflate:"));
+    assertEquals(dao.get(AspectFoo.class, urn, 0).get(), v0);
+    assertEquals(dao.get(AspectFoo.class, urn, 1).get(), v1);
+    assertEquals(dao.list(AspectFoo.class, urn, 0, 10).getValues(), Arrays.asList(v0, v1));
+  }
+
   @Test
   public void testDefaultEqualityTester() {
     EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
@@ -248,6 +547,32 @@ public class EbeanLocalDAOTest {
     assertNotNull(getMetadata(urn, aspectName, 0));
   }
 
+  @Test
+  public void testBackgroundVersionBasedRetention() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.setRetention(AspectFoo.class, new VersionBasedRetention(2));
+    dao.enableBackgroundRetention(RetentionSweeperConfig.builder().sweepIntervalMs(3_600_000L).build());
+    FooUrn urn = makeFooUrn(1);
+    String aspectName = ModelUtils.getAspectName(AspectFoo.class);
+
+    dao.add(urn, new AspectFoo().setValue("bar"), _dummyAuditStamp);
+    dao.add(urn, new AspectFoo().setValue("foo"), _dummyAuditStamp);
+    dao.add(urn, new AspectFoo().setValue("baz"), _dummyAuditStamp);
+    dao.add(urn, new AspectFoo().setValue("qux"), _dummyAuditStamp);
+
+    // old versions are kept until the sweeper runs
+    assertNotNull(getMetadata(urn, aspectName, 1));
+    assertEquals(dao.getBackgroundRetentionStats().getBacklog(), 1);
+
+    dao.disableBackgroundRetention();
+
+    assertNull(getMetadata(urn, aspectName, 1));
+    assertNull(getMetadata(urn, aspectName, 2));
+    assertNotNull(getMetadata(urn, aspectName, 3));
+    assertNotNull(getMetadata(urn, aspectName, 0));
+    assertNull(dao.getBackgroundRetentionStats());
+  }
+
   @Test
   public void testTimeBasedRetention() {
     Clock mockClock = mock(Clock.class);
@@ -842,6 +1167,27 @@ public class EbeanLocalDAOTest {
     assertEquals(urns2, Collections.singletonList(urn1));
   }
 
+  @Test
+  public void testListUrnsWithUrnCache() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.setUrnCacheSize(10);
+    AspectFoo foo = new AspectFoo().setValue("foo");
+    for (int i = 0; i < 3; i++) {
+      addMetadata(makeFooUrn(i), AspectFoo.class.getCanonicalName(), 0, foo);
+    }
+
+    List<FooUrn> first = dao.listUrns(AspectFoo.class, 0, 10).getValues();
+    List<FooUrn> second = dao.listUrns(AspectFoo.class, 0, 10).getValues();
+
+    assertEquals(first, Arrays.asList(makeFooUrn(0), makeFooUrn(1), makeFooUrn(2)));
+    // Parsed URNs are served from the cache
+    for (int i = 0; i < 3; i++) {
+      assertSame(second.get(i), first.get(i));
+    }
+    assertEquals(dao.getWithExtraInfo(AspectFoo.class, makeFooUrn(1)).get().getExtraInfo().getUrn(), makeFooUrn(1));
+    assertThrows(IllegalArgumentException.class, () -> dao.setUrnCacheSize(-1));
+  }
+
   @Test
   public void testListUrns() {
     EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
@@ -978,6 +1324,97 @@ public class EbeanLocalDAOTest {
     assertNotNull(results.getMetadata());
   }
 
+  @Test
+  public void testStreamUrns() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    AspectFoo foo = new AspectFoo().setValue("foo");
+    List<FooUrn> urns = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      FooUrn urn = makeFooUrn(i);
+      for (int j = 0; j < 3; j++) {
+        addMetadata(urn, AspectFoo.class.getCanonicalName(), j, foo);
+      }
+      urns.add(urn);
+    }
+
+    // page size that divides the results evenly, doesn't, and exceeds them
+    for (int pageSize : new int[]{1, 2, 5, 10}) {
+      try (Stream<FooUrn> stream = dao.streamUrns(AspectFoo.class, pageSize)) {
+        assertEquals(stream.collect(Collectors.toList()), urns);
+      }
+    }
+
+    try (Stream<FooUrn> stream = dao.streamUrns(AspectBar.class, 2)) {
+      assertEquals(stream.count(), 0);
+    }
+  }
+
+  @Test
+  public void testStreamVersions() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    FooUrn urn = makeFooUrn(1);
+    for (int i = 0; i < 5; i++) {
+      addMetadata(urn, AspectFoo.class.getCanonicalName(), i, new AspectFoo().setValue("foo" + i));
+    }
+
+    try (Stream<Long> stream = dao.streamVersions(AspectFoo.class, urn, 2)) {
+      assertEquals(stream.collect(Collectors.toList()), Arrays.asList(0L, 1L, 2L, 3L, 4L));
+    }
+
+    try (Stream<AspectWithExtraInfo<AspectFoo>> stream = dao.stream(AspectFoo.class, urn, 3)) {
+      List<AspectWithExtraInfo<AspectFoo>> results = stream.collect(Collectors.toList());
+      assertEquals(results.size(), 5);
+      for (int i = 0; i < 5; i++) {
+        assertEquals(results.get(i).getAspect(), new AspectFoo().setValue("foo" + i));
+        assertEquals(results.get(i).getExtraInfo().getVersion().longValue(), i);
+        assertEquals(results.get(i).getExtraInfo().getUrn(), urn);
+      }
+    }
+  }
+
+  @Test
+  public void testStreamAspectsForAllUrns() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    for (int i = 0; i < 5; i++) {
+      FooUrn urn = makeFooUrn(i);
+      addMetadata(urn, AspectFoo.class.getCanonicalName(), 0, new AspectFoo().setValue("latest" + i));
+      addMetadata(urn, AspectFoo.class.getCanonicalName(), 1, new AspectFoo().setValue("old" + i));
+    }
+
+    try (Stream<AspectWithExtraInfo<AspectFoo>> stream = dao.stream(AspectFoo.class, 2)) {
+      List<String> values = stream.map(result -> result.getAspect().getValue()).collect(Collectors.toList());
+      assertEquals(values, Arrays.asList("latest0", "latest1", "latest2", "latest3", "latest4"));
+    }
+
+    // stops fetching pages when closed before it's fully consumed
+    try (Stream<AspectWithExtraInfo<AspectFoo>> stream = dao.stream(AspectFoo.class, 1, 1)) {
+      assertEquals(stream.findFirst().get().getAspect().getValue(), "old0");
+    }
+  }
+
+  @Test
+  public void testStreamWithScanExecutor() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    for (int i = 0; i < 5; i++) {
+      addMetadata(makeFooUrn(i), AspectFoo.class.getCanonicalName(), 0, new AspectFoo().setValue("latest" + i));
+    }
+    AtomicInteger fetches = new AtomicInteger();
+    dao.setScanExecutor(runnable -> {
+      fetches.incrementAndGet();
+      runnable.run();
+    });
+
+    try (Stream<AspectWithExtraInfo<AspectFoo>> stream = dao.stream(AspectFoo.class, 2)) {
+      // nothing is fetched until the stream is consumed
+      assertEquals(fetches.get(), 0);
+
+      List<String> values = stream.map(result -> result.getAspect().getValue()).collect(Collectors.toList());
+      assertEquals(values, Arrays.asList("latest0", "latest1", "latest2", "latest3", "latest4"));
+    }
+    // the first page is fetched on the calling thread, the other two with the executor
+    assertEquals(fetches.get(), 2);
+  }
+
   private static LocalDAOStorageConfig makeLocalDAOStorageConfig(Class<? extends RecordTemplate> aspectClass,
       List<String> pegasusPaths) {
     Map<Class<? extends RecordTemplate>, LocalDAOStorageConfig.AspectStorageConfig> aspectStorageConfigMap =
@@ -1101,6 +1538,34 @@ public class EbeanLocalDAOTest {
     assertEquals(id3, 1);
   }
 
+  @Test
+  void testNewNumericIdWithIdBlocks() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.setIdBlockSize(10);
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> anotherDao = createDao(FooUrn.class);
+
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 15; i++) {
+      ids.add(dao.newNumericId("namespace"));
+    }
+    long anotherId = anotherDao.newNumericId("namespace");
+
+    assertEquals(ids, LongStream.rangeClosed(1, 15).boxed().collect(Collectors.toList()));
+    // IDs reserved by other DAOs are skipped, and IDs of different DAOs interleave when blocks are reserved
+    assertEquals(anotherId, 21);
+    assertEquals(dao.newNumericId("namespace"), 16);
+    assertEquals(dao.newNumericId("another namespace"), 1);
+    assertEquals(_server.find(EbeanMetadataId.class).where().eq(EbeanMetadataId.NAMESPACE_COLUMN, "namespace")
+        .findCount(), 3);
+  }
+
+  @Test
+  void testNonPositiveIsInvalidIdBlockSize() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+
+    assertThrows(IllegalArgumentException.class, () -> dao.setIdBlockSize(0));
+  }
+
   @Test
   void testSaveSingleEntryToLocalIndex() {
     EbeanLocalDAO<EntityAspectUnion, BarUrn> dao = createDao(BarUrn.class);
@@ -1336,6 +1801,97 @@ public class EbeanLocalDAOTest {
     assertEquals(fooRecord8.getStringVal(), "val3");
   }
 
+  @Test
+  void testUpdateOnlyChangedPathsInLocalIndex() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = new EbeanLocalDAO<>(_mockProducer, _server,
+        makeLocalDAOStorageConfig(AspectFooEvolved.class, Arrays.asList("/value", "/newValue")), FooUrn.class);
+    dao.setUseUnionForBatch(_useUnionForBatch);
+    dao.enableLocalSecondaryIndex(true);
+    dao.setUrnPathExtractor(new FooUrnPathExtractor());
+    FooUrn urn = makeFooUrn(1);
+    AspectFooEvolved aspect1 = new AspectFooEvolved().setValue("val1").setNewValue("newVal1");
+    dao.updateLocalIndex(urn, null, aspect1, 0);
+    List<EbeanMetadataIndex> records1 = getAllRecordsFromLocalIndex(urn);
+    assertEquals(records1.size(), 3);
+
+    // only the row of the changed path is replaced
+    AspectFooEvolved aspect2 = new AspectFooEvolved().setValue("val1").setNewValue("newVal2");
+    dao.updateLocalIndex(urn, aspect1, aspect2, 1);
+    List<EbeanMetadataIndex> records2 = getAllRecordsFromLocalIndex(urn);
+    assertEquals(records2.size(), 3);
+    Map<String, EbeanMetadataIndex> recordsByPath1 =
+        records1.stream().collect(Collectors.toMap(EbeanMetadataIndex::getPath, Function.identity()));
+    Map<String, EbeanMetadataIndex> recordsByPath2 =
+        records2.stream().collect(Collectors.toMap(EbeanMetadataIndex::getPath, Function.identity()));
+    assertEquals(recordsByPath2.get("/fooId").getId(), recordsByPath1.get("/fooId").getId());
+    assertEquals(recordsByPath2.get("/value").getId(), recordsByPath1.get("/value").getId());
+    assertNotEquals(recordsByPath2.get("/newValue").getId(), recordsByPath1.get("/newValue").getId());
+    assertEquals(recordsByPath2.get("/newValue").getStringVal(), "newVal2");
+
+    // the row of a path that's no longer set is deleted
+    AspectFooEvolved aspect3 = new AspectFooEvolved().setValue("val1");
+    dao.updateLocalIndex(urn, aspect2, aspect3, 2);
+    List<EbeanMetadataIndex> records3 = getAllRecordsFromLocalIndex(urn);
+    assertEquals(records3.size(), 2);
+    assertFalse(records3.stream().anyMatch(record -> record.getPath().equals("/newValue")));
+    assertTrue(records3.stream().anyMatch(record -> record.getId() == recordsByPath1.get("/value").getId()));
+
+    // nothing is written if no indexed path has changed
+    dao.updateLocalIndex(urn, aspect3, new AspectFooEvolved().setValue("val1"), 3);
+    assertEquals(getAllRecordsFromLocalIndex(urn).stream().map(EbeanMetadataIndex::getId).collect(Collectors.toList()),
+        records3.stream().map(EbeanMetadataIndex::getId).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testRebuildLocalIndex() {
+    // a named in-memory database is needed, as each connection to an unnamed one gets its own private database
+    ServerConfig serverConfig = EbeanLocalDAO.createTestingH2ServerConfig();
+    serverConfig.getDataSourceConfig()
+        .setUrl("jdbc:h2:mem:" + UUID.randomUUID().toString() + ";IGNORECASE=TRUE;DB_CLOSE_DELAY=-1;");
+    _server = EbeanServerFactory.create(serverConfig);
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = new EbeanLocalDAO<>(_mockProducer, _server,
+        makeLocalDAOStorageConfig(AspectFoo.class, Collections.singletonList("/value")), FooUrn.class);
+    List<String> urns = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      FooUrn urn = makeFooUrn(i);
+      urns.add(urn.toString());
+      addMetadata(urn, AspectFoo.class.getCanonicalName(), 0, new AspectFoo().setValue("foo" + i));
+    }
+    Collections.sort(urns);
+    // a stale row is replaced
+    addIndex(makeFooUrn(0), AspectFoo.class.getCanonicalName(), "/value", "stale");
+
+    // local secondary index is not enabled, should throw exception
+    LocalIndexRebuildConfig config = LocalIndexRebuildConfig.builder().pageSize(4).parallelism(3).build();
+    assertThrows(UnsupportedOperationException.class, () -> dao.rebuildLocalIndex(AspectFoo.class, config, null, x -> { }));
+    dao.enableLocalSecondaryIndex(true);
+
+    // no path of AspectBar is indexed
+    assertThrows(IllegalArgumentException.class, () -> dao.rebuildLocalIndex(AspectBar.class, config, null, x -> { }));
+
+    List<String> checkpoints = Collections.synchronizedList(new ArrayList<>());
+    LocalIndexRebuildResult result = dao.rebuildLocalIndex(AspectFoo.class, config, null, checkpoints::add);
+
+    assertEquals(result.getAspectCount(), 25);
+    assertEquals(result.getRowCount(), 25);
+    assertEquals(result.getLastUrn(), urns.get(24));
+    // checkpoints are the last urns of the pages, in order
+    assertEquals(checkpoints, IntStream.range(0, 7).mapToObj(i -> urns.get(Math.min(i * 4 + 3, 24))).collect(Collectors.toList()));
+    for (int i = 0; i < 25; i++) {
+      List<EbeanMetadataIndex> records = getAllRecordsFromLocalIndex(makeFooUrn(i));
+      assertEquals(records.size(), 1);
+      assertEquals(records.get(0).getStringVal(), "foo" + i);
+    }
+
+    // resumes after a checkpoint
+    LocalIndexRebuildResult resumed = dao.rebuildLocalIndex(AspectFoo.class, config, urns.get(19), x -> { });
+    assertEquals(resumed.getAspectCount(), 5);
+    assertEquals(resumed.getLastUrn(), urns.get(24));
+    LocalIndexRebuildResult nothingLeft = dao.rebuildLocalIndex(AspectFoo.class, config, urns.get(24), x -> { });
+    assertEquals(nothingLeft.getAspectCount(), 0);
+    assertEquals(nothingLeft.getLastUrn(), urns.get(24));
+  }
+
   @Test
   void testUpdateLocalIndex() {
     EbeanLocalDAO<EntityAspectUnion, BarUrn> dao = createDao(BarUrn.class);
@@ -1470,6 +2026,107 @@ public class EbeanLocalDAOTest {
     assertEquals(urns, Collections.emptyList());
   }
 
+  @Test
+  void testListUrnsFromIndexWithQueryPlanner() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.enableLocalSecondaryIndex(true);
+    dao.enableIndexQueryPlanner(60000);
+    String aspect = "aspect" + System.currentTimeMillis();
+    for (int i = 1; i <= 10; i++) {
+      FooUrn urn = makeFooUrn(i);
+      addIndex(urn, aspect, "/common", "val");
+      addIndex(urn, aspect, "/rare", i == 3 ? "val3" : "other");
+      addIndex(urn, FooUrn.class.getCanonicalName(), "/fooId", i);
+    }
+
+    IndexValue commonValue = new IndexValue();
+    commonValue.setString("val");
+    IndexCriterion common = new IndexCriterion().setAspect(aspect)
+        .setPathParams(new IndexPathParams().setPath("/common").setValue(commonValue));
+    IndexValue rareValue = new IndexValue();
+    rareValue.setString("val3");
+    IndexCriterion rare = new IndexCriterion().setAspect(aspect)
+        .setPathParams(new IndexPathParams().setPath("/rare").setValue(rareValue));
+
+    // the most selective criterion is planned first, whatever the order of the filter
+    IndexQueryPlanner planner = new IndexQueryPlanner(key -> key.getPath() == null
+        ? new IndexQueryPlanner.Statistics(20, 20)
+        : new IndexQueryPlanner.Statistics(10, key.getPath().equals("/rare") ? 2 : 1), 60000, Runnable::run);
+    assertEquals(planner.plan(Arrays.asList(common, rare)), Arrays.asList(rare, common));
+    assertEquals(planner.plan(Arrays.asList(rare, common)), Arrays.asList(rare, common));
+
+    // the results don't depend on the order of the criteria, and duplicated criteria are ignored
+    IndexFilter filter1 = new IndexFilter().setCriteria(new IndexCriterionArray(Arrays.asList(common, rare)));
+    IndexFilter filter2 = new IndexFilter().setCriteria(new IndexCriterionArray(Arrays.asList(rare, common, rare)));
+
+    assertEquals(dao.listUrns(filter1, null, 10), Collections.singletonList(makeFooUrn(3)));
+    assertEquals(dao.listUrns(filter2, null, 10), Collections.singletonList(makeFooUrn(3)));
+
+    dao.disableIndexQueryPlanner();
+    assertEquals(dao.listUrns(filter1, null, 10), Collections.singletonList(makeFooUrn(3)));
+  }
+
+  @Test
+  void testListUrnsFromIndexWhenQueryPlannerStatisticsFail() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.enableLocalSecondaryIndex(true);
+    AtomicInteger loads = new AtomicInteger();
+    dao.enableIndexQueryPlanner(key -> {
+      loads.incrementAndGet();
+      throw new RuntimeException("Statistics query timed out");
+    }, 60000, Runnable::run);
+    String aspect = "aspect" + System.currentTimeMillis();
+    for (int i = 1; i <= 3; i++) {
+      addIndex(makeFooUrn(i), aspect, "/value", i == 2 ? "val2" : "val");
+      addIndex(makeFooUrn(i), FooUrn.class.getCanonicalName(), "/fooId", i);
+    }
+    IndexValue indexValue = new IndexValue();
+    indexValue.setString("val");
+    IndexFilter filter = new IndexFilter().setCriteria(new IndexCriterionArray(new IndexCriterion().setAspect(aspect)
+        .setPathParams(new IndexPathParams().setPath("/value").setValue(indexValue))));
+
+    // the criteria are joined in the given order, and the failed statistics aren't reloaded until the TTL expires
+    assertEquals(dao.listUrns(filter, null, 10), Arrays.asList(makeFooUrn(1), makeFooUrn(3)));
+    assertEquals(dao.listUrns(filter, null, 10), Arrays.asList(makeFooUrn(1), makeFooUrn(3)));
+    assertEquals(loads.get(), 1);
+  }
+
+  @Test
+  void testCountUrnsFromIndex() {
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    String aspect = "aspect" + System.currentTimeMillis();
+    for (int i = 1; i <= 5; i++) {
+      FooUrn urn = makeFooUrn(i);
+      addIndex(urn, aspect, "/path1", i <= 3 ? "val1" : "val2");
+      addIndex(urn, aspect, "/path2", i % 2);
+      addIndex(urn, FooUrn.class.getCanonicalName(), "/fooId", i);
+    }
+    // has no value for /path2
+    addIndex(makeFooUrn(6), aspect, "/path1", "val1");
+    addIndex(makeFooUrn(6), FooUrn.class.getCanonicalName(), "/fooId", 6);
+
+    IndexFilter aspectFilter = new IndexFilter().setCriteria(new IndexCriterionArray(new IndexCriterion().setAspect(aspect)));
+
+    // local secondary index is not enabled, should throw exception
+    dao.enableLocalSecondaryIndex(false);
+    assertThrows(UnsupportedOperationException.class, () -> dao.countUrns(aspectFilter));
+    dao.enableLocalSecondaryIndex(true);
+
+    IndexValue indexValue = new IndexValue();
+    indexValue.setString("val1");
+    IndexCriterion criterion = new IndexCriterion().setAspect(aspect)
+        .setPathParams(new IndexPathParams().setPath("/path1").setValue(indexValue));
+    IndexFilter pathFilter = new IndexFilter().setCriteria(new IndexCriterionArray(criterion));
+
+    assertEquals(dao.countUrns(aspectFilter), 6);
+    assertEquals(dao.countUrns(pathFilter), 4);
+    assertEquals(dao.countUrns(pathFilter), dao.listUrns(pathFilter, null, 100).size());
+
+    assertEquals(dao.countByPath(aspectFilter, aspect, "/path1"), ImmutableMap.of("val1", 4L, "val2", 2L));
+    assertEquals(dao.countByPath(pathFilter, aspect, "/path2"), ImmutableMap.of("0", 1L, "1", 2L));
+    assertEquals(dao.countByPath(pathFilter, aspect, "/pathX"), Collections.emptyMap());
+  }
+
   @Test
   void testListUrnsFromIndexZeroSize() {
     EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
@@ -1689,6 +2346,182 @@ public class EbeanLocalDAOTest {
     assertThrows(IllegalArgumentException.class, () -> dao.setQueryKeysCount(-1));
   }
 
+  @Test
+  public void testNonPositiveIsInvalidBatchGetParallelism() {
+    // given
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+
+    // expect
+    assertThrows(IllegalArgumentException.class, () -> dao.setBatchGetParallelism(0));
+  }
+
+  @Test
+  public void testParallelBatchGet() {
+    // given
+    // a named in-memory database is needed, as each connection to an unnamed one gets its own private database
+    ServerConfig serverConfig = EbeanLocalDAO.createTestingH2ServerConfig();
+    serverConfig.getDataSourceConfig()
+        .setUrl("jdbc:h2:mem:" + UUID.randomUUID().toString() + ";IGNORECASE=TRUE;DB_CLOSE_DELAY=-1;");
+    _server = EbeanServerFactory.create(serverConfig);
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.setQueryKeysCount(7);
+    dao.setBatchGetParallelism(4);
+
+    Set<AspectKey<FooUrn, ? extends RecordTemplate>> keys = new HashSet<>();
+    Map<AspectKey<FooUrn, ? extends RecordTemplate>, RecordTemplate> expected = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      FooUrn urn = makeFooUrn(i);
+      AspectFoo foo = new AspectFoo().setValue("foo" + i);
+      addMetadata(urn, AspectFoo.class.getCanonicalName(), 0, foo);
+      AspectKey<FooUrn, AspectFoo> fooKey = new AspectKey<>(AspectFoo.class, urn, 0L);
+      keys.add(fooKey);
+      expected.put(fooKey, foo);
+      // only even urns have a bar aspect
+      AspectKey<FooUrn, AspectBar> barKey = new AspectKey<>(AspectBar.class, urn, 0L);
+      keys.add(barKey);
+      if (i % 2 == 0) {
+        AspectBar bar = new AspectBar().setValue("bar" + i);
+        addMetadata(urn, AspectBar.class.getCanonicalName(), 0, bar);
+        expected.put(barKey, bar);
+      }
+    }
+
+    // when
+    Map<AspectKey<FooUrn, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> records = dao.get(keys);
+    Map<AspectKey<FooUrn, ? extends RecordTemplate>, AspectWithExtraInfo<? extends RecordTemplate>> recordsWithExtraInfo =
+        dao.getWithExtraInfo(keys);
+
+    // then
+    assertEquals(records.size(), 200);
+    assertEquals(recordsWithExtraInfo.size(), 150);
+    keys.forEach(key -> {
+      assertEquals(records.get(key).orElse(null), expected.get(key));
+      if (expected.containsKey(key)) {
+        assertEquals(recordsWithExtraInfo.get(key).getAspect(), expected.get(key));
+        assertEquals(recordsWithExtraInfo.get(key).getExtraInfo().getUrn(), key.getUrn());
+      }
+    });
+  }
+
+  @Test
+  public void testBatchGetWithBucketedIn() {
+    // given
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.setBucketedInThreshold(2);
+
+    Set<AspectKey<FooUrn, ? extends RecordTemplate>> keys = new HashSet<>();
+    Map<AspectKey<FooUrn, ? extends RecordTemplate>, RecordTemplate> expected = new HashMap<>();
+    // more urns than fit in one IN list
+    for (int i = 0; i < 600; i++) {
+      FooUrn urn = makeFooUrn(i);
+      AspectFoo foo = new AspectFoo().setValue("foo" + i);
+      addMetadata(urn, AspectFoo.class.getCanonicalName(), 0, foo);
+      AspectKey<FooUrn, AspectFoo> fooKey = new AspectKey<>(AspectFoo.class, urn, 0L);
+      keys.add(fooKey);
+      expected.put(fooKey, foo);
+      // only some urns have an older version of foo
+      AspectKey<FooUrn, AspectFoo> oldFooKey = new AspectKey<>(AspectFoo.class, urn, 1L);
+      keys.add(oldFooKey);
+      if (i % 3 == 0) {
+        AspectFoo oldFoo = new AspectFoo().setValue("old" + i);
+        addMetadata(urn, AspectFoo.class.getCanonicalName(), 1, oldFoo);
+        expected.put(oldFooKey, oldFoo);
+      }
+    }
+
+    // when
+    Map<AspectKey<FooUrn, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> records = dao.get(keys);
+    Optional<AspectFoo> single = dao.get(AspectFoo.class, makeFooUrn(1));
+
+    // then
+    assertEquals(records.size(), 1200);
+    keys.forEach(key -> assertEquals(records.get(key).orElse(null), expected.get(key)));
+    assertEquals(single.get(), new AspectFoo().setValue("foo1"));
+  }
+
+  @Test
+  public void testBatchGetStrategiesReturnSameRecords() {
+    // given
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+
+    // many urns with the same aspects, which are read with IN lists by default
+    Set<AspectKey<FooUrn, ? extends RecordTemplate>> sameAspectKeys = new HashSet<>();
+    // few urns with different aspects and versions, which are read with the OR or UNION ALL query
+    Set<AspectKey<FooUrn, ? extends RecordTemplate>> mixedKeys = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      FooUrn urn = makeFooUrn(i);
+      addMetadata(urn, AspectFoo.class.getCanonicalName(), 0, new AspectFoo().setValue("foo" + i));
+      if (i % 2 == 0) {
+        addMetadata(urn, AspectBar.class.getCanonicalName(), 0, new AspectBar().setValue("bar" + i));
+      }
+      sameAspectKeys.add(new AspectKey<>(AspectFoo.class, urn, 0L));
+      sameAspectKeys.add(new AspectKey<>(AspectBar.class, urn, 0L));
+      if (i < 4) {
+        for (long version = 0; version < 5; version++) {
+          mixedKeys.add(new AspectKey<>(AspectFoo.class, urn, version));
+          mixedKeys.add(new AspectKey<>(AspectBar.class, urn, version));
+        }
+      }
+    }
+
+    for (Set<AspectKey<FooUrn, ? extends RecordTemplate>> keys : Arrays.asList(sameAspectKeys, mixedKeys)) {
+      // when
+      Map<AspectKey<FooUrn, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> byDefault = dao.get(keys);
+      dao.setBucketedInThreshold(0);
+      Map<AspectKey<FooUrn, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> withoutIn = dao.get(keys);
+      dao.setBucketedInThreshold(1);
+      Map<AspectKey<FooUrn, ? extends RecordTemplate>, Optional<? extends RecordTemplate>> withIn = dao.get(keys);
+      dao.setBucketedInThreshold(16);
+
+      // then
+      assertEquals(byDefault, withoutIn);
+      assertEquals(withIn, withoutIn);
+      assertEquals(withoutIn.size(), keys.size());
+    }
+  }
+
+  @Test
+  public void testPadToBucketSize() {
+    assertEquals(EbeanLocalDAO.padToBucketSize(Arrays.asList("a", "b")),
+        Arrays.asList("a", "b", "b", "b", "b", "b", "b", "b"));
+    assertEquals(EbeanLocalDAO.padToBucketSize(Collections.nCopies(9, "a")).size(), 16);
+    assertEquals(EbeanLocalDAO.padToBucketSize(Collections.nCopies(512, "a")).size(), 512);
+  }
+
+  @Test
+  public void testLatestAspectCache() {
+    // given
+    EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
+    dao.enableLatestAspectCache(LatestAspectCacheConfig.builder().build());
+    FooUrn urn = makeFooUrn(1);
+    AspectFoo v0 = new AspectFoo().setValue("foo");
+    AspectFoo v1 = new AspectFoo().setValue("bar");
+    addMetadata(urn, AspectFoo.class.getCanonicalName(), 0, v0);
+
+    // when
+    Optional<AspectFoo> miss = dao.get(AspectFoo.class, urn);
+    Optional<AspectFoo> hit = dao.get(AspectFoo.class, urn);
+    Optional<AspectBar> absent = dao.get(AspectBar.class, urn);
+
+    // then
+    assertEquals(miss.get(), v0);
+    assertEquals(hit.get(), v0);
+    assertFalse(absent.isPresent());
+    assertEquals(dao.getLatestAspectCacheStats().getHitCount(), 1);
+    assertEquals(dao.getLatestAspectCacheStats().getMissCount(), 2);
+
+    // cached values can't be mutated by callers
+    hit.get().setValue("mutated");
+    assertEquals(dao.get(AspectFoo.class, urn).get(), v0);
+
+    // when
+    dao.add(urn, v1, _dummyAuditStamp);
+
+    // then
+    assertEquals(dao.get(AspectFoo.class, urn).get(), v1);
+    assertEquals(dao.getLatestAspectCacheStats().getInvalidationCount(), 1);
+  }
+
   public void testGetWithQuerySize(int querySize) {
     // given
     EbeanLocalDAO<EntityAspectUnion, FooUrn> dao = createDao(FooUrn.class);
@@ -3,10 +3,13 @@ package com.linkedin.metadata.dao;
 import com.linkedin.testing.AspectFoo;
 import com.linkedin.testing.EntityAspectUnion;
 import com.linkedin.testing.urn.FooUrn;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -41,6 +44,35 @@ public class ImmutableLocalDAOTest {
     assertEquals(foo1.get(), new AspectFoo().setValue("1"));
   }
 
+  @Test
+  public void testGetFromStream() throws IOException {
+    ImmutableLocalDAO<EntityAspectUnion, FooUrn> dao;
+    try (InputStream is = getClass().getClassLoader().getResourceAsStream("immutable.json")) {
+      dao = new ImmutableLocalDAO<>(EntityAspectUnion.class, AspectFoo.class, is, true, FooUrn.class);
+    }
+
+    assertEquals(dao.get(AspectFoo.class, makeFooUrn(1)).get(), new AspectFoo().setValue("1"));
+    assertEquals(dao.get(AspectFoo.class, makeFooUrn(3)).get(), new AspectFoo().setValue("3"));
+    assertFalse(dao.get(AspectFoo.class, makeFooUrn(4)).isPresent());
+  }
+
+  @Test
+  public void testGetFromStreamWithUrnRepeatedAcrossBatches() throws Exception {
+    String json = "{\"urn:li:foo:1\": {\"value\": \"1\"}, \"urn:li:foo:2\": {\"value\": \"2\"}, "
+        + "\"urn:li:foo:1\": {\"value\": \"3\"}}";
+    ImmutableLocalDAO<EntityAspectUnion, FooUrn> dao;
+    try (InputStream is = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))) {
+      dao = new ImmutableLocalDAO<>(EntityAspectUnion.class, AspectFoo.class, is, true, FooUrn.class, 1);
+    }
+
+    // The last value wins, like in loadAspects
+    Map<FooUrn, AspectFoo> aspects =
+        ImmutableLocalDAO.loadAspects(AspectFoo.class, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    assertEquals(aspects.get(makeFooUrn(1)), new AspectFoo().setValue("3"));
+    assertEquals(dao.get(AspectFoo.class, makeFooUrn(1)).get(), new AspectFoo().setValue("3"));
+    assertEquals(dao.get(AspectFoo.class, makeFooUrn(2)).get(), new AspectFoo().setValue("2"));
+  }
+
   @Test(expectedExceptions = UnsupportedOperationException.class)
   public void testAdd() {
     ImmutableLocalDAO<EntityAspectUnion, FooUrn> dao =
@@ -49,6 +81,23 @@ public class ImmutableLocalDAOTest {
     dao.add(makeFooUrn(1), new AspectFoo().setValue("1"), makeAuditStamp("foo"));
   }
 
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void testAddMany() {
+    ImmutableLocalDAO<EntityAspectUnion, FooUrn> dao =
+        new ImmutableLocalDAO<>(EntityAspectUnion.class, new HashMap<>(), true, FooUrn.class);
+
+    dao.addMany(makeFooUrn(1), Collections.singletonList(new AspectFoo().setValue("1")), makeAuditStamp("foo"));
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void testAddBatch() {
+    ImmutableLocalDAO<EntityAspectUnion, FooUrn> dao =
+        new ImmutableLocalDAO<>(EntityAspectUnion.class, new HashMap<>(), true, FooUrn.class);
+
+    dao.addBatch(Collections.singletonMap(makeFooUrn(1), Collections.singletonList(new AspectFoo().setValue("1"))),
+        makeAuditStamp("foo"));
+  }
+
   @Test(expectedExceptions = UnsupportedOperationException.class)
   public void testNewNumericId() {
     ImmutableLocalDAO<EntityAspectUnion, FooUrn> dao =
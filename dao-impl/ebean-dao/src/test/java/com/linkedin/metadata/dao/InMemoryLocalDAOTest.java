@@ -0,0 +1,198 @@
+package com.linkedin.metadata.dao;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.common.AuditStamp;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.dao.producer.BaseMetadataEventProducer;
+import com.linkedin.metadata.dao.retention.VersionBasedRetention;
+import com.linkedin.metadata.dao.storage.LocalDAOStorageConfig;
+import com.linkedin.metadata.dao.utils.FooUrnPathExtractor;
+import com.linkedin.metadata.query.Condition;
+import com.linkedin.metadata.query.ExtraInfo;
+import com.linkedin.metadata.query.IndexCriterion;
+import com.linkedin.metadata.query.IndexCriterionArray;
+import com.linkedin.metadata.query.IndexFilter;
+import com.linkedin.metadata.query.IndexPathParams;
+import com.linkedin.metadata.query.IndexValue;
+import com.linkedin.testing.AspectFoo;
+import com.linkedin.testing.EntityAspectUnion;
+import com.linkedin.testing.urn.FooUrn;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.linkedin.common.AuditStamps.*;
+import static com.linkedin.testing.TestUtils.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class InMemoryLocalDAOTest {
+
+  private BaseMetadataEventProducer _mockProducer;
+  private AuditStamp _dummyAuditStamp;
+  private InMemoryLocalDAO<EntityAspectUnion, FooUrn> _dao;
+
+  @BeforeMethod
+  public void setup() {
+    _mockProducer = mock(BaseMetadataEventProducer.class);
+    _dummyAuditStamp = makeAuditStamp("foo");
+    _dao = new InMemoryLocalDAO<>(_mockProducer, LocalDAOStorageConfig.builder()
+        .aspectStorageConfigMap(Collections.singletonMap(AspectFoo.class,
+            LocalDAOStorageConfig.AspectStorageConfig.builder()
+                .pathStorageConfigMap(Collections.singletonMap("/value",
+                    LocalDAOStorageConfig.PathStorageConfig.builder().strongConsistentSecondaryIndex(true).build()))
+                .build()))
+        .build(), FooUrn.class, new FooUrnPathExtractor());
+    _dao.enableLocalSecondaryIndex(true);
+  }
+
+  @Test
+  public void testAddAndGet() {
+    FooUrn urn = makeFooUrn(1);
+    AspectFoo v1 = new AspectFoo().setValue("foo");
+    AspectFoo v0 = new AspectFoo().setValue("bar");
+
+    _dao.add(urn, v1, _dummyAuditStamp);
+    _dao.add(urn, v0, _dummyAuditStamp);
+
+    assertEquals(_dao.get(AspectFoo.class, urn).get(), v0);
+    assertEquals(_dao.get(AspectFoo.class, urn, 1).get(), v1);
+    assertFalse(_dao.get(AspectFoo.class, urn, 2).isPresent());
+    assertEquals(_dao.listVersions(AspectFoo.class, urn, 0, 10).getValues(), Arrays.asList(0L, 1L));
+
+    Optional<AspectWithExtraInfo<AspectFoo>> latest = _dao.getWithExtraInfo(AspectFoo.class, urn);
+    assertTrue(latest.isPresent());
+    assertEquals(latest.get().getAspect(), v0);
+    assertEquals(latest.get().getExtraInfo(),
+        new ExtraInfo().setVersion(0).setAudit(_dummyAuditStamp).setUrn(urn));
+
+    verify(_mockProducer, times(1)).produceMetadataAuditEvent(urn, null, v1);
+    verify(_mockProducer, times(1)).produceMetadataAuditEvent(urn, v1, v0);
+    verifyNoMoreInteractions(_mockProducer);
+  }
+
+  @Test
+  public void testReturnedValuesAreCopies() {
+    FooUrn urn = makeFooUrn(1);
+    AspectFoo foo = new AspectFoo().setValue("foo");
+
+    _dao.add(urn, foo, _dummyAuditStamp);
+    foo.setValue("bar");
+    _dao.get(AspectFoo.class, urn).get().setValue("baz");
+
+    assertEquals(_dao.get(AspectFoo.class, urn).get(), new AspectFoo().setValue("foo"));
+  }
+
+  @Test
+  public void testVersionBasedRetention() {
+    FooUrn urn = makeFooUrn(1);
+    _dao.setRetention(AspectFoo.class, new VersionBasedRetention(2));
+
+    for (int i = 0; i < 5; i++) {
+      _dao.add(urn, new AspectFoo().setValue("foo" + i), _dummyAuditStamp);
+    }
+
+    assertEquals(_dao.listVersions(AspectFoo.class, urn, 0, 10).getValues(), Arrays.asList(0L, 4L));
+    assertEquals(_dao.get(AspectFoo.class, urn).get(), new AspectFoo().setValue("foo4"));
+  }
+
+  @Test
+  public void testListAndListUrns() {
+    for (int i = 1; i <= 3; i++) {
+      _dao.add(makeFooUrn(i), new AspectFoo().setValue("foo" + i), _dummyAuditStamp);
+    }
+
+    ListResult<FooUrn> urns = _dao.listUrns(AspectFoo.class, 0, 2);
+    assertEquals(urns.getValues(), Arrays.asList(makeFooUrn(1), makeFooUrn(2)));
+    assertTrue(urns.isHavingMore());
+    assertEquals(urns.getNextStart(), 2);
+    assertEquals(urns.getTotalCount(), 3);
+    assertEquals(urns.getTotalPageCount(), 2);
+
+    ListResult<AspectFoo> aspects = _dao.list(AspectFoo.class, 2, 2);
+    assertEquals(aspects.getValues(), Collections.singletonList(new AspectFoo().setValue("foo3")));
+    assertFalse(aspects.isHavingMore());
+    assertEquals(aspects.getNextStart(), ListResult.INVALID_NEXT_START);
+    assertEquals(aspects.getMetadata().getExtraInfos().get(0).getUrn(), makeFooUrn(3));
+  }
+
+  @Test
+  public void testIndexQueries() {
+    for (int i = 1; i <= 5; i++) {
+      _dao.add(makeFooUrn(i), new AspectFoo().setValue(i <= 3 ? "val1" : "val2"), _dummyAuditStamp);
+    }
+    // Updates the index, so urn 3 no longer matches val1
+    _dao.add(makeFooUrn(3), new AspectFoo().setValue("val2"), _dummyAuditStamp);
+
+    IndexFilter val1Filter = new IndexFilter().setCriteria(new IndexCriterionArray(
+        makeCriterion(AspectFoo.class, "/value", stringValue("val1"), Condition.EQUAL)));
+    assertEquals(_dao.listUrns(val1Filter, null, 10), Arrays.asList(makeFooUrn(1), makeFooUrn(2)));
+    assertEquals(_dao.listUrns(val1Filter, makeFooUrn(1), 10), Collections.singletonList(makeFooUrn(2)));
+    assertEquals(_dao.countUrns(val1Filter), 2);
+
+    IndexFilter rangeFilter = new IndexFilter().setCriteria(new IndexCriterionArray(
+        makeCriterion(AspectFoo.class, "/value", stringValue("val"), Condition.START_WITH),
+        makeCriterion(FooUrn.class.getCanonicalName(), "/fooId", intValue(3), Condition.GREATER_THAN_OR_EQUAL_TO)));
+    assertEquals(_dao.listUrns(rangeFilter, null, 2), Arrays.asList(makeFooUrn(3), makeFooUrn(4)));
+    assertEquals(_dao.countUrns(rangeFilter), 3);
+
+    IndexFilter aspectFilter = new IndexFilter().setCriteria(
+        new IndexCriterionArray(new IndexCriterion().setAspect(AspectFoo.class.getCanonicalName())));
+    assertEquals(_dao.countByPath(aspectFilter, AspectFoo.class.getCanonicalName(), "/value"),
+        ImmutableMap.of("val1", 2L, "val2", 3L));
+    assertEquals(_dao.countByPath(aspectFilter, AspectFoo.class.getCanonicalName(), "/other"),
+        Collections.emptyMap());
+
+    _dao.enableLocalSecondaryIndex(false);
+    assertThrows(UnsupportedOperationException.class, () -> _dao.countUrns(aspectFilter));
+  }
+
+  @Test
+  public void testFailedTransactionIsUndone() {
+    FooUrn urn = makeFooUrn(1);
+    _dao.add(urn, new AspectFoo().setValue("val1"), _dummyAuditStamp);
+
+    assertThrows(IllegalStateException.class, () -> _dao.runInTransactionWithRetry(() -> {
+      _dao.save(urn, new AspectFoo().setValue("val2"), _dummyAuditStamp, 0, false);
+      _dao.updateLocalIndex(urn, new AspectFoo().setValue("val2"), 0);
+      throw new IllegalStateException();
+    }, 3));
+
+    assertEquals(_dao.get(AspectFoo.class, urn).get(), new AspectFoo().setValue("val1"));
+    IndexFilter val1Filter = new IndexFilter().setCriteria(new IndexCriterionArray(
+        makeCriterion(AspectFoo.class, "/value", stringValue("val1"), Condition.EQUAL)));
+    assertEquals(_dao.listUrns(val1Filter, null, 10), Collections.singletonList(urn));
+  }
+
+  @Test
+  public void testNewNumericId() {
+    assertEquals(_dao.newNumericId("namespace"), 1);
+    assertEquals(_dao.newNumericId("namespace"), 2);
+    assertEquals(_dao.newNumericId("other"), 1);
+  }
+
+  private static IndexValue stringValue(String value) {
+    IndexValue indexValue = new IndexValue();
+    indexValue.setString(value);
+    return indexValue;
+  }
+
+  private static IndexValue intValue(int value) {
+    IndexValue indexValue = new IndexValue();
+    indexValue.setInt(value);
+    return indexValue;
+  }
+
+  private static IndexCriterion makeCriterion(Class<? extends RecordTemplate> aspectClass, String path,
+      IndexValue value, Condition condition) {
+    return makeCriterion(aspectClass.getCanonicalName(), path, value, condition);
+  }
+
+  private static IndexCriterion makeCriterion(String aspect, String path, IndexValue value, Condition condition) {
+    return new IndexCriterion().setAspect(aspect)
+        .setPathParams(new IndexPathParams().setPath(path).setValue(value).setCondition(condition));
+  }
+}
@@ -0,0 +1,147 @@
+package com.linkedin.metadata.dao;
+
+import com.linkedin.metadata.query.IndexCriterion;
+import com.linkedin.metadata.query.IndexPathParams;
+import com.linkedin.metadata.query.IndexValue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class IndexQueryPlannerTest {
+
+  private static final long TTL_MS = 50;
+
+  private final IndexCriterion _first = makeCriterion("/first");
+  private final IndexCriterion _second = makeCriterion("/second");
+
+  @Test
+  public void testPlanBySelectivity() {
+    IndexQueryPlanner planner = new IndexQueryPlanner(key -> makeStatistics(key, 2, 10), TTL_MS, Runnable::run);
+
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_second, _first));
+    assertEquals(planner.plan(Arrays.asList(_second, _first)), Arrays.asList(_second, _first));
+  }
+
+  @Test
+  public void testFirstLoadDoesNotBlockPlanning() {
+    // given
+    AtomicInteger loads = new AtomicInteger();
+    List<Runnable> refreshes = new ArrayList<>();
+    IndexQueryPlanner planner = new IndexQueryPlanner(key -> {
+      loads.incrementAndGet();
+      return makeStatistics(key, 2, 10);
+    }, TTL_MS, refreshes::add);
+
+    // when the statistics are unknown, then the criteria keep their order while they're loaded in the background
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_first, _second));
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_first, _second));
+    assertEquals(refreshes.size(), 2);
+    assertEquals(loads.get(), 0);
+
+    // when
+    refreshes.forEach(Runnable::run);
+
+    // then
+    assertEquals(loads.get(), 2);
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_second, _first));
+  }
+
+  @Test
+  public void testExpiredStatisticsAreServedWhileRefreshing() throws InterruptedException {
+    // given
+    Map<String, Long> distinctCounts = new HashMap<>();
+    distinctCounts.put("/first", 2L);
+    distinctCounts.put("/second", 10L);
+    AtomicInteger loads = new AtomicInteger();
+    List<Runnable> refreshes = new ArrayList<>();
+    IndexQueryPlanner planner = new IndexQueryPlanner(key -> {
+      loads.incrementAndGet();
+      return new IndexQueryPlanner.Statistics(100, distinctCounts.get(key.getPath()));
+    }, TTL_MS, refreshes::add);
+    planner.plan(Arrays.asList(_first, _second));
+    refreshes.forEach(Runnable::run);
+    refreshes.clear();
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_second, _first));
+    assertEquals(loads.get(), 2);
+
+    // when
+    distinctCounts.put("/first", 20L);
+    Thread.sleep(TTL_MS * 2);
+
+    // then the expired statistics keep being used, and each key is only refreshed once at a time
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_second, _first));
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_second, _first));
+    assertEquals(refreshes.size(), 2);
+    assertEquals(loads.get(), 2);
+
+    // when
+    refreshes.forEach(Runnable::run);
+
+    // then
+    assertEquals(loads.get(), 4);
+    assertEquals(planner.plan(Arrays.asList(_second, _first)), Arrays.asList(_first, _second));
+  }
+
+  @Test
+  public void testFailedStatisticsKeepTheGivenOrder() throws InterruptedException {
+    // given
+    AtomicInteger loads = new AtomicInteger();
+    IndexQueryPlanner planner = new IndexQueryPlanner(key -> {
+      if (loads.incrementAndGet() == 1) {
+        throw new RuntimeException("Statistics query timed out");
+      }
+      return makeStatistics(key, 2, 10);
+    }, TTL_MS, Runnable::run);
+
+    // when the first load fails, then the criteria keep their order until the TTL expires
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_first, _second));
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_first, _second));
+    assertEquals(loads.get(), 2);
+
+    // when
+    Thread.sleep(TTL_MS * 2);
+    planner.plan(Arrays.asList(_first, _second));
+
+    // then
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_second, _first));
+  }
+
+  @Test
+  public void testFailedRefreshKeepsExpiredStatistics() throws InterruptedException {
+    // given
+    AtomicInteger loads = new AtomicInteger();
+    IndexQueryPlanner planner = new IndexQueryPlanner(key -> {
+      if (loads.incrementAndGet() > 2) {
+        throw new RuntimeException("Statistics query timed out");
+      }
+      return makeStatistics(key, 2, 10);
+    }, TTL_MS, Runnable::run);
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_second, _first));
+
+    // when
+    Thread.sleep(TTL_MS * 2);
+
+    // then
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_second, _first));
+    assertEquals(planner.plan(Arrays.asList(_first, _second)), Arrays.asList(_second, _first));
+    assertEquals(loads.get(), 4);
+  }
+
+  private static IndexQueryPlanner.Statistics makeStatistics(IndexQueryPlanner.StatisticsKey key, long firstDistinct,
+      long secondDistinct) {
+    return new IndexQueryPlanner.Statistics(100, key.getPath().equals("/first") ? firstDistinct : secondDistinct);
+  }
+
+  private static IndexCriterion makeCriterion(String path) {
+    IndexValue value = new IndexValue();
+    value.setString("value");
+    return new IndexCriterion().setAspect("aspect").setPathParams(new IndexPathParams().setPath(path).setValue(value));
+  }
+}
@@ -0,0 +1,81 @@
+package com.linkedin.metadata.dao;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.testing.AspectFoo;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.testng.annotations.Test;
+
+import static com.linkedin.testing.TestUtils.*;
+import static org.testng.Assert.*;
+
+
+public class StreamingAspectLoaderTest {
+
+  @Test
+  public void testLoadInBatches() throws IOException {
+    StringBuilder json = new StringBuilder("{");
+    for (int i = 1; i <= 5; i++) {
+      json.append(i > 1 ? "," : "").append("\"urn:li:foo:").append(i).append("\": {\"value\": \"").append(i).append("\"}");
+    }
+    json.append("}");
+
+    List<Map<Urn, AspectFoo>> batches = new ArrayList<>();
+    long count = new StreamingAspectLoader<Urn, AspectFoo>(AspectFoo.class, 2, 2).load(toStream(json.toString()),
+        batches::add);
+
+    assertEquals(count, 5);
+    assertEquals(batches.size(), 3);
+    List<Urn> urns = new ArrayList<>();
+    batches.forEach(batch -> urns.addAll(batch.keySet()));
+    assertEquals(urns, Arrays.asList(makeFooUrn(1), makeFooUrn(2), makeFooUrn(3), makeFooUrn(4), makeFooUrn(5)));
+    assertEquals(batches.get(2).get(makeFooUrn(5)), new AspectFoo().setValue("5"));
+  }
+
+  @Test
+  public void testLoadEmptyMap() throws IOException {
+    List<Map<Urn, AspectFoo>> batches = new ArrayList<>();
+
+    assertEquals(new StreamingAspectLoader<Urn, AspectFoo>(AspectFoo.class, 2, 2).load(toStream("{}"), batches::add), 0);
+    assertTrue(batches.isEmpty());
+  }
+
+  @Test
+  public void testMalformedInput() {
+    StreamingAspectLoader<Urn, AspectFoo> loader = new StreamingAspectLoader<>(AspectFoo.class, 2, 2);
+
+    assertThrows(IOException.class, () -> loader.load(toStream("[]"), batch -> { }));
+    assertThrows(IOException.class, () -> loader.load(toStream("{\"urn:li:foo:1\": \"1\"}"), batch -> { }));
+    assertThrows(IOException.class, () -> loader.load(toStream("{\"urn:li:foo:1\": {\"value\": "), batch -> { }));
+  }
+
+  @Test
+  public void testInvalidUrn() {
+    StreamingAspectLoader<Urn, AspectFoo> loader = new StreamingAspectLoader<>(AspectFoo.class, 2, 2);
+
+    try {
+      loader.load(toStream("{\"foo\": {\"value\": \"1\"}}"), batch -> { });
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getCause() instanceof URISyntaxException);
+    } catch (IOException e) {
+      fail("Unexpected IOException", e);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidBatchSize() {
+    new StreamingAspectLoader<Urn, AspectFoo>(AspectFoo.class, 0, 2);
+  }
+
+  private static InputStream toStream(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,67 @@
+package com.linkedin.metadata.dao.codec;
+
+import com.linkedin.metadata.dao.exception.ModelConversionException;
+import com.linkedin.testing.AspectFoo;
+import com.linkedin.testing.AspectFooArray;
+import com.linkedin.testing.MixedRecord;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class AspectCodecsTest {
+
+  private static final AspectFoo FOO = new AspectFoo().setValue("foo");
+
+  @Test
+  public void testRoundTrip() {
+    for (AspectCodec codec : new AspectCodec[]{AspectCodecs.JSON, AspectCodecs.DEFLATED_PSON}) {
+      String payload = codec.encode(FOO);
+
+      assertTrue(codec.canDecode(payload));
+      assertEquals(codec.decode(AspectFoo.class, payload), FOO);
+    }
+  }
+
+  @Test
+  public void testFormatsAreDistinguishable() {
+    assertFalse(AspectCodecs.JSON.canDecode(AspectCodecs.DEFLATED_PSON.encode(FOO)));
+    assertFalse(AspectCodecs.DEFLATED_PSON.canDecode(AspectCodecs.JSON.encode(FOO)));
+  }
+
+  @Test
+  public void testDecodeMixedFormats() {
+    String json = AspectCodecs.JSON.encode(FOO);
+    String deflatedPson = AspectCodecs.DEFLATED_PSON.encode(FOO);
+
+    for (AspectCodec codec : new AspectCodec[]{AspectCodecs.JSON, AspectCodecs.DEFLATED_PSON}) {
+      assertEquals(AspectCodecs.decode(codec, AspectFoo.class, json), FOO);
+      assertEquals(AspectCodecs.decode(codec, AspectFoo.class, deflatedPson), FOO);
+    }
+  }
+
+  @Test
+  public void testPayloadSize() {
+    // Large aspects like schemas repeat the same field names and similar values many times
+    List<AspectFoo> fields = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      fields.add(new AspectFoo().setValue("urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hive,db.table,PROD),"
+          + "column_" + i + ")"));
+    }
+    MixedRecord large = new MixedRecord().setValue("table").setRecordArray(new AspectFooArray(fields));
+
+    String json = AspectCodecs.JSON.encode(large);
+    String deflatedPson = AspectCodecs.DEFLATED_PSON.encode(large);
+
+    assertEquals(AspectCodecs.DEFLATED_PSON.decode(MixedRecord.class, deflatedPson), large);
+    // Well under the JSON payload, even after Base64 adds a third to the compressed bytes
+    assertTrue(deflatedPson.length() * 4 < json.length(), deflatedPson.length() + " vs " + json.length());
+  }
+
+  @Test(expectedExceptions = ModelConversionException.class)
+  public void testDecodeUnknownFormat() {
+    AspectCodecs.decode(AspectCodecs.JSON, AspectFoo.class, "#unknown:foo");
+  }
+}
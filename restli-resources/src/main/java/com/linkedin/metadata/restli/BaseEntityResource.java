@@ -2,6 +2,7 @@ package com.linkedin.metadata.restli;
 
 import com.linkedin.common.AuditStamp;
 import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.LongMap;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.data.template.StringArray;
 import com.linkedin.data.template.UnionTemplate;
@@ -182,11 +183,13 @@ public abstract class BaseEntityResource<
     return RestliUtils.toTask(() -> {
       final URN urn = (URN) ModelUtils.getUrnFromSnapshot(snapshot);
       final AuditStamp auditStamp = getAuditor().requestAuditStamp(getContext().getRawRequestContext());
-      ModelUtils.getAspectsFromSnapshot(snapshot).stream().forEach(aspect -> {
-        if (!aspectsToIgnore.contains(aspect.getClass())) {
-          getLocalDAO().add(urn, aspect, auditStamp);
-        }
-      });
+      // The last value of an aspect that appears more than once in the snapshot wins, like when each one was added
+      final Map<Class<? extends RecordTemplate>, RecordTemplate> aspects = new LinkedHashMap<>();
+      ModelUtils.getAspectsFromSnapshot(snapshot)
+          .stream()
+          .filter(aspect -> !aspectsToIgnore.contains(aspect.getClass()))
+          .forEach(aspect -> aspects.put(aspect.getClass(), aspect));
+      getLocalDAO().addMany(urn, new ArrayList<>(aspects.values()), auditStamp);
       return null;
     });
   }
@@ -334,6 +337,42 @@ public abstract class BaseEntityResource<
             .toArray(new String[0]));
   }
 
+  /**
+   * An action method for counting the urns from local secondary index that satisfy the given filter conditions.
+   * If no filter conditions are provided, then it counts urns of given entity type.
+   *
+   * @param indexFilter {@link IndexFilter} that defines the filter conditions
+   * @return number of urns that satisfy the filter conditions
+   */
+  @Action(name = ACTION_COUNT_URNS)
+  @Nonnull
+  public Task<Long> countUrns(@ActionParam(PARAM_FILTER) @Optional @Nullable IndexFilter indexFilter) {
+
+    final IndexFilter filter = indexFilter == null ? getDefaultIndexFilter() : indexFilter;
+
+    return RestliUtils.toTask(() -> getLocalDAO().countUrns(filter));
+  }
+
+  /**
+   * An action method for counting the urns from local secondary index that satisfy the given filter conditions,
+   * grouped by their value of the given path of an aspect.
+   * If no filter conditions are provided, then it counts urns of given entity type.
+   *
+   * @param indexFilter {@link IndexFilter} that defines the filter conditions
+   * @param aspect canonical class name of the aspect whose values are grouped by
+   * @param path path of the aspect whose values are grouped by
+   * @return map of the string representation of each value of the path to the number of urns with that value
+   */
+  @Action(name = ACTION_COUNT_BY_PATH)
+  @Nonnull
+  public Task<LongMap> countByPath(@ActionParam(PARAM_FILTER) @Optional @Nullable IndexFilter indexFilter,
+      @ActionParam(PARAM_ASPECT) @Nonnull String aspect, @ActionParam(PARAM_PATH) @Nonnull String path) {
+
+    final IndexFilter filter = indexFilter == null ? getDefaultIndexFilter() : indexFilter;
+
+    return RestliUtils.toTask(() -> new LongMap(getLocalDAO().countByPath(filter, aspect, path)));
+  }
+
   /**
    * Returns ordered list of values of multiple entities obtained after filtering urns
    * from local secondary index. The returned list is ordered lexicographically by the string representation of the URN.
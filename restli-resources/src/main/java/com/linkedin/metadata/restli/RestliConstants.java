@@ -11,12 +11,15 @@ public final class RestliConstants {
   public static final String ACTION_BACKFILL_WITH_URNS = "backfillWithUrns";
   public static final String ACTION_BACKFILL_LEGACY = "backfillLegacy";
   public static final String ACTION_BROWSE = "browse";
+  public static final String ACTION_COUNT_BY_PATH = "countByPath";
+  public static final String ACTION_COUNT_URNS = "countUrns";
   public static final String ACTION_GET_BROWSE_PATHS = "getBrowsePaths";
   public static final String ACTION_GET_SNAPSHOT = "getSnapshot";
   public static final String ACTION_INGEST = "ingest";
   public static final String ACTION_LIST_URNS_FROM_INDEX = "listUrnsFromIndex";
 
   public static final String PARAM_INPUT = "input";
+  public static final String PARAM_ASPECT = "aspect";
   public static final String PARAM_ASPECTS = "aspects";
   public static final String PARAM_FILTER = "filter";
   public static final String PARAM_SORT = "sort";
@@ -2,6 +2,7 @@ package com.linkedin.metadata.restli;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.linkedin.data.template.LongMap;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.metadata.backfill.BackfillMode;
 import com.linkedin.metadata.dao.AspectKey;
@@ -244,8 +245,23 @@ public class BaseEntityResourceTest extends BaseEngineTest {
 
     runAndWait(_resource.ingest(snapshot));
 
-    verify(_mockLocalDAO, times(1)).add(eq(urn), eq(foo), any());
-    verify(_mockLocalDAO, times(1)).add(eq(urn), eq(bar), any());
+    verify(_mockLocalDAO, times(1)).addMany(eq(urn), eq(Arrays.asList(foo, bar)), any());
+    verifyNoMoreInteractions(_mockLocalDAO);
+  }
+
+  @Test
+  public void testIngestSameAspectTwice() {
+    FooUrn urn = makeFooUrn(1);
+    AspectFoo foo1 = new AspectFoo().setValue("foo1");
+    AspectBar bar = new AspectBar().setValue("bar");
+    AspectFoo foo2 = new AspectFoo().setValue("foo2");
+    List<EntityAspectUnion> aspects = Arrays.asList(ModelUtils.newAspectUnion(EntityAspectUnion.class, foo1),
+        ModelUtils.newAspectUnion(EntityAspectUnion.class, bar), ModelUtils.newAspectUnion(EntityAspectUnion.class, foo2));
+    EntitySnapshot snapshot = ModelUtils.newSnapshot(EntitySnapshot.class, urn, aspects);
+
+    runAndWait(_resource.ingest(snapshot));
+
+    verify(_mockLocalDAO, times(1)).addMany(eq(urn), eq(Arrays.asList(foo2, bar)), any());
     verifyNoMoreInteractions(_mockLocalDAO);
   }
 
@@ -260,7 +276,7 @@ public class BaseEntityResourceTest extends BaseEngineTest {
 
     runAndWait(_resource.ingestInternal(snapshot, Collections.singleton(AspectBar.class)));
 
-    verify(_mockLocalDAO, times(1)).add(eq(urn), eq(foo), any());
+    verify(_mockLocalDAO, times(1)).addMany(eq(urn), eq(Collections.singletonList(foo)), any());
     verifyNoMoreInteractions(_mockLocalDAO);
   }
 
@@ -448,6 +464,34 @@ public class BaseEntityResourceTest extends BaseEngineTest {
     assertEquals(actual, new String[]{urn1.toString(), urn2.toString()});
   }
 
+  @Test
+  public void testCountUrns() {
+    IndexCriterion indexCriterion1 = new IndexCriterion().setAspect("aspect1");
+    IndexFilter indexFilter1 = new IndexFilter().setCriteria(new IndexCriterionArray(indexCriterion1));
+    when(_mockLocalDAO.countUrns(indexFilter1)).thenReturn(3L);
+
+    assertEquals(runAndWait(_resource.countUrns(indexFilter1)), Long.valueOf(3L));
+
+    // indexFilter is null
+    IndexCriterion indexCriterion2 = new IndexCriterion().setAspect(FooUrn.class.getCanonicalName());
+    IndexFilter indexFilter2 = new IndexFilter().setCriteria(new IndexCriterionArray(indexCriterion2));
+    when(_mockLocalDAO.countUrns(indexFilter2)).thenReturn(5L);
+
+    assertEquals(runAndWait(_resource.countUrns(null)), Long.valueOf(5L));
+  }
+
+  @Test
+  public void testCountByPath() {
+    IndexCriterion indexCriterion = new IndexCriterion().setAspect("aspect1");
+    IndexFilter indexFilter = new IndexFilter().setCriteria(new IndexCriterionArray(indexCriterion));
+    String aspect = AspectFoo.class.getCanonicalName();
+    when(_mockLocalDAO.countByPath(indexFilter, aspect, "/value")).thenReturn(ImmutableMap.of("foo", 2L, "bar", 1L));
+
+    LongMap actual = runAndWait(_resource.countByPath(indexFilter, aspect, "/value"));
+
+    assertEquals(actual, new LongMap(ImmutableMap.of("foo", 2L, "bar", 1L)));
+  }
+
   @Test
   public void testFilterFromIndexEmptyAspects() {
     // case 1: indexFilter is non-null
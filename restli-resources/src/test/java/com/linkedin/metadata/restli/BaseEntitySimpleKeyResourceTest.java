@@ -173,8 +173,7 @@ public class BaseEntitySimpleKeyResourceTest extends BaseEngineTest {
 
     runAndWait(_resource.ingest(snapshot));
 
-    verify(_mockLocalDAO, times(1)).add(eq(urn), eq(foo), any());
-    verify(_mockLocalDAO, times(1)).add(eq(urn), eq(bar), any());
+    verify(_mockLocalDAO, times(1)).addMany(eq(urn), eq(Arrays.asList(foo, bar)), any());
     verifyNoMoreInteractions(_mockLocalDAO);
   }
 
@@ -134,7 +134,7 @@ public class BaseSingleAspectEntitySimpleKeyResourceTest extends BaseEngineTest
 
     runAndWait(_resource.ingest(snapshot));
 
-    verify(_mockLocalDao, times(1)).add(eq(urn), eq(aspect), any());
+    verify(_mockLocalDao, times(1)).addMany(eq(urn), eq(Collections.singletonList(aspect)), any());
     verifyNoMoreInteractions(_mockLocalDao);
   }
 